@@ -36,6 +36,8 @@ import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.EmbeddedValueResolver;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
@@ -76,6 +78,8 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 
 	private final Map<Method, AsyncTaskExecutor> executors = new ConcurrentHashMap<>(16);
 
+	private final Map<Method, Integer> taskOrders = new ConcurrentHashMap<>(16);
+
 	private SingletonSupplier<Executor> defaultExecutor;
 
 	private SingletonSupplier<AsyncUncaughtExceptionHandler> exceptionHandler;
@@ -197,6 +201,44 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	@Nullable
 	protected abstract String getExecutorQualifier(Method method);
 
+	/**
+	 * Determine the order of the tasks for the given async method, which executors
+	 * such as {@code org.springframework.scheduling.concurrent.EagerThreadPoolTaskExecutor}
+	 * use as task priority.
+	 * <p>The default implementation checks for
+	 * {@link org.springframework.core.annotation.Order @Order} or
+	 * {@code @jakarta.annotation.Priority} on the method. Note that such an
+	 * order declaration doubles as task priority: for example, the {@code @Order}
+	 * on an asynchronous {@code @EventListener} method determines both the order
+	 * of the listener and the priority of its tasks. Override this method to
+	 * derive the priority from other metadata, or to return
+	 * {@link Ordered#LOWEST_PRECEDENCE} for no priority at all.
+	 * @param method the method to inspect for order metadata
+	 * @return the order value, or {@link Ordered#LOWEST_PRECEDENCE} if none
+	 * has been declared
+	 * @since 6.0
+	 * @see #prioritizeTask(Callable, Method)
+	 */
+	protected int determineTaskOrder(Method method) {
+		return this.taskOrders.computeIfAbsent(method, key -> {
+			Integer order = OrderUtils.getOrder(key);
+			return (order != null ? order : Ordered.LOWEST_PRECEDENCE);
+		});
+	}
+
+	/**
+	 * Expose the {@link #determineTaskOrder task order} of the given async method
+	 * on the given task, through the {@link Ordered} interface.
+	 * @param task the task to execute
+	 * @param method the async method
+	 * @return the task to submit to the executor
+	 * @since 6.0
+	 */
+	protected Callable<Object> prioritizeTask(Callable<Object> task, Method method) {
+		int order = determineTaskOrder(method);
+		return (order != Ordered.LOWEST_PRECEDENCE ? new OrderedCallable(task, order) : task);
+	}
+
 	/**
 	 * Retrieve a target executor for the given qualifier.
 	 * @param qualifier the qualifier to resolve
@@ -279,6 +321,12 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	@Nullable
 	protected Object doSubmit(Callable<Object> task, AsyncTaskExecutor executor, Class<?> returnType) {
 		if (CompletableFuture.class.isAssignableFrom(returnType)) {
+			Executor targetExecutor = executor;
+			if (task instanceof Ordered ordered) {
+				// Keep the priority for the Runnable that CompletableFuture submits
+				int order = ordered.getOrder();
+				targetExecutor = command -> executor.execute(new OrderedRunnable(command, order));
+			}
 			return CompletableFuture.supplyAsync(() -> {
 				try {
 					return task.call();
@@ -286,7 +334,7 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 				catch (Throwable ex) {
 					throw new CompletionException(ex);
 				}
-			}, executor);
+			}, targetExecutor);
 		}
 		else if (ListenableFuture.class.isAssignableFrom(returnType)) {
 			return ((AsyncListenableTaskExecutor) executor).submitListenable(task);
@@ -332,4 +380,38 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 		}
 	}
 
+
+	/**
+	 * Callable exposing the order of an async method as task priority.
+	 */
+	private record OrderedCallable(Callable<Object> delegate, int order) implements Callable<Object>, Ordered {
+
+		@Override
+		public Object call() throws Exception {
+			return this.delegate.call();
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
+
+	/**
+	 * Runnable exposing the order of an async method as task priority.
+	 */
+	private record OrderedRunnable(Runnable delegate, int order) implements Runnable, Ordered {
+
+		@Override
+		public void run() {
+			this.delegate.run();
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
 }
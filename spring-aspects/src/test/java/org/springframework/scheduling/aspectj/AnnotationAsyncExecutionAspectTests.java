@@ -29,6 +29,8 @@ import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.testfixture.EnabledForTestGroups;
 import org.springframework.scheduling.annotation.Async;
@@ -73,6 +75,16 @@ public class AnnotationAsyncExecutionAspectTests {
 		assertThat(executor.submitCompleteCounter).isEqualTo(1);
 	}
 
+	@Test
+	public void asyncMethodWithOrderGetsPrioritized() {
+		ClassWithoutAsyncAnnotation obj = new ClassWithoutAsyncAnnotation();
+		obj.incrementAsyncWithOrder();
+		executor.waitForCompletion();
+		assertThat(obj.counter).isEqualTo(1);
+		assertThat(executor.lastTask).isInstanceOf(Ordered.class);
+		assertThat(((Ordered) executor.lastTask).getOrder()).isEqualTo(5);
+	}
+
 	@Test
 	public void asyncMethodReturningFutureGetsRoutedAsynchronouslyAndReturnsAFuture() throws InterruptedException, ExecutionException {
 		ClassWithoutAsyncAnnotation obj = new ClassWithoutAsyncAnnotation();
@@ -185,8 +197,11 @@ public class AnnotationAsyncExecutionAspectTests {
 
 		int submitCompleteCounter;
 
+		volatile Callable<?> lastTask;
+
 		@Override
 		public <T> Future<T> submit(Callable<T> task) {
+			lastTask = task;
 			submitStartCounter++;
 			Future<T> future = super.submit(task);
 			submitCompleteCounter++;
@@ -215,6 +230,10 @@ public class AnnotationAsyncExecutionAspectTests {
 			counter++;
 		}
 
+		@Async @Order(5) public void incrementAsyncWithOrder() {
+			counter++;
+		}
+
 		public void increment() {
 			counter++;
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,22 @@ public class AnnotationProcessorBenchmark {
 		return tb.getSpouse();
 	}
 
+	@Benchmark
+	public ITestBean contextCreation(BenchmarkState state) {
+		GenericApplicationContext context = new GenericApplicationContext();
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		context.registerBeanDefinition("test", state.context.getBeanDefinition("test").cloneBeanDefinition());
+		context.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		context.refresh();
+		try {
+			TestBean tb = context.getBean("test", TestBean.class);
+			return tb.getSpouse();
+		}
+		finally {
+			context.close();
+		}
+	}
+
 
 	private static class ResourceAnnotatedTestBean extends org.springframework.beans.testfixture.beans.TestBean {
 
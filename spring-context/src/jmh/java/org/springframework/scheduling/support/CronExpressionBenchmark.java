@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for calculating the next execution time of a {@link CronExpression}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CronExpressionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"0 0 * * * *", "*/5 * * * * *", "0 15 10 ? * MON-FRI", "0 0 0 L * *"})
+		public String expression;
+
+		public CronExpression cronExpression;
+
+		public ZonedDateTime dateTime;
+
+		@Setup
+		public void setup() {
+			this.cronExpression = CronExpression.parse(this.expression);
+			this.dateTime = ZonedDateTime.of(LocalDateTime.of(2022, 3, 15, 10, 30, 12), ZoneId.of("Europe/Paris"));
+		}
+	}
+
+	@Benchmark
+	public ZonedDateTime next(BenchmarkState state) {
+		return state.cronExpression.next(state.dateTime);
+	}
+
+	@Benchmark
+	public CronExpression parse(BenchmarkState state) {
+		return CronExpression.parse(state.expression);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * receiving events in batches where possible.
+ *
+ * <p>A {@link SimpleApplicationEventMulticaster} with
+ * {@linkplain SimpleApplicationEventMulticaster#setListenerQueueCapacity
+ * listener queues} hands all events queued for such a listener over in a
+ * single call, up to its {@linkplain SimpleApplicationEventMulticaster#setMaxBatchSize
+ * max batch size}. Otherwise, events are handed over one at a time.
+ *
+ * @since 6.0
+ * @param <E> the specific {@code ApplicationEvent} subclass to listen to
+ * @see SimpleApplicationEventMulticaster#setListenerQueueCapacity
+ */
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle the given application events, in the order of their publication.
+	 * @param events the events to respond to (never empty)
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Delegates to {@link #onApplicationEvents(List)} with a single event.
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(List.of(event));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,31 @@
 
 package org.springframework.context.event;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ResolvableType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -42,6 +56,14 @@ import org.springframework.util.ErrorHandler;
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
  *
+ * <p>With a task executor, each listener is by default invoked in a task of its
+ * own for every event. Alternatively, events can be queued per listener through
+ * a {@linkplain #setListenerQueueCapacity listener queue capacity}, with a
+ * single task at a time delivering the queued events to a listener in order of
+ * publication, in batches for a {@link BatchApplicationListener}. This bounds
+ * the memory and executor capacity that a burst of events may take up, as
+ * determined by the {@linkplain #setOverflowPolicy overflow policy}.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -50,12 +72,40 @@ import org.springframework.util.ErrorHandler;
  */
 public class SimpleApplicationEventMulticaster extends AbstractApplicationEventMulticaster {
 
+	/**
+	 * The default maximum number of events delivered to a listener per task.
+	 * @since 6.0
+	 * @see #setMaxBatchSize
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	/**
+	 * Marks threads that deliver queued events, which must not block on a full
+	 * listener queue since they may take up all threads of the task executor.
+	 */
+	private static final ThreadLocal<Boolean> queuedEventDelivery =
+			new NamedThreadLocal<>("Queued event delivery");
+
+
 	@Nullable
 	private Executor taskExecutor;
 
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private int listenerQueueCapacity = 0;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private final Map<ApplicationListener<?>, ListenerQueue> listenerQueues = new ConcurrentHashMap<>();
+
+	private final LongAdder droppedEventCount = new LongAdder();
+
+	@Nullable
+	private ConfigurableBeanFactory beanFactory;
+
 	@Nullable
 	private volatile Log lazyLogger;
 
@@ -126,6 +176,133 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Set the maximum number of events to queue per listener when a
+	 * {@linkplain #setTaskExecutor task executor} is specified, with a single
+	 * task at a time delivering queued events to each listener.
+	 * <p>Default is 0, submitting a task per listener for every event instead,
+	 * without any bound and without ordering guarantees. Listener queues are
+	 * kept per listener instance: this mode is not meant for prototype-scoped
+	 * listener beans.
+	 * @since 6.0
+	 * @see #setOverflowPolicy
+	 * @see #setMaxBatchSize
+	 */
+	public void setListenerQueueCapacity(int listenerQueueCapacity) {
+		Assert.isTrue(listenerQueueCapacity >= 0, "Listener queue capacity must not be negative");
+		this.listenerQueueCapacity = listenerQueueCapacity;
+	}
+
+	/**
+	 * Set the policy for events published while the queue of a listener is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 * @since 6.0
+	 * @see #setListenerQueueCapacity
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the maximum number of queued events to deliver to a listener per task,
+	 * i.e. the maximum number of events per call for a {@link BatchApplicationListener}.
+	 * <p>Default is {@value #DEFAULT_MAX_BATCH_SIZE}.
+	 * @since 6.0
+	 * @see #setListenerQueueCapacity
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be positive");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the number of events currently queued for all listeners.
+	 * @since 6.0
+	 * @see #setListenerQueueCapacity
+	 */
+	public int getQueuedEventCount() {
+		int count = 0;
+		for (ListenerQueue listenerQueue : this.listenerQueues.values()) {
+			count += listenerQueue.queue.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the number of events that have been dropped so far due to
+	 * {@link OverflowPolicy#DROP}.
+	 * @since 6.0
+	 */
+	public long getDroppedEventCount() {
+		return this.droppedEventCount.sum();
+	}
+
+	/**
+	 * Return the time that the oldest event currently queued for the given
+	 * listener has been waiting for delivery.
+	 * @param listener the listener to check
+	 * @return the lag of the given listener, or {@link Duration#ZERO}
+	 * if no events are queued for it
+	 * @since 6.0
+	 */
+	public Duration getEventLag(ApplicationListener<?> listener) {
+		ListenerQueue listenerQueue = this.listenerQueues.get(listener);
+		return (listenerQueue != null ? listenerQueue.getLag() : Duration.ZERO);
+	}
+
+	/**
+	 * Return the maximum {@link #getEventLag event lag} across all listeners.
+	 * @since 6.0
+	 */
+	public Duration getMaxEventLag() {
+		Duration maxLag = Duration.ZERO;
+		for (ListenerQueue listenerQueue : this.listenerQueues.values()) {
+			Duration lag = listenerQueue.getLag();
+			if (lag.compareTo(maxLag) > 0) {
+				maxLag = lag;
+			}
+		}
+		return maxLag;
+	}
+
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		removeListenerBeanQueues(listenerBeanName::equals);
+	}
+
+	@Override
+	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+		super.removeApplicationListeners(predicate);
+		this.listenerQueues.keySet().removeIf(predicate);
+	}
+
+	@Override
+	public void removeApplicationListenerBeans(Predicate<String> predicate) {
+		super.removeApplicationListenerBeans(predicate);
+		removeListenerBeanQueues(predicate);
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerQueues.clear();
+	}
+
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
 		multicastEvent(event, resolveDefaultEventType(event));
@@ -136,7 +313,10 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		Executor executor = getTaskExecutor();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			if (executor != null) {
+			if (executor != null && this.listenerQueueCapacity > 0) {
+				this.listenerQueues.computeIfAbsent(listener, ListenerQueue::new).enqueue(event);
+			}
+			else if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
 			else {
@@ -149,6 +329,26 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return ResolvableType.forInstance(event);
 	}
 
+	/**
+	 * Remove the listener queues of the matching listener beans. Queues are only
+	 * created for listener instances, so singletons that have not been created
+	 * yet can be skipped.
+	 */
+	private void removeListenerBeanQueues(Predicate<String> predicate) {
+		ConfigurableBeanFactory beanFactory = this.beanFactory;
+		if (beanFactory == null || this.listenerQueues.isEmpty()) {
+			return;
+		}
+		for (String beanName : beanFactory.getSingletonNames()) {
+			if (predicate.test(beanName)) {
+				Object listener = beanFactory.getSingleton(beanName);
+				if (listener != null) {
+					this.listenerQueues.remove(listener);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Invoke the given listener with the given event.
 	 * @param listener the ApplicationListener to invoke
@@ -170,6 +370,52 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Invoke the given batch listener with the given events.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void invokeBatchListener(BatchApplicationListener listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				doInvokeBatchListener(listener, events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			doInvokeBatchListener(listener, events);
+		}
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private void doInvokeBatchListener(BatchApplicationListener listener, List<ApplicationEvent> events) {
+		try {
+			listener.onApplicationEvents(events);
+		}
+		catch (ClassCastException ex) {
+			String msg = ex.getMessage();
+			if (msg == null || events.stream().anyMatch(event -> matchesClassCastMessage(msg, event.getClass()) ||
+					(event instanceof PayloadApplicationEvent &&
+							matchesClassCastMessage(msg, ((PayloadApplicationEvent) event).getPayload().getClass())))) {
+				// Possibly a lambda-defined listener which we could not resolve the generic event type for
+				// -> let's suppress the exception, as for a single event.
+				Log loggerToUse = this.lazyLogger;
+				if (loggerToUse == null) {
+					loggerToUse = LogFactory.getLog(getClass());
+					this.lazyLogger = loggerToUse;
+				}
+				if (loggerToUse.isTraceEnabled()) {
+					loggerToUse.trace("Non-matching event type for batch listener: " + listener, ex);
+				}
+			}
+			else {
+				throw ex;
+			}
+		}
+	}
+
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void doInvokeListener(ApplicationListener listener, ApplicationEvent event) {
 		try {
@@ -215,4 +461,175 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+	/**
+	 * Enumeration of the policies for events published while the queue
+	 * of a listener is full.
+	 * @since 6.0
+	 * @see #setOverflowPolicy
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the event can be queued.
+		 * <p>An event published while delivering queued events, e.g. by a
+		 * listener that publishes an event itself, is delivered right away in
+		 * the publishing thread instead, since blocking the threads of the task
+		 * executor could deadlock it. Other tasks running on the same executor
+		 * are not detected: they should not publish events with this policy,
+		 * leaving that to a separate publisher thread.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event for the listener, counting it as
+		 * {@linkplain #getDroppedEventCount() dropped}.
+		 */
+		DROP,
+
+		/**
+		 * Invoke the listener in the publishing thread, bypassing the queue.
+		 * Note that this gives up on the order of delivery.
+		 */
+		CALLER_RUNS
+	}
+
+
+	private record QueuedEvent(ApplicationEvent event, long queueTime) {
+	}
+
+
+	/**
+	 * Queue of events for a listener, with at most one task at a time
+	 * delivering queued events in order. Each task is submitted to the
+	 * current task executor, taking a replaced executor into account.
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private final ApplicationListener<?> listener;
+
+		final BlockingQueue<QueuedEvent> queue = new LinkedBlockingQueue<>(listenerQueueCapacity);
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		ListenerQueue(ApplicationListener<?> listener) {
+			this.listener = listener;
+		}
+
+		void enqueue(ApplicationEvent event) {
+			QueuedEvent queuedEvent = new QueuedEvent(event, System.nanoTime());
+			if (!this.queue.offer(queuedEvent)) {
+				switch (overflowPolicy) {
+					case BLOCK -> {
+						if (queuedEventDelivery.get() != null) {
+							// Publishing from a delivery task: run the listener instead of blocking
+							invokeListener(this.listener, event);
+							return;
+						}
+						try {
+							this.queue.put(queuedEvent);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							throw new IllegalStateException("Interrupted while waiting to queue event for listener " +
+									this.listener, ex);
+						}
+					}
+					case DROP -> {
+						droppedEventCount.increment();
+						return;
+					}
+					case CALLER_RUNS -> {
+						invokeListener(this.listener, event);
+						return;
+					}
+				}
+			}
+			scheduleIfNecessary();
+		}
+
+		private void scheduleIfNecessary() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				Executor executor = getTaskExecutor();
+				if (executor == null) {
+					// Task executor removed in the meantime: deliver in the calling thread
+					run();
+					return;
+				}
+				try {
+					executor.execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					this.scheduled.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			List<QueuedEvent> batch = new ArrayList<>(Math.min(maxBatchSize, this.queue.size()));
+			this.queue.drainTo(batch, maxBatchSize);
+			boolean outermostDelivery = (queuedEventDelivery.get() == null);
+			queuedEventDelivery.set(Boolean.TRUE);
+			try {
+				deliver(batch);
+			}
+			finally {
+				if (outermostDelivery) {
+					queuedEventDelivery.remove();
+				}
+				this.scheduled.set(false);
+				// Hand over to another task for remaining events, if any
+				if (!this.queue.isEmpty()) {
+					scheduleIfNecessary();
+				}
+			}
+		}
+
+		@SuppressWarnings("rawtypes")
+		private void deliver(List<QueuedEvent> batch) {
+			if (batch.isEmpty()) {
+				return;
+			}
+			if (this.listener instanceof BatchApplicationListener batchListener) {
+				List<ApplicationEvent> events = new ArrayList<>(batch.size());
+				for (QueuedEvent queuedEvent : batch) {
+					events.add(queuedEvent.event());
+				}
+				invokeBatchListener(batchListener, events);
+				return;
+			}
+			RuntimeException runtimeException = null;
+			Error error = null;
+			for (QueuedEvent queuedEvent : batch) {
+				// Keep delivering subsequent events if a listener invocation fails
+				try {
+					invokeListener(this.listener, queuedEvent.event());
+				}
+				catch (RuntimeException ex) {
+					if (runtimeException == null) {
+						runtimeException = ex;
+					}
+				}
+				catch (Error err) {
+					if (error == null) {
+						error = err;
+					}
+				}
+			}
+			if (error != null) {
+				throw error;
+			}
+			if (runtimeException != null) {
+				throw runtimeException;
+			}
+		}
+
+		Duration getLag() {
+			QueuedEvent oldest = this.queue.peek();
+			return (oldest != null ? Duration.ofNanos(System.nanoTime() - oldest.queueTime()) : Duration.ZERO);
+		}
+	}
+
 }
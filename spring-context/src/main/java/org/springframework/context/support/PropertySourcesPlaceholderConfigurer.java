@@ -89,6 +89,8 @@ public class PropertySourcesPlaceholderConfigurer extends PlaceholderConfigurerS
 	@Nullable
 	private Environment environment;
 
+	private boolean cachePropertyLookups = false;
+
 
 	/**
 	 * Customize the set of {@link PropertySources} to be used by this configurer.
@@ -111,6 +113,20 @@ public class PropertySourcesPlaceholderConfigurer extends PlaceholderConfigurerS
 		this.environment = environment;
 	}
 
+	/**
+	 * Set whether to cache the outcome of property lookups while resolving
+	 * placeholders, including those in {@code @Value} annotations that are
+	 * resolved through this configurer.
+	 * <p>Default is "false". Switch this flag on for a large number of
+	 * placeholders, with the content of the property sources expected to
+	 * remain stable.
+	 * @since 6.0
+	 * @see PropertySourcesPropertyResolver#setCachePropertyLookups
+	 */
+	public void setCachePropertyLookups(boolean cachePropertyLookups) {
+		this.cachePropertyLookups = cachePropertyLookups;
+	}
+
 
 	/**
 	 * Processing occurs by replacing ${...} placeholders in bean definitions by resolving each
@@ -142,6 +158,7 @@ public class PropertySourcesPlaceholderConfigurer extends PlaceholderConfigurerS
 					PropertySourcesPropertyResolver resolver =
 							new PropertySourcesPropertyResolver(configurableEnvironment.getPropertySources());
 					resolver.setIgnoreUnresolvableNestedPlaceholders(true);
+					resolver.setCachePropertyLookups(this.cachePropertyLookups);
 					propertyResolver = resolver;
 				}
 				PropertyResolver propertyResolverToUse = propertyResolver;
@@ -170,7 +187,9 @@ public class PropertySourcesPlaceholderConfigurer extends PlaceholderConfigurerS
 			}
 		}
 
-		processProperties(beanFactory, new PropertySourcesPropertyResolver(this.propertySources));
+		PropertySourcesPropertyResolver propertyResolver = new PropertySourcesPropertyResolver(this.propertySources);
+		propertyResolver.setCachePropertyLookups(this.cachePropertyLookups);
+		processProperties(beanFactory, propertyResolver);
 		this.appliedPropertySources = this.propertySources;
 	}
 
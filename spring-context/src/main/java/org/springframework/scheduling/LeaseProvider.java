@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling;
+
+import java.time.Duration;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy interface for obtaining named leases that are shared across
+ * processes, e.g. to ensure that a scheduled task only runs on one node
+ * of a cluster at a time.
+ *
+ * <p>A lease is held until it is {@linkplain Lease#release() released},
+ * or until its maximum duration has elapsed, whichever comes first. The
+ * maximum duration protects against leases that never get released, e.g.
+ * after a crash of the holding process.
+ *
+ * @since 6.0
+ * @see org.springframework.scheduling.support.CoordinatedRunnable
+ * @see org.springframework.scheduling.annotation.Scheduled#lease()
+ */
+@FunctionalInterface
+public interface LeaseProvider {
+
+	/**
+	 * Try to acquire the lease with the given name, without waiting.
+	 * @param name the name of the lease
+	 * @param maxDuration the maximum duration to hold the lease for
+	 * @return the acquired lease, or {@code null} if the lease is
+	 * currently held elsewhere
+	 */
+	@Nullable
+	Lease tryAcquire(String name, Duration maxDuration);
+
+
+	/**
+	 * A lease that has been acquired from a {@link LeaseProvider}.
+	 */
+	@FunctionalInterface
+	interface Lease {
+
+		/**
+		 * Release this lease, making it available for acquisition again.
+		 */
+		void release();
+	}
+
+}
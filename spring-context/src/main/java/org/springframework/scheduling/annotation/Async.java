@@ -45,6 +45,14 @@ import java.lang.annotation.Target;
  * through: for example, Spring's {@link AsyncResult}, EJB 3.1's {@link jakarta.ejb.AsyncResult},
  * or {@link java.util.concurrent.CompletableFuture#completedFuture(Object)}.
  *
+ * <p>An {@link org.springframework.core.annotation.Order @Order} or
+ * {@code @jakarta.annotation.Priority} declaration on an asynchronous method
+ * is exposed as task priority to executors that support it, such as
+ * {@link org.springframework.scheduling.concurrent.EagerThreadPoolTaskExecutor}.
+ * This also applies to an {@code @Order} that is primarily meant to order an
+ * {@link org.springframework.context.event.EventListener @EventListener} method
+ * among other listeners.
+ *
  * @author Juergen Hoeller
  * @author Chris Beams
  * @since 3.0
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.lang.annotation.Target;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.OverlapPolicy;
 
 /**
  * Annotation that marks a method to be scheduled. Exactly one of the
@@ -178,4 +179,39 @@ public @interface Scheduled {
 	 */
 	TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
 
+	/**
+	 * The policy to apply when a run is triggered while a previous run of the
+	 * annotated method is still in progress, which may happen for fixed-rate
+	 * and cron tasks on a scheduler with more than one thread.
+	 * <p>Defaults to {@link OverlapPolicy#ALLOW}.
+	 * @return the policy for overlapping runs
+	 * @since 6.0
+	 */
+	OverlapPolicy overlap() default OverlapPolicy.ALLOW;
+
+	/**
+	 * The name of a lease to acquire from the
+	 * {@link org.springframework.scheduling.LeaseProvider LeaseProvider} before
+	 * every run, e.g. to ensure that the annotated method only runs on one node
+	 * of a cluster at a time. A run is skipped if the lease is held elsewhere.
+	 * <p>Requires {@link #leaseDuration} to be specified, and a {@code LeaseProvider}
+	 * to be {@linkplain ScheduledAnnotationBeanPostProcessor#setLeaseProvider set}
+	 * or available as a bean.
+	 * @return the name of the lease &mdash; for example, a placeholder
+	 * @since 6.0
+	 */
+	String lease() default "";
+
+	/**
+	 * The maximum duration to hold the {@link #lease} for, in case it does not
+	 * get released, e.g. after a crash. Should exceed the expected duration of
+	 * a run.
+	 * <p>The time unit is milliseconds by default but can be overridden via
+	 * {@link #timeUnit}.
+	 * @return the lease duration as a String value &mdash; for example, a placeholder
+	 * or a {@link java.time.Duration#parse java.time.Duration} compliant value
+	 * @since 6.0
+	 */
+	String leaseDuration() default "";
+
 }
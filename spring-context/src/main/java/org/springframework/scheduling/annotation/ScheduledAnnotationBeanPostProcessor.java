@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,7 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.LeaseProvider;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.config.CronTask;
@@ -71,7 +72,9 @@ import org.springframework.scheduling.config.FixedRateTask;
 import org.springframework.scheduling.config.ScheduledTask;
 import org.springframework.scheduling.config.ScheduledTaskHolder;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CoordinatedRunnable;
 import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.OverlapPolicy;
 import org.springframework.scheduling.support.ScheduledMethodRunnable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -128,6 +131,9 @@ public class ScheduledAnnotationBeanPostProcessor
 	@Nullable
 	private Object scheduler;
 
+	@Nullable
+	private LeaseProvider leaseProvider;
+
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
@@ -185,6 +191,17 @@ public class ScheduledAnnotationBeanPostProcessor
 		this.scheduler = scheduler;
 	}
 
+	/**
+	 * Set the {@link LeaseProvider} to acquire {@link Scheduled#lease() leases}
+	 * from.
+	 * <p>If not specified, a unique {@code LeaseProvider} bean will be looked up
+	 * in the containing BeanFactory once the first lease is declared.
+	 * @since 6.0
+	 */
+	public void setLeaseProvider(LeaseProvider leaseProvider) {
+		this.leaseProvider = leaseProvider;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -396,7 +413,7 @@ public class ScheduledAnnotationBeanPostProcessor
 	 */
 	protected void processScheduled(Scheduled scheduled, Method method, Object bean) {
 		try {
-			Runnable runnable = createRunnable(bean, method);
+			Runnable runnable = coordinateRunnable(createRunnable(bean, method), scheduled);
 			boolean processedSchedule = false;
 			String errorMessage =
 					"Exactly one of the 'cron', 'fixedDelay(String)', or 'fixedRate(String)' attributes is required";
@@ -534,6 +551,47 @@ public class ScheduledAnnotationBeanPostProcessor
 		return new ScheduledMethodRunnable(target, invocableMethod);
 	}
 
+	/**
+	 * Apply the overlap policy and lease of the given {@code @Scheduled}
+	 * annotation to the given Runnable, if any.
+	 */
+	private Runnable coordinateRunnable(Runnable runnable, Scheduled scheduled) {
+		OverlapPolicy overlapPolicy = scheduled.overlap();
+		String lease = scheduled.lease();
+		if (StringUtils.hasText(lease) && this.embeddedValueResolver != null) {
+			lease = this.embeddedValueResolver.resolveStringValue(lease);
+		}
+		if (!StringUtils.hasLength(lease)) {
+			return (overlapPolicy != OverlapPolicy.ALLOW ? new CoordinatedRunnable(runnable, overlapPolicy) : runnable);
+		}
+
+		String leaseDurationString = scheduled.leaseDuration();
+		if (this.embeddedValueResolver != null) {
+			leaseDurationString = this.embeddedValueResolver.resolveStringValue(leaseDurationString);
+		}
+		Assert.isTrue(StringUtils.hasLength(leaseDurationString), "'leaseDuration' is required for 'lease'");
+		long leaseDuration;
+		try {
+			leaseDuration = convertToMillis(leaseDurationString, scheduled.timeUnit());
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException(
+					"Invalid leaseDuration value \"" + leaseDurationString + "\" - cannot parse into long");
+		}
+		return new CoordinatedRunnable(runnable, overlapPolicy,
+				obtainLeaseProvider(), lease, Duration.ofMillis(leaseDuration));
+	}
+
+	private LeaseProvider obtainLeaseProvider() {
+		LeaseProvider leaseProvider = this.leaseProvider;
+		if (leaseProvider == null) {
+			Assert.state(this.beanFactory != null, "BeanFactory must be set to find LeaseProvider by type");
+			leaseProvider = this.beanFactory.getBean(LeaseProvider.class);
+			this.leaseProvider = leaseProvider;
+		}
+		return leaseProvider;
+	}
+
 	private static long convertToMillis(long value, TimeUnit timeUnit) {
 		return TimeUnit.MILLISECONDS.convert(value, timeUnit);
 	}
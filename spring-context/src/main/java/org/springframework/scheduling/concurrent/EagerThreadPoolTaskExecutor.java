@@ -0,0 +1,503 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * Alternative to {@link ThreadPoolTaskExecutor} for latency-sensitive tasks,
+ * e.g. {@link org.springframework.scheduling.annotation.Async @Async} methods.
+ *
+ * <p>A standard {@code ThreadPoolExecutor} only starts threads beyond its core
+ * pool size once its queue is full. This executor rather starts a new thread,
+ * up to the {@link #setMaxPoolSize max pool size}, whenever a task is submitted
+ * while all existing threads are busy, and only queues tasks once the max pool
+ * size has been reached. Threads beyond the core pool size terminate after
+ * having been idle for the {@link #setKeepAliveSeconds keep-alive time}.
+ *
+ * <p>Queued tasks are ordered by priority: tasks that implement {@link Ordered}
+ * are taken in order of their {@link Ordered#getOrder() order value}, ahead of
+ * all other tasks, with tasks of equal priority taken in submission order.
+ * For {@code @Async} methods, the priority can be declared through
+ * {@link org.springframework.core.annotation.Order @Order} on the method.
+ *
+ * <p>Alternatively, a {@link ForkJoinPool} may be used as backend through
+ * {@link #setWorkStealing "workStealing"}, with its worker threads taking
+ * tasks from each other's queues. Task priorities and the core pool size
+ * do not apply in that case, and worker threads are always daemon threads.
+ *
+ * <p>Either way, this executor keeps track of the time that tasks have been
+ * waiting in the queue and the time they took to run, exposing the averages
+ * along with the current pool size, active count and queue size for
+ * monitoring purposes, e.g. through JMX.
+ *
+ * @since 6.0
+ * @see #setCorePoolSize
+ * @see #setMaxPoolSize
+ * @see #setQueueCapacity
+ * @see #setWorkStealing
+ * @see ThreadPoolTaskExecutor
+ */
+@SuppressWarnings("serial")
+public class EagerThreadPoolTaskExecutor extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
+
+	private int corePoolSize = 1;
+
+	private int maxPoolSize = Runtime.getRuntime().availableProcessors();
+
+	private int keepAliveSeconds = 60;
+
+	private int queueCapacity = Integer.MAX_VALUE;
+
+	private boolean workStealing = false;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+	@Nullable
+	private ThreadPoolExecutor threadPoolExecutor;
+
+	@Nullable
+	private PendingTaskForkJoinPool forkJoinPool;
+
+	@Nullable
+	private TaskQueue taskQueue;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	// Number of tasks that have been submitted but have not completed yet
+	private final AtomicInteger submittedCount = new AtomicInteger();
+
+	private final LongAdder completedTaskCount = new LongAdder();
+
+	private final LongAdder totalWaitNanos = new LongAdder();
+
+	private final LongAdder totalRunNanos = new LongAdder();
+
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+
+	/**
+	 * Set the number of threads to keep in the pool even when idle.
+	 * Default is 1.
+	 * <p>Not applicable to {@link #setWorkStealing work-stealing} mode.
+	 */
+	public void setCorePoolSize(int corePoolSize) {
+		Assert.isTrue(corePoolSize >= 0, "Core pool size must not be negative");
+		this.corePoolSize = corePoolSize;
+	}
+
+	/**
+	 * Return the number of threads to keep in the pool even when idle.
+	 */
+	public int getCorePoolSize() {
+		return this.corePoolSize;
+	}
+
+	/**
+	 * Set the maximum number of threads in the pool, i.e. the parallelism
+	 * in {@link #setWorkStealing work-stealing} mode.
+	 * Default is the number of available processors.
+	 */
+	public void setMaxPoolSize(int maxPoolSize) {
+		Assert.isTrue(maxPoolSize > 0, "Max pool size must be positive");
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/**
+	 * Return the maximum number of threads in the pool.
+	 */
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Set the time in seconds that threads beyond the core pool size may remain
+	 * idle before they terminate. Default is 60.
+	 */
+	public void setKeepAliveSeconds(int keepAliveSeconds) {
+		Assert.isTrue(keepAliveSeconds >= 0, "Keep-alive seconds must not be negative");
+		this.keepAliveSeconds = keepAliveSeconds;
+	}
+
+	/**
+	 * Return the time in seconds that threads beyond the core pool size may
+	 * remain idle before they terminate.
+	 */
+	public int getKeepAliveSeconds() {
+		return this.keepAliveSeconds;
+	}
+
+	/**
+	 * Set the maximum number of tasks waiting for a thread once the max pool
+	 * size has been reached, beyond which tasks get rejected.
+	 * Default is {@code Integer.MAX_VALUE}.
+	 * <p>Not applicable to {@link #setWorkStealing work-stealing} mode.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity >= 0, "Queue capacity must not be negative");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Specify whether to run tasks on a {@link ForkJoinPool} with the
+	 * {@link #setMaxPoolSize max pool size} as parallelism, rather than on a
+	 * {@link ThreadPoolExecutor} with a priority queue.
+	 * <p>Default is "false". Switch this to "true" for large numbers of
+	 * short-lived tasks of the same priority.
+	 * @see ForkJoinPool#ForkJoinPool(int, ForkJoinPool.ForkJoinWorkerThreadFactory,
+	 * Thread.UncaughtExceptionHandler, boolean)
+	 */
+	public void setWorkStealing(boolean workStealing) {
+		this.workStealing = workStealing;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * @see ThreadPoolTaskExecutor#setTaskDecorator
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		if (this.workStealing) {
+			this.forkJoinPool = new PendingTaskForkJoinPool(this.maxPoolSize, this::newForkJoinWorkerThread);
+			return this.forkJoinPool;
+		}
+
+		Assert.isTrue(this.corePoolSize <= this.maxPoolSize, "Core pool size must not exceed max pool size");
+		TaskQueue queue = new TaskQueue(this.queueCapacity);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
+				queue, threadFactory, (task, ex) -> {
+					// Lost the race for the last thread: queue after all if possible
+					if (ex.isShutdown() || !queue.force(task)) {
+						rejectedExecutionHandler.rejectedExecution(task, ex);
+					}
+				});
+		queue.executor = executor;
+		this.taskQueue = queue;
+		this.threadPoolExecutor = executor;
+		return executor;
+	}
+
+	private ForkJoinWorkerThread newForkJoinWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName(nextThreadName());
+		thread.setPriority(getThreadPriority());
+		return thread;
+	}
+
+	@Override
+	protected void cancelRemainingTask(Runnable task) {
+		super.cancelRemainingTask(task instanceof TrackedTask trackedTask ? trackedTask.original : task);
+	}
+
+
+	// Monitoring
+
+	/**
+	 * Return the current number of threads in the pool.
+	 */
+	public int getPoolSize() {
+		if (this.forkJoinPool != null) {
+			return this.forkJoinPool.getPoolSize();
+		}
+		return (this.threadPoolExecutor != null ? this.threadPoolExecutor.getPoolSize() : 0);
+	}
+
+	/**
+	 * Return the current number of threads that are running tasks.
+	 */
+	public int getActiveCount() {
+		if (this.forkJoinPool != null) {
+			return this.forkJoinPool.getActiveThreadCount();
+		}
+		return (this.threadPoolExecutor != null ? this.threadPoolExecutor.getActiveCount() : 0);
+	}
+
+	/**
+	 * Return the current number of tasks waiting for a thread.
+	 */
+	public int getQueueSize() {
+		if (this.forkJoinPool != null) {
+			return this.forkJoinPool.pendingTasks.size();
+		}
+		return (this.taskQueue != null ? this.taskQueue.size() : 0);
+	}
+
+	/**
+	 * Return the number of tasks that have completed so far, whether
+	 * successfully or not.
+	 */
+	public long getCompletedTaskCount() {
+		return this.completedTaskCount.sum();
+	}
+
+	/**
+	 * Return the average time that completed tasks have been waiting for a thread.
+	 */
+	public Duration getAverageWaitTime() {
+		long count = this.completedTaskCount.sum();
+		return Duration.ofNanos(count > 0 ? this.totalWaitNanos.sum() / count : 0);
+	}
+
+	/**
+	 * Return the longest time that a task has been waiting for a thread so far.
+	 */
+	public Duration getMaxWaitTime() {
+		return Duration.ofNanos(this.maxWaitNanos.get());
+	}
+
+	/**
+	 * Return the average time that completed tasks took to run.
+	 */
+	public Duration getAverageRunTime() {
+		long count = this.completedTaskCount.sum();
+		return Duration.ofNanos(count > 0 ? this.totalRunNanos.sum() / count : 0);
+	}
+
+
+	// AsyncListenableTaskExecutor implementation
+
+	@Override
+	public void execute(Runnable task) {
+		doExecute(task, task);
+	}
+
+	@Deprecated
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		doExecute(future, task);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		doExecute(future, task);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		doExecute(future, task);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		doExecute(future, task);
+		return future;
+	}
+
+	/**
+	 * Execute the given Runnable, with the priority of the given user task.
+	 */
+	private void doExecute(Runnable runnable, Object userTask) {
+		ExecutorService executor = getExecutor();
+		int order = (userTask instanceof Ordered ordered ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE);
+		Runnable decorated = (this.taskDecorator != null ? this.taskDecorator.decorate(runnable) : runnable);
+		TrackedTask trackedTask = new TrackedTask(decorated, runnable, order, this.sequence.getAndIncrement());
+		this.submittedCount.incrementAndGet();
+		try {
+			if (this.forkJoinPool != null) {
+				this.forkJoinPool.pendingTasks.add(trackedTask);
+			}
+			executor.execute(trackedTask);
+		}
+		catch (RejectedExecutionException ex) {
+			this.submittedCount.decrementAndGet();
+			if (this.forkJoinPool != null) {
+				this.forkJoinPool.pendingTasks.remove(trackedTask);
+			}
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + userTask, ex);
+		}
+	}
+
+	private ExecutorService getExecutor() {
+		if (this.forkJoinPool != null) {
+			return this.forkJoinPool;
+		}
+		Assert.state(this.threadPoolExecutor != null, "EagerThreadPoolTaskExecutor not initialized");
+		return this.threadPoolExecutor;
+	}
+
+
+	/**
+	 * Runnable holder that keeps track of wait and run times, ordered by priority.
+	 */
+	private final class TrackedTask implements Runnable {
+
+		private final Runnable task;
+
+		final Runnable original;
+
+		final int order;
+
+		final long sequence;
+
+		private final long submitTime = System.nanoTime();
+
+		TrackedTask(Runnable task, Runnable original, int order, long sequence) {
+			this.task = task;
+			this.original = original;
+			this.order = order;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public void run() {
+			if (forkJoinPool != null && !forkJoinPool.pendingTasks.remove(this)) {
+				// Already handed out on shutdown
+				return;
+			}
+			long startTime = System.nanoTime();
+			long waitTime = startTime - this.submitTime;
+			try {
+				this.task.run();
+			}
+			finally {
+				submittedCount.decrementAndGet();
+				totalRunNanos.add(System.nanoTime() - startTime);
+				totalWaitNanos.add(waitTime);
+				maxWaitNanos.accumulateAndGet(waitTime, Math::max);
+				completedTaskCount.increment();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.original.toString();
+		}
+	}
+
+
+	/**
+	 * Priority queue that declines tasks while the pool may still grow,
+	 * making the ThreadPoolExecutor start a new thread instead.
+	 */
+	private final class TaskQueue extends PriorityBlockingQueue<Runnable> {
+
+		private static final Comparator<Runnable> PRIORITY_ORDER =
+				Comparator.<Runnable>comparingInt(task -> ((TrackedTask) task).order)
+						.thenComparingLong(task -> ((TrackedTask) task).sequence);
+
+		private final int capacity;
+
+		@Nullable
+		ThreadPoolExecutor executor;
+
+		TaskQueue(int capacity) {
+			super(11, PRIORITY_ORDER);
+			this.capacity = capacity;
+		}
+
+		@Override
+		public boolean offer(Runnable task) {
+			ThreadPoolExecutor executor = this.executor;
+			if (executor != null) {
+				int poolSize = executor.getPoolSize();
+				if (poolSize < executor.getMaximumPoolSize() && submittedCount.get() > poolSize) {
+					// All threads busy: let the executor start another one
+					return false;
+				}
+			}
+			return force(task);
+		}
+
+		/**
+		 * Queue the given task unless the queue capacity has been reached.
+		 */
+		boolean force(Runnable task) {
+			// Capacity check is not atomic with the insertion: may be exceeded slightly
+			return (size() < this.capacity && super.offer(task));
+		}
+	}
+
+
+	/**
+	 * ForkJoinPool that keeps track of tasks which have not started yet,
+	 * handing them out on {@link #shutdownNow()} for cancellation.
+	 */
+	private static final class PendingTaskForkJoinPool extends ForkJoinPool {
+
+		final Set<Runnable> pendingTasks = ConcurrentHashMap.newKeySet();
+
+		PendingTaskForkJoinPool(int parallelism, ForkJoinWorkerThreadFactory threadFactory) {
+			super(parallelism, threadFactory, null, true);
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			List<Runnable> remainingTasks = new ArrayList<>(this.pendingTasks.size());
+			for (Runnable task : this.pendingTasks) {
+				if (this.pendingTasks.remove(task)) {
+					remainingTasks.add(task);
+				}
+			}
+			super.shutdownNow();
+			return remainingTasks;
+		}
+	}
+
+}
@@ -0,0 +1,854 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface for large numbers
+ * of scheduled tasks, keeping them in a hierarchical timing wheel rather than
+ * in the priority queue of a {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ *
+ * <p>A single ticker thread advances the wheel in steps of the configured
+ * {@link #setTickDuration tick duration}, handing due tasks over to a pool of
+ * worker threads. Adding, firing and cancelling a task takes constant time
+ * regardless of the number of scheduled tasks. Tasks run at the first tick
+ * at or after their scheduled time, so execution may be delayed by up to one
+ * tick but never happens early.
+ *
+ * <p>Tasks scheduled with a plain {@link CronTrigger} share a single wheel
+ * entry per cron expression and time zone: the next execution time is
+ * calculated once for all such tasks, rather than once per task. As with
+ * the trigger itself, a task that is still running at an execution time
+ * skips that execution, and execution times that have passed already, e.g.
+ * after a system clock change, are skipped rather than caught up on.
+ *
+ * @since 6.0
+ * @see #setPoolSize
+ * @see #setTickDuration
+ * @see #setErrorHandler
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport implements TaskScheduler {
+
+	private static final int WHEEL_BITS = 6;
+
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	private static final int WHEEL_LEVELS = 4;
+
+	private static final long MAX_TICKS = 1L << (WHEEL_BITS * WHEEL_LEVELS);
+
+
+	private int poolSize = 1;
+
+	private long tickMillis = 10;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	private Clock clock = Clock.systemDefaultZone();
+
+	@Nullable
+	private ThreadPoolExecutor workerExecutor;
+
+	@Nullable
+	private Ticker ticker;
+
+	private final Map<CronGroupKey, CronGroup> cronGroups = new HashMap<>();
+
+
+	/**
+	 * Set the number of worker threads that run the scheduled tasks.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Return the number of worker threads that run the scheduled tasks.
+	 */
+	public int getPoolSize() {
+		return this.poolSize;
+	}
+
+	/**
+	 * Set the duration of a tick of the timing wheel, i.e. the granularity
+	 * at which scheduled tasks are checked for execution.
+	 * <p>Default is 10 milliseconds. Longer ticks reduce the overhead of the
+	 * ticker thread, at the expense of timing precision.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+		Assert.isTrue(tickDuration.toMillis() > 0, "Tick duration must be at least 1 millisecond");
+		this.tickMillis = tickDuration.toMillis();
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Set the clock to use for scheduling purposes.
+	 * <p>The default clock is the system clock for the default time zone.
+	 * @see Clock#systemDefaultZone()
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	@Override
+	public Clock getClock() {
+		return this.clock;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.workerExecutor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.ticker = new Ticker(this.clock.millis());
+		threadFactory.newThread(this.ticker).start();
+		return this.workerExecutor;
+	}
+
+	/**
+	 * Stop the ticker thread, cancelling all tasks that have not been handed
+	 * over to the worker threads yet, and shut down the worker threads.
+	 */
+	@Override
+	public void shutdown() {
+		if (this.ticker != null) {
+			this.ticker.stop();
+		}
+		super.shutdown();
+	}
+
+	private Ticker getTicker() {
+		Assert.state(this.ticker != null, "TimingWheelTaskScheduler not initialized");
+		return this.ticker;
+	}
+
+	private Executor getWorkerExecutor() {
+		Assert.state(this.workerExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.workerExecutor;
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		if (trigger.getClass() == CronTrigger.class) {
+			return scheduleCronTask(task, (CronTrigger) trigger);
+		}
+		TriggerTask triggerTask = new TriggerTask(errorHandlingTask(task, true), trigger);
+		return (triggerTask.scheduleNext() ? triggerTask : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		OneTimeTask oneTimeTask = new OneTimeTask(errorHandlingTask(task, false));
+		oneTimeTask.schedule(startTime.getTime());
+		return oneTimeTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "Period must be positive");
+		PeriodicTask periodicTask = new PeriodicTask(errorHandlingTask(task, true), period, true);
+		periodicTask.schedule(startTime.getTime());
+		return periodicTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(this.clock.millis()), period);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "Delay must be positive");
+		PeriodicTask periodicTask = new PeriodicTask(errorHandlingTask(task, true), delay, false);
+		periodicTask.schedule(startTime.getTime());
+		return periodicTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(this.clock.millis()), delay);
+	}
+
+	@Nullable
+	private ScheduledFuture<?> scheduleCronTask(Runnable task, CronTrigger trigger) {
+		CronGroupKey key = new CronGroupKey(trigger.getExpression(), trigger.getZoneId());
+		CronMember member = new CronMember(errorHandlingTask(task, true));
+		synchronized (this.cronGroups) {
+			CronGroup group = this.cronGroups.get(key);
+			if (group == null) {
+				group = new CronGroup(key);
+				if (!group.scheduleFirst()) {
+					return null;
+				}
+				this.cronGroups.put(key, group);
+			}
+			member.group = group;
+			group.members.add(member);
+		}
+		return member;
+	}
+
+
+	/**
+	 * Hierarchical timing wheel, only ever accessed by the ticker thread.
+	 * <p>Level {@code n} has {@link #WHEEL_SIZE} slots covering
+	 * {@code WHEEL_SIZE^n} ticks each. When the lowest level wraps around,
+	 * the current slot of the next level is cascaded down, and so on.
+	 */
+	private final class Ticker implements Runnable {
+
+		private final long startMillis;
+
+		private final Slot[][] wheel = new Slot[WHEEL_LEVELS][WHEEL_SIZE];
+
+		private final Queue<TimerEntry> additions = new ConcurrentLinkedQueue<>();
+
+		private final Queue<TimerEntry> removals = new ConcurrentLinkedQueue<>();
+
+		// The next tick to process
+		private long tick;
+
+		private int size;
+
+		private volatile boolean running = true;
+
+		@Nullable
+		private volatile Thread thread;
+
+		Ticker(long startMillis) {
+			this.startMillis = startMillis;
+			for (Slot[] level : this.wheel) {
+				for (int i = 0; i < WHEEL_SIZE; i++) {
+					level[i] = new Slot();
+				}
+			}
+		}
+
+		/**
+		 * Submit the given entry for insertion into the wheel. Called from any thread.
+		 */
+		void add(TimerEntry entry) {
+			this.additions.add(entry);
+			if (!this.running) {
+				entry.cancel(false);
+			}
+			LockSupport.unpark(this.thread);
+		}
+
+		/**
+		 * Submit the given entry for removal from the wheel. Called from any thread.
+		 */
+		void remove(TimerEntry entry) {
+			this.removals.add(entry);
+		}
+
+		void stop() {
+			this.running = false;
+			Thread thread = this.thread;
+			if (thread != null && thread != Thread.currentThread()) {
+				LockSupport.unpark(thread);
+				try {
+					thread.join();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			this.thread = Thread.currentThread();
+			try {
+				while (this.running) {
+					processQueues();
+					long currentTick = (clock.millis() - this.startMillis) / tickMillis;
+					if (this.size == 0) {
+						// Nothing to cascade: the wheel may jump ahead
+						this.tick = Math.max(this.tick, currentTick);
+					}
+					while (this.tick <= currentTick && this.running) {
+						processTick(this.tick);
+						this.tick++;
+						processQueues();
+					}
+					if (this.size == 0) {
+						LockSupport.park(this);
+					}
+					else {
+						long nextTickMillis = this.startMillis + this.tick * tickMillis;
+						LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(nextTickMillis - clock.millis()));
+					}
+				}
+			}
+			finally {
+				cancelAll();
+			}
+		}
+
+		private void processQueues() {
+			TimerEntry entry;
+			while ((entry = this.additions.poll()) != null) {
+				if (!entry.isCancelled()) {
+					insert(entry);
+				}
+			}
+			while ((entry = this.removals.poll()) != null) {
+				if (entry.slot != null) {
+					entry.slot.unlink(entry);
+					this.size--;
+				}
+			}
+		}
+
+		private void insert(TimerEntry entry) {
+			entry.deadlineTick = Math.max(0, Math.floorDiv(entry.deadline - this.startMillis + tickMillis - 1, tickMillis));
+			place(entry);
+			this.size++;
+		}
+
+		private void place(TimerEntry entry) {
+			long delta = entry.deadlineTick - this.tick;
+			long slotTick = entry.deadlineTick;
+			if (delta < 0) {
+				slotTick = this.tick;
+				delta = 0;
+			}
+			else if (delta >= MAX_TICKS) {
+				// Beyond the wheel's range: park in the outermost level and cascade again later
+				slotTick = this.tick + MAX_TICKS - 1;
+				delta = MAX_TICKS - 1;
+			}
+			int level = 0;
+			while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+				level++;
+			}
+			int index = (int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+			this.wheel[level][index].link(entry);
+		}
+
+		private void processTick(long tick) {
+			for (int level = 1; level < WHEEL_LEVELS; level++) {
+				if (((tick >>> (WHEEL_BITS * (level - 1))) & WHEEL_MASK) != 0) {
+					break;
+				}
+				Slot slot = this.wheel[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+				TimerEntry entry;
+				while ((entry = slot.poll()) != null) {
+					place(entry);
+				}
+			}
+			Slot slot = this.wheel[0][(int) (tick & WHEEL_MASK)];
+			TimerEntry entry;
+			while ((entry = slot.poll()) != null) {
+				if (entry.deadlineTick > tick) {
+					place(entry);
+					continue;
+				}
+				this.size--;
+				if (!entry.isCancelled()) {
+					entry.expire();
+				}
+			}
+		}
+
+		private void cancelAll() {
+			processQueues();
+			for (Slot[] level : this.wheel) {
+				for (Slot slot : level) {
+					TimerEntry entry;
+					while ((entry = slot.poll()) != null) {
+						entry.cancel(false);
+					}
+				}
+			}
+			this.size = 0;
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of the entries in a slot of the timing wheel.
+	 */
+	private static final class Slot {
+
+		@Nullable
+		private TimerEntry head;
+
+		void link(TimerEntry entry) {
+			entry.slot = this;
+			entry.prev = null;
+			entry.next = this.head;
+			if (this.head != null) {
+				this.head.prev = entry;
+			}
+			this.head = entry;
+		}
+
+		void unlink(TimerEntry entry) {
+			if (entry.prev != null) {
+				entry.prev.next = entry.next;
+			}
+			else {
+				this.head = entry.next;
+			}
+			if (entry.next != null) {
+				entry.next.prev = entry.prev;
+			}
+			entry.slot = null;
+			entry.prev = null;
+			entry.next = null;
+		}
+
+		@Nullable
+		TimerEntry poll() {
+			TimerEntry entry = this.head;
+			if (entry != null) {
+				unlink(entry);
+			}
+			return entry;
+		}
+	}
+
+
+	/**
+	 * Base class for entries in the timing wheel.
+	 */
+	private abstract static class TimerEntry {
+
+		// Scheduled execution time in milliseconds
+		volatile long deadline;
+
+		// The following fields are only accessed by the ticker thread
+
+		long deadlineTick;
+
+		@Nullable
+		Slot slot;
+
+		@Nullable
+		TimerEntry prev;
+
+		@Nullable
+		TimerEntry next;
+
+		abstract boolean isCancelled();
+
+		abstract boolean cancel(boolean mayInterruptIfRunning);
+
+		/**
+		 * Called by the ticker thread once the deadline has been reached.
+		 */
+		abstract void expire();
+	}
+
+
+	/**
+	 * Base class for entries of individual tasks, which are handed over to the
+	 * worker threads on expiry, and which serve as their {@link ScheduledFuture}.
+	 */
+	private abstract class TaskEntry extends TimerEntry implements ScheduledFuture<Object>, Runnable {
+
+		private final Runnable task;
+
+		private final CompletableFuture<Object> completion = new CompletableFuture<>();
+
+		TaskEntry(Runnable task) {
+			this.task = task;
+		}
+
+		void schedule(long deadline) {
+			this.deadline = deadline;
+			getTicker().add(this);
+		}
+
+		@Override
+		void expire() {
+			try {
+				getWorkerExecutor().execute(this);
+			}
+			catch (RejectedExecutionException ex) {
+				this.completion.completeExceptionally(
+						new TaskRejectedException("Executor did not accept task: " + this.task, ex));
+			}
+		}
+
+		@Override
+		public void run() {
+			long actualExecutionTime = clock.millis();
+			try {
+				this.task.run();
+			}
+			catch (Throwable ex) {
+				this.completion.completeExceptionally(ex);
+				return;
+			}
+			if (!isCancelled()) {
+				afterRun(actualExecutionTime, clock.millis());
+			}
+		}
+
+		/**
+		 * Called after a successful run: reschedule or complete this task.
+		 */
+		abstract void afterRun(long actualExecutionTime, long completionTime);
+
+		void complete() {
+			this.completion.complete(null);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = this.completion.cancel(mayInterruptIfRunning);
+			if (cancelled && ticker != null) {
+				ticker.remove(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.completion.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.completion.isDone();
+		}
+
+		@Override
+		@Nullable
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.completion.get();
+		}
+
+		@Override
+		@Nullable
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+			return this.completion.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - clock.millis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return compareDelays(this, other);
+		}
+	}
+
+
+	private final class OneTimeTask extends TaskEntry {
+
+		OneTimeTask(Runnable task) {
+			super(task);
+		}
+
+		@Override
+		void afterRun(long actualExecutionTime, long completionTime) {
+			complete();
+		}
+	}
+
+
+	private final class PeriodicTask extends TaskEntry {
+
+		private final long period;
+
+		private final boolean fixedRate;
+
+		PeriodicTask(Runnable task, long period, boolean fixedRate) {
+			super(task);
+			this.period = period;
+			this.fixedRate = fixedRate;
+		}
+
+		@Override
+		void afterRun(long actualExecutionTime, long completionTime) {
+			schedule((this.fixedRate ? this.deadline : completionTime) + this.period);
+		}
+	}
+
+
+	private final class TriggerTask extends TaskEntry {
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext(clock);
+
+		TriggerTask(Runnable task, Trigger trigger) {
+			super(task);
+			this.trigger = trigger;
+		}
+
+		boolean scheduleNext() {
+			Date nextExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (nextExecutionTime == null) {
+				complete();
+				return false;
+			}
+			schedule(nextExecutionTime.getTime());
+			return true;
+		}
+
+		@Override
+		void afterRun(long actualExecutionTime, long completionTime) {
+			this.triggerContext.update(new Date(this.deadline), new Date(actualExecutionTime), new Date(completionTime));
+			scheduleNext();
+		}
+	}
+
+
+	private record CronGroupKey(String expression, ZoneId zoneId) {
+	}
+
+
+	/**
+	 * Wheel entry shared by all tasks with the same cron expression and time zone.
+	 */
+	private final class CronGroup extends TimerEntry {
+
+		private final CronGroupKey key;
+
+		private final CronExpression expression;
+
+		final Set<CronMember> members = ConcurrentHashMap.newKeySet();
+
+		@Nullable
+		private ZonedDateTime nextExecutionTime;
+
+		CronGroup(CronGroupKey key) {
+			this.key = key;
+			this.expression = CronExpression.parse(key.expression());
+		}
+
+		boolean scheduleFirst() {
+			this.nextExecutionTime = ZonedDateTime.ofInstant(clock.instant(), this.key.zoneId());
+			return scheduleNext();
+		}
+
+		private boolean scheduleNext() {
+			Assert.state(this.nextExecutionTime != null, "No previous execution time");
+			// Skip execution times missed due to a clock change or a stalled ticker
+			ZonedDateTime now = ZonedDateTime.ofInstant(clock.instant(), this.key.zoneId());
+			this.nextExecutionTime = this.expression.next(
+					now.isAfter(this.nextExecutionTime) ? now : this.nextExecutionTime);
+			if (this.nextExecutionTime == null) {
+				return false;
+			}
+			this.deadline = this.nextExecutionTime.toInstant().toEpochMilli();
+			getTicker().add(this);
+			return true;
+		}
+
+		@Override
+		void expire() {
+			for (CronMember member : this.members) {
+				member.execute();
+			}
+			synchronized (cronGroups) {
+				if (this.members.isEmpty() || !scheduleNext()) {
+					cronGroups.remove(this.key);
+					for (CronMember member : this.members) {
+						member.completion.complete(null);
+					}
+				}
+			}
+		}
+
+		@Override
+		boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		boolean cancel(boolean mayInterruptIfRunning) {
+			for (CronMember member : this.members) {
+				member.cancel(mayInterruptIfRunning);
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * {@link ScheduledFuture} for a task in a {@link CronGroup}.
+	 */
+	private final class CronMember implements ScheduledFuture<Object>, Runnable {
+
+		private final Runnable task;
+
+		private final CompletableFuture<Object> completion = new CompletableFuture<>();
+
+		private final AtomicBoolean running = new AtomicBoolean();
+
+		@Nullable
+		CronGroup group;
+
+		CronMember(Runnable task) {
+			this.task = task;
+		}
+
+		void execute() {
+			// Still running from a previous execution time: skip this one
+			if (!isDone() && this.running.compareAndSet(false, true)) {
+				try {
+					getWorkerExecutor().execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					this.running.set(false);
+					this.completion.completeExceptionally(
+							new TaskRejectedException("Executor did not accept task: " + this.task, ex));
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.task.run();
+			}
+			catch (Throwable ex) {
+				this.completion.completeExceptionally(ex);
+				removeFromGroup();
+			}
+			finally {
+				this.running.set(false);
+			}
+		}
+
+		private void removeFromGroup() {
+			if (this.group != null) {
+				this.group.members.remove(this);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = this.completion.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				removeFromGroup();
+			}
+			return cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.completion.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.completion.isDone();
+		}
+
+		@Override
+		@Nullable
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.completion.get();
+		}
+
+		@Override
+		@Nullable
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+			return this.completion.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			long deadline = (this.group != null ? this.group.deadline : clock.millis());
+			return unit.convert(deadline - clock.millis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return compareDelays(this, other);
+		}
+	}
+
+
+	private static int compareDelays(Delayed delayed, Delayed other) {
+		if (delayed == other) {
+			return 0;
+		}
+		long diff = delayed.getDelay(TimeUnit.MILLISECONDS) - other.getDelay(TimeUnit.MILLISECONDS);
+		return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+	}
+
+}
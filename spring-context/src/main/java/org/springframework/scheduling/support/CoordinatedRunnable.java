@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.LeaseProvider;
+import org.springframework.util.Assert;
+
+/**
+ * Runnable wrapper that coordinates the runs of its delegate Runnable:
+ * within the local process according to an {@link OverlapPolicy}, and
+ * optionally across processes through a lease from a {@link LeaseProvider}.
+ *
+ * <p>With a lease, every run first tries to acquire the lease and is skipped
+ * if the lease is currently held elsewhere. The lease is released once the
+ * run has completed.
+ *
+ * <p>With the {@link OverlapPolicy#COALESCE COALESCE} and
+ * {@link OverlapPolicy#QUEUE QUEUE} policies, pending runs are performed by
+ * the thread that executes the run in progress, right after it completes.
+ * Other threads triggering a run while it is in progress return immediately.
+ *
+ * @since 6.0
+ * @see OverlapPolicy
+ * @see org.springframework.scheduling.annotation.Scheduled#overlap()
+ * @see org.springframework.scheduling.annotation.Scheduled#lease()
+ */
+public class CoordinatedRunnable implements Runnable {
+
+	private static final Log logger = LogFactory.getLog(CoordinatedRunnable.class);
+
+	private final Runnable delegate;
+
+	private final OverlapPolicy overlapPolicy;
+
+	@Nullable
+	private final LeaseProvider leaseProvider;
+
+	@Nullable
+	private final String leaseName;
+
+	@Nullable
+	private final Duration leaseDuration;
+
+	// Number of triggered runs that have not completed yet
+	private final AtomicInteger pendingRuns = new AtomicInteger();
+
+
+	/**
+	 * Create a new CoordinatedRunnable for the given overlap policy.
+	 * @param delegate the Runnable implementation to delegate to
+	 * @param overlapPolicy the policy for overlapping runs
+	 */
+	public CoordinatedRunnable(Runnable delegate, OverlapPolicy overlapPolicy) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		Assert.notNull(overlapPolicy, "OverlapPolicy must not be null");
+		this.delegate = delegate;
+		this.overlapPolicy = overlapPolicy;
+		this.leaseProvider = null;
+		this.leaseName = null;
+		this.leaseDuration = null;
+	}
+
+	/**
+	 * Create a new CoordinatedRunnable for the given overlap policy,
+	 * acquiring the given lease for every run.
+	 * @param delegate the Runnable implementation to delegate to
+	 * @param overlapPolicy the policy for overlapping runs
+	 * @param leaseProvider the provider to acquire the lease from
+	 * @param leaseName the name of the lease
+	 * @param leaseDuration the maximum duration to hold the lease for
+	 */
+	public CoordinatedRunnable(Runnable delegate, OverlapPolicy overlapPolicy,
+			LeaseProvider leaseProvider, String leaseName, Duration leaseDuration) {
+
+		Assert.notNull(delegate, "Delegate must not be null");
+		Assert.notNull(overlapPolicy, "OverlapPolicy must not be null");
+		Assert.notNull(leaseProvider, "LeaseProvider must not be null");
+		Assert.hasText(leaseName, "Lease name must not be empty");
+		Assert.isTrue(leaseDuration.toMillis() > 0, "Lease duration must be positive");
+		this.delegate = delegate;
+		this.overlapPolicy = overlapPolicy;
+		this.leaseProvider = leaseProvider;
+		this.leaseName = leaseName;
+		this.leaseDuration = leaseDuration;
+	}
+
+
+	/**
+	 * Return the Runnable implementation to delegate to.
+	 */
+	public Runnable getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * Return the policy for overlapping runs.
+	 */
+	public OverlapPolicy getOverlapPolicy() {
+		return this.overlapPolicy;
+	}
+
+	/**
+	 * Return the name of the lease acquired for every run, if any.
+	 */
+	@Nullable
+	public String getLeaseName() {
+		return this.leaseName;
+	}
+
+
+	@Override
+	public void run() {
+		switch (this.overlapPolicy) {
+			case ALLOW -> runWithLease();
+			case SKIP -> runUnlessInProgress();
+			case COALESCE, QUEUE -> runOrDefer();
+		}
+	}
+
+	private void runUnlessInProgress() {
+		if (!this.pendingRuns.compareAndSet(0, 1)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Skipping run of " + this.delegate + " since a previous run is still in progress");
+			}
+			return;
+		}
+		try {
+			runWithLease();
+		}
+		finally {
+			this.pendingRuns.set(0);
+		}
+	}
+
+	private void runOrDefer() {
+		if (this.pendingRuns.getAndIncrement() != 0) {
+			// Run in progress: its thread is going to take care of this one
+			return;
+		}
+		boolean coalesce = (this.overlapPolicy == OverlapPolicy.COALESCE);
+		RuntimeException runtimeException = null;
+		Error error = null;
+		do {
+			if (coalesce) {
+				// Runs triggered up to here are covered by the following run
+				this.pendingRuns.set(1);
+			}
+			try {
+				runWithLease();
+			}
+			catch (RuntimeException ex) {
+				runtimeException = ex;
+			}
+			catch (Error err) {
+				error = err;
+			}
+		}
+		while (coalesce ? !this.pendingRuns.compareAndSet(1, 0) : this.pendingRuns.decrementAndGet() != 0);
+
+		if (error != null) {
+			throw error;
+		}
+		if (runtimeException != null) {
+			throw runtimeException;
+		}
+	}
+
+	private void runWithLease() {
+		if (this.leaseProvider == null) {
+			this.delegate.run();
+			return;
+		}
+		Assert.state(this.leaseName != null && this.leaseDuration != null, "No lease specified");
+		LeaseProvider.Lease lease = this.leaseProvider.tryAcquire(this.leaseName, this.leaseDuration);
+		if (lease == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Skipping run of " + this.delegate + " since lease '" +
+						this.leaseName + "' is held elsewhere");
+			}
+			return;
+		}
+		try {
+			this.delegate.run();
+		}
+		finally {
+			lease.release();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
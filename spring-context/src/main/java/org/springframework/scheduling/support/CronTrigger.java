@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,6 +85,14 @@ public class CronTrigger implements Trigger {
 		return this.expression.toString();
 	}
 
+	/**
+	 * Return the time zone in which the trigger times are generated.
+	 * @since 6.0
+	 */
+	public ZoneId getZoneId() {
+		return this.zoneId;
+	}
+
 
 	/**
 	 * Determine the next execution time according to the given trigger context.
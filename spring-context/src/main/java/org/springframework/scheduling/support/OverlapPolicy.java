@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+/**
+ * Enumeration of the policies for a run of a scheduled task that is triggered
+ * while a previous run of the same task is still in progress, which may happen
+ * for fixed-rate and cron tasks on a scheduler with more than one thread.
+ *
+ * @since 6.0
+ * @see CoordinatedRunnable
+ * @see org.springframework.scheduling.annotation.Scheduled#overlap()
+ */
+public enum OverlapPolicy {
+
+	/**
+	 * Start the new run concurrently with the one in progress.
+	 * This is the default behavior of scheduled tasks.
+	 */
+	ALLOW,
+
+	/**
+	 * Drop the new run.
+	 */
+	SKIP,
+
+	/**
+	 * Run once more after the run in progress has completed, however many
+	 * runs have been triggered in the meantime.
+	 */
+	COALESCE,
+
+	/**
+	 * Run after the run in progress has completed, once for every run
+	 * that has been triggered in the meantime.
+	 */
+	QUEUE
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.context.event;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.context.ApplicationContext;
@@ -180,6 +182,219 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		smc.multicastEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueue() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+		MyEvent event3 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		smc.multicastEvent(event3);
+		assertThat(tasks).hasSize(1);
+		assertThat(smc.getQueuedEventCount()).isEqualTo(3);
+		assertThat(smc.getEventLag(listener)).isGreaterThanOrEqualTo(Duration.ZERO);
+		assertThat(listener.seenEvents).isEmpty();
+
+		tasks.remove(0).run();
+		assertThat(listener.seenEvents).containsExactly(event1, event2, event3);
+		assertThat(smc.getQueuedEventCount()).isZero();
+		assertThat(smc.getMaxEventLag()).isZero();
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndDropPolicy() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+		MyEvent event3 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(2);
+		smc.setOverflowPolicy(SimpleApplicationEventMulticaster.OverflowPolicy.DROP);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		smc.multicastEvent(event3);
+		assertThat(smc.getQueuedEventCount()).isEqualTo(2);
+		assertThat(smc.getDroppedEventCount()).isEqualTo(1);
+
+		tasks.remove(0).run();
+		assertThat(listener.seenEvents).containsExactly(event1, event2);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndCallerRunsPolicy() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(1);
+		smc.setOverflowPolicy(SimpleApplicationEventMulticaster.OverflowPolicy.CALLER_RUNS);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		assertThat(listener.seenEvents).containsExactly(event2);
+
+		tasks.remove(0).run();
+		assertThat(listener.seenEvents).containsExactly(event2, event1);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndBlockPolicyFromDeliveryTask() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		MyOtherEvent otherEvent = new MyOtherEvent(this);
+		MyEvent event = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(1);
+		smc.addApplicationListener(listener);
+		smc.addApplicationListener(new ApplicationListener<MyOtherEvent>() {
+			@Override
+			public void onApplicationEvent(MyOtherEvent other) {
+				smc.multicastEvent(event);
+			}
+		});
+
+		smc.multicastEvent(otherEvent);
+		assertThat(tasks).hasSize(2);
+
+		// The delivery task of the second listener publishes while the queue of the first one is full
+		tasks.remove(1).run();
+		assertThat(listener.seenEvents).containsExactly(event);
+
+		tasks.remove(0).run();
+		assertThat(listener.seenEvents).containsExactly(event, otherEvent);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithBatchListener() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyBatchListener listener = new MyBatchListener();
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+		MyEvent event3 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.setMaxBatchSize(2);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(event1);
+		smc.multicastEvent(new MyOtherEvent(this));
+		smc.multicastEvent(event2);
+		smc.multicastEvent(event3);
+		assertThat(tasks).hasSize(1);
+
+		tasks.remove(0).run();
+		assertThat(listener.batches).containsExactly(List.of(event1, event2));
+		assertThat(tasks).hasSize(1);
+
+		tasks.remove(0).run();
+		assertThat(listener.batches).containsExactly(List.of(event1, event2), List.of(event3));
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithLambdaBatchListenerAndNonMatchingEvent() {
+		List<Runnable> tasks = new ArrayList<>();
+		List<MyEvent> seenEvents = new ArrayList<>();
+		BatchApplicationListener<MyEvent> listener = events -> {
+			for (MyEvent event : events) {
+				seenEvents.add(event);
+			}
+		};
+		MyEvent event = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(new MyOtherEvent(this));
+		tasks.remove(0).run();
+		assertThat(seenEvents).isEmpty();
+
+		smc.multicastEvent(event);
+		tasks.remove(0).run();
+		assertThat(seenEvents).containsExactly(event);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndRemovedListener() {
+		List<Runnable> tasks = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(smc.getQueuedEventCount()).isEqualTo(1);
+		smc.removeApplicationListener(listener);
+		assertThat(smc.getQueuedEventCount()).isZero();
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndRemovedListenerBean() {
+		List<Runnable> tasks = new ArrayList<>();
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("listener", new MyOrderedListener1());
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster(beanFactory);
+		smc.setTaskExecutor(tasks::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListenerBean("listener");
+
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(smc.getQueuedEventCount()).isEqualTo(1);
+		smc.removeApplicationListenerBeans(beanName -> beanName.startsWith("list"));
+		assertThat(smc.getQueuedEventCount()).isZero();
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerQueueAndReplacedTaskExecutor() {
+		List<Runnable> tasks1 = new ArrayList<>();
+		List<Runnable> tasks2 = new ArrayList<>();
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		MyEvent event1 = new MyEvent(this);
+		MyEvent event2 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks1::add);
+		smc.setListenerQueueCapacity(10);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(event1);
+		tasks1.remove(0).run();
+		smc.setTaskExecutor(tasks2::add);
+		smc.multicastEvent(event2);
+		assertThat(tasks1).isEmpty();
+		assertThat(tasks2).hasSize(1);
+
+		tasks2.remove(0).run();
+		assertThat(listener.seenEvents).containsExactly(event1, event2);
+	}
+
 	@Test
 	public void orderedListeners() {
 		MyOrderedListener1 listener1 = new MyOrderedListener1();
@@ -592,6 +807,17 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class MyBatchListener implements BatchApplicationListener<MyEvent> {
+
+		public final List<List<MyEvent>> batches = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvents(List<MyEvent> events) {
+			this.batches.add(events);
+		}
+	}
+
+
 	public static abstract class MyOrderedListenerBase implements MyOrderedListenerIfc<MyEvent> {
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,9 +18,13 @@ package org.springframework.scheduling.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -58,7 +62,37 @@ public class AnnotationAsyncExecutionInterceptorTests {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unused")
+	public void testDetermineTaskOrder() throws SecurityException, NoSuchMethodException {
+		TaskOrderInterceptor i = new TaskOrderInterceptor();
+		{ // no order
+			class C { @Async void m() { } }
+			assertThat(i.determineTaskOrder(C.class.getDeclaredMethod("m"))).isEqualTo(Ordered.LOWEST_PRECEDENCE);
+		}
+		{ // method level
+			class C { @Async @Order(5) void m() { } }
+			assertThat(i.determineTaskOrder(C.class.getDeclaredMethod("m"))).isEqualTo(5);
+		}
+		{ // class level order does not apply to tasks
+			@Order(5) class C { @Async void m() { } }
+			assertThat(i.determineTaskOrder(C.class.getDeclaredMethod("m"))).isEqualTo(Ordered.LOWEST_PRECEDENCE);
+		}
+	}
+
 	@Async("qMeta")
 	@Retention(RetentionPolicy.RUNTIME)
 	@interface MyAsync { }
+
+	static class TaskOrderInterceptor extends AnnotationAsyncExecutionInterceptor {
+
+		TaskOrderInterceptor() {
+			super(null);
+		}
+
+		@Override
+		public int determineTaskOrder(Method method) {
+			return super.determineTaskOrder(method);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,13 +52,16 @@ import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.annotation.AliasFor;
+import org.springframework.scheduling.LeaseProvider;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
 import org.springframework.scheduling.config.CronTask;
 import org.springframework.scheduling.config.IntervalTask;
 import org.springframework.scheduling.config.ScheduledTaskHolder;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CoordinatedRunnable;
 import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.OverlapPolicy;
 import org.springframework.scheduling.support.ScheduledMethodRunnable;
 import org.springframework.scheduling.support.SimpleTriggerContext;
 import org.springframework.stereotype.Component;
@@ -725,6 +728,59 @@ class ScheduledAnnotationBeanPostProcessorTests {
 				context::refresh);
 	}
 
+	@Test
+	void fixedRateTaskWithOverlapPolicy() {
+		BeanDefinition processorDefinition = new RootBeanDefinition(ScheduledAnnotationBeanPostProcessor.class);
+		BeanDefinition targetDefinition = new RootBeanDefinition(FixedRateWithOverlapPolicyTestBean.class);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", targetDefinition);
+		context.refresh();
+
+		Object postProcessor = context.getBean("postProcessor");
+		ScheduledTaskRegistrar registrar = (ScheduledTaskRegistrar)
+				new DirectFieldAccessor(postProcessor).getPropertyValue("registrar");
+		@SuppressWarnings("unchecked")
+		List<IntervalTask> fixedRateTasks = (List<IntervalTask>)
+				new DirectFieldAccessor(registrar).getPropertyValue("fixedRateTasks");
+		assertThat(fixedRateTasks.size()).isEqualTo(1);
+		CoordinatedRunnable runnable = (CoordinatedRunnable) fixedRateTasks.get(0).getRunnable();
+		assertThat(runnable.getOverlapPolicy()).isEqualTo(OverlapPolicy.SKIP);
+		assertThat(runnable.getLeaseName()).isNull();
+		assertThat(runnable.getDelegate()).isInstanceOf(ScheduledMethodRunnable.class);
+	}
+
+	@Test
+	void cronTaskWithLease() {
+		BeanDefinition processorDefinition = new RootBeanDefinition(ScheduledAnnotationBeanPostProcessor.class);
+		BeanDefinition targetDefinition = new RootBeanDefinition(CronWithLeaseTestBean.class);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", targetDefinition);
+		context.registerBean(LeaseProvider.class, () -> (name, maxDuration) -> null);
+		context.refresh();
+
+		Object postProcessor = context.getBean("postProcessor");
+		ScheduledTaskRegistrar registrar = (ScheduledTaskRegistrar)
+				new DirectFieldAccessor(postProcessor).getPropertyValue("registrar");
+		@SuppressWarnings("unchecked")
+		List<CronTask> cronTasks = (List<CronTask>)
+				new DirectFieldAccessor(registrar).getPropertyValue("cronTasks");
+		assertThat(cronTasks.size()).isEqualTo(1);
+		CoordinatedRunnable runnable = (CoordinatedRunnable) cronTasks.get(0).getRunnable();
+		assertThat(runnable.getOverlapPolicy()).isEqualTo(OverlapPolicy.ALLOW);
+		assertThat(runnable.getLeaseName()).isEqualTo("reports");
+	}
+
+	@Test
+	void leaseWithoutLeaseDuration() {
+		BeanDefinition processorDefinition = new RootBeanDefinition(ScheduledAnnotationBeanPostProcessor.class);
+		BeanDefinition targetDefinition = new RootBeanDefinition(LeaseWithoutLeaseDurationTestBean.class);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", targetDefinition);
+		context.registerBean(LeaseProvider.class, () -> (name, maxDuration) -> null);
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+				context::refresh);
+	}
+
 
 	static class FixedDelay {
 
@@ -922,6 +978,30 @@ class ScheduledAnnotationBeanPostProcessorTests {
 	}
 
 
+	static class FixedRateWithOverlapPolicyTestBean {
+
+		@Scheduled(fixedRate = 3_000, overlap = OverlapPolicy.SKIP)
+		void fixedRate() {
+		}
+	}
+
+
+	static class CronWithLeaseTestBean {
+
+		@Scheduled(cron = "0 0 * * * ?", lease = "reports", leaseDuration = "PT10M")
+		void cron() {
+		}
+	}
+
+
+	static class LeaseWithoutLeaseDurationTestBean {
+
+		@Scheduled(fixedRate = 3_000, lease = "reports")
+		void fixedRate() {
+		}
+	}
+
+
 	@Scheduled(fixedRate = 5_000)
 	@Target(ElementType.METHOD)
 	@Retention(RetentionPolicy.RUNTIME)
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link EagerThreadPoolTaskExecutor}.
+ */
+class EagerThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	private final EagerThreadPoolTaskExecutor executor = new EagerThreadPoolTaskExecutor();
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		executor.setThreadNamePrefix(this.threadNamePrefix);
+		executor.setMaxPoolSize(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+
+	@Test
+	void growsBeforeQueueing() throws Exception {
+		EagerThreadPoolTaskExecutor executor = new EagerThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(3);
+		executor.afterPropertiesSet();
+		CountDownLatch started = new CountDownLatch(3);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> {
+					started.countDown();
+					await(release);
+				});
+			}
+			assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+			assertThat(executor.getPoolSize()).isEqualTo(3);
+			assertThat(executor.getActiveCount()).isEqualTo(3);
+			assertThat(executor.getQueueSize()).isEqualTo(1);
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void runsQueuedTasksByPriority() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			await(release);
+		});
+		assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+		List<String> runOrder = new CopyOnWriteArrayList<>();
+		executor.execute(() -> runOrder.add("plain1"));
+		executor.execute(new OrderedTask(runOrder, "order5", 5));
+		executor.execute(() -> runOrder.add("plain2"));
+		Future<?> last = executor.submit(new OrderedTask(runOrder, "order1", 1));
+		assertThat(executor.getQueueSize()).isEqualTo(4);
+		release.countDown();
+
+		last.get(1, TimeUnit.SECONDS);
+		executor.submit(() -> {}).get(1, TimeUnit.SECONDS);
+		assertThat(runOrder).containsExactly("order1", "order5", "plain1", "plain2");
+	}
+
+	@Test
+	void rejectsTasksBeyondQueueCapacity() throws Exception {
+		EagerThreadPoolTaskExecutor executor = new EagerThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.afterPropertiesSet();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> {
+				started.countDown();
+				await(release);
+			});
+			assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+			executor.execute(() -> {});
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(() -> {}));
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void recordsTaskMetrics() throws Exception {
+		executor.submit(() -> Thread.sleep(20)).get(1, TimeUnit.SECONDS);
+		executor.submit(() -> {}).get(1, TimeUnit.SECONDS);
+		// Metrics get recorded right after the Future has completed
+		Awaitility.await().atMost(1, TimeUnit.SECONDS)
+				.untilAsserted(() -> assertThat(executor.getCompletedTaskCount()).isEqualTo(2));
+		assertThat(executor.getAverageRunTime().toMillis()).isGreaterThanOrEqualTo(10);
+		assertThat(executor.getMaxWaitTime()).isGreaterThanOrEqualTo(executor.getAverageWaitTime());
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private record OrderedTask(List<String> runOrder, String name, int order) implements Runnable, Ordered {
+
+		@Override
+		public void run() {
+			this.runOrder.add(this.name);
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
+
+	@Nested
+	class WorkStealingTests extends AbstractSchedulingTaskExecutorTests {
+
+		private final EagerThreadPoolTaskExecutor executor = new EagerThreadPoolTaskExecutor();
+
+		@Override
+		protected AsyncListenableTaskExecutor buildExecutor() {
+			executor.setThreadNamePrefix(this.threadNamePrefix);
+			executor.setMaxPoolSize(1);
+			executor.setWorkStealing(true);
+			executor.afterPropertiesSet();
+			return executor;
+		}
+
+		@Test
+		void recordsTaskMetrics() throws Exception {
+			executor.submit(() -> {}).get(1, TimeUnit.SECONDS);
+			Awaitility.await().atMost(1, TimeUnit.SECONDS)
+					.untilAsserted(() -> assertThat(executor.getCompletedTaskCount()).isEqualTo(1));
+			assertThat(executor.getQueueSize()).isEqualTo(0);
+		}
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.testfixture.EnabledForTestGroups;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.CronTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.core.testfixture.TestGroup.LONG_RUNNING;
+
+/**
+ * Tests for {@link TimingWheelTaskScheduler}.
+ */
+public class TimingWheelTaskSchedulerTests {
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@BeforeEach
+	void initScheduler() {
+		this.scheduler.setPoolSize(2);
+		this.scheduler.setThreadNamePrefix("wheel-");
+		this.scheduler.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void shutdownScheduler() {
+		this.scheduler.shutdown();
+	}
+
+
+	@Test
+	void scheduleOneTimeTask() throws Exception {
+		AtomicInteger runCount = new AtomicInteger();
+		Future<?> future = this.scheduler.schedule(runCount::incrementAndGet, new Date());
+		Object result = future.get(1000, TimeUnit.MILLISECONDS);
+		assertThat(result).isNull();
+		assertThat(future.isDone()).isTrue();
+		assertThat(runCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	void scheduleOneTimeTaskNotBeforeStartTime() throws Exception {
+		AtomicInteger runCount = new AtomicInteger();
+		long startTime = System.currentTimeMillis() + 200;
+		Future<?> future = this.scheduler.schedule(runCount::incrementAndGet, new Date(startTime));
+		future.get(1000, TimeUnit.MILLISECONDS);
+		assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(startTime);
+		assertThat(runCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	void scheduleOneTimeFailingTask() throws Exception {
+		Future<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("failure");
+		}, new Date());
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(() -> future.get(1000, TimeUnit.MILLISECONDS))
+				.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(future.isDone()).isTrue();
+	}
+
+	@Test
+	void cancelOneTimeTask() throws Exception {
+		AtomicInteger runCount = new AtomicInteger();
+		Future<?> future = this.scheduler.schedule(runCount::incrementAndGet, new Date(System.currentTimeMillis() + 100));
+		assertThat(future.cancel(false)).isTrue();
+		Thread.sleep(200);
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(runCount.get()).isEqualTo(0);
+	}
+
+	@Test
+	void scheduleAtFixedRate() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 20);
+		assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	void scheduleWithFixedDelay() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(latch::countDown, 20);
+		assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(future.cancel(false)).isTrue();
+	}
+
+	@Test
+	void scheduleTriggerTask() throws Exception {
+		AtomicInteger runCount = new AtomicInteger();
+		Future<?> future = this.scheduler.schedule(runCount::incrementAndGet, new TestTrigger(3));
+		Object result = future.get(1000, TimeUnit.MILLISECONDS);
+		assertThat(result).isNull();
+		assertThat(runCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	void scheduleManyOneTimeTasks() throws Exception {
+		int taskCount = 10000;
+		CountDownLatch latch = new CountDownLatch(taskCount);
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < taskCount; i++) {
+			this.scheduler.schedule(latch::countDown, new Date(now + (i % 500)));
+		}
+		assertThat(latch.await(2000, TimeUnit.MILLISECONDS)).isTrue();
+	}
+
+	@Test
+	@EnabledForTestGroups(LONG_RUNNING)
+	void scheduleCronTasksWithSameExpression() throws Exception {
+		CountDownLatch latch1 = new CountDownLatch(2);
+		CountDownLatch latch2 = new CountDownLatch(2);
+		ScheduledFuture<?> future1 = this.scheduler.schedule(latch1::countDown, new CronTrigger("* * * * * *"));
+		ScheduledFuture<?> future2 = this.scheduler.schedule(latch2::countDown, new CronTrigger("* * * * * *"));
+		assertThat(future1).isNotNull();
+		assertThat(future2).isNotNull();
+		assertThat(future1.getDelay(TimeUnit.MILLISECONDS)).isLessThanOrEqualTo(1000);
+		assertThat(latch1.await(3000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(latch2.await(3000, TimeUnit.MILLISECONDS)).isTrue();
+
+		assertThat(future1.cancel(false)).isTrue();
+		CountDownLatch latch3 = new CountDownLatch(1);
+		this.scheduler.schedule(latch3::countDown, new CronTrigger("* * * * * *"));
+		assertThat(latch3.await(2000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(future2.isDone()).isFalse();
+	}
+
+	@Test
+	@EnabledForTestGroups(LONG_RUNNING)
+	void scheduleCronTaskSkipsMissedExecutionTimes() throws Exception {
+		AtomicLong offset = new AtomicLong();
+		TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+		scheduler.setClock(new Clock() {
+			@Override
+			public ZoneId getZone() {
+				return ZoneId.systemDefault();
+			}
+			@Override
+			public Clock withZone(ZoneId zone) {
+				throw new UnsupportedOperationException();
+			}
+			@Override
+			public Instant instant() {
+				return Instant.now().plusMillis(offset.get());
+			}
+		});
+		scheduler.afterPropertiesSet();
+		try {
+			AtomicInteger count = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(1);
+			scheduler.schedule(() -> {
+				count.incrementAndGet();
+				latch.countDown();
+			}, new CronTrigger("* * * * * *"));
+			assertThat(latch.await(2000, TimeUnit.MILLISECONDS)).isTrue();
+
+			// Jump ahead by a minute: the 60 execution times in between must not be replayed
+			offset.set(TimeUnit.MINUTES.toMillis(1));
+			Thread.sleep(1500);
+			assertThat(count.get()).isLessThan(10);
+		}
+		finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void shutdownCancelsPendingTasks() {
+		Future<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000));
+		this.scheduler.shutdown();
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+
+	private static class TestTrigger implements Trigger {
+
+		private final int maxRunCount;
+
+		private final AtomicInteger actualRunCount = new AtomicInteger();
+
+		TestTrigger(int maxRunCount) {
+			this.maxRunCount = maxRunCount;
+		}
+
+		@Override
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			if (this.actualRunCount.incrementAndGet() > this.maxRunCount) {
+				return null;
+			}
+			return new Date();
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.scheduling.LeaseProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CoordinatedRunnable}.
+ */
+class CoordinatedRunnableTests {
+
+	private final BlockingTask task = new BlockingTask();
+
+
+	@Test
+	void allowOverlappingRuns() throws Exception {
+		CoordinatedRunnable runnable = new CoordinatedRunnable(this.task, OverlapPolicy.ALLOW);
+		Thread first = start(runnable);
+		Thread second = start(runnable);
+		assertThat(this.task.started.await(1, TimeUnit.SECONDS)).isTrue();
+		this.task.release.countDown();
+		first.join();
+		second.join();
+		assertThat(this.task.runCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void skipOverlappingRun() throws Exception {
+		CoordinatedRunnable runnable = new CoordinatedRunnable(this.task, OverlapPolicy.SKIP);
+		Thread first = startAndAwaitRun(runnable);
+		runnable.run();
+		runnable.run();
+		this.task.release.countDown();
+		first.join();
+		assertThat(this.task.runCount.get()).isEqualTo(1);
+
+		runnable.run();
+		assertThat(this.task.runCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void coalesceOverlappingRuns() throws Exception {
+		CoordinatedRunnable runnable = new CoordinatedRunnable(this.task, OverlapPolicy.COALESCE);
+		Thread first = startAndAwaitRun(runnable);
+		runnable.run();
+		runnable.run();
+		runnable.run();
+		this.task.release.countDown();
+		first.join();
+		assertThat(this.task.runCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	void queueOverlappingRuns() throws Exception {
+		CoordinatedRunnable runnable = new CoordinatedRunnable(this.task, OverlapPolicy.QUEUE);
+		Thread first = startAndAwaitRun(runnable);
+		runnable.run();
+		runnable.run();
+		runnable.run();
+		this.task.release.countDown();
+		first.join();
+		assertThat(this.task.runCount.get()).isEqualTo(4);
+	}
+
+	@Test
+	void queuedRunsContinueAfterFailure() {
+		AtomicInteger runCount = new AtomicInteger();
+		List<CoordinatedRunnable> holder = new ArrayList<>();
+		CoordinatedRunnable runnable = new CoordinatedRunnable(() -> {
+			if (runCount.incrementAndGet() == 1) {
+				holder.get(0).run();
+				throw new IllegalStateException("failure");
+			}
+		}, OverlapPolicy.QUEUE);
+		holder.add(runnable);
+		assertThatIllegalStateException().isThrownBy(runnable::run);
+		assertThat(runCount.get()).isEqualTo(2);
+
+		runnable.run();
+		assertThat(runCount.get()).isEqualTo(3);
+	}
+
+	@Test
+	void runWithLease() {
+		TestLeaseProvider leaseProvider = new TestLeaseProvider();
+		AtomicInteger runCount = new AtomicInteger();
+		CoordinatedRunnable runnable = new CoordinatedRunnable(
+				runCount::incrementAndGet, OverlapPolicy.ALLOW, leaseProvider, "task", Duration.ofMinutes(1));
+		runnable.run();
+		assertThat(runCount.get()).isEqualTo(1);
+		assertThat(leaseProvider.acquired).containsExactly("task");
+		assertThat(leaseProvider.released.get()).isEqualTo(1);
+	}
+
+	@Test
+	void skipRunWithLeaseHeldElsewhere() {
+		TestLeaseProvider leaseProvider = new TestLeaseProvider();
+		leaseProvider.available = false;
+		AtomicInteger runCount = new AtomicInteger();
+		CoordinatedRunnable runnable = new CoordinatedRunnable(
+				runCount::incrementAndGet, OverlapPolicy.ALLOW, leaseProvider, "task", Duration.ofMinutes(1));
+		runnable.run();
+		assertThat(runCount.get()).isEqualTo(0);
+		assertThat(leaseProvider.released.get()).isEqualTo(0);
+	}
+
+	@Test
+	void releaseLeaseAfterFailure() {
+		TestLeaseProvider leaseProvider = new TestLeaseProvider();
+		CoordinatedRunnable runnable = new CoordinatedRunnable(() -> {
+			throw new IllegalStateException("failure");
+		}, OverlapPolicy.ALLOW, leaseProvider, "task", Duration.ofMinutes(1));
+		assertThatIllegalStateException().isThrownBy(runnable::run);
+		assertThat(leaseProvider.released.get()).isEqualTo(1);
+	}
+
+
+	private Thread start(Runnable runnable) {
+		Thread thread = new Thread(runnable);
+		thread.start();
+		return thread;
+	}
+
+	private Thread startAndAwaitRun(Runnable runnable) throws InterruptedException {
+		Thread thread = start(runnable);
+		assertThat(this.task.firstStarted.await(1, TimeUnit.SECONDS)).isTrue();
+		return thread;
+	}
+
+
+	private static class BlockingTask implements Runnable {
+
+		final CountDownLatch firstStarted = new CountDownLatch(1);
+
+		final CountDownLatch started = new CountDownLatch(2);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final AtomicInteger runCount = new AtomicInteger();
+
+		@Override
+		public void run() {
+			this.runCount.incrementAndGet();
+			this.firstStarted.countDown();
+			this.started.countDown();
+			try {
+				this.release.await(1, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+
+	private static class TestLeaseProvider implements LeaseProvider {
+
+		final List<String> acquired = new ArrayList<>();
+
+		final AtomicInteger released = new AtomicInteger();
+
+		boolean available = true;
+
+		@Override
+		public Lease tryAcquire(String name, Duration maxDuration) {
+			if (!this.available) {
+				return null;
+			}
+			this.acquired.add(name);
+			return this.released::incrementAndGet;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,12 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
@@ -30,11 +32,20 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link MergedAnnotations} implementation that searches for and adapts
  * annotations and meta-annotations using {@link AnnotationTypeMappings}.
  *
+ * <p>As of 6.0, instances for elements of classes that are cache-safe with
+ * respect to this class's {@code ClassLoader} are shared across calls, with
+ * their search results computed once and retained until
+ * {@link AnnotationUtils#clearCache()} is called. This applies to plain
+ * annotation filtering with standard or no repeatable containers, for up to
+ * {@value #SHARED_CACHE_LIMIT} elements at a time.
+ *
  * @author Phillip Webb
  * @since 5.2
  */
@@ -46,6 +57,19 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	static final MergedAnnotations NONE = new TypeMappedAnnotations(
 			null, new Annotation[0], RepeatableContainers.none(), AnnotationFilter.ALL);
 
+	/**
+	 * Maximum number of shared instances; once reached, an existing one
+	 * gets evicted for each newly shared instance.
+	 */
+	private static final int SHARED_CACHE_LIMIT = 4096;
+
+	/**
+	 * Cache of shared instances per element and search strategy, holding
+	 * on to their search results.
+	 */
+	private static final Map<SharedKey, TypeMappedAnnotations> sharedCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	@Nullable
 	private final Object source;
@@ -63,12 +87,14 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	private final AnnotationFilter annotationFilter;
 
+	private final boolean shared;
+
 	@Nullable
 	private volatile List<Aggregate> aggregates;
 
 
 	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
-			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter, boolean shared) {
 
 		this.source = element;
 		this.element = element;
@@ -76,6 +102,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = null;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.shared = shared;
 	}
 
 	private TypeMappedAnnotations(@Nullable Object source, Annotation[] annotations,
@@ -87,6 +114,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = annotations;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.shared = false;
 	}
 
 
@@ -146,7 +174,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
-		MergedAnnotation<A> result = scan(annotationType,
+		MergedAnnotation<A> result = find(annotationType,
 				new MergedAnnotationFinder<>(annotationType, predicate, selector));
 		return (result != null ? result : MergedAnnotation.missing());
 	}
@@ -171,7 +199,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
-		MergedAnnotation<A> result = scan(annotationType,
+		MergedAnnotation<A> result = find(annotationType,
 				new MergedAnnotationFinder<>(annotationType, predicate, selector));
 		return (result != null ? result : MergedAnnotation.missing());
 	}
@@ -232,6 +260,31 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return aggregates;
 	}
 
+	@Nullable
+	private <A extends Annotation> MergedAnnotation<A> find(Object annotationType, MergedAnnotationFinder<A> finder) {
+		if (!this.shared) {
+			return scan(annotationType, finder);
+		}
+		// Replay the retained search results instead of scanning the hierarchy again,
+		// consulting the finder between aggregates just like the scanner does
+		int lastAggregateIndex = -1;
+		for (Aggregate aggregate : getAggregates()) {
+			MergedAnnotation<A> result = null;
+			if (aggregate.aggregateIndex != lastAggregateIndex) {
+				result = finder.doWithAggregate(annotationType, aggregate.aggregateIndex);
+				lastAggregateIndex = aggregate.aggregateIndex;
+			}
+			if (result == null) {
+				result = finder.doWithAnnotations(annotationType, aggregate.aggregateIndex,
+						aggregate.source, aggregate.annotationArray);
+			}
+			if (result != null) {
+				return finder.finish(result);
+			}
+		}
+		return finder.finish(null);
+	}
+
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
 		if (this.annotations != null) {
@@ -251,7 +304,17 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (AnnotationsScanner.isKnownEmpty(element, searchStrategy)) {
 			return NONE;
 		}
-		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
+		if (isShareable(element, repeatableContainers, annotationFilter)) {
+			SharedKey key = new SharedKey(element, searchStrategy, repeatableContainers);
+			TypeMappedAnnotations annotations = sharedCache.get(key);
+			if (annotations == null) {
+				evictSharedInstanceIfNecessary();
+				annotations = sharedCache.computeIfAbsent(key, k ->
+						new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter, true));
+			}
+			return annotations;
+		}
+		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter, false);
 	}
 
 	static MergedAnnotations from(@Nullable Object source, Annotation[] annotations,
@@ -263,6 +326,33 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	private static void evictSharedInstanceIfNecessary() {
+		if (sharedCache.size() >= SHARED_CACHE_LIMIT) {
+			Iterator<SharedKey> keys = sharedCache.keySet().iterator();
+			if (keys.hasNext()) {
+				keys.next();
+				keys.remove();
+			}
+		}
+	}
+
+	static void clearCache() {
+		sharedCache.clear();
+	}
+
+	private static boolean isShareable(AnnotatedElement element,
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+
+		if (annotationFilter != AnnotationFilter.PLAIN || (repeatableContainers != RepeatableContainers.none() &&
+				repeatableContainers != RepeatableContainers.standardRepeatables())) {
+			return false;
+		}
+		Class<?> declaringClass = (element instanceof Class<?> clazz ? clazz :
+				element instanceof Member member ? member.getDeclaringClass() : null);
+		return (declaringClass != null &&
+				ClassUtils.isCacheSafe(declaringClass, TypeMappedAnnotations.class.getClassLoader()));
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 			AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
@@ -491,6 +581,14 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	}
 
 
+	/**
+	 * Key for a {@linkplain #sharedCache shared instance}.
+	 */
+	private record SharedKey(AnnotatedElement element, SearchStrategy searchStrategy,
+			RepeatableContainers repeatableContainers) {
+	}
+
+
 	private static class Aggregate {
 
 		private final int aggregateIndex;
@@ -500,12 +598,15 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 		private final List<Annotation> annotations;
 
+		private final Annotation[] annotationArray;
+
 		private final AnnotationTypeMappings[] mappings;
 
 		Aggregate(int aggregateIndex, @Nullable Object source, List<Annotation> annotations) {
 			this.aggregateIndex = aggregateIndex;
 			this.source = source;
 			this.annotations = annotations;
+			this.annotationArray = annotations.toArray(new Annotation[0]);
 			this.mappings = new AnnotationTypeMappings[annotations.size()];
 			for (int i = 0; i < annotations.size(); i++) {
 				this.mappings[i] = AnnotationTypeMappings.forAnnotationType(annotations.get(i).annotationType());
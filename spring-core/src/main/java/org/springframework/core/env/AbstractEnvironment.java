@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -536,6 +536,22 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		this.propertyResolver.validateRequiredProperties();
 	}
 
+	/**
+	 * Set whether the {@link PropertySourcesPropertyResolver} used by this
+	 * environment caches the outcome of property lookups.
+	 * <p>Default is "false". Note that the cache is only reset when property
+	 * sources are added to, removed from, or replaced in the
+	 * {@link #getPropertySources() property sources} of this environment.
+	 * @throws IllegalStateException if a custom property resolver is used
+	 * @since 6.0
+	 * @see PropertySourcesPropertyResolver#setCachePropertyLookups
+	 */
+	public void setCachePropertyLookups(boolean cachePropertyLookups) {
+		Assert.state(this.propertyResolver instanceof PropertySourcesPropertyResolver,
+				"Property lookups can only be cached by a PropertySourcesPropertyResolver");
+		((PropertySourcesPropertyResolver) this.propertyResolver).setCachePropertyLookups(cachePropertyLookups);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of PropertyResolver interface
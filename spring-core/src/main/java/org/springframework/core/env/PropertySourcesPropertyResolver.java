@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,20 @@
 
 package org.springframework.core.env;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.lang.Nullable;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>Property lookups may be {@linkplain #setCachePropertyLookups cached}, with the
+ * cache invalidated whenever the underlying {@link MutablePropertySources} get
+ * modified.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -34,6 +42,11 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	private final PropertySources propertySources;
 
+	private boolean cachePropertyLookups = false;
+
+	@Nullable
+	private volatile PropertyLookupCache lookupCache;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,6 +57,24 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Set whether to cache the outcome of property lookups, i.e. the raw value
+	 * found for a key along with its property source, or the absence of a value.
+	 * <p>Default is "false". Switch this flag on for repeated lookups of the same
+	 * keys, as for a large number of {@code @Value} injection points or lookups
+	 * in a request path. Map-based property sources are indexed by their keys
+	 * then, with their content expected to remain stable: the cache is only
+	 * reset when property sources are added to, removed from, or replaced in
+	 * {@link MutablePropertySources}, not when the content of a contained
+	 * property source changes. Up to 1024 lookups are cached, further keys
+	 * are looked up against the property sources every time.
+	 * @since 6.0
+	 */
+	public void setCachePropertyLookups(boolean cachePropertyLookups) {
+		this.cachePropertyLookups = cachePropertyLookups;
+		this.lookupCache = null;
+	}
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -76,7 +107,19 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
-		if (this.propertySources != null) {
+		if (this.cachePropertyLookups && this.propertySources != null) {
+			PropertyLookup lookup = obtainLookupCache(this.propertySources).lookup(key);
+			Object value = lookup.value();
+			PropertySource<?> propertySource = lookup.propertySource();
+			if (value != null && propertySource != null) {
+				if (resolveNestedPlaceholders && value instanceof String string) {
+					value = resolveNestedPlaceholders(string);
+				}
+				logKeyFound(key, propertySource, value);
+				return convertValueIfNecessary(value, targetValueType);
+			}
+		}
+		else if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Searching for key '" + key + "' in PropertySource '" +
@@ -98,6 +141,17 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	private PropertyLookupCache obtainLookupCache(PropertySources propertySources) {
+		int modificationCount = (propertySources instanceof MutablePropertySources mps ?
+				mps.getModificationCount() : 0);
+		PropertyLookupCache lookupCache = this.lookupCache;
+		if (lookupCache == null || lookupCache.modificationCount != modificationCount) {
+			lookupCache = new PropertyLookupCache(propertySources, modificationCount);
+			this.lookupCache = lookupCache;
+		}
+		return lookupCache;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -117,4 +171,81 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Outcome of a property lookup: the raw value and the property source
+	 * that it has been found in, or neither.
+	 */
+	private record PropertyLookup(@Nullable Object value, @Nullable PropertySource<?> propertySource) {
+
+		static final PropertyLookup NOT_FOUND = new PropertyLookup(null, null);
+	}
+
+
+	/**
+	 * Cache of property lookups against a snapshot of the property sources,
+	 * with map-based property sources indexed by their keys. The number of
+	 * cached lookups is bounded, since lookups of keys that are not found
+	 * are cached as well.
+	 */
+	private static final class PropertyLookupCache {
+
+		private static final int LOOKUP_CACHE_LIMIT = 1024;
+
+		final int modificationCount;
+
+		private final PropertySource<?>[] propertySources;
+
+		private final boolean[] indexed;
+
+		private final Map<String, Integer> index = new HashMap<>();
+
+		private final Map<String, PropertyLookup> lookups = new ConcurrentHashMap<>();
+
+		PropertyLookupCache(PropertySources propertySources, int modificationCount) {
+			this.modificationCount = modificationCount;
+			this.propertySources = propertySources.stream().toArray(PropertySource<?>[]::new);
+			this.indexed = new boolean[this.propertySources.length];
+			for (int i = 0; i < this.propertySources.length; i++) {
+				// Environment variables also match name variants, so cannot be indexed
+				if (this.propertySources[i] instanceof MapPropertySource mapPropertySource &&
+						!(mapPropertySource instanceof SystemEnvironmentPropertySource)) {
+					this.indexed[i] = true;
+					for (String name : mapPropertySource.getPropertyNames()) {
+						if (mapPropertySource.getProperty(name) != null) {
+							this.index.putIfAbsent(name, i);
+						}
+					}
+				}
+			}
+		}
+
+		PropertyLookup lookup(String key) {
+			PropertyLookup lookup = this.lookups.get(key);
+			if (lookup == null) {
+				lookup = doLookup(key);
+				if (this.lookups.size() < LOOKUP_CACHE_LIMIT) {
+					this.lookups.put(key, lookup);
+				}
+			}
+			return lookup;
+		}
+
+		private PropertyLookup doLookup(String key) {
+			Integer indexPosition = this.index.get(key);
+			int limit = (indexPosition != null ? indexPosition + 1 : this.propertySources.length);
+			for (int i = 0; i < limit; i++) {
+				// Only the first indexed property source containing the key needs to be asked
+				if (!this.indexed[i] || (indexPosition != null && i == indexPosition)) {
+					PropertySource<?> propertySource = this.propertySources[i];
+					Object value = propertySource.getProperty(key);
+					if (value != null) {
+						return new PropertyLookup(value, propertySource);
+					}
+				}
+			}
+			return PropertyLookup.NOT_FOUND;
+		}
+	}
+
 }
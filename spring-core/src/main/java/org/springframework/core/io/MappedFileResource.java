@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link FileSystemResource} variant whose content is meant to be read through
+ * memory-mapped regions of the file rather than through copying I/O.
+ *
+ * <p>{@link org.springframework.core.io.buffer.DataBufferUtils#read(Resource, long,
+ * org.springframework.core.io.buffer.DataBufferFactory, int) DataBufferUtils.read}
+ * detects this type of resource and exposes its content as read-only data buffers
+ * that wrap {@link java.nio.MappedByteBuffer} regions of the configured
+ * {@link #getRegionSize() region size}, so that encoders such as
+ * {@link org.springframework.core.codec.ResourceEncoder} and
+ * {@link org.springframework.core.codec.ResourceRegionEncoder} can write large
+ * files without copying their content into intermediate buffers.
+ *
+ * <p>Note that mapped regions are released by the garbage collector only,
+ * so this resource type is best suited for large files that are read
+ * frequently, not for many small files.
+ *
+ * @since 6.0
+ * @see org.springframework.core.io.buffer.DataBufferUtils#readMapped
+ */
+public class MappedFileResource extends FileSystemResource {
+
+	/**
+	 * The default size of mapped regions: 4MB.
+	 */
+	public static final int DEFAULT_REGION_SIZE = 4 * 1024 * 1024;
+
+
+	private final Path filePath;
+
+	private final int regionSize;
+
+
+	/**
+	 * Create a new {@code MappedFileResource} from a file path.
+	 * @param path a file path
+	 * @see FileSystemResource#FileSystemResource(String)
+	 */
+	public MappedFileResource(String path) {
+		this(Paths.get(StringUtils.cleanPath(path)), DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Create a new {@code MappedFileResource} from a {@link File} handle.
+	 * @param file a File handle
+	 */
+	public MappedFileResource(File file) {
+		this(file.toPath(), DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Create a new {@code MappedFileResource} from a {@link Path} handle.
+	 * @param filePath a Path handle to a file
+	 */
+	public MappedFileResource(Path filePath) {
+		this(filePath, DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Create a new {@code MappedFileResource} from a {@link Path} handle,
+	 * mapping regions of the given size.
+	 * @param filePath a Path handle to a file
+	 * @param regionSize the maximum size of each mapped region
+	 */
+	public MappedFileResource(Path filePath, int regionSize) {
+		super(filePath);
+		Assert.isTrue(regionSize > 0, "'regionSize' must be > 0");
+		this.filePath = filePath;
+		this.regionSize = regionSize;
+	}
+
+
+	/**
+	 * Return the {@link Path} handle of the underlying file.
+	 */
+	public Path getFilePath() {
+		return this.filePath;
+	}
+
+	/**
+	 * Return the maximum size of each mapped region.
+	 */
+	public int getRegionSize() {
+		return this.regionSize;
+	}
+
+	/**
+	 * This implementation creates a {@code MappedFileResource} with the same
+	 * region size, applying the given path relative to the path of the
+	 * underlying file of this resource descriptor.
+	 */
+	@Override
+	public Resource createRelative(String relativePath) {
+		String pathToUse = StringUtils.applyRelativePath(getPath(), relativePath);
+		return new MappedFileResource(this.filePath.getFileSystem().getPath(pathToUse).normalize(), this.regionSize);
+	}
+
+	/**
+	 * This implementation returns a description that includes the absolute
+	 * path of the file.
+	 */
+	@Override
+	public String getDescription() {
+		return "mapped file [" + this.filePath.toAbsolutePath() + "]";
+	}
+
+}
@@ -25,6 +25,7 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
@@ -49,6 +50,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.SynchronousSink;
 import reactor.util.context.Context;
 
+import org.springframework.core.io.MappedFileResource;
 import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -185,6 +187,38 @@ public abstract class DataBufferUtils {
 				bufferFactory, bufferSize);
 	}
 
+	/**
+	 * Read a range of the file at the given {@code Path} into a {@code Flux} of
+	 * {@code DataBuffer}s that wrap read-only, memory-mapped regions of the file,
+	 * rather than copying its content into newly allocated buffers. Regions are
+	 * mapped lazily, as buffers are requested, and are at most
+	 * {@code regionSize} bytes each.
+	 * <p>The file channel is closed when the flux is terminated. The mapped
+	 * regions remain valid until they are garbage collected.
+	 * @param path the path to read bytes from
+	 * @param position the position to start reading from
+	 * @param count the number of bytes to read, or -1 to read until the end of the file
+	 * @param bufferFactory the factory to wrap the mapped regions with
+	 * @param regionSize the maximum size of each mapped region
+	 * @return a Flux of data buffers wrapping the mapped regions of the file
+	 * @since 6.0
+	 * @see MappedFileResource
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Path path, long position, long count, DataBufferFactory bufferFactory, int regionSize) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(bufferFactory, "BufferFactory must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(regionSize > 0, "'regionSize' must be > 0");
+
+		return Flux.using(() -> FileChannel.open(path, StandardOpenOption.READ),
+				channel -> Flux.generate(new MappedFileChannelGenerator(channel, position, count, bufferFactory, regionSize)),
+				DataBufferUtils::closeChannel);
+
+		// No doOnDiscard as operators used do not cache
+	}
+
 	/**
 	 * Read the given {@code Resource} into a {@code Flux} of {@code DataBuffer}s.
 	 * <p>If the resource is a file, it is read into an
@@ -208,6 +242,9 @@ public abstract class DataBufferUtils {
 	 * {@code AsynchronousFileChannel} and turned to {@code Flux} via
 	 * {@link #readAsynchronousFileChannel(Callable, DataBufferFactory, int)} or else
 	 * fall back on {@link #readByteChannel(Callable, DataBufferFactory, int)}.
+	 * As of 6.0, a {@link MappedFileResource} is read via
+	 * {@link #readMapped(Path, long, long, DataBufferFactory, int)} instead,
+	 * using the region size of the resource rather than the given buffer size.
 	 * Closes the channel when the flux is terminated.
 	 * @param resource the resource to read from
 	 * @param position the position to start reading from
@@ -218,6 +255,10 @@ public abstract class DataBufferUtils {
 	public static Flux<DataBuffer> read(
 			Resource resource, long position, DataBufferFactory bufferFactory, int bufferSize) {
 
+		if (resource instanceof MappedFileResource mappedResource) {
+			return readMapped(mappedResource.getFilePath(), position, -1,
+					bufferFactory, mappedResource.getRegionSize());
+		}
 		try {
 			if (resource.isFile()) {
 				File file = resource.getFile();
@@ -912,6 +953,54 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private final FileChannel channel;
+
+		private final long count;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int regionSize;
+
+		private long position;
+
+		private long end = -1;
+
+		public MappedFileChannelGenerator(FileChannel channel, long position, long count,
+				DataBufferFactory dataBufferFactory, int regionSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.count = count;
+			this.dataBufferFactory = dataBufferFactory;
+			this.regionSize = regionSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				if (this.end == -1) {
+					long size = this.channel.size();
+					this.end = (this.count >= 0 ? Math.min(this.position + this.count, size) : size);
+				}
+				long remaining = this.end - this.position;
+				if (remaining <= 0) {
+					sink.complete();
+					return;
+				}
+				long regionSize = Math.min(remaining, this.regionSize);
+				ByteBuffer region = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, regionSize);
+				this.position += regionSize;
+				sink.next(this.dataBufferFactory.wrap(region));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class ReadCompletionHandler implements CompletionHandler<Integer, DataBuffer> {
 
 		private final AsynchronousFileChannel channel;
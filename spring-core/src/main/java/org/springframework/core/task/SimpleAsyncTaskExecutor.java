@@ -38,7 +38,8 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  *
  * <p><b>NOTE: This implementation does not reuse threads!</b> Consider a
  * thread-pooling TaskExecutor implementation instead, in particular for
- * executing a large number of short-lived tasks.
+ * executing a large number of short-lived tasks. Alternatively, on JDK 21+,
+ * consider setting {@link #setVirtualThreads} to {@code true}.
  *
  * @author Juergen Hoeller
  * @since 2.0
@@ -66,6 +67,9 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	/** Internal concurrency throttle used by this executor. */
 	private final ConcurrencyThrottleAdapter concurrencyThrottle = new ConcurrencyThrottleAdapter();
 
+	@Nullable
+	private VirtualThreadDelegate virtualThreadDelegate;
+
 	@Nullable
 	private ThreadFactory threadFactory;
 
@@ -97,6 +101,30 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	}
 
 
+	/**
+	 * Switch this executor to virtual threads. Requires JDK 21 or higher.
+	 * <p>The default is {@code false}, indicating platform threads.
+	 * Set this flag to {@code true} in order to create virtual threads instead,
+	 * named according to the {@link #setThreadNamePrefix "threadNamePrefix"}.
+	 * This is particularly useful for large numbers of long-lived tasks that
+	 * spend most of their time blocking, e.g. waiting for incoming messages.
+	 * @throws UnsupportedOperationException if virtual threads are not
+	 * available on the current JVM
+	 * @since 6.0
+	 */
+	public void setVirtualThreads(boolean virtual) {
+		this.virtualThreadDelegate = (virtual ? new VirtualThreadDelegate() : null);
+	}
+
+	/**
+	 * Return whether this executor creates virtual threads.
+	 * @since 6.0
+	 * @see #setVirtualThreads
+	 */
+	public boolean isVirtualThreads() {
+		return (this.virtualThreadDelegate != null);
+	}
+
 	/**
 	 * Specify an external factory to use for creating new Threads,
 	 * instead of relying on the local properties of this executor.
@@ -238,13 +266,31 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	 * Template method for the actual execution of a task.
 	 * <p>The default implementation creates a new Thread and starts it.
 	 * @param task the Runnable to execute
+	 * @see #setVirtualThreads
 	 * @see #setThreadFactory
 	 * @see #createThread
 	 * @see java.lang.Thread#start()
 	 */
 	protected void doExecute(Runnable task) {
-		Thread thread = (this.threadFactory != null ? this.threadFactory.newThread(task) : createThread(task));
-		thread.start();
+		newThread(task).start();
+	}
+
+	/**
+	 * Create a new Thread for the given task.
+	 * @param task the Runnable to create a Thread for
+	 * @return the new Thread instance
+	 * @since 6.0
+	 * @see #setVirtualThreads
+	 * @see #setThreadFactory
+	 * @see #createThread
+	 */
+	protected Thread newThread(Runnable task) {
+		if (this.virtualThreadDelegate != null) {
+			return this.virtualThreadDelegate.newVirtualThread(nextThreadName(), task);
+		}
+		else {
+			return (this.threadFactory != null ? this.threadFactory.newThread(task) : createThread(task));
+		}
 	}
 
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Internal delegate for virtual thread handling on JDK 21+, accessing the
+ * {@code Thread.ofVirtual()} builder API reflectively in order to remain
+ * compatible with the JDK 17 baseline.
+ *
+ * @since 6.0
+ * @see SimpleAsyncTaskExecutor#setVirtualThreads
+ */
+final class VirtualThreadDelegate {
+
+	@Nullable
+	private static final Method ofVirtualMethod = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+
+	@Nullable
+	private static final Method nameMethod;
+
+	@Nullable
+	private static final Method unstartedMethod;
+
+	static {
+		Class<?> builderClass = null;
+		try {
+			builderClass = ClassUtils.forName("java.lang.Thread$Builder", Thread.class.getClassLoader());
+		}
+		catch (ClassNotFoundException ex) {
+			// JDK < 19 - no virtual thread support
+		}
+		nameMethod = (builderClass != null ?
+				ClassUtils.getMethodIfAvailable(builderClass, "name", String.class) : null);
+		unstartedMethod = (builderClass != null ?
+				ClassUtils.getMethodIfAvailable(builderClass, "unstarted", Runnable.class) : null);
+	}
+
+
+	/**
+	 * Create a new delegate for virtual thread creation.
+	 * @throws UnsupportedOperationException if virtual threads are not
+	 * available on the current JVM
+	 */
+	public VirtualThreadDelegate() {
+		if (ofVirtualMethod == null || nameMethod == null || unstartedMethod == null) {
+			throw new UnsupportedOperationException("Virtual threads not supported on JDK " +
+					System.getProperty("java.version") + " - JDK 21 or higher required");
+		}
+		// Fails on JDK 19/20 unless preview features are enabled
+		ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+	}
+
+
+	/**
+	 * Create a new unstarted virtual thread with the given name.
+	 * @param name the name of the thread
+	 * @param task the task to run in the thread
+	 */
+	public Thread newVirtualThread(String name, Runnable task) {
+		Assert.state(ofVirtualMethod != null && nameMethod != null && unstartedMethod != null,
+				"No virtual thread support");
+		Object builder = ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+		ReflectionUtils.invokeMethod(nameMethod, builder, name);
+		Thread thread = (Thread) ReflectionUtils.invokeMethod(unstartedMethod, builder, task);
+		Assert.state(thread != null, "No virtual thread created");
+		return thread;
+	}
+
+
+	/**
+	 * Determine whether virtual threads are supported on the current JVM.
+	 */
+	public static boolean isSupported() {
+		try {
+			new VirtualThreadDelegate();
+			return true;
+		}
+		catch (UnsupportedOperationException ex) {
+			return false;
+		}
+	}
+
+}
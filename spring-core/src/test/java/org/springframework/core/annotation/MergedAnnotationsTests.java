@@ -93,6 +93,43 @@ class MergedAnnotationsTests {
 			.withMessage("AnnotationFilter must not be null");
 	}
 
+	@Test
+	void fromElementSharesSearchResults() {
+		MergedAnnotations annotations = MergedAnnotations.from(
+				SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY))
+				.isSameAs(annotations);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.SUPERCLASS))
+				.isNotSameAs(annotations);
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY,
+				RepeatableContainers.standardRepeatables(), AnnotationFilter.packages("java.lang")))
+				.isNotSameAs(annotations);
+		AnnotationUtils.clearCache();
+		assertThat(MergedAnnotations.from(SubTransactionalComponentClass.class, SearchStrategy.TYPE_HIERARCHY))
+				.isNotSameAs(annotations);
+	}
+
+	@Test
+	void getFromSharedSearchResultsMatchesScan() {
+		AnnotationFilter plainEquivalent = AnnotationFilter.packages("java.lang", "org.springframework.lang");
+		for (Class<?> type : List.of(SubTransactionalComponentClass.class, SubSubNonInheritedAnnotationInterface.class)) {
+			MergedAnnotations shared = MergedAnnotations.from(type, SearchStrategy.TYPE_HIERARCHY);
+			MergedAnnotations scanned = MergedAnnotations.from(type, SearchStrategy.TYPE_HIERARCHY,
+					RepeatableContainers.standardRepeatables(), plainEquivalent);
+			for (Class<? extends Annotation> annotationType : List.of(Transactional.class, Component.class, Order.class)) {
+				MergedAnnotation<?> expected = scanned.get(annotationType);
+				MergedAnnotation<?> actual = shared.get(annotationType);
+				assertThat(actual.isPresent()).isEqualTo(expected.isPresent());
+				if (expected.isPresent()) {
+					assertThat(actual.getAggregateIndex()).isEqualTo(expected.getAggregateIndex());
+					assertThat(actual.getDistance()).isEqualTo(expected.getDistance());
+					assertThat(actual.getSource()).isEqualTo(expected.getSource());
+					assertThat(actual.synthesize()).isEqualTo(expected.synthesize());
+				}
+			}
+		}
+	}
+
 	@Test
 	void streamWhenFromNonAnnotatedClass() {
 		assertThat(MergedAnnotations.from(NonAnnotatedClass.class).
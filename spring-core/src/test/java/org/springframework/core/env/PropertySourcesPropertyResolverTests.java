@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,4 +332,63 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void cachePropertyLookups() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource("low").withProperty("p1", "low").withProperty("p2", "low"));
+		ps.addFirst(new PropertySource<>("computed", new Object()) {
+			@Override
+			public Object getProperty(String name) {
+				return (name.equals("p2") ? "computed" : null);
+			}
+		});
+		ps.addFirst(new MockPropertySource("high").withProperty("p3", "${p1}-${p2}"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCachePropertyLookups(true);
+
+		assertThat(pr.getProperty("p1")).isEqualTo("low");
+		assertThat(pr.getProperty("p2")).isEqualTo("computed");
+		assertThat(pr.getProperty("p3")).isEqualTo("low-computed");
+		assertThat(pr.getProperty("bogus")).isNull();
+
+		// changed content of a property source is not seen while cached
+		((MockPropertySource) ps.get("high")).setProperty("p1", "high");
+		assertThat(pr.getProperty("p1")).isEqualTo("low");
+
+		// modified property sources reset the cache
+		ps.remove("computed");
+		assertThat(pr.getProperty("p1")).isEqualTo("high");
+		assertThat(pr.getProperty("p2")).isEqualTo("low");
+		ps.replace("low", new MockPropertySource("low").withProperty("bogus", "found"));
+		assertThat(pr.getProperty("p2")).isNull();
+		assertThat(pr.getProperty("bogus")).isEqualTo("found");
+		ps.addFirst(new MockPropertySource("highest").withProperty("p1", "highest"));
+		assertThat(pr.getProperty("p1")).isEqualTo("highest");
+	}
+
+	@Test
+	void cachePropertyLookupsBeyondCacheLimit() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource("mock").withProperty("p1", "v1"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCachePropertyLookups(true);
+
+		for (int i = 0; i < 2000; i++) {
+			assertThat(pr.getProperty("bogus" + i)).isNull();
+		}
+		assertThat(pr.getProperty("p1")).isEqualTo("v1");
+	}
+
+	@Test
+	void cachePropertyLookupsWithSystemEnvironmentVariants() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource("low").withProperty("my.prop", "low"));
+		ps.addFirst(new SystemEnvironmentPropertySource("env", Map.of("MY_PROP", "env")));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCachePropertyLookups(true);
+
+		assertThat(pr.getProperty("my.prop")).isEqualTo("env");
+		assertThat(pr.getProperty("MY_PROP")).isEqualTo("env");
+	}
+
 }
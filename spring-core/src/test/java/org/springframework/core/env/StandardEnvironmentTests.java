@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -95,6 +95,18 @@ public class StandardEnvironmentTests {
 		assertThat(parent.getActiveProfiles()).isEqualTo(new String[]{"p1","p2"});
 	}
 
+	@Test
+	void cachePropertyLookups() {
+		ConfigurableEnvironment env = new StandardEnvironment();
+		((AbstractEnvironment) env).setCachePropertyLookups(true);
+		env.getPropertySources().addFirst(new MockPropertySource("low").withProperty("key", "low"));
+		assertThat(env.getProperty("key")).isEqualTo("low");
+		assertThat(env.getProperty("bogus")).isNull();
+
+		env.getPropertySources().addFirst(new MockPropertySource("high").withProperty("key", "high"));
+		assertThat(env.getProperty("key")).isEqualTo("high");
+	}
+
 	@Test
 	void propertySourceOrder() {
 		ConfigurableEnvironment env = new StandardEnvironment();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -147,6 +147,16 @@ class ResourceTests {
 		assertThat(resource).isEqualTo(new FileSystemResource(filePath));
 	}
 
+	@Test
+	void mappedFileResource() throws Exception {
+		Path filePath = Paths.get(getClass().getResource("Resource.class").toURI());
+		MappedFileResource resource = new MappedFileResource(filePath, 1024);
+		doTestResource(resource);
+		assertThat(resource.getDescription()).startsWith("mapped file [");
+		assertThat(resource.createRelative("ClassPathResource.class")).isInstanceOfSatisfying(
+				MappedFileResource.class, relative -> assertThat(relative.getRegionSize()).isEqualTo(1024));
+	}
+
 	@Test
 	void fileSystemResourceWithPlainPath() {
 		Resource resource = new FileSystemResource("core/io/Resource.class");
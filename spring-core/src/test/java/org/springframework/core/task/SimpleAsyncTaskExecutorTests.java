@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.util.ConcurrencyThrottleSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
@@ -65,6 +66,24 @@ class SimpleAsyncTaskExecutorTests {
 		assertThat(task.getThreadName()).isEqualTo("test");
 	}
 
+	@Test
+	void virtualThreadsIfSupported() throws Exception {
+		final Object monitor = new Object();
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("virtual#");
+		if (VirtualThreadDelegate.isSupported()) {
+			executor.setVirtualThreads(true);
+			assertThat(executor.isVirtualThreads()).isTrue();
+			ThreadNameHarvester task = new ThreadNameHarvester(monitor);
+			executeAndWait(executor, task, monitor);
+			assertThat(task.getThreadName()).startsWith("virtual#");
+		}
+		else {
+			assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
+					executor.setVirtualThreads(true));
+			assertThat(executor.isVirtualThreads()).isFalse();
+		}
+	}
+
 	@Test
 	void throwsExceptionWhenSuppliedWithNullRunnable() throws Exception {
 		assertThatIllegalArgumentException().isThrownBy(() ->
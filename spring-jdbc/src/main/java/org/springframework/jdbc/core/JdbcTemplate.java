@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,6 +54,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
@@ -153,6 +154,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/**
+	 * If this variable is set to a positive value, update statements issued within
+	 * a transaction will be deferred and sent as JDBC batches of up to that size.
+	 */
+	private int writeBehindBatchSize = 0;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -317,6 +324,42 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set the maximum number of update statements to defer within a transaction
+	 * before sending them to the database as JDBC batches.
+	 * <p>Default is 0, indicating that updates are executed right away. With a
+	 * positive value, {@link #update(String)} and the parameterized
+	 * {@code update(String, ...)} variants issued within a transaction are queued
+	 * and sent in their original order, with consecutive statements for the same
+	 * SQL grouped into a single batch. The queue is flushed once it reaches the
+	 * given size, before any other statement is executed against the same
+	 * DataSource through a JdbcTemplate (so that queries see previous updates),
+	 * on {@link org.springframework.transaction.TransactionStatus#flush()}, before
+	 * a savepoint is created (e.g. for a PROPAGATION_NESTED scope), and before the
+	 * transaction commits. Updates queued within a nested scope are discarded when
+	 * it rolls back to its savepoint. Each update is executed through the template
+	 * that deferred it, with that template's settings. This also applies to a JPA transaction
+	 * which exposes its JDBC Connection to JdbcTemplate, where queued updates
+	 * are sent right before the provider's flush on commit.
+	 * <p>Note: Deferred updates return {@link Statement#SUCCESS_NO_INFO} instead
+	 * of an actual update count, and their failures surface on flush or commit.
+	 * Statements that do not access the DataSource through a JdbcTemplate, e.g.
+	 * JPA queries, do not trigger a flush.
+	 * @since 6.0
+	 * @see java.sql.Statement#executeBatch()
+	 */
+	public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+		this.writeBehindBatchSize = writeBehindBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of update statements to defer within a transaction.
+	 * @since 6.0
+	 */
+	public int getWriteBehindBatchSize() {
+		return this.writeBehindBatchSize;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -327,6 +370,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
 
+		flushWriteBehindUpdates();
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		try {
 			// Create close-suppressing Connection proxy, also preparing returned Statements.
@@ -373,6 +417,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
 
+		flushWriteBehindUpdates();
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
 		try {
@@ -533,6 +578,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	public int update(final String sql) throws DataAccessException {
 		Assert.notNull(sql, "SQL must not be null");
+		if (deferUpdate(sql, null)) {
+			return Statement.SUCCESS_NO_INFO;
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing SQL update [" + sql + "]");
 		}
@@ -643,6 +691,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			logger.debug("Executing prepared SQL statement" + (sql != null ? " [" + sql + "]" : ""));
 		}
 
+		flushWriteBehindUpdates();
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
 		try {
@@ -1012,6 +1061,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
+		if (deferUpdate(sql, pss)) {
+			return Statement.SUCCESS_NO_INFO;
+		}
 		return update(new SimplePreparedStatementCreator(sql), pss);
 	}
 
@@ -1181,6 +1233,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			logger.debug("Calling stored procedure" + (sql != null ? " [" + sql  + "]" : ""));
 		}
 
+		flushWriteBehindUpdates();
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		CallableStatement cs = null;
 		try {
@@ -1541,6 +1594,39 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Queue the given update statement for write-behind execution, if enabled
+	 * and within a transaction.
+	 * @return whether the statement has been queued
+	 * @see #setWriteBehindBatchSize
+	 */
+	private boolean deferUpdate(String sql, @Nullable PreparedStatementSetter pss) {
+		if (this.writeBehindBatchSize <= 0) {
+			return false;
+		}
+		WriteBehindUpdateQueue queue = WriteBehindUpdateQueue.obtainQueue(obtainDataSource());
+		if (queue == null || !queue.add(this, sql, pss, this.writeBehindBatchSize)) {
+			return false;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Deferring SQL update [" + sql + "]");
+		}
+		return true;
+	}
+
+	/**
+	 * Execute pending write-behind updates for this template's DataSource
+	 * before any other statement, preserving their order.
+	 */
+	private void flushWriteBehindUpdates() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			WriteBehindUpdateQueue queue = WriteBehindUpdateQueue.getQueue(obtainDataSource());
+			if (queue != null) {
+				queue.flush();
+			}
+		}
+	}
+
 	/**
 	 * Determine SQL from potential provider object.
 	 * @param sqlProvider object which is potentially an SqlProvider
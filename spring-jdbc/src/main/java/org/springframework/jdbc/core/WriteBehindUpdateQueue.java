@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction-scoped queue of parameterized update statements that have been
+ * deferred by a {@link JdbcTemplate} in write-behind mode.
+ *
+ * <p>Queued statements are sent in their original order, with consecutive
+ * statements for the same SQL grouped into a single JDBC batch. The queue is
+ * flushed before any other statement is executed against the same DataSource
+ * through a {@code JdbcTemplate}, on an explicit transaction flush, before a
+ * savepoint is created, and before the transaction commits. On rollback,
+ * queued statements are discarded; on rollback to a savepoint, the statements
+ * queued since the savepoint (that is, all currently queued statements) are
+ * discarded. Each statement is executed through the {@code JdbcTemplate} that
+ * deferred it, applying that template's settings.
+ *
+ * @since 6.0
+ * @see JdbcTemplate#setWriteBehindBatchSize
+ */
+final class WriteBehindUpdateQueue implements TransactionSynchronization {
+
+	private final ResourceKey resourceKey;
+
+	private final List<QueuedUpdate> updates = new ArrayList<>();
+
+	private boolean completing;
+
+
+	private WriteBehindUpdateQueue(ResourceKey resourceKey) {
+		this.resourceKey = resourceKey;
+	}
+
+
+	/**
+	 * Add the given update statement to this queue, flushing the queue
+	 * once it holds the given number of statements.
+	 * @return {@code true} if the statement has been queued, or {@code false}
+	 * if the transaction is already completing and the statement needs to be
+	 * executed right away
+	 */
+	boolean add(JdbcTemplate jdbcTemplate, String sql, @Nullable PreparedStatementSetter pss, int batchSize) {
+		if (this.completing) {
+			return false;
+		}
+		this.updates.add(new QueuedUpdate(jdbcTemplate, sql, pss));
+		if (this.updates.size() >= batchSize) {
+			flush();
+		}
+		return true;
+	}
+
+	/**
+	 * Execute all queued statements, in order, on the transactional Connection,
+	 * each through the template that deferred it.
+	 */
+	@Override
+	public void flush() {
+		if (this.updates.isEmpty()) {
+			return;
+		}
+		// Drain first: executing through the template triggers a nested flush attempt
+		List<QueuedUpdate> updatesToExecute = new ArrayList<>(this.updates);
+		this.updates.clear();
+		int start = 0;
+		while (start < updatesToExecute.size()) {
+			JdbcTemplate jdbcTemplate = updatesToExecute.get(start).jdbcTemplate();
+			int end = start + 1;
+			while (end < updatesToExecute.size() && updatesToExecute.get(end).jdbcTemplate() == jdbcTemplate) {
+				end++;
+			}
+			jdbcTemplate.execute(new FlushCallback(updatesToExecute.subList(start, end)));
+			start = end;
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 1;
+	}
+
+	@Override
+	public void suspend() {
+		TransactionSynchronizationManager.unbindResource(this.resourceKey);
+	}
+
+	@Override
+	public void resume() {
+		TransactionSynchronizationManager.bindResource(this.resourceKey, this);
+	}
+
+	@Override
+	public void beforeSavepoint() {
+		flush();
+	}
+
+	@Override
+	public void afterSavepointRollback() {
+		// The queue has been flushed when the savepoint was created
+		this.updates.clear();
+	}
+
+	@Override
+	public void beforeCommit(boolean readOnly) {
+		flush();
+		this.completing = true;
+	}
+
+	@Override
+	public void beforeCompletion() {
+		this.completing = true;
+	}
+
+	@Override
+	public void afterCompletion(int status) {
+		TransactionSynchronizationManager.unbindResourceIfPossible(this.resourceKey);
+		this.updates.clear();
+	}
+
+
+	/**
+	 * Return the write-behind queue for the given DataSource in the current
+	 * transaction, if any.
+	 */
+	@Nullable
+	static WriteBehindUpdateQueue getQueue(DataSource dataSource) {
+		return (WriteBehindUpdateQueue) TransactionSynchronizationManager.getResource(new ResourceKey(dataSource));
+	}
+
+	/**
+	 * Return the write-behind queue for the given DataSource in the current
+	 * transaction, creating and registering it if necessary.
+	 * @return the queue, or {@code null} if no transaction is active
+	 * (in which case updates need to be executed right away)
+	 */
+	@Nullable
+	static WriteBehindUpdateQueue obtainQueue(DataSource dataSource) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+				!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		ResourceKey resourceKey = new ResourceKey(dataSource);
+		WriteBehindUpdateQueue queue =
+				(WriteBehindUpdateQueue) TransactionSynchronizationManager.getResource(resourceKey);
+		if (queue == null) {
+			queue = new WriteBehindUpdateQueue(resourceKey);
+			TransactionSynchronizationManager.bindResource(resourceKey, queue);
+			TransactionSynchronizationManager.registerSynchronization(queue);
+		}
+		return queue;
+	}
+
+
+	/**
+	 * Key for binding a queue as transactional resource, distinct from the
+	 * DataSource key used for the transactional Connection itself.
+	 */
+	private record ResourceKey(DataSource dataSource) {
+	}
+
+
+	private record QueuedUpdate(JdbcTemplate jdbcTemplate, String sql, @Nullable PreparedStatementSetter pss) {
+	}
+
+
+	/**
+	 * Callback to execute queued updates, batching consecutive statements
+	 * with the same SQL.
+	 */
+	private static class FlushCallback implements ConnectionCallback<Object>, SqlProvider {
+
+		private final List<QueuedUpdate> updates;
+
+		@Nullable
+		private String currSql;
+
+		FlushCallback(List<QueuedUpdate> updates) {
+			this.updates = updates;
+		}
+
+		@Override
+		@Nullable
+		public Object doInConnection(Connection con) throws SQLException {
+			boolean batchSupported = JdbcUtils.supportsBatchUpdates(con);
+			int start = 0;
+			while (start < this.updates.size()) {
+				String sql = this.updates.get(start).sql();
+				int end = start + 1;
+				while (end < this.updates.size() && this.updates.get(end).sql().equals(sql)) {
+					end++;
+				}
+				this.currSql = sql;
+				PreparedStatement ps = con.prepareStatement(sql);
+				try {
+					if (batchSupported && end - start > 1) {
+						for (int i = start; i < end; i++) {
+							setValues(ps, this.updates.get(i).pss());
+							ps.addBatch();
+						}
+						ps.executeBatch();
+					}
+					else {
+						for (int i = start; i < end; i++) {
+							setValues(ps, this.updates.get(i).pss());
+							ps.executeUpdate();
+						}
+					}
+				}
+				finally {
+					for (int i = start; i < end; i++) {
+						if (this.updates.get(i).pss() instanceof ParameterDisposer disposer) {
+							disposer.cleanupParameters();
+						}
+					}
+					JdbcUtils.closeStatement(ps);
+				}
+				start = end;
+			}
+			return null;
+		}
+
+		private static void setValues(PreparedStatement ps, @Nullable PreparedStatementSetter pss)
+				throws SQLException {
+
+			if (pss != null) {
+				pss.setValues(ps);
+			}
+		}
+
+		@Override
+		@Nullable
+		public String getSql() {
+			return this.currSql;
+		}
+	}
+
+}
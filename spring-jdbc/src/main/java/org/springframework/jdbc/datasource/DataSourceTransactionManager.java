@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -122,6 +122,8 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 
 	private boolean enforceReadOnly = false;
 
+	private boolean transactionScopedCharacteristics = false;
+
 
 	/**
 	 * Create a new DataSourceTransactionManager instance.
@@ -225,6 +227,36 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		return this.enforceReadOnly;
 	}
 
+	/**
+	 * Specify whether to apply the read-only flag and the isolation level of a
+	 * transaction through a single transaction-scoped "SET TRANSACTION" statement,
+	 * e.g. "SET TRANSACTION ISOLATION LEVEL SERIALIZABLE, READ ONLY", instead of
+	 * the connection-level {@link Connection#setReadOnly} and
+	 * {@link Connection#setTransactionIsolation} calls.
+	 * <p>Default is "false". Switch this flag to "true" to save driver round-trips
+	 * for short transactions: the connection-level calls need to be reverted after
+	 * completion (and the current isolation level needs to be retrieved upfront),
+	 * whereas the transaction-scoped settings expire with the transaction itself.
+	 * Also, no statement gets executed at all for transactions with default settings.
+	 * <p>The statement syntax is understood by MySQL and Postgres. The exact
+	 * treatment can be customized through {@link #prepareTransactionalConnection}.
+	 * @since 6.0
+	 * @see #prepareTransactionalConnection
+	 */
+	public void setTransactionScopedCharacteristics(boolean transactionScopedCharacteristics) {
+		this.transactionScopedCharacteristics = transactionScopedCharacteristics;
+	}
+
+	/**
+	 * Return whether to apply the read-only flag and the isolation level of a
+	 * transaction through a transaction-scoped "SET TRANSACTION" statement.
+	 * @since 6.0
+	 * @see #setTransactionScopedCharacteristics
+	 */
+	public boolean isTransactionScopedCharacteristics() {
+		return this.transactionScopedCharacteristics;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (getDataSource() == null) {
@@ -272,9 +304,11 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 			txObject.getConnectionHolder().setSynchronizedWithTransaction(true);
 			con = txObject.getConnectionHolder().getConnection();
 
-			Integer previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(con, definition);
-			txObject.setPreviousIsolationLevel(previousIsolationLevel);
-			txObject.setReadOnly(definition.isReadOnly());
+			if (!isTransactionScopedCharacteristics()) {
+				Integer previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(con, definition);
+				txObject.setPreviousIsolationLevel(previousIsolationLevel);
+				txObject.setReadOnly(definition.isReadOnly());
+			}
 
 			// Switch to manual commit if necessary. This is very expensive in some JDBC drivers,
 			// so we don't want to do it unnecessarily (for example if we've explicitly
@@ -403,22 +437,52 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	 * <p>The "SET TRANSACTION READ ONLY" is understood by Oracle, MySQL and Postgres
 	 * and may work with other databases as well. If you'd like to adapt this treatment,
 	 * override this method accordingly.
+	 * <p>If the {@link #setTransactionScopedCharacteristics "transactionScopedCharacteristics"}
+	 * flag is set to {@code true}, a single "SET TRANSACTION" statement covers both
+	 * the isolation level and the read-only flag of the transaction definition.
 	 * @param con the transactional JDBC Connection
 	 * @param definition the current transaction definition
 	 * @throws SQLException if thrown by JDBC API
 	 * @since 4.3.7
 	 * @see #setEnforceReadOnly
+	 * @see #setTransactionScopedCharacteristics
 	 */
 	protected void prepareTransactionalConnection(Connection con, TransactionDefinition definition)
 			throws SQLException {
 
-		if (isEnforceReadOnly() && definition.isReadOnly()) {
+		if (isTransactionScopedCharacteristics()) {
+			String isolationLevel = getIsolationLevelName(definition.getIsolationLevel());
+			if (isolationLevel != null || definition.isReadOnly()) {
+				StringBuilder sql = new StringBuilder("SET TRANSACTION");
+				if (isolationLevel != null) {
+					sql.append(" ISOLATION LEVEL ").append(isolationLevel);
+				}
+				if (definition.isReadOnly()) {
+					sql.append(isolationLevel != null ? ", READ ONLY" : " READ ONLY");
+				}
+				try (Statement stmt = con.createStatement()) {
+					stmt.executeUpdate(sql.toString());
+				}
+			}
+		}
+		else if (isEnforceReadOnly() && definition.isReadOnly()) {
 			try (Statement stmt = con.createStatement()) {
 				stmt.executeUpdate("SET TRANSACTION READ ONLY");
 			}
 		}
 	}
 
+	@Nullable
+	private static String getIsolationLevelName(int isolationLevel) {
+		return switch (isolationLevel) {
+			case TransactionDefinition.ISOLATION_READ_UNCOMMITTED -> "READ UNCOMMITTED";
+			case TransactionDefinition.ISOLATION_READ_COMMITTED -> "READ COMMITTED";
+			case TransactionDefinition.ISOLATION_REPEATABLE_READ -> "REPEATABLE READ";
+			case TransactionDefinition.ISOLATION_SERIALIZABLE -> "SERIALIZABLE";
+			default -> null;
+		};
+	}
+
 	/**
 	 * Translate the given JDBC commit/rollback exception to a common Spring
 	 * exception to propagate from the {@link #commit}/{@link #rollback} call.
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.LeaseProvider;
+import org.springframework.util.Assert;
+
+/**
+ * {@link LeaseProvider} implementation that keeps leases in a database table,
+ * allowing for scheduled tasks to only run on one node of a cluster at a time.
+ *
+ * <p>Expects a table with one row per lease, created on first acquisition:
+ *
+ * <pre class="code">
+ * CREATE TABLE SCHEDULED_LEASE (
+ *   LEASE_NAME VARCHAR(200) NOT NULL PRIMARY KEY,
+ *   LOCKED_UNTIL TIMESTAMP NOT NULL,
+ *   LOCKED_AT TIMESTAMP NOT NULL,
+ *   LOCKED_BY VARCHAR(255) NOT NULL
+ * )</pre>
+ *
+ * <p>A lease is acquired through a conditional update of its row, which only
+ * succeeds once the lease has expired, or through an insert of the row if it
+ * does not exist yet, which fails on a primary key violation if another node
+ * has inserted it concurrently. Statements are expected to run in auto-commit
+ * mode, so leases should be acquired outside of application transactions.
+ *
+ * <p>Expiry times are calculated from the {@link #setClock clock} of the
+ * local node: lease durations should comfortably exceed the clock skew
+ * between nodes.
+ *
+ * @since 6.0
+ * @see org.springframework.scheduling.annotation.Scheduled#lease()
+ */
+public class JdbcLeaseProvider implements LeaseProvider {
+
+	/**
+	 * The default name of the lease table.
+	 */
+	public static final String DEFAULT_TABLE_NAME = "SCHEDULED_LEASE";
+
+
+	private final JdbcOperations jdbcOperations;
+
+	private String tableName = DEFAULT_TABLE_NAME;
+
+	private String nodeName = ManagementFactory.getRuntimeMXBean().getName();
+
+	private Clock clock = Clock.systemUTC();
+
+
+	/**
+	 * Create a new JdbcLeaseProvider for the given DataSource.
+	 * @param dataSource the DataSource holding the lease table
+	 */
+	public JdbcLeaseProvider(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new JdbcLeaseProvider for the given JdbcOperations.
+	 * <p>Acquiring a lease relies on the update count of each statement, so a
+	 * {@link JdbcTemplate} with {@linkplain JdbcTemplate#setWriteBehindBatchSize
+	 * write-behind updates} is not supported.
+	 * @param jdbcOperations the JdbcOperations for the lease table
+	 */
+	public JdbcLeaseProvider(JdbcOperations jdbcOperations) {
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		if (jdbcOperations instanceof JdbcTemplate jdbcTemplate) {
+			Assert.isTrue(jdbcTemplate.getWriteBehindBatchSize() <= 0,
+					"JdbcTemplate with write-behind updates not supported: update counts required");
+		}
+		this.jdbcOperations = jdbcOperations;
+	}
+
+
+	/**
+	 * Set the name of the lease table.
+	 * <p>Default is {@value #DEFAULT_TABLE_NAME}.
+	 */
+	public void setTableName(String tableName) {
+		Assert.hasText(tableName, "Table name must not be empty");
+		this.tableName = tableName;
+	}
+
+	/**
+	 * Return the name of the lease table.
+	 */
+	public String getTableName() {
+		return this.tableName;
+	}
+
+	/**
+	 * Set the name of this node, as recorded along with the leases it holds.
+	 * <p>Default is the name of the running JVM, typically of the form
+	 * {@code pid@hostname}.
+	 */
+	public void setNodeName(String nodeName) {
+		Assert.hasText(nodeName, "Node name must not be empty");
+		this.nodeName = nodeName;
+	}
+
+	/**
+	 * Return the name of this node.
+	 */
+	public String getNodeName() {
+		return this.nodeName;
+	}
+
+	/**
+	 * Set the clock to calculate lease expiry times with.
+	 * <p>Default is the system clock.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+
+	@Override
+	@Nullable
+	public Lease tryAcquire(String name, Duration maxDuration) {
+		Instant now = this.clock.instant();
+		Timestamp lockedAt = Timestamp.from(now);
+		Timestamp lockedUntil = Timestamp.from(now.plus(maxDuration));
+		// Unique per acquisition, so that a release never affects a subsequent holder
+		String lockedBy = this.nodeName + "#" + UUID.randomUUID();
+
+		int updated = this.jdbcOperations.update("UPDATE " + this.tableName +
+				" SET LOCKED_UNTIL = ?, LOCKED_AT = ?, LOCKED_BY = ? WHERE LEASE_NAME = ? AND LOCKED_UNTIL <= ?",
+				lockedUntil, lockedAt, lockedBy, name, lockedAt);
+		// Only an actual update count confirms the acquisition (not SUCCESS_NO_INFO)
+		if (updated <= 0) {
+			try {
+				this.jdbcOperations.update("INSERT INTO " + this.tableName +
+						" (LEASE_NAME, LOCKED_UNTIL, LOCKED_AT, LOCKED_BY) VALUES (?, ?, ?, ?)",
+						name, lockedUntil, lockedAt, lockedBy);
+			}
+			catch (DataIntegrityViolationException ex) {
+				// Row exists, with the lease held elsewhere
+				return null;
+			}
+		}
+		return () -> release(name, lockedBy);
+	}
+
+	private void release(String name, String lockedBy) {
+		this.jdbcOperations.update("UPDATE " + this.tableName +
+				" SET LOCKED_UNTIL = ? WHERE LEASE_NAME = ? AND LOCKED_BY = ?",
+				Timestamp.from(this.clock.instant()), name, lockedBy);
+	}
+
+}
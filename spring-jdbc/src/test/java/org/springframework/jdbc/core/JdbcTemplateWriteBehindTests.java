@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Mock object based tests for write-behind updates in {@link JdbcTemplate}.
+ */
+public class JdbcTemplateWriteBehindTests {
+
+	private final DataSource dataSource = mock(DataSource.class);
+
+	private final Connection connection = mock(Connection.class);
+
+	private final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+	private final ResultSet resultSet = mock(ResultSet.class);
+
+	private final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+	private final JdbcTemplate template = new JdbcTemplate(this.dataSource);
+
+	private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(this.dataSource);
+
+	private final TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+
+	@BeforeEach
+	public void setup() throws Exception {
+		given(this.metaData.supportsBatchUpdates()).willReturn(true);
+		given(this.dataSource.getConnection()).willReturn(this.connection);
+		given(this.connection.getMetaData()).willReturn(this.metaData);
+		given(this.connection.prepareStatement(anyString())).willReturn(this.preparedStatement);
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		given(this.preparedStatement.executeQuery()).willReturn(this.resultSet);
+		this.template.setWriteBehindBatchSize(10);
+	}
+
+	@AfterEach
+	public void verifyTransactionSynchronizationManagerState() {
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+	}
+
+
+	@Test
+	public void updatesBatchedOnCommit() throws Exception {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			assertThat(this.template.update("UPDATE a SET x = ?", "1")).isEqualTo(Statement.SUCCESS_NO_INFO);
+			assertThat(this.template.update("UPDATE a SET x = ?", "2")).isEqualTo(Statement.SUCCESS_NO_INFO);
+			assertThat(this.template.update("UPDATE b SET y = ?", "3")).isEqualTo(Statement.SUCCESS_NO_INFO);
+			verifyNoStatementPrepared();
+		});
+
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).prepareStatement("UPDATE a SET x = ?");
+		ordered.verify(this.preparedStatement).setString(1, "1");
+		ordered.verify(this.preparedStatement).addBatch();
+		ordered.verify(this.preparedStatement).setString(1, "2");
+		ordered.verify(this.preparedStatement).addBatch();
+		ordered.verify(this.preparedStatement).executeBatch();
+		ordered.verify(this.connection).prepareStatement("UPDATE b SET y = ?");
+		ordered.verify(this.preparedStatement).setString(1, "3");
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).commit();
+	}
+
+	@Test
+	public void queryFlushesPendingUpdates() throws Exception {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			this.template.query("SELECT x FROM a WHERE y = ?", rs -> {}, "1");
+		});
+
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).prepareStatement("UPDATE a SET x = ?");
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).prepareStatement("SELECT x FROM a WHERE y = ?");
+		ordered.verify(this.preparedStatement).executeQuery();
+		ordered.verify(this.connection).commit();
+	}
+
+	@Test
+	public void transactionFlushSendsPendingUpdates() throws Exception {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			status.flush();
+			verifyStatementPrepared("UPDATE a SET x = ?");
+		});
+		verify(this.preparedStatement).executeUpdate();
+	}
+
+	@Test
+	public void batchSizeFlushesPendingUpdates() throws Exception {
+		this.template.setWriteBehindBatchSize(2);
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			verifyNoStatementPrepared();
+			this.template.update("UPDATE a SET x = ?", "2");
+			verifyStatementPrepared("UPDATE a SET x = ?");
+		});
+		verify(this.preparedStatement).executeBatch();
+	}
+
+	@Test
+	public void rollbackDiscardsPendingUpdates() throws Exception {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			status.setRollbackOnly();
+		});
+
+		verifyNoStatementPrepared();
+		verify(this.connection).rollback();
+	}
+
+	@Test
+	public void nestedRollbackDiscardsUpdatesQueuedSinceSavepoint() throws Exception {
+		Savepoint savepoint = mock(Savepoint.class);
+		given(this.metaData.supportsSavepoints()).willReturn(true);
+		given(this.connection.setSavepoint(anyString())).willReturn(savepoint);
+		TransactionTemplate nestedTemplate = new TransactionTemplate(this.transactionManager);
+		nestedTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			nestedTemplate.executeWithoutResult(nestedStatus -> {
+				verifyStatementPrepared("UPDATE a SET x = ?");
+				this.template.update("UPDATE b SET y = ?", "2");
+				nestedStatus.setRollbackOnly();
+			});
+			this.template.update("UPDATE c SET z = ?", "3");
+		});
+
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).prepareStatement("UPDATE a SET x = ?");
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).setSavepoint(anyString());
+		ordered.verify(this.connection).rollback(savepoint);
+		ordered.verify(this.connection).prepareStatement("UPDATE c SET z = ?");
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).commit();
+		verify(this.connection, never()).prepareStatement("UPDATE b SET y = ?");
+	}
+
+	@Test
+	public void updatesFlushedThroughDeferringTemplate() throws Exception {
+		JdbcTemplate otherTemplate = new JdbcTemplate(this.dataSource);
+		otherTemplate.setWriteBehindBatchSize(10);
+		otherTemplate.setQueryTimeout(5);
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.template.update("UPDATE a SET x = ?", "1");
+			otherTemplate.update("UPDATE b SET y = ?", "2");
+			verifyNoStatementPrepared();
+		});
+
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).prepareStatement("UPDATE a SET x = ?");
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).prepareStatement("UPDATE b SET y = ?");
+		ordered.verify(this.preparedStatement).setQueryTimeout(5);
+		ordered.verify(this.preparedStatement).executeUpdate();
+		ordered.verify(this.connection).commit();
+		verify(this.preparedStatement).setQueryTimeout(5);
+	}
+
+	@Test
+	public void updateOutsideOfTransaction() throws Exception {
+		assertThat(this.template.update("UPDATE a SET x = ?", "1")).isEqualTo(1);
+		verify(this.preparedStatement).executeUpdate();
+	}
+
+
+	private void verifyNoStatementPrepared() {
+		try {
+			verify(this.connection, never()).prepareStatement(anyString());
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void verifyStatementPrepared(String sql) {
+		try {
+			verify(this.connection).prepareStatement(sql);
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
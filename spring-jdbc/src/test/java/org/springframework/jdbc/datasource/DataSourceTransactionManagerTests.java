@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.jdbc.datasource;
 
+import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -48,15 +49,19 @@ import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.core.testfixture.TestGroup.LONG_RUNNING;
@@ -122,6 +127,24 @@ public class DataSourceTransactionManagerTests  {
 		doTestTransactionCommitRestoringAutoCommit(false, true, true);
 	}
 
+	@Test
+	public void testTransactionCommitRemovesThreadLocalState() throws Exception {
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setName("tx");
+		tt.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		tt.executeWithoutResult(status -> {
+			assertThat(TransactionSynchronizationManager.hasResource(ds)).isTrue();
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {});
+		});
+
+		verify(con).commit();
+		verify(con).close();
+		Field field = ReflectionUtils.findField(TransactionSynchronizationManager.class, "transactionState");
+		assertThat(field).isNotNull();
+		ReflectionUtils.makeAccessible(field);
+		assertThat(((ThreadLocal<?>) ReflectionUtils.getField(field, null)).get()).isNull();
+	}
+
 	private void doTestTransactionCommitRestoringAutoCommit(
 			boolean autoCommit, boolean lazyConnection, final boolean createStatement) throws Exception {
 
@@ -965,6 +988,57 @@ public class DataSourceTransactionManagerTests  {
 		ordered.verify(con).close();
 	}
 
+	@Test
+	public void testTransactionWithTransactionScopedCharacteristics() throws Exception {
+		tm.setTransactionScopedCharacteristics(true);
+
+		given(con.getAutoCommit()).willReturn(true);
+		Statement stmt = mock(Statement.class);
+		given(con.createStatement()).willReturn(stmt);
+
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		tt.setReadOnly(true);
+		tt.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+				assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+			}
+		});
+
+		InOrder ordered = inOrder(con, stmt);
+		ordered.verify(con).setAutoCommit(false);
+		ordered.verify(stmt).executeUpdate("SET TRANSACTION ISOLATION LEVEL SERIALIZABLE, READ ONLY");
+		ordered.verify(stmt).close();
+		ordered.verify(con).commit();
+		ordered.verify(con).setAutoCommit(true);
+		ordered.verify(con).close();
+		verify(con, never()).setReadOnly(anyBoolean());
+		verify(con, never()).getTransactionIsolation();
+		verify(con, never()).setTransactionIsolation(anyInt());
+	}
+
+	@Test
+	public void testTransactionWithTransactionScopedCharacteristicsAndDefaultSettings() throws Exception {
+		tm.setTransactionScopedCharacteristics(true);
+
+		given(con.getAutoCommit()).willReturn(true);
+
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+			}
+		});
+
+		verify(con, never()).createStatement();
+		verify(con, never()).setReadOnly(anyBoolean());
+		verify(con).commit();
+		verify(con).close();
+	}
+
 	@ParameterizedTest(name = "transaction with {0} second timeout")
 	@ValueSource(ints = {1, 10})
 	@EnabledForTestGroups(LONG_RUNNING)
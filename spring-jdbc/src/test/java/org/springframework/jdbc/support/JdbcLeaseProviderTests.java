@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.LeaseProvider.Lease;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Integration tests for {@link JdbcLeaseProvider}.
+ */
+class JdbcLeaseProviderTests {
+
+	private static final Instant NOW = Instant.parse("2022-03-01T10:00:00Z");
+
+	private EmbeddedDatabase database;
+
+	private JdbcLeaseProvider leaseProvider;
+
+	private JdbcLeaseProvider otherLeaseProvider;
+
+
+	@BeforeEach
+	void createDatabase() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		new JdbcTemplate(this.database).execute("CREATE TABLE SCHEDULED_LEASE (" +
+				"LEASE_NAME VARCHAR(200) NOT NULL PRIMARY KEY, LOCKED_UNTIL TIMESTAMP NOT NULL, " +
+				"LOCKED_AT TIMESTAMP NOT NULL, LOCKED_BY VARCHAR(255) NOT NULL)");
+		this.leaseProvider = createLeaseProvider("node1", NOW);
+		this.otherLeaseProvider = createLeaseProvider("node2", NOW);
+	}
+
+	@AfterEach
+	void shutdownDatabase() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void writeBehindJdbcTemplateNotSupported() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.database);
+		jdbcTemplate.setWriteBehindBatchSize(10);
+		assertThatIllegalArgumentException().isThrownBy(() -> new JdbcLeaseProvider(jdbcTemplate));
+	}
+
+	@Test
+	void acquireNewLease() {
+		assertThat(this.leaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+		assertThat(lockedBy("task")).startsWith("node1#");
+	}
+
+	@Test
+	void leaseHeldElsewhere() {
+		assertThat(this.leaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+		assertThat(this.otherLeaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNull();
+		assertThat(this.otherLeaseProvider.tryAcquire("otherTask", Duration.ofMinutes(1))).isNotNull();
+	}
+
+	@Test
+	void releasedLeaseCanBeAcquiredElsewhere() {
+		Lease lease = this.leaseProvider.tryAcquire("task", Duration.ofMinutes(1));
+		assertThat(lease).isNotNull();
+		lease.release();
+		assertThat(this.otherLeaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+		assertThat(lockedBy("task")).startsWith("node2#");
+	}
+
+	@Test
+	void expiredLeaseCanBeAcquiredElsewhere() {
+		assertThat(this.leaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+		JdbcLeaseProvider laterLeaseProvider = createLeaseProvider("node2", NOW.plusSeconds(61));
+		assertThat(laterLeaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+	}
+
+	@Test
+	void releaseOfExpiredLeaseDoesNotAffectNewHolder() {
+		Lease lease = this.leaseProvider.tryAcquire("task", Duration.ofMinutes(1));
+		assertThat(lease).isNotNull();
+		JdbcLeaseProvider laterLeaseProvider = createLeaseProvider("node2", NOW.plusSeconds(61));
+		assertThat(laterLeaseProvider.tryAcquire("task", Duration.ofMinutes(1))).isNotNull();
+		lease.release();
+		assertThat(createLeaseProvider("node3", NOW.plusSeconds(62)).tryAcquire("task", Duration.ofMinutes(1))).isNull();
+	}
+
+
+	private JdbcLeaseProvider createLeaseProvider(String nodeName, Instant now) {
+		JdbcLeaseProvider leaseProvider = new JdbcLeaseProvider(this.database);
+		leaseProvider.setNodeName(nodeName);
+		leaseProvider.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		return leaseProvider;
+	}
+
+	private String lockedBy(String leaseName) {
+		return new JdbcTemplate(this.database).queryForObject(
+				"SELECT LOCKED_BY FROM SCHEDULED_LEASE WHERE LEASE_NAME = ?", String.class, leaseName);
+	}
+
+}
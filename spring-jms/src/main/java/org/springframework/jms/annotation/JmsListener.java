@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,6 +58,8 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
  * <li>{@link org.springframework.messaging.handler.annotation.Headers @Headers}-annotated
  * method argument that must also be assignable to {@link java.util.Map} for obtaining
  * access to all headers</li>
+ * <li>a {@link java.util.List} argument for a {@link #batch} listener, receiving all
+ * messages of a batch as payloads or as JMS/messaging messages</li>
  * <li>{@link org.springframework.messaging.MessageHeaders} arguments for obtaining
  * access to all headers</li>
  * <li>{@link org.springframework.messaging.support.MessageHeaderAccessor} or
@@ -134,4 +136,19 @@ public @interface JmsListener {
 	 */
 	String concurrency() default "";
 
+	/**
+	 * Whether the listener method processes a batch of messages at once, taking
+	 * a {@link java.util.List} of payloads, of {@link jakarta.jms.Message} or of
+	 * {@link org.springframework.messaging.Message} instances as parameter.
+	 * <p>Supports a boolean value or a placeholder/expression resolving to one.
+	 * The batch size is configured on the container factory used to create the
+	 * listener container, see
+	 * {@link org.springframework.jms.config.DefaultJmsListenerContainerFactory#setBatchSize}.
+	 * Listener containers which do not support batch reception will invoke the
+	 * method with a single-element list for each message.
+	 * @since 6.0
+	 * @see org.springframework.jms.listener.BatchMessageListener
+	 */
+	String batch() default "";
+
 }
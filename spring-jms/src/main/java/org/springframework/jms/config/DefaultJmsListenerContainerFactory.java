@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,9 @@ public class DefaultJmsListenerContainerFactory
 	@Nullable
 	private Executor taskExecutor;
 
+	@Nullable
+	private Boolean virtualThreads;
+
 	@Nullable
 	private PlatformTransactionManager transactionManager;
 
@@ -57,6 +60,12 @@ public class DefaultJmsListenerContainerFactory
 	@Nullable
 	private Long receiveTimeout;
 
+	@Nullable
+	private Integer batchSize;
+
+	@Nullable
+	private Long batchReceiveTimeout;
+
 	@Nullable
 	private Long recoveryInterval;
 
@@ -71,6 +80,14 @@ public class DefaultJmsListenerContainerFactory
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * @since 6.0
+	 * @see DefaultMessageListenerContainer#setVirtualThreads
+	 */
+	public void setVirtualThreads(Boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * @see DefaultMessageListenerContainer#setTransactionManager
 	 */
@@ -113,6 +130,22 @@ public class DefaultJmsListenerContainerFactory
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * @since 6.0
+	 * @see DefaultMessageListenerContainer#setBatchSize
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @since 6.0
+	 * @see DefaultMessageListenerContainer#setBatchReceiveTimeout
+	 */
+	public void setBatchReceiveTimeout(Long batchReceiveTimeout) {
+		this.batchReceiveTimeout = batchReceiveTimeout;
+	}
+
 	/**
 	 * @see DefaultMessageListenerContainer#setRecoveryInterval
 	 */
@@ -138,6 +171,9 @@ public class DefaultJmsListenerContainerFactory
 		if (this.taskExecutor != null) {
 			container.setTaskExecutor(this.taskExecutor);
 		}
+		if (this.virtualThreads != null) {
+			container.setVirtualThreads(this.virtualThreads);
+		}
 		if (this.transactionManager != null) {
 			container.setTransactionManager(this.transactionManager);
 		}
@@ -158,6 +194,12 @@ public class DefaultJmsListenerContainerFactory
 		if (this.receiveTimeout != null) {
 			container.setReceiveTimeout(this.receiveTimeout);
 		}
+		if (this.batchSize != null) {
+			container.setBatchSize(this.batchSize);
+		}
+		if (this.batchReceiveTimeout != null) {
+			container.setBatchReceiveTimeout(this.batchReceiveTimeout);
+		}
 
 		if (this.backOff != null) {
 			container.setBackOff(this.backOff);
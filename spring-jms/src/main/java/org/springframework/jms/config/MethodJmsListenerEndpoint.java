@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.EmbeddedValueResolver;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.jms.listener.adapter.BatchMessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.MessagingMessageListenerAdapter;
 import org.springframework.jms.support.QosSettings;
 import org.springframework.jms.support.converter.MessageConverter;
@@ -64,6 +65,8 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
+	private boolean batchListener = false;
+
 
 	/**
 	 * Set the actual bean instance to invoke this endpoint method on.
@@ -115,6 +118,27 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 		return method;
 	}
 
+	/**
+	 * Specify whether the endpoint method processes a batch of messages at once,
+	 * receiving them through a {@link java.util.List} parameter.
+	 * <p>Default is {@code false}. The batch size is determined by the listener
+	 * container, e.g. through
+	 * {@link org.springframework.jms.listener.DefaultMessageListenerContainer#setBatchSize}.
+	 * @since 6.0
+	 * @see BatchMessagingMessageListenerAdapter
+	 */
+	public void setBatchListener(boolean batchListener) {
+		this.batchListener = batchListener;
+	}
+
+	/**
+	 * Return whether the endpoint method processes a batch of messages at once.
+	 * @since 6.0
+	 */
+	public boolean isBatchListener() {
+		return this.batchListener;
+	}
+
 	/**
 	 * Set the {@link MessageHandlerMethodFactory} to use to build the
 	 * {@link InvocableHandlerMethod} responsible to manage the invocation
@@ -179,10 +203,13 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 
 	/**
 	 * Create an empty {@link MessagingMessageListenerAdapter} instance.
+	 * <p>Returns a {@link BatchMessagingMessageListenerAdapter} in case of a
+	 * {@link #setBatchListener batch listener} endpoint.
 	 * @return a new {@code MessagingMessageListenerAdapter} or subclass thereof
 	 */
 	protected MessagingMessageListenerAdapter createMessageListenerInstance() {
-		return new MessagingMessageListenerAdapter();
+		return (this.batchListener ? new BatchMessagingMessageListenerAdapter() :
+				new MessagingMessageListenerAdapter());
 	}
 
 	/**
@@ -225,7 +252,8 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 	protected StringBuilder getEndpointDescription() {
 		return super.getEndpointDescription()
 				.append(" | bean='").append(this.bean).append('\'')
-				.append(" | method='").append(this.method).append('\'');
+				.append(" | method='").append(this.method).append('\'')
+				.append(" | batch=").append(this.batchListener);
 	}
 
 }
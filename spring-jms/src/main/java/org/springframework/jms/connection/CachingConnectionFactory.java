@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -317,17 +317,22 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			else if (methodName.equals("close")) {
 				// Handle close method: don't pass the call on.
 				if (active) {
+					boolean cacheable;
 					synchronized (this.sessionList) {
-						if (this.sessionList.size() < getSessionCacheSize()) {
-							try {
-								logicalClose((Session) proxy);
+						cacheable = (this.sessionList.size() < getSessionCacheSize());
+					}
+					// Interact with the broker outside of the lock, not blocking other
+					// threads (possibly virtual threads) that are obtaining Sessions.
+					if (cacheable) {
+						try {
+							if (logicalClose((Session) proxy)) {
 								// Remain open in the session list.
 								return null;
 							}
-							catch (JMSException ex) {
-								logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
-								// Proceed to physical close from here...
-							}
+						}
+						catch (JMSException ex) {
+							logger.trace("Logical close of cached JMS Session failed - discarding it", ex);
+							// Proceed to physical close from here...
 						}
 					}
 				}
@@ -458,7 +463,12 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			return new CachedMessageConsumer(consumer);
 		}
 
-		private void logicalClose(Session proxy) throws JMSException {
+		/**
+		 * Reset the target Session and return it to the session list.
+		 * @return {@code true} if the Session remains cached, or {@code false}
+		 * if the session list has been filled up by other threads in the meantime
+		 */
+		private boolean logicalClose(Session proxy) throws JMSException {
 			// Preserve rollback-on-close semantics.
 			if (this.transactionOpen && this.target.getTransacted()) {
 				this.transactionOpen = false;
@@ -476,6 +486,9 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			boolean returned = false;
 			synchronized (this.sessionList) {
 				if (!this.sessionList.contains(proxy)) {
+					if (this.sessionList.size() >= getSessionCacheSize()) {
+						return false;
+					}
 					this.sessionList.addLast(proxy);
 					returned = true;
 				}
@@ -483,6 +496,7 @@ public class CachingConnectionFactory extends SingleConnectionFactory {
 			if (returned && logger.isTraceEnabled()) {
 				logger.trace("Returned cached Session: " + this.target);
 			}
+			return true;
 		}
 
 		private void physicalClose() throws JMSException {
@@ -16,6 +16,11 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import jakarta.jms.Connection;
 import jakarta.jms.Destination;
 import jakarta.jms.JMSException;
@@ -48,6 +53,11 @@ import org.springframework.util.Assert;
  * to the concrete implementation. The receive timeout for each attempt can be
  * configured through the {@link #setReceiveTimeout "receiveTimeout"} property.
  *
+ * <p>Each attempt may also collect a batch of messages, as configured through the
+ * {@link #setBatchSize "batchSize"} and {@link #setBatchReceiveTimeout "batchReceiveTimeout"}
+ * properties. A batch is passed to a {@link BatchMessageListener} as a whole (or to
+ * any other listener message by message) and committed or acknowledged at once.
+ *
  * <p>The underlying mechanism is based on standard JMS MessageConsumer handling,
  * which is perfectly compatible with both native JMS and JMS in a Jakarta EE environment.
  * Neither the JMS {@code MessageConsumer.setMessageListener} facility  nor the JMS
@@ -95,6 +105,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int batchSize = 1;
+
+	private long batchReceiveTimeout = 0;
+
 
 	@Override
 	public void setSessionTransacted(boolean sessionTransacted) {
@@ -183,6 +197,59 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive per polling attempt,
+	 * to be processed and committed (or acknowledged) as one batch.
+	 * <p>Default is 1, receiving and committing one message at a time. A higher
+	 * value reduces broker round-trips and commit overhead for high-volume
+	 * destinations: a {@link BatchMessageListener} receives all collected
+	 * messages at once, whereas other listeners get invoked for each message
+	 * in turn, with a single commit (or acknowledgement) for the entire batch.
+	 * <p><b>NOTE:</b> An exception thrown by the listener leads to a rollback
+	 * (or recovery) of the entire batch, with redelivery of all of its messages
+	 * in case of a transacted Session or "CLIENT_ACKNOWLEDGE" mode.
+	 * @since 6.0
+	 * @see #setBatchReceiveTimeout
+	 * @see BatchMessageListener
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to receive per polling attempt.
+	 * @since 6.0
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the maximum time to wait for further messages once the first message
+	 * of a batch has been received, in <b>milliseconds</b>.
+	 * <p>Default is 0, collecting only those messages which are immediately
+	 * available after the first one (through no-wait receive calls). Only
+	 * applies if the {@link #setBatchSize "batchSize"} is greater than 1.
+	 * <p><b>NOTE:</b> Like the receive timeout, this value needs to be smaller
+	 * than the transaction timeout used by the transaction manager.
+	 * @since 6.0
+	 * @see #setBatchSize
+	 * @see #setReceiveTimeout
+	 */
+	public void setBatchReceiveTimeout(long batchReceiveTimeout) {
+		Assert.isTrue(batchReceiveTimeout >= 0, "'batchReceiveTimeout' must not be negative");
+		this.batchReceiveTimeout = batchReceiveTimeout;
+	}
+
+	/**
+	 * Return the batch receive timeout (ms) configured for this listener container.
+	 * @since 6.0
+	 */
+	public long getBatchReceiveTimeout() {
+		return this.batchReceiveTimeout;
+	}
+
 
 	@Override
 	public void initialize() {
@@ -280,6 +347,7 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 	 * @return whether a message has been received
 	 * @throws JMSException if thrown by JMS methods
 	 * @see #doExecuteListener(jakarta.jms.Session, jakarta.jms.Message)
+	 * @see #doExecuteListener(jakarta.jms.Session, java.util.List)
 	 */
 	protected boolean doReceiveAndExecute(Object invoker, @Nullable Session session,
 			@Nullable MessageConsumer consumer, @Nullable TransactionStatus status) throws JMSException {
@@ -313,12 +381,27 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 				consumerToUse = createListenerConsumer(sessionToUse);
 				consumerToClose = consumerToUse;
 			}
-			Message message = receiveMessage(consumerToUse);
+			List<Message> batch = null;
+			Message message;
+			if (this.batchSize > 1) {
+				batch = receiveMessageBatch(consumerToUse);
+				message = (!batch.isEmpty() ? batch.get(0) : null);
+			}
+			else {
+				message = receiveMessage(consumerToUse);
+			}
 			if (message != null) {
 				if (logger.isDebugEnabled()) {
-					logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
-							consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
-							sessionToUse + "]");
+					if (batch != null) {
+						logger.debug("Received batch of " + batch.size() + " messages from consumer [" +
+								consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
+								sessionToUse + "]");
+					}
+					else {
+						logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
+								consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
+								sessionToUse + "]");
+					}
 				}
 				messageReceived(invoker, sessionToUse);
 				boolean exposeResource = (!transactional && isExposeListenerSession() &&
@@ -328,7 +411,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 							obtainConnectionFactory(), new LocallyExposedJmsResourceHolder(sessionToUse));
 				}
 				try {
-					doExecuteListener(sessionToUse, message);
+					if (batch != null) {
+						doExecuteListener(sessionToUse, batch);
+					}
+					else {
+						doExecuteListener(sessionToUse, message);
+					}
 				}
 				catch (Throwable ex) {
 					if (status != null) {
@@ -431,6 +519,37 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return receiveFromConsumer(consumer, getReceiveTimeout());
 	}
 
+	/**
+	 * Receive a batch of messages from the given consumer: waiting for the first
+	 * message according to the {@link #setReceiveTimeout "receiveTimeout"}, then
+	 * collecting further messages until the {@link #setBatchSize "batchSize"} has
+	 * been reached or the {@link #setBatchReceiveTimeout "batchReceiveTimeout"}
+	 * has elapsed.
+	 * @param consumer the MessageConsumer to use
+	 * @return the received Messages (empty if none)
+	 * @throws JMSException if thrown by JMS methods
+	 * @since 6.0
+	 * @see #receiveMessage
+	 */
+	protected List<Message> receiveMessageBatch(MessageConsumer consumer) throws JMSException {
+		Message message = receiveMessage(consumer);
+		if (message == null) {
+			return Collections.emptyList();
+		}
+		List<Message> messages = new ArrayList<>(this.batchSize);
+		messages.add(message);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.batchReceiveTimeout);
+		while (messages.size() < this.batchSize) {
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			message = receiveFromConsumer(consumer, (remaining > 0 ? remaining : RECEIVE_TIMEOUT_NO_WAIT));
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+		}
+		return messages;
+	}
+
 	/**
 	 * Template method that gets called right when a new message has been received,
 	 * before attempting to process it. Allows subclasses to react to the event
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.List;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * Variant of the {@link SessionAwareMessageListener} interface for listeners
+ * that process a batch of received JMS messages at once, along with the
+ * underlying JMS Session that the messages have been received with.
+ *
+ * <p>Supported by Spring's {@link DefaultMessageListenerContainer}, collecting
+ * up to {@link AbstractPollingMessageListenerContainer#setBatchSize "batchSize"}
+ * messages per receive loop and committing (or acknowledging) the entire batch
+ * once the listener returns. Other listener containers deliver each message as
+ * a single-element batch.
+ *
+ * @since 6.0
+ * @see AbstractPollingMessageListenerContainer#setBatchSize
+ * @see AbstractPollingMessageListenerContainer#setBatchReceiveTimeout
+ * @see SessionAwareMessageListener
+ */
+@FunctionalInterface
+public interface BatchMessageListener {
+
+	/**
+	 * Callback for processing a batch of received JMS messages.
+	 * <p>Implementors are supposed to process all given messages; any exception
+	 * thrown will lead to a rollback (or recovery) of the entire batch in case
+	 * of a transacted Session or "CLIENT_ACKNOWLEDGE" mode.
+	 * @param messages the received JMS messages, in receive order
+	 * (never {@code null} or empty)
+	 * @param session the underlying JMS Session (never {@code null})
+	 * @throws JMSException if thrown by JMS methods
+	 */
+	void onMessages(List<Message> messages, Session session) throws JMSException;
+
+}
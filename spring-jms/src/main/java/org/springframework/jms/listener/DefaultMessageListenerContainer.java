@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.jms.listener;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.jms.Connection;
 import jakarta.jms.JMSException;
@@ -65,7 +66,8 @@ import org.springframework.util.backoff.FixedBackOff;
  * thread pool facility (such as a Jakarta EE server's). With a native JMS setup,
  * each of those listener threads is going to use a cached JMS {@code Session} and
  * {@code MessageConsumer} (only refreshed in case of failure), using the JMS provider's
- * resources as efficiently as possible.
+ * resources as efficiently as possible. On JDK 21+, the default {@code TaskExecutor}
+ * may run each invoker on a virtual thread instead, see {@link #setVirtualThreads}.
  *
  * <p>Message reception and listener execution can automatically be wrapped
  * in transactions by passing a Spring
@@ -177,6 +179,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	@Nullable
 	private Executor taskExecutor;
 
+	private boolean virtualThreads = false;
+
 	private BackOff backOff = new FixedBackOff(DEFAULT_RECOVERY_INTERVAL, Long.MAX_VALUE);
 
 	private int cacheLevel = CACHE_AUTO;
@@ -195,6 +199,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private final Set<AsyncMessageListenerInvoker> scheduledInvokers = new HashSet<>();
 
+	private final AtomicInteger idleInvokerCount = new AtomicInteger();
+
 	private int activeInvokerCount = 0;
 
 	private int registeredWithDestination = 0;
@@ -228,6 +234,25 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * Specify whether the default TaskExecutor should run each invoker
+	 * on a virtual thread. Requires JDK 21 or higher.
+	 * <p>Default is {@code false}, running each invoker on a platform thread.
+	 * Since each invoker blocks in {@code MessageConsumer.receive} calls for most
+	 * of its lifetime, virtual threads allow for a much higher number of concurrent
+	 * consumers per node, e.g. a "maxConcurrentConsumers" value in the thousands.
+	 * Consider a longer {@link #setIdleTaskExecutionLimit "idleTaskExecutionLimit"}
+	 * in such a scenario, since idle consumers are cheap to keep around then.
+	 * <p>Only applies if no external {@link #setTaskExecutor "taskExecutor"}
+	 * has been specified.
+	 * @since 6.0
+	 * @see #createDefaultTaskExecutor()
+	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor#setVirtualThreads
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * Specify the {@link BackOff} instance to use to compute the interval
 	 * between recovery attempts. If the {@link BackOffExecution} implementation
@@ -406,7 +431,9 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * More concretely, this limits the number of message reception attempts
 	 * per task, which includes receive iterations that did not actually
 	 * pick up a message until they hit their timeout (see the
-	 * {@link #setReceiveTimeout "receiveTimeout"} property).
+	 * {@link #setReceiveTimeout "receiveTimeout"} property). In case of a
+	 * {@link #setBatchSize "batchSize"} greater than 1, each reception attempt
+	 * may pick up an entire batch of messages.
 	 * <p>Default is unlimited (-1) in case of a standard TaskExecutor,
 	 * reusing the original invoker threads until shutdown (at the
 	 * expense of limited dynamic scheduling).
@@ -636,6 +663,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					scheduledInvoker.clearResources();
 				}
 				this.scheduledInvokers.clear();
+				this.idleInvokerCount.set(0);
 			}
 		}
 		catch (InterruptedException ex) {
@@ -737,13 +765,19 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	/**
 	 * Create a default TaskExecutor. Called if no explicit TaskExecutor has been specified.
 	 * <p>The default implementation builds a {@link org.springframework.core.task.SimpleAsyncTaskExecutor}
-	 * with the specified bean name (or the class name, if no bean name specified) as thread name prefix.
+	 * with the specified bean name (or the class name, if no bean name specified) as thread name prefix,
+	 * creating virtual threads if demanded through {@link #setVirtualThreads}.
 	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor#SimpleAsyncTaskExecutor(String)
+	 * @see org.springframework.core.task.SimpleAsyncTaskExecutor#setVirtualThreads
 	 */
 	protected TaskExecutor createDefaultTaskExecutor() {
 		String beanName = getBeanName();
 		String threadNamePrefix = (beanName != null ? beanName + "-" : DEFAULT_THREAD_NAME_PREFIX);
-		return new SimpleAsyncTaskExecutor(threadNamePrefix);
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+		if (this.virtualThreads) {
+			executor.setVirtualThreads(true);
+		}
+		return executor;
 	}
 
 	/**
@@ -755,6 +789,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		if (rescheduleTaskIfNecessary(invoker)) {
 			// This should always be true, since we're only calling this when active.
 			this.scheduledInvokers.add(invoker);
+			this.idleInvokerCount.incrementAndGet();
 		}
 	}
 
@@ -836,17 +871,12 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	}
 
 	/**
-	 * Determine whether this listener container currently has more
-	 * than one idle instance among its scheduled invokers.
+	 * Determine the number of idle instances among the scheduled invokers.
+	 * <p>Tracked as invokers change their idle state, avoiding a scan across
+	 * all scheduled invokers for every received message.
 	 */
 	private int getIdleInvokerCount() {
-		int count = 0;
-		for (AsyncMessageListenerInvoker invoker : this.scheduledInvokers) {
-			if (invoker.isIdle()) {
-				count++;
-			}
-		}
-		return count;
+		return this.idleInvokerCount.get();
 	}
 
 
@@ -1166,7 +1196,9 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 				synchronized (lifecycleMonitor) {
 					if (!shouldRescheduleInvoker(this.idleTaskExecutionCount) || !rescheduleTaskIfNecessary(this)) {
 						// We're shutting down completely.
-						scheduledInvokers.remove(this);
+						if (scheduledInvokers.remove(this) && this.idle) {
+							idleInvokerCount.decrementAndGet();
+						}
 						if (logger.isDebugEnabled()) {
 							logger.debug("Lowered scheduled invoker count: " + scheduledInvokers.size());
 						}
@@ -1317,7 +1349,15 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 
 		public void setIdle(boolean idle) {
-			this.idle = idle;
+			if (this.idle != idle) {
+				this.idle = idle;
+				if (idle) {
+					idleInvokerCount.incrementAndGet();
+				}
+				else {
+					idleInvokerCount.decrementAndGet();
+				}
+			}
 		}
 
 		public boolean isIdle() {
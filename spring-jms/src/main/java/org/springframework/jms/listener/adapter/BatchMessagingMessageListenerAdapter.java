@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener.adapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.jms.listener.BatchMessageListener;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * A {@link BatchMessageListener} adapter that invokes a configurable
+ * {@link org.springframework.messaging.handler.invocation.InvocableHandlerMethod}
+ * with all messages of a received batch.
+ *
+ * <p>The handler method is expected to declare a {@link List} parameter for the
+ * batch, with its element type determining the representation of each message:
+ * {@link jakarta.jms.Message} (or one of its subclasses) for the raw JMS messages,
+ * {@link Message} for Spring's messaging abstraction counterpart, or any other
+ * type for the converted message payloads.
+ *
+ * <p>When used as a regular (non-batch) listener, each incoming message is
+ * passed to the handler method as a single-element batch.
+ *
+ * @since 6.0
+ * @see org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+ */
+public class BatchMessagingMessageListenerAdapter extends MessagingMessageListenerAdapter
+		implements BatchMessageListener {
+
+	@Nullable
+	private volatile Class<?> batchElementType;
+
+
+	@Override
+	public void onMessage(jakarta.jms.Message jmsMessage, @Nullable Session session) throws JMSException {
+		onMessages(Collections.singletonList(jmsMessage), session);
+	}
+
+	@Override
+	public void onMessages(List<jakarta.jms.Message> jmsMessages, @Nullable Session session) throws JMSException {
+		Message<?> message = toMessagingMessage(jmsMessages);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Processing batch of " + jmsMessages.size() + " messages");
+		}
+		Object result = invokeHandler(message, session);
+		if (result != null) {
+			// Reply to the first message of the batch, in terms of reply destination
+			handleResult(result, jmsMessages.get(0), session);
+		}
+		else {
+			logger.trace("No result object given - no result to handle");
+		}
+	}
+
+	/**
+	 * Build a messaging message for the given batch of JMS messages, with its
+	 * payload being a {@link List} of batch elements as expected by the
+	 * handler method.
+	 * @param jmsMessages the received JMS messages
+	 * @return the messaging message to invoke the handler method with
+	 */
+	protected Message<?> toMessagingMessage(List<jakarta.jms.Message> jmsMessages) {
+		Class<?> elementType = getBatchElementType();
+		List<?> payload;
+		if (jakarta.jms.Message.class.isAssignableFrom(elementType)) {
+			payload = jmsMessages;
+		}
+		else {
+			List<Object> elements = new ArrayList<>(jmsMessages.size());
+			boolean messagingMessages = Message.class.isAssignableFrom(elementType);
+			for (jakarta.jms.Message jmsMessage : jmsMessages) {
+				elements.add(messagingMessages ? toMessagingMessage(jmsMessage) : extractMessage(jmsMessage));
+			}
+			payload = elements;
+		}
+		return MessageBuilder.withPayload(payload).build();
+	}
+
+	/**
+	 * Determine the element type of the {@link List} parameter of the handler
+	 * method that receives the batch.
+	 * @return the declared element type, or {@code Object} if not determinable
+	 */
+	protected Class<?> getBatchElementType() {
+		Class<?> elementType = this.batchElementType;
+		if (elementType == null) {
+			elementType = Object.class;
+			for (MethodParameter parameter : getHandlerMethod().getMethodParameters()) {
+				if (List.class.isAssignableFrom(parameter.getParameterType()) &&
+						!parameter.hasParameterAnnotation(Header.class) &&
+						!parameter.hasParameterAnnotation(Headers.class)) {
+					Class<?> resolved = ResolvableType.forMethodParameter(parameter).asCollection().resolveGeneric();
+					if (resolved != null) {
+						elementType = resolved;
+					}
+					break;
+				}
+			}
+			this.batchElementType = elementType;
+		}
+		return elementType;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.jms.connection;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import jakarta.jms.Connection;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.ExceptionListener;
@@ -31,7 +33,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -453,6 +457,77 @@ public class SingleConnectionFactoryTests {
 		verify(con).close();
 	}
 
+	@Test
+	public void testCachingConnectionFactoryWithRollbackOutsideOfSessionLock() throws Exception {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session txSession = mock(Session.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(true, Session.AUTO_ACKNOWLEDGE)).willReturn(txSession);
+		given(txSession.getTransacted()).willReturn(true);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setReconnectOnException(false);
+		Connection con1 = scf.createConnection();
+		AtomicBoolean sessionObtained = new AtomicBoolean();
+		willAnswer(invocation -> {
+			// Another thread obtaining a Session must not wait for the rollback
+			Thread thread = new Thread(() -> {
+				try {
+					con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+					sessionObtained.set(true);
+				}
+				catch (JMSException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+			thread.start();
+			thread.join(5000);
+			return null;
+		}).given(txSession).rollback();
+
+		Session session1 = con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+		session1.getTransacted();
+		session1.close();  // should lead to rollback
+		assertThat(sessionObtained).isTrue();
+		con1.close();
+		scf.destroy();
+
+		verify(txSession).rollback();
+	}
+
+	@Test
+	public void testCachingConnectionFactoryWithSessionListFilledUpDuringLogicalClose() throws JMSException {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session txSession1 = mock(Session.class);
+		Session txSession2 = mock(Session.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(true, Session.AUTO_ACKNOWLEDGE)).willReturn(txSession1, txSession2);
+		given(txSession1.getTransacted()).willReturn(true);
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		scf.setReconnectOnException(false);
+		scf.setSessionCacheSize(1);
+		Connection con1 = scf.createConnection();
+		Session session1 = con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+		Session session2 = con1.createSession(true, Session.AUTO_ACKNOWLEDGE);
+		willAnswer(invocation -> {
+			session2.close();  // takes the last free slot in the session list
+			return null;
+		}).given(txSession1).rollback();
+
+		session1.getTransacted();
+		session1.close();  // should lead to rollback and physical close
+		assertThat(con1.createSession(true, Session.AUTO_ACKNOWLEDGE)).isSameAs(session2);
+
+		verify(txSession1).rollback();
+		verify(txSession1).close();
+		verify(txSession2, never()).close();
+	}
+
 	@Test
 	public void testCachingConnectionFactoryWithQueueConnectionFactoryAndJms102Usage() throws JMSException {
 		QueueConnectionFactory cf = mock(QueueConnectionFactory.class);
@@ -16,6 +16,8 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -23,6 +25,10 @@ import jakarta.jms.Connection;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.Destination;
 import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Session;
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -31,8 +37,10 @@ import org.springframework.util.backoff.BackOff;
 import org.springframework.util.backoff.BackOffExecution;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -105,6 +113,132 @@ public class DefaultMessageListenerContainerTests {
 		runnable2.waitForCompletion();
 	}
 
+	@Test
+	public void batchListenerReceivesBatchAndCommitsOnce() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		Message message3 = mock(Message.class);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).willReturn(message1);
+		given(consumer.receiveNoWait()).willReturn(message2, message3, null);
+
+		List<Message> received = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(
+				(BatchMessageListener) (messages, listenerSession) -> received.addAll(messages));
+		container.setBatchSize(5);
+
+		assertThat(container.receiveAndExecute(this, session, consumer)).isTrue();
+		assertThat(received).containsExactly(message1, message2, message3);
+		verify(session, times(1)).commit();
+	}
+
+	@Test
+	public void batchListenerReceivesUpToBatchSize() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).willReturn(message1, message2);
+
+		List<List<Message>> received = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(
+				(BatchMessageListener) (messages, listenerSession) -> received.add(messages));
+		container.setBatchSize(2);
+		container.setBatchReceiveTimeout(1000);
+
+		assertThat(container.receiveAndExecute(this, session, consumer)).isTrue();
+		assertThat(received).hasSize(1);
+		assertThat(received.get(0)).containsExactly(message1, message2);
+		verify(consumer, never()).receiveNoWait();
+		verify(session, times(1)).commit();
+	}
+
+	@Test
+	public void regularListenerWithBatchSizeCommitsOnce() throws JMSException {
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).willReturn(message1);
+		given(consumer.receiveNoWait()).willReturn(message2, null);
+
+		List<Message> received = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer((MessageListener) received::add);
+		container.setBatchSize(10);
+
+		assertThat(container.receiveAndExecute(this, session, consumer)).isTrue();
+		assertThat(received).containsExactly(message1, message2);
+		verify(session, times(1)).commit();
+	}
+
+	@Test
+	public void batchListenerExceptionRollsBackEntireBatch() throws JMSException {
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).willReturn(mock(Message.class));
+		given(consumer.receiveNoWait()).willReturn(mock(Message.class), null);
+
+		DefaultMessageListenerContainer container = createBatchContainer(
+				(BatchMessageListener) (messages, listenerSession) -> {
+					throw new IllegalStateException("Test exception");
+				});
+		container.setBatchSize(10);
+		container.setErrorHandler(ex -> {});
+
+		assertThat(container.receiveAndExecute(this, session, consumer)).isTrue();
+		verify(session, times(1)).rollback();
+		verify(session, never()).commit();
+	}
+
+	@Test
+	public void scheduleNewInvokerOnlyWhenNoInvokerIsIdle() {
+		List<Runnable> invokers = new ArrayList<>();
+		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
+		container.setTaskExecutor(invokers::add);
+		container.setConcurrentConsumers(1);
+		container.setMaxConcurrentConsumers(4);
+		container.afterPropertiesSet();
+		container.start();
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(1);
+
+		Session session = mock(Session.class);
+		container.messageReceived(invokers.get(0), session);
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(2);
+
+		// The new invoker is still idle
+		container.messageReceived(invokers.get(0), session);
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(2);
+
+		container.messageReceived(invokers.get(1), session);
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(3);
+
+		// Repeated idle notifications count the invoker once
+		container.noMessageReceived(invokers.get(0), session);
+		container.noMessageReceived(invokers.get(0), session);
+		container.messageReceived(invokers.get(0), session);
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(3);
+
+		container.messageReceived(invokers.get(2), session);
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(4);
+		assertThat(invokers).hasSize(4);
+
+		container.shutdown();
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(0);
+	}
+
+
+	private DefaultMessageListenerContainer createBatchContainer(Object messageListener) {
+		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
+		container.setSessionTransacted(true);
+		container.setAcceptMessagesWhileStopping(true);
+		container.setMessageListener(messageListener);
+		return container;
+	}
 
 	private DefaultMessageListenerContainer createRunningContainer() {
 		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
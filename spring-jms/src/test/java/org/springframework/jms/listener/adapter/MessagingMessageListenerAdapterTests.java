@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -339,6 +339,32 @@ public class MessagingMessageListenerAdapterTests {
 		return responseMessage;
 	}
 
+	@Test
+	public void batchOfPayloads() throws JMSException {
+		Session session = mock(Session.class);
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchPayloads");
+		listener.onMessages(List.of(new StubTextMessage("foo"), new StubTextMessage("bar")), session);
+		assertThat(sample.batchPayloads).containsExactly(List.of("foo", "bar"));
+	}
+
+	@Test
+	public void batchOfJmsMessages() throws JMSException {
+		Session session = mock(Session.class);
+		jakarta.jms.Message message1 = new StubTextMessage("foo");
+		jakarta.jms.Message message2 = new StubTextMessage("bar");
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchJmsMessages");
+		listener.onMessages(List.of(message1, message2), session);
+		assertThat(sample.batchJmsMessages).containsExactly(List.of(message1, message2));
+	}
+
+	@Test
+	public void singleMessageAsBatch() throws JMSException {
+		Session session = mock(Session.class);
+		BatchMessagingMessageListenerAdapter listener = getBatchInstance("batchPayloads");
+		listener.onMessage(new StubTextMessage("foo"), session);
+		assertThat(sample.batchPayloads).containsExactly(List.of("foo"));
+	}
+
 
 	protected MessagingMessageListenerAdapter getSimpleInstance(String methodName, Class<?>... parameterTypes) {
 		Method m = ReflectionUtils.findMethod(SampleBean.class, methodName, parameterTypes);
@@ -365,6 +391,13 @@ public class MessagingMessageListenerAdapterTests {
 		return adapter;
 	}
 
+	protected BatchMessagingMessageListenerAdapter getBatchInstance(String methodName) {
+		Method m = ReflectionUtils.findMethod(SampleBean.class, methodName, List.class);
+		BatchMessagingMessageListenerAdapter adapter = new BatchMessagingMessageListenerAdapter();
+		adapter.setHandlerMethod(factory.createInvocableHandlerMethod(sample, m));
+		return adapter;
+	}
+
 	private void initializeFactory(DefaultMessageHandlerMethodFactory factory) {
 		factory.setBeanFactory(new StaticListableBeanFactory());
 		factory.afterPropertiesSet();
@@ -376,10 +409,22 @@ public class MessagingMessageListenerAdapterTests {
 
 		public final List<Message<String>> simples = new ArrayList<>();
 
+		public final List<List<String>> batchPayloads = new ArrayList<>();
+
+		public final List<List<jakarta.jms.Message>> batchJmsMessages = new ArrayList<>();
+
 		public void simple(Message<String> input) {
 			simples.add(input);
 		}
 
+		public void batchPayloads(List<String> input) {
+			batchPayloads.add(input);
+		}
+
+		public void batchJmsMessages(List<jakarta.jms.Message> input) {
+			batchJmsMessages.add(input);
+		}
+
 		public Message<String> echo(Message<String> input) {
 			return MessageBuilder.withPayload(input.getPayload())
 					.setHeader(JmsHeaders.TYPE, "reply")
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,11 @@
 
 package org.springframework.messaging.simp.stomp;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 
@@ -32,7 +32,6 @@ import org.springframework.messaging.support.MessageHeaderInitializer;
 import org.springframework.messaging.support.NativeMessageHeaderAccessor;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MultiValueMap;
-import org.springframework.util.StreamUtils;
 
 /**
  * Decodes one or more STOMP frames contained in a {@link ByteBuffer}.
@@ -43,6 +42,12 @@ import org.springframework.util.StreamUtils;
  * partial content. The caller is then responsible for dealing with that
  * incomplete content by buffering until there is more input available.
  *
+ * <p>Commands and headers are parsed directly from the input buffer without
+ * intermediate copies. Header names as well as the values of recurring headers
+ * such as {@code destination}, {@code content-type}, and {@code subscription}
+ * are interned in a small, fixed-size cache, so that frames repeatedly sent
+ * to the same destinations do not allocate new Strings for those.
+ *
  * @author Andy Wilkinson
  * @author Rossen Stoyanchev
  * @since 4.0
@@ -53,6 +58,25 @@ public class StompDecoder {
 
 	private static final Log logger = SimpLogging.forLogName(StompDecoder.class);
 
+	private static final int STRING_CACHE_SIZE = 512;
+
+	private static final StompCommand[] COMMANDS = StompCommand.values();
+
+	private static final Set<String> CACHEABLE_VALUE_HEADERS = Set.of(
+			StompHeaderAccessor.STOMP_DESTINATION_HEADER, StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER,
+			StompHeaderAccessor.STOMP_SUBSCRIPTION_HEADER, StompHeaderAccessor.STOMP_ID_HEADER,
+			StompHeaderAccessor.STOMP_ACK_HEADER, StompHeaderAccessor.STOMP_ACCEPT_VERSION_HEADER,
+			StompHeaderAccessor.STOMP_HEARTBEAT_HEADER, StompHeaderAccessor.STOMP_HOST_HEADER,
+			StompHeaderAccessor.STOMP_VERSION_HEADER);
+
+
+	/**
+	 * Recently decoded header names and values, indexed by the hash of their
+	 * bytes. Races between decoding threads are benign: an entry is only
+	 * reused after a full comparison against the input bytes.
+	 */
+	private final String[] stringCache = new String[STRING_CACHE_SIZE];
+
 	@Nullable
 	private MessageHeaderInitializer headerInitializer;
 
@@ -208,11 +232,21 @@ public class StompDecoder {
 	}
 
 	private String readCommand(ByteBuffer byteBuffer) {
-		ByteArrayOutputStream command = new ByteArrayOutputStream(256);
+		int start = byteBuffer.position();
+		int end = start;
 		while (byteBuffer.remaining() > 0 && !tryConsumeEndOfLine(byteBuffer)) {
-			command.write(byteBuffer.get());
+			byteBuffer.get();
+			end++;
+		}
+		if (end == start) {
+			return "";
+		}
+		for (StompCommand command : COMMANDS) {
+			if (matches(command.name(), byteBuffer, start, end)) {
+				return command.name();
+			}
 		}
-		return StreamUtils.copyToString(command, StandardCharsets.UTF_8);
+		return decodeString(byteBuffer, start, end);
 	}
 
 	private void readHeaders(ByteBuffer byteBuffer, StompHeaderAccessor headerAccessor, StompCommand command) {
@@ -222,27 +256,52 @@ public class StompDecoder {
 				command != StompCommand.STOMP);
 
 		while (true) {
-			ByteArrayOutputStream headerStream = new ByteArrayOutputStream(256);
+			int start = byteBuffer.position();
+			int end = start;
+			int colonIndex = -1;
+			boolean nameEscaped = false;
+			boolean valueEscaped = false;
 			boolean headerComplete = false;
 			while (byteBuffer.hasRemaining()) {
 				if (tryConsumeEndOfLine(byteBuffer)) {
 					headerComplete = true;
 					break;
 				}
-				headerStream.write(byteBuffer.get());
+				byte b = byteBuffer.get();
+				if (b == ':' && colonIndex == -1) {
+					colonIndex = end;
+				}
+				else if (b == '\\') {
+					if (colonIndex == -1) {
+						nameEscaped = true;
+					}
+					else {
+						valueEscaped = true;
+					}
+				}
+				end++;
 			}
-			if (headerStream.size() > 0 && headerComplete) {
-				String header = StreamUtils.copyToString(headerStream, StandardCharsets.UTF_8);
-				int colonIndex = header.indexOf(':');
-				if (colonIndex <= 0) {
+			if (end > start && headerComplete) {
+				if (colonIndex <= start) {
 					if (byteBuffer.remaining() > 0) {
-						throw new StompConversionException("Illegal header: '" + header +
+						throw new StompConversionException("Illegal header: '" + decodeString(byteBuffer, start, end) +
 								"'. A header must be of the form <name>:[<value>].");
 					}
 				}
 				else {
-					String headerName = shouldUnescape ? unescape(header.substring(0, colonIndex)) : header.substring(0, colonIndex);
-					String headerValue = shouldUnescape ? unescape(header.substring(colonIndex + 1)) : header.substring(colonIndex + 1);
+					String headerName = (shouldUnescape && nameEscaped ?
+							unescape(decodeString(byteBuffer, start, colonIndex)) :
+							decodeCachedString(byteBuffer, start, colonIndex));
+					String headerValue;
+					if (shouldUnescape && valueEscaped) {
+						headerValue = unescape(decodeString(byteBuffer, colonIndex + 1, end));
+					}
+					else if (CACHEABLE_VALUE_HEADERS.contains(headerName)) {
+						headerValue = decodeCachedString(byteBuffer, colonIndex + 1, end);
+					}
+					else {
+						headerValue = decodeString(byteBuffer, colonIndex + 1, end);
+					}
 					try {
 						headerAccessor.addNativeHeader(headerName, headerValue);
 					}
@@ -259,6 +318,57 @@ public class StompDecoder {
 		}
 	}
 
+	/**
+	 * Decode the given range of the buffer, re-using a previously decoded
+	 * String for the same ASCII content if available.
+	 */
+	private String decodeCachedString(ByteBuffer byteBuffer, int start, int end) {
+		if (end == start) {
+			return "";
+		}
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			byte b = byteBuffer.get(i);
+			if (b < 0) {
+				// Non-ASCII content: no 1:1 mapping between bytes and chars
+				return decodeString(byteBuffer, start, end);
+			}
+			hash = 31 * hash + b;
+		}
+		int index = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+		String cached = this.stringCache[index];
+		if (cached != null && matches(cached, byteBuffer, start, end)) {
+			return cached;
+		}
+		String value = decodeString(byteBuffer, start, end);
+		this.stringCache[index] = value;
+		return value;
+	}
+
+	private static String decodeString(ByteBuffer byteBuffer, int start, int end) {
+		if (byteBuffer.hasArray()) {
+			return new String(byteBuffer.array(), byteBuffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[end - start];
+		byteBuffer.get(start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Whether the given ASCII String is equal to the given range of the buffer.
+	 */
+	private static boolean matches(String value, ByteBuffer byteBuffer, int start, int end) {
+		if (value.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i - start) != byteBuffer.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * See STOMP Spec 1.2:
 	 * <a href="https://stomp.github.io/stomp-specification-1.2.html#Value_Encoding">"Value Encoding"</a>.
@@ -325,16 +435,16 @@ public class StompDecoder {
 			}
 		}
 		else {
-			ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
-			while (byteBuffer.remaining() > 0) {
-				byte b = byteBuffer.get();
-				if (b == 0) {
-					return payload.toByteArray();
-				}
-				else {
-					payload.write(b);
+			int start = byteBuffer.position();
+			for (int i = start; i < byteBuffer.limit(); i++) {
+				if (byteBuffer.get(i) == 0) {
+					byte[] payload = new byte[i - start];
+					byteBuffer.get(payload);
+					byteBuffer.get();
+					return payload;
 				}
 			}
+			byteBuffer.position(byteBuffer.limit());
 		}
 		return null;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.messaging.simp.stomp;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -276,6 +277,38 @@ public class StompDecoderTests {
 		assertThat(StompHeaderAccessor.wrap(messages.get(0)).getMessageType()).isEqualTo(SimpMessageType.HEARTBEAT);
 	}
 
+	@Test
+	public void decodeFrameFromDirectBuffer() {
+		byte[] bytes = "SEND\ndestination:test\n\nThe body of the message\0".getBytes();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+		Message<byte[]> frame = decode(buffer);
+		StompHeaderAccessor headers = StompHeaderAccessor.wrap(frame);
+
+		assertThat(headers.getCommand()).isEqualTo(StompCommand.SEND);
+		assertThat(headers.getDestination()).isEqualTo("test");
+		assertThat(new String(frame.getPayload())).isEqualTo("The body of the message");
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test
+	public void decodeFramesReusesRecurringHeaderValues() {
+		StompHeaderAccessor first = StompHeaderAccessor.wrap(decode("SEND\ndestination:/topic/foo\nfoo:bar\n\n\0"));
+		StompHeaderAccessor second = StompHeaderAccessor.wrap(decode("SEND\ndestination:/topic/foo\nfoo:bar\n\n\0"));
+
+		assertThat(second.getDestination()).isSameAs(first.getDestination());
+		assertThat(second.getFirstNativeHeader("foo")).isEqualTo("bar")
+				.isNotSameAs(first.getFirstNativeHeader("foo"));
+	}
+
+	@Test
+	public void decodeFrameWithNonAsciiHeaderValue() {
+		String destination = "/topic/\u00e9t\u00e9";
+		ByteBuffer buffer = ByteBuffer.wrap(("SEND\ndestination:" + destination + "\n\n\0").getBytes(StandardCharsets.UTF_8));
+		Message<byte[]> frame = decode(buffer);
+
+		assertThat(StompHeaderAccessor.wrap(frame).getDestination()).isEqualTo(destination);
+	}
+
 	private void assertIncompleteDecode(String partialFrame) {
 		ByteBuffer buffer = ByteBuffer.wrap(partialFrame.getBytes());
 		assertThat(decode(buffer)).isNull();
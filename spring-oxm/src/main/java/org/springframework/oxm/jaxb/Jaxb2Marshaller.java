@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,7 +36,10 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
 
 import javax.xml.XMLConstants;
 import javax.xml.datatype.Duration;
@@ -47,6 +50,9 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
@@ -203,6 +209,12 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 
 	private boolean processExternalEntities = false;
 
+	@Nullable
+	private Queue<Marshaller> marshallerPool;
+
+	@Nullable
+	private Queue<Unmarshaller> unmarshallerPool;
+
 
 	/**
 	 * Set multiple JAXB context paths. The given array of context paths gets
@@ -458,6 +470,26 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		return this.processExternalEntities;
 	}
 
+	/**
+	 * Specify the maximum number of idle JAXB {@link Marshaller} and {@link Unmarshaller}
+	 * instances (each) to keep for reuse across {@code marshal} and {@code unmarshal} calls.
+	 * <p>Default is 0, creating and initializing new instances for every operation.
+	 * With a positive value, configured instances are returned to a bounded pool after
+	 * each successful operation and reused by subsequent ones, avoiding the considerable
+	 * setup cost of JAXB implementations. Instances involved in a failed operation or
+	 * in MTOM attachment handling are not pooled.
+	 * <p>Note: Pooled instances keep the configuration applied in
+	 * {@link #initJaxbMarshaller} and {@link #initJaxbUnmarshaller}; changes to the
+	 * configuration of this marshaller after first use may not apply to them.
+	 * @since 6.0
+	 * @see #createMarshaller()
+	 * @see #createUnmarshaller()
+	 */
+	public void setPoolSize(int poolSize) {
+		this.marshallerPool = (poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null);
+		this.unmarshallerPool = (poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null);
+	}
+
 
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
@@ -700,8 +732,9 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 	@Override
 	public void marshal(Object graph, Result result, @Nullable MimeContainer mimeContainer) throws XmlMappingException {
 		try {
-			Marshaller marshaller = createMarshaller();
-			if (this.mtomEnabled && mimeContainer != null) {
+			Marshaller marshaller = obtainMarshaller();
+			boolean attachments = (this.mtomEnabled && mimeContainer != null);
+			if (attachments) {
 				marshaller.setAttachmentMarshaller(new Jaxb2AttachmentMarshaller(mimeContainer));
 			}
 			if (StaxUtils.isStaxResult(result)) {
@@ -710,6 +743,9 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 			else {
 				marshaller.marshal(graph, result);
 			}
+			if (!attachments) {
+				releaseMarshaller(marshaller);
+			}
 		}
 		catch (JAXBException ex) {
 			throw convertJaxbException(ex);
@@ -734,6 +770,17 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	private Marshaller obtainMarshaller() {
+		Marshaller marshaller = (this.marshallerPool != null ? this.marshallerPool.poll() : null);
+		return (marshaller != null ? marshaller : createMarshaller());
+	}
+
+	private void releaseMarshaller(Marshaller marshaller) {
+		if (this.marshallerPool != null) {
+			this.marshallerPool.offer(marshaller);
+		}
+	}
+
 	private void marshalStaxResult(Marshaller jaxbMarshaller, Object graph, Result staxResult) throws JAXBException {
 		XMLStreamWriter streamWriter = StaxUtils.getXMLStreamWriter(staxResult);
 		if (streamWriter != null) {
@@ -795,19 +842,25 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		source = processSource(source);
 
 		try {
-			Unmarshaller unmarshaller = createUnmarshaller();
-			if (this.mtomEnabled && mimeContainer != null) {
+			Unmarshaller unmarshaller = obtainUnmarshaller();
+			boolean attachments = (this.mtomEnabled && mimeContainer != null);
+			if (attachments) {
 				unmarshaller.setAttachmentUnmarshaller(new Jaxb2AttachmentUnmarshaller(mimeContainer));
 			}
+			Object result;
 			if (StaxUtils.isStaxSource(source)) {
-				return unmarshalStaxSource(unmarshaller, source);
+				result = unmarshalStaxSource(unmarshaller, source);
 			}
 			else if (this.mappedClass != null) {
-				return unmarshaller.unmarshal(source, this.mappedClass).getValue();
+				result = unmarshaller.unmarshal(source, this.mappedClass).getValue();
 			}
 			else {
-				return unmarshaller.unmarshal(source);
+				result = unmarshaller.unmarshal(source);
 			}
+			if (!attachments) {
+				releaseUnmarshaller(unmarshaller);
+			}
+			return result;
 		}
 		catch (NullPointerException ex) {
 			if (!isSupportDtd()) {
@@ -839,6 +892,110 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Unmarshal the elements with the given name from the given {@code Source}
+	 * one at a time, passing each to the given consumer as soon as it has been
+	 * read, rather than unmarshalling the entire document into memory.
+	 * <p>Elements are matched anywhere in the document, and are not searched
+	 * for within other matching elements. The source is read through StAX: it
+	 * needs to be either a StAX source based on an {@link XMLStreamReader}, or a
+	 * {@link StreamSource} which is parsed according to the
+	 * {@link #setSupportDtd "supportDtd"} and
+	 * {@link #setProcessExternalEntities "processExternalEntities"} settings.
+	 * @param source the source to read from
+	 * @param elementName the name of the elements to unmarshal
+	 * @param elementType the type to unmarshal each element to
+	 * @param consumer the consumer of the unmarshalled elements
+	 * @throws XmlMappingException if the source cannot be read or an element
+	 * cannot be unmarshalled
+	 * @since 6.0
+	 * @see Unmarshaller#unmarshal(XMLStreamReader, Class)
+	 */
+	public <T> void unmarshalElements(Source source, QName elementName, Class<T> elementType,
+			Consumer<? super T> consumer) throws XmlMappingException {
+
+		Assert.notNull(source, "Source must not be null");
+		Assert.notNull(elementName, "Element name must not be null");
+		Assert.notNull(elementType, "Element type must not be null");
+		Assert.notNull(consumer, "Consumer must not be null");
+
+		XMLStreamReader streamReader = (StaxUtils.isStaxSource(source) ? StaxUtils.getXMLStreamReader(source) : null);
+		boolean closeReader = false;
+		try {
+			if (streamReader == null) {
+				streamReader = createXmlStreamReader(source);
+				closeReader = true;
+			}
+			Unmarshaller unmarshaller = obtainUnmarshaller();
+			while (true) {
+				if (streamReader.getEventType() == XMLStreamConstants.START_ELEMENT &&
+						elementName.equals(streamReader.getName())) {
+					// Leaves the reader positioned right after the element's end tag
+					consumer.accept(unmarshaller.unmarshal(streamReader, elementType).getValue());
+				}
+				else if (streamReader.hasNext()) {
+					streamReader.next();
+				}
+				else {
+					break;
+				}
+			}
+			releaseUnmarshaller(unmarshaller);
+		}
+		catch (XMLStreamException ex) {
+			throw new UnmarshallingFailureException("StAX reader exception", ex);
+		}
+		catch (JAXBException ex) {
+			throw convertJaxbException(ex);
+		}
+		finally {
+			if (closeReader) {
+				try {
+					streamReader.close();
+				}
+				catch (XMLStreamException ex) {
+					logger.debug("Could not close XMLStreamReader", ex);
+				}
+			}
+		}
+	}
+
+	private XMLStreamReader createXmlStreamReader(Source source) throws XMLStreamException {
+		if (!(source instanceof StreamSource streamSource)) {
+			throw new IllegalArgumentException(
+					"Source for unmarshalling elements needs to be a StreamSource or a StAX source " +
+					"with an XMLStreamReader: " + source);
+		}
+		XMLInputFactory inputFactory = StaxUtils.createDefensiveInputFactory();
+		if (isSupportDtd()) {
+			inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+		}
+		if (isProcessExternalEntities()) {
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, true);
+			inputFactory.setXMLResolver(null);
+		}
+		if (streamSource.getInputStream() != null) {
+			return inputFactory.createXMLStreamReader(streamSource.getSystemId(), streamSource.getInputStream());
+		}
+		else if (streamSource.getReader() != null) {
+			return inputFactory.createXMLStreamReader(streamSource.getSystemId(), streamSource.getReader());
+		}
+		else {
+			return inputFactory.createXMLStreamReader(streamSource);
+		}
+	}
+
+	private Unmarshaller obtainUnmarshaller() {
+		Unmarshaller unmarshaller = (this.unmarshallerPool != null ? this.unmarshallerPool.poll() : null);
+		return (unmarshaller != null ? unmarshaller : createUnmarshaller());
+	}
+
+	private void releaseUnmarshaller(Unmarshaller unmarshaller) {
+		if (this.unmarshallerPool != null) {
+			this.unmarshallerPool.offer(unmarshaller);
+		}
+	}
+
 	protected Object unmarshalStaxSource(Unmarshaller jaxbUnmarshaller, Source staxSource) throws JAXBException {
 		XMLStreamReader streamReader = StaxUtils.getXMLStreamReader(staxSource);
 		if (streamReader != null) {
@@ -22,6 +22,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.Result;
@@ -33,6 +34,7 @@ import javax.xml.transform.stream.StreamSource;
 import jakarta.activation.DataHandler;
 import jakarta.activation.FileDataSource;
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlType;
 import org.junit.jupiter.api.Test;
@@ -136,6 +138,28 @@ class Jaxb2MarshallerTests extends AbstractMarshallerTests<Jaxb2Marshaller> {
 		assertThat(XmlContent.from(writer)).isSimilarTo(EXPECTED_STRING, ev);
 	}
 
+	@Test
+	void pooledMarshaller() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		marshaller = new Jaxb2Marshaller() {
+			@Override
+			public Marshaller createMarshaller() {
+				created.incrementAndGet();
+				return super.createMarshaller();
+			}
+		};
+		marshaller.setContextPath(CONTEXT_PATH);
+		marshaller.setPoolSize(1);
+		marshaller.afterPropertiesSet();
+		DifferenceEvaluator ev = chain(Default, downgradeDifferencesToEqual(XML_STANDALONE));
+		for (int i = 0; i < 3; i++) {
+			StringWriter writer = new StringWriter();
+			marshaller.marshal(flights, new StreamResult(writer));
+			assertThat(XmlContent.from(writer)).isSimilarTo(EXPECTED_STRING, ev);
+		}
+		assertThat(created).hasValue(1);
+	}
+
 	@Test
 	void properties() throws Exception {
 		Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,11 @@ package org.springframework.oxm.jaxb;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
@@ -28,6 +32,7 @@ import javax.xml.transform.stream.StreamSource;
 import jakarta.activation.DataHandler;
 import jakarta.activation.FileDataSource;
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.Unmarshaller;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.io.ClassPathResource;
@@ -137,6 +142,36 @@ public class Jaxb2UnmarshallerTests extends AbstractUnmarshallerTests<Jaxb2Marsh
 		assertThat(airplane.getValue().getName()).as("Unmarshalling via explicit @XmlRegistry tag should return correct type").isEqualTo("test");
 	}
 
+	@Test
+	public void pooledUnmarshaller() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		unmarshaller = new Jaxb2Marshaller() {
+			@Override
+			public Unmarshaller createUnmarshaller() {
+				created.incrementAndGet();
+				return super.createUnmarshaller();
+			}
+		};
+		unmarshaller.setContextPath("org.springframework.oxm.jaxb.test");
+		unmarshaller.setPoolSize(1);
+		unmarshaller.afterPropertiesSet();
+		for (int i = 0; i < 3; i++) {
+			testFlights(unmarshaller.unmarshal(new StreamSource(new StringReader(INPUT_STRING))));
+		}
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	public void unmarshalElements() {
+		String input = "<tns:flights xmlns:tns=\"http://samples.springframework.org/flight\">" +
+				"<tns:flight><tns:number>42</tns:number></tns:flight>" +
+				"<tns:flight><tns:number>43</tns:number></tns:flight></tns:flights>";
+		List<FlightType> flights = new ArrayList<>();
+		unmarshaller.unmarshalElements(new StreamSource(new StringReader(input)),
+				new QName("http://samples.springframework.org/flight", "flight"), FlightType.class, flights::add);
+		assertThat(flights).extracting(FlightType::getNumber).containsExactly(42L, 43L);
+	}
+
 	@Test
 	public void unmarshalFile() throws IOException {
 		Resource resource = new ClassPathResource("jaxb2.xml", getClass());
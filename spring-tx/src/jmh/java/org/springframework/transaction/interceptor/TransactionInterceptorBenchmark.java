@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Benchmarks for the overhead of {@link TransactionAspectSupport} around a
+ * method invocation, with a transaction manager that does no actual work.
+ *
+ * @see TransactionInterceptor
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TransactionInterceptorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		BenchmarkTransactionAspect aspect;
+
+		Method transactionalMethod;
+
+		Method nonTransactionalMethod;
+
+		Method rollbackMethod;
+
+		@Setup
+		public void setup() throws Exception {
+			this.aspect = new BenchmarkTransactionAspect();
+			this.aspect.setTransactionManager(new NoOpTransactionManager());
+			this.aspect.setTransactionAttributeSource(new AnnotationTransactionAttributeSource());
+			this.aspect.afterPropertiesSet();
+			this.transactionalMethod = SampleService.class.getMethod("transactional");
+			this.nonTransactionalMethod = SampleService.class.getMethod("nonTransactional");
+			this.rollbackMethod = SampleService.class.getMethod("rollback");
+		}
+	}
+
+	@Benchmark
+	public Object transactional(BenchmarkState state) throws Throwable {
+		return state.aspect.invoke(state.transactionalMethod, () -> "result");
+	}
+
+	@Benchmark
+	public Object nonTransactional(BenchmarkState state) throws Throwable {
+		return state.aspect.invoke(state.nonTransactionalMethod, () -> "result");
+	}
+
+	@Benchmark
+	public Object rollback(BenchmarkState state) throws Throwable {
+		try {
+			return state.aspect.invoke(state.rollbackMethod, () -> {
+				throw SampleService.FAILURE;
+			});
+		}
+		catch (IllegalStateException ex) {
+			return ex;
+		}
+	}
+
+
+	static class BenchmarkTransactionAspect extends TransactionAspectSupport {
+
+		Object invoke(Method method, InvocationCallback callback) throws Throwable {
+			return invokeWithinTransaction(method, SampleService.class, callback);
+		}
+	}
+
+
+	public static class SampleService {
+
+		static final IllegalStateException FAILURE = new IllegalStateException("failure");
+
+		@Transactional
+		public void transactional() {
+		}
+
+		public void nonTransactional() {
+		}
+
+		@Transactional(rollbackFor = Exception.class, noRollbackFor = IllegalArgumentException.class)
+		public void rollback() {
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+
+}
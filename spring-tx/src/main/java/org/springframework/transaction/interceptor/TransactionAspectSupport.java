@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.transaction.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentMap;
 
@@ -36,6 +37,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.CoroutinesUtils;
 import org.springframework.core.KotlinDetector;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ReactiveAdapter;
@@ -53,6 +55,7 @@ import org.springframework.transaction.support.CallbackPreferringPlatformTransac
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -185,6 +188,14 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	private final ConcurrentMap<Method, ReactiveTransactionSupport> transactionSupportCache =
 			new ConcurrentReferenceHashMap<>(1024);
 
+	private final ConcurrentMap<Method, TransactionPlan> transactionPlanCache =
+			new ConcurrentReferenceHashMap<>(1024);
+
+	private final ConcurrentMap<MethodClassKey, TransactionPlan> targetClassTransactionPlanCache =
+			new ConcurrentReferenceHashMap<>(16);
+
+	private final boolean transactionManagerPlanned;
+
 
 	protected TransactionAspectSupport() {
 		if (reactiveStreamsPresent) {
@@ -193,6 +204,11 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		else {
 			this.reactiveAdapterRegistry = null;
 		}
+		// A custom determineTransactionManager implementation may vary per invocation
+		Method determineMethod = ReflectionUtils.findMethod(
+				getClass(), "determineTransactionManager", TransactionAttribute.class);
+		this.transactionManagerPlanned = (determineMethod != null &&
+				determineMethod.getDeclaringClass() == TransactionAspectSupport.class);
 	}
 
 
@@ -203,6 +219,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManagerBeanName(@Nullable String transactionManagerBeanName) {
 		this.transactionManagerBeanName = transactionManagerBeanName;
+		clearTransactionPlanCache();
 	}
 
 	/**
@@ -224,6 +241,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManager(@Nullable TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
+		clearTransactionPlanCache();
 	}
 
 	/**
@@ -251,7 +269,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	public void setTransactionAttributes(Properties transactionAttributes) {
 		NameMatchTransactionAttributeSource tas = new NameMatchTransactionAttributeSource();
 		tas.setProperties(transactionAttributes);
-		this.transactionAttributeSource = tas;
+		setTransactionAttributeSource(tas);
 	}
 
 	/**
@@ -263,7 +281,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 * @see org.springframework.transaction.annotation.AnnotationTransactionAttributeSource
 	 */
 	public void setTransactionAttributeSources(TransactionAttributeSource... transactionAttributeSources) {
-		this.transactionAttributeSource = new CompositeTransactionAttributeSource(transactionAttributeSources);
+		setTransactionAttributeSource(new CompositeTransactionAttributeSource(transactionAttributeSources));
 	}
 
 	/**
@@ -277,6 +295,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSource(@Nullable TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		clearTransactionPlanCache();
 	}
 
 	/**
@@ -293,6 +312,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	@Override
 	public void setBeanFactory(@Nullable BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		clearTransactionPlanCache();
 	}
 
 	/**
@@ -337,9 +357,10 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			final InvocationCallback invocation) throws Throwable {
 
 		// If the transaction attribute is null, the method is non-transactional.
-		TransactionAttributeSource tas = getTransactionAttributeSource();
-		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
-		final TransactionManager tm = determineTransactionManager(txAttr);
+		TransactionPlan plan = getTransactionPlan(method, targetClass);
+		final TransactionAttribute txAttr = plan.transactionAttribute;
+		final TransactionManager tm = (this.transactionManagerPlanned ?
+				plan.transactionManager : determineTransactionManager(txAttr));
 
 		if (this.reactiveAdapterRegistry != null && tm instanceof ReactiveTransactionManager) {
 			boolean isSuspendingFunction = KotlinDetector.isSuspendingFunction(method);
@@ -365,7 +386,8 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			if (corInv != null) {
 				callback = () -> CoroutinesUtils.invokeSuspendingFunction(method, corInv.getTarget(), corInv.getArguments());
 			}
-			Object result = txSupport.invokeWithinTransaction(method, targetClass, callback, txAttr, (ReactiveTransactionManager) tm);
+			Object result = txSupport.invokeWithinTransaction(method, plan.joinpointIdentification, callback,
+					plan.namedTransactionAttribute, (ReactiveTransactionManager) tm);
 			if (corInv != null) {
 				Publisher<?> pr = (Publisher<?>) result;
 				return (hasSuspendingFlowReturnType ? KotlinDelegate.asFlow(pr) :
@@ -375,11 +397,11 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 
 		PlatformTransactionManager ptm = asPlatformTransactionManager(tm);
-		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		final String joinpointIdentification = plan.joinpointIdentification;
 
 		if (txAttr == null || !(ptm instanceof CallbackPreferringPlatformTransactionManager)) {
 			// Standard transaction demarcation with getTransaction and commit/rollback calls.
-			TransactionInfo txInfo = createTransactionIfNecessary(ptm, txAttr, joinpointIdentification);
+			TransactionInfo txInfo = createTransactionIfNecessary(ptm, plan.namedTransactionAttribute, joinpointIdentification);
 
 			Object retVal;
 			try {
@@ -470,12 +492,53 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Return the transaction plan for the given method: its transaction attribute,
+	 * transaction manager and joinpoint identification, resolved once per method
+	 * and target class rather than on every invocation.
+	 */
+	private TransactionPlan getTransactionPlan(Method method, @Nullable Class<?> targetClass) {
+		// Fast path without key allocation for the first target class seen for a method
+		TransactionPlan plan = this.transactionPlanCache.get(method);
+		if (plan != null && plan.targetClass == targetClass) {
+			return plan;
+		}
+		MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+		if (plan != null) {
+			TransactionPlan targetClassPlan = this.targetClassTransactionPlanCache.get(cacheKey);
+			if (targetClassPlan != null) {
+				return targetClassPlan;
+			}
+		}
+		TransactionAttributeSource tas = getTransactionAttributeSource();
+		TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+		TransactionManager tm = (this.transactionManagerPlanned ? determineTransactionManager(txAttr) : null);
+		String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		TransactionPlan newPlan = new TransactionPlan(targetClass, txAttr, tm, joinpointIdentification);
+		if (plan == null) {
+			plan = this.transactionPlanCache.putIfAbsent(method, newPlan);
+		}
+		if (plan != null) {
+			this.targetClassTransactionPlanCache.put(cacheKey, newPlan);
+		}
+		return newPlan;
+	}
+
+	/**
+	 * Clear the cache of per-method transaction plans.
+	 */
+	private void clearTransactionPlanCache() {
+		this.transactionPlanCache.clear();
+		this.targetClassTransactionPlanCache.clear();
+	}
+
 	/**
 	 * Clear the transaction manager cache.
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
 		this.beanFactory = null;
+		clearTransactionPlanCache();
 	}
 
 	/**
@@ -823,6 +886,88 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Transaction settings of a method, as resolved for a specific target class.
+	 */
+	private static final class TransactionPlan {
+
+		@Nullable
+		final Class<?> targetClass;
+
+		@Nullable
+		final TransactionAttribute transactionAttribute;
+
+		// The attribute with the joinpoint identification applied as transaction name
+		@Nullable
+		final TransactionAttribute namedTransactionAttribute;
+
+		@Nullable
+		final TransactionManager transactionManager;
+
+		final String joinpointIdentification;
+
+		TransactionPlan(@Nullable Class<?> targetClass, @Nullable TransactionAttribute transactionAttribute,
+				@Nullable TransactionManager transactionManager, String joinpointIdentification) {
+
+			this.targetClass = targetClass;
+			this.transactionAttribute = transactionAttribute;
+			this.transactionManager = transactionManager;
+			this.joinpointIdentification = joinpointIdentification;
+			if (transactionAttribute != null && (transactionAttribute.getName() == null ||
+					transactionAttribute.getClass() == RuleBasedTransactionAttribute.class)) {
+				this.namedTransactionAttribute = new PlannedTransactionAttribute(transactionAttribute, joinpointIdentification);
+			}
+			else {
+				this.namedTransactionAttribute = transactionAttribute;
+			}
+		}
+	}
+
+
+	/**
+	 * {@link TransactionAttribute} that applies the joinpoint identification
+	 * as transaction name if none is specified. For a {@link RuleBasedTransactionAttribute},
+	 * rollback decisions are cached per exception type, since they are based on
+	 * the type only.
+	 */
+	@SuppressWarnings("serial")
+	private static class PlannedTransactionAttribute extends DelegatingTransactionAttribute {
+
+		@Nullable
+		private final String name;
+
+		@Nullable
+		private final transient Map<Class<?>, Boolean> rollbackDecisions;
+
+		PlannedTransactionAttribute(TransactionAttribute targetAttribute, String joinpointIdentification) {
+			super(targetAttribute);
+			String name = targetAttribute.getName();
+			this.name = (name != null ? name : joinpointIdentification);
+			this.rollbackDecisions = (targetAttribute.getClass() == RuleBasedTransactionAttribute.class ?
+					new ConcurrentReferenceHashMap<>(8) : null);
+		}
+
+		@Override
+		@Nullable
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public boolean rollbackOn(Throwable ex) {
+			if (this.rollbackDecisions == null) {
+				return super.rollbackOn(ex);
+			}
+			Boolean rollback = this.rollbackDecisions.get(ex.getClass());
+			if (rollback == null) {
+				rollback = super.rollbackOn(ex);
+				this.rollbackDecisions.put(ex.getClass(), rollback);
+			}
+			return rollback;
+		}
+	}
+
+
 	/**
 	 * Internal holder class for a Throwable in a callback transaction model.
 	 */
@@ -898,11 +1043,9 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			this.adapter = adapter;
 		}
 
-		public Object invokeWithinTransaction(Method method, @Nullable Class<?> targetClass,
+		public Object invokeWithinTransaction(Method method, String joinpointIdentification,
 				InvocationCallback invocation, @Nullable TransactionAttribute txAttr, ReactiveTransactionManager rtm) {
 
-			String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
-
 			// For Mono and suspending functions not returning kotlinx.coroutines.flow.Flow
 			if (Mono.class.isAssignableFrom(method.getReturnType()) || (KotlinDetector.isSuspendingFunction(method) &&
 					!COROUTINES_FLOW_CLASS_NAME.equals(new MethodParameter(method, -1).getParameterType().getName()))) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -137,7 +137,7 @@ public abstract class AbstractTransactionStatus implements TransactionStatus {
 	 * if the underlying transaction does not support savepoints
 	 */
 	public void createAndHoldSavepoint() throws TransactionException {
-		setSavepoint(getSavepointManager().createSavepoint());
+		setSavepoint(createSavepoint());
 	}
 
 	/**
@@ -150,7 +150,7 @@ public abstract class AbstractTransactionStatus implements TransactionStatus {
 			throw new TransactionUsageException(
 					"Cannot roll back to savepoint - no savepoint associated with current transaction");
 		}
-		getSavepointManager().rollbackToSavepoint(savepoint);
+		rollbackToSavepoint(savepoint);
 		getSavepointManager().releaseSavepoint(savepoint);
 		setSavepoint(null);
 	}
@@ -175,24 +175,35 @@ public abstract class AbstractTransactionStatus implements TransactionStatus {
 
 	/**
 	 * This implementation delegates to a SavepointManager for the
-	 * underlying transaction, if possible.
+	 * underlying transaction, if possible, after triggering
+	 * {@code beforeSavepoint} callbacks on active synchronizations.
 	 * @see #getSavepointManager()
 	 * @see SavepointManager#createSavepoint()
+	 * @see TransactionSynchronization#beforeSavepoint()
 	 */
 	@Override
 	public Object createSavepoint() throws TransactionException {
-		return getSavepointManager().createSavepoint();
+		SavepointManager savepointManager = getSavepointManager();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationUtils.triggerBeforeSavepoint();
+		}
+		return savepointManager.createSavepoint();
 	}
 
 	/**
 	 * This implementation delegates to a SavepointManager for the
-	 * underlying transaction, if possible.
+	 * underlying transaction, if possible, before triggering
+	 * {@code afterSavepointRollback} callbacks on active synchronizations.
 	 * @see #getSavepointManager()
 	 * @see SavepointManager#rollbackToSavepoint(Object)
+	 * @see TransactionSynchronization#afterSavepointRollback()
 	 */
 	@Override
 	public void rollbackToSavepoint(Object savepoint) throws TransactionException {
 		getSavepointManager().rollbackToSavepoint(savepoint);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationUtils.triggerAfterSavepointRollback();
+		}
 	}
 
 	/**
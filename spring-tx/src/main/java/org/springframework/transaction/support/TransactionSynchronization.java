@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,6 +88,27 @@ public interface TransactionSynchronization extends Ordered, Flushable {
 	default void flush() {
 	}
 
+	/**
+	 * Invoked before a savepoint is created for the current transaction,
+	 * e.g. for a PROPAGATION_NESTED scope.
+	 * <p>Supposed to write out deferred work that belongs to the enclosing scope,
+	 * so that a later rollback to the savepoint does not affect it.
+	 * @since 6.0
+	 * @see #afterSavepointRollback()
+	 */
+	default void beforeSavepoint() {
+	}
+
+	/**
+	 * Invoked after the current transaction has been rolled back to a savepoint.
+	 * <p>Supposed to discard deferred work that has been registered since the
+	 * savepoint was created.
+	 * @since 6.0
+	 * @see #beforeSavepoint()
+	 */
+	default void afterSavepointRollback() {
+	}
+
 	/**
 	 * Invoked before transaction commit (before "beforeCompletion").
 	 * Can e.g. flush transactional O/R Mapping sessions to the database.
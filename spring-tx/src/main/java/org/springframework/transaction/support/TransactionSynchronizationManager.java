@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -73,23 +73,40 @@ import org.springframework.util.Assert;
  */
 public abstract class TransactionSynchronizationManager {
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
+	private static final ThreadLocal<TransactionState> transactionState =
+			new NamedThreadLocal<>("Transaction state");
 
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
 
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
-
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
+	/**
+	 * Return the transaction state of the current thread, if any.
+	 */
+	@Nullable
+	private static TransactionState getState() {
+		return transactionState.get();
+	}
 
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	/**
+	 * Return the transaction state of the current thread, creating it if necessary.
+	 */
+	private static TransactionState obtainState() {
+		TransactionState state = transactionState.get();
+		if (state == null) {
+			state = new TransactionState();
+			transactionState.set(state);
+		}
+		return state;
+	}
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	/**
+	 * Remove the given transaction state from the current thread if it does not
+	 * hold anything anymore, not leaving it behind on pooled threads.
+	 */
+	private static void removeStateIfUnused(TransactionState state) {
+		if (!state.hasResources() && !state.synchronizationActive && state.name == null &&
+				!state.readOnly && state.isolationLevel == null && !state.actualTransactionActive) {
+			transactionState.remove();
+		}
+	}
 
 
 	//-------------------------------------------------------------------------
@@ -106,8 +123,9 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		TransactionState state = getState();
+		return (state != null && state.resources != null && !state.resources.isEmpty() ?
+				Collections.unmodifiableMap(state.resources) : Collections.emptyMap());
 	}
 
 	/**
@@ -140,18 +158,15 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionState state = getState();
+		if (state == null || state.resources == null) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = state.resources.get(actualKey);
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
-			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			state.removeResource(actualKey);
+			removeStateIfUnused(state);
 			value = null;
 		}
 		return value;
@@ -167,13 +182,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainState().obtainResources().put(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -216,15 +225,12 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionState state = getState();
+		if (state == null || state.resources == null) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
-		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
-		}
+		Object value = state.removeResource(actualKey);
+		removeStateIfUnused(state);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
@@ -243,7 +249,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionState state = getState();
+		return (state != null && state.synchronizationActive);
 	}
 
 	/**
@@ -255,7 +262,7 @@ public abstract class TransactionSynchronizationManager {
 		if (isSynchronizationActive()) {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
-		synchronizations.set(new LinkedHashSet<>());
+		obtainState().synchronizationActive = true;
 	}
 
 	/**
@@ -272,11 +279,11 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionState state = getState();
+		if (state == null || !state.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
-		synchs.add(synchronization);
+		state.obtainSynchronizations().add(synchronization);
 	}
 
 	/**
@@ -287,14 +294,15 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionState state = getState();
+		if (state == null || !state.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
+		Set<TransactionSynchronization> synchs = state.synchronizations;
 		// Return unmodifiable snapshot, to avoid ConcurrentModificationExceptions
 		// while iterating and invoking synchronization callbacks that in turn
 		// might register further synchronizations.
-		if (synchs.isEmpty()) {
+		if (synchs == null || synchs.isEmpty()) {
 			return Collections.emptyList();
 		}
 		else {
@@ -314,7 +322,10 @@ public abstract class TransactionSynchronizationManager {
 		if (!isSynchronizationActive()) {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
-		synchronizations.remove();
+		TransactionState state = obtainState();
+		state.clearSynchronizations();
+		state.synchronizationActive = false;
+		removeStateIfUnused(state);
 	}
 
 
@@ -329,7 +340,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		TransactionState state = (name != null ? obtainState() : getState());
+		if (state != null) {
+			state.name = name;
+		}
 	}
 
 	/**
@@ -340,7 +354,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionState state = getState();
+		return (state != null ? state.name : null);
 	}
 
 	/**
@@ -351,7 +366,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionState state = (readOnly ? obtainState() : getState());
+		if (state != null) {
+			state.readOnly = readOnly;
+		}
 	}
 
 	/**
@@ -367,7 +385,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionState state = getState();
+		return (state != null && state.readOnly);
 	}
 
 	/**
@@ -387,7 +406,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionState state = (isolationLevel != null ? obtainState() : getState());
+		if (state != null) {
+			state.isolationLevel = isolationLevel;
+		}
 	}
 
 	/**
@@ -409,7 +431,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionState state = getState();
+		return (state != null ? state.isolationLevel : null);
 	}
 
 	/**
@@ -419,7 +442,10 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionState state = (active ? obtainState() : getState());
+		if (state != null) {
+			state.actualTransactionActive = active;
+		}
 	}
 
 	/**
@@ -434,7 +460,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionState state = getState();
+		return (state != null && state.actualTransactionActive);
 	}
 
 
@@ -448,11 +475,78 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		TransactionState state = getState();
+		if (state != null) {
+			state.clearSynchronizations();
+			state.synchronizationActive = false;
+			state.name = null;
+			state.readOnly = false;
+			state.isolationLevel = null;
+			state.actualTransactionActive = false;
+			removeStateIfUnused(state);
+		}
+	}
+
+
+	/**
+	 * Resources, synchronizations and transaction characteristics of a thread,
+	 * held in a single {@code ThreadLocal}. The resource map and synchronization
+	 * set are only created on first use. The state is removed from the thread once
+	 * no resources are bound and synchronization is not active anymore, not leaving
+	 * it behind on pooled threads.
+	 */
+	private static final class TransactionState {
+
+		@Nullable
+		Map<Object, Object> resources;
+
+		@Nullable
+		Set<TransactionSynchronization> synchronizations;
+
+		boolean synchronizationActive;
+
+		@Nullable
+		String name;
+
+		boolean readOnly;
+
+		@Nullable
+		Integer isolationLevel;
+
+		boolean actualTransactionActive;
+
+		boolean hasResources() {
+			return (this.resources != null && !this.resources.isEmpty());
+		}
+
+		Map<Object, Object> obtainResources() {
+			Map<Object, Object> resources = this.resources;
+			if (resources == null) {
+				resources = new HashMap<>();
+				this.resources = resources;
+			}
+			return resources;
+		}
+
+		@Nullable
+		Object removeResource(Object key) {
+			return (this.resources != null ? this.resources.remove(key) : null);
+		}
+
+		Set<TransactionSynchronization> obtainSynchronizations() {
+			Set<TransactionSynchronization> synchronizations = this.synchronizations;
+			if (synchronizations == null) {
+				synchronizations = new LinkedHashSet<>();
+				this.synchronizations = synchronizations;
+			}
+			return synchronizations;
+		}
+
+		void clearSynchronizations() {
+			if (this.synchronizations != null) {
+				this.synchronizations.clear();
+			}
+		}
 	}
 
 }
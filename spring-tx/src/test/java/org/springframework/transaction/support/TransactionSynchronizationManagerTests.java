@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link TransactionSynchronizationManager}.
+ */
+public class TransactionSynchronizationManagerTests {
+
+	@AfterEach
+	public void verifyTransactionSynchronizationManagerState() {
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isNull();
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isNull();
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+		assertThat(getThreadLocalState()).isNull();
+	}
+
+
+	@Test
+	public void bindAndUnbindResource() {
+		TransactionSynchronizationManager.bindResource("key", "value");
+		assertThat(TransactionSynchronizationManager.hasResource("key")).isTrue();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).containsEntry("key", "value");
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.bindResource("key", "other"));
+
+		assertThat(TransactionSynchronizationManager.unbindResource("key")).isEqualTo("value");
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		assertThat(TransactionSynchronizationManager.unbindResourceIfPossible("key")).isNull();
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.unbindResource("key"));
+	}
+
+	@Test
+	public void voidResourceHolderIsRemoved() {
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		assertThat(TransactionSynchronizationManager.unbindResource("key")).isEqualTo("value");
+	}
+
+	@Test
+	public void synchronizationLifecycle() {
+		TransactionSynchronization synchronization = new TransactionSynchronization() {};
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.registerSynchronization(synchronization));
+
+		for (int i = 0; i < 2; i++) {
+			TransactionSynchronizationManager.initSynchronization();
+			assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+			TransactionSynchronizationManager.registerSynchronization(synchronization);
+			assertThat(TransactionSynchronizationManager.getSynchronizations()).containsExactly(synchronization);
+			assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::initSynchronization);
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::getSynchronizations);
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::clearSynchronization);
+	}
+
+	@Test
+	public void clearResetsCharacteristicsButKeepsResources() {
+		TransactionSynchronizationManager.bindResource("key", "value");
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {});
+		TransactionSynchronizationManager.setCurrentTransactionName("tx");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(Connection.TRANSACTION_SERIALIZABLE);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isEqualTo("tx");
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel())
+				.isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+
+		TransactionSynchronizationManager.clear();
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+		TransactionSynchronizationManager.unbindResource("key");
+
+		TransactionSynchronizationManager.initSynchronization();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	public void threadLocalStateRemovedOnceUnused() {
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		assertThat(getThreadLocalState()).isNull();
+
+		// Same order as in AbstractPlatformTransactionManager#cleanupAfterCompletion
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		TransactionSynchronizationManager.setCurrentTransactionName("tx");
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {});
+		TransactionSynchronizationManager.clear();
+		assertThat(getThreadLocalState()).isNotNull();
+		TransactionSynchronizationManager.unbindResource("key");
+		assertThat(getThreadLocalState()).isNull();
+
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		TransactionSynchronizationManager.unbindResource("key");
+		assertThat(getThreadLocalState()).isNotNull();
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(getThreadLocalState()).isNull();
+	}
+
+	@Test
+	public void voidResourceHolderRemovedOnAccess() {
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		assertThat(getThreadLocalState()).isNull();
+	}
+
+
+	private static Object getThreadLocalState() {
+		Field field = ReflectionUtils.findField(TransactionSynchronizationManager.class, "transactionState");
+		assertThat(field).isNotNull();
+		ReflectionUtils.makeAccessible(field);
+		return ((ThreadLocal<?>) ReflectionUtils.getField(field, null)).get();
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks for decoding a JSON array into a stream of POJOs using Jackson.
+ *
+ * @see AbstractJackson2Decoder
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	/**
+	 * Benchmark data holding a JSON array of {@link Project} elements, split into
+	 * chunks of {@code chunkSize} bytes to simulate network reads.
+	 */
+	@State(Scope.Benchmark)
+	public static class DecodeData {
+
+		@Param({"1", "50", "500"})
+		int streamSize;
+
+		@Param({"5"})
+		int projectCount;
+
+		@Param({"1024", "8192"})
+		int chunkSize;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		DataBufferFactory bufferFactory;
+
+		ResolvableType resolvableType;
+
+		List<byte[]> chunks;
+
+		@Setup
+		public void setup() throws Exception {
+			ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+			this.jsonDecoder.setMaxInMemorySize(-1);
+			this.resolvableType = ResolvableType.forClass(Project.class);
+
+			List<Project> projects = new ArrayList<>(this.streamSize);
+			for (int i = 0; i < this.streamSize; i++) {
+				projects.add(new Project("spring" + i, this.projectCount));
+			}
+			byte[] json = objectMapper.writeValueAsBytes(projects);
+			this.chunks = new ArrayList<>();
+			for (int offset = 0; offset < json.length; offset += this.chunkSize) {
+				byte[] chunk = new byte[Math.min(this.chunkSize, json.length - offset)];
+				System.arraycopy(json, offset, chunk, 0, chunk.length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(this.bufferFactory::wrap);
+		}
+	}
+
+	@Benchmark
+	public void decode(Blackhole bh, DecodeData data) {
+		data.jsonDecoder.decode(data.input(), data.resolvableType, MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+	@Benchmark
+	public void decodeToMono(Blackhole bh, DecodeData data) {
+		ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, Project.class);
+		bh.consume(data.jsonDecoder.decodeToMono(data.input(), listType, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).block());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,7 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Sample Pojo for JSON encoder benchmarks.
+ * Sample Pojo for JSON encoder and decoder benchmarks.
  * @author Brian Clozel
  */
 public class Project {
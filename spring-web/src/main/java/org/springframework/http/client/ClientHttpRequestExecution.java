@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.http.client;
 import java.io.IOException;
 
 import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
 
 /**
  * Represents the context of a client-side HTTP request execution.
@@ -43,4 +44,21 @@ public interface ClientHttpRequestExecution {
 	 */
 	ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException;
 
+	/**
+	 * Execute the request with the given request attributes and a body that
+	 * is written lazily, and return the response.
+	 * <p>The default implementation buffers the body, and delegates to
+	 * {@link #execute(HttpRequest, byte[])}.
+	 * @param request the request, containing method, URI, and headers
+	 * @param body the body of the request to execute
+	 * @return the response
+	 * @throws IOException in case of I/O errors
+	 * @since 6.0
+	 */
+	default ClientHttpResponse execute(HttpRequest request, StreamingHttpOutputMessage.Body body)
+			throws IOException {
+
+		return execute(request, InterceptingClientHttpRequest.bufferBody(body));
+	}
+
 }
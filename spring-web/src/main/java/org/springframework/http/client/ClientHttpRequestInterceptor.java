@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.http.client;
 import java.io.IOException;
 
 import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
 
 /**
  * Intercepts client-side HTTP requests. Implementations of this interface can be
@@ -29,6 +30,9 @@ import org.springframework.http.HttpRequest;
  *
  * <p>The main entry point for interceptors is
  * {@link #intercept(HttpRequest, byte[], ClientHttpRequestExecution)}.
+ * Interceptors that do not need the body content should also override
+ * {@link #intercept(HttpRequest, StreamingHttpOutputMessage.Body, ClientHttpRequestExecution)},
+ * so that streaming request bodies are passed on without being buffered.
  *
  * @author Arjen Poutsma
  * @since 3.1
@@ -64,4 +68,26 @@ public interface ClientHttpRequestInterceptor {
 	ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
 			throws IOException;
 
+	/**
+	 * Intercept the given request with a body that has not been buffered,
+	 * and return a response.
+	 * <p>Implementations that only examine or modify the request, but not its
+	 * body content, are encouraged to pass the body on as-is through
+	 * {@link ClientHttpRequestExecution#execute(HttpRequest, StreamingHttpOutputMessage.Body)},
+	 * so that it is streamed to the underlying request.
+	 * <p>The default implementation buffers the body, and delegates to
+	 * {@link #intercept(HttpRequest, byte[], ClientHttpRequestExecution)}.
+	 * @param request the request, containing method, URI, and headers
+	 * @param body the body of the request, to be written lazily
+	 * @param execution the request execution
+	 * @return the response
+	 * @throws IOException in case of I/O errors
+	 * @since 6.0
+	 */
+	default ClientHttpResponse intercept(HttpRequest request, StreamingHttpOutputMessage.Body body,
+			ClientHttpRequestExecution execution) throws IOException {
+
+		return intercept(request, InterceptingClientHttpRequest.bufferBody(body), execution);
+	}
+
 }
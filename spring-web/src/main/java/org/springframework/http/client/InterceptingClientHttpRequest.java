@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.http.client;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.List;
@@ -25,16 +27,22 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StreamUtils;
 
 /**
  * Wrapper for a {@link ClientHttpRequest} that has support for {@link ClientHttpRequestInterceptor
  * ClientHttpRequestInterceptors}.
  *
+ * <p>As of 6.0, a body set through {@link #setBody} is passed through the interceptor
+ * chain as a {@link StreamingHttpOutputMessage.Body}, and only buffered if an interceptor
+ * asks for the body content through
+ * {@link ClientHttpRequestInterceptor#intercept(HttpRequest, byte[], ClientHttpRequestExecution)}.
+ *
  * @author Arjen Poutsma
  * @since 3.1
  */
-class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
+class InterceptingClientHttpRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
 
 	private final ClientHttpRequestFactory requestFactory;
 
@@ -44,6 +52,12 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 
 	private final URI uri;
 
+	@Nullable
+	private Body body;
+
+	@Nullable
+	private ByteArrayOutputStream bufferedOutput;
+
 
 	protected InterceptingClientHttpRequest(ClientHttpRequestFactory requestFactory,
 			List<ClientHttpRequestInterceptor> interceptors, URI uri, HttpMethod method) {
@@ -72,9 +86,49 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 	}
 
 	@Override
-	protected final ClientHttpResponse executeInternal(HttpHeaders headers, byte[] bufferedOutput) throws IOException {
+	public void setBody(Body body) {
+		assertNotExecuted();
+		this.body = body;
+	}
+
+	@Override
+	protected OutputStream getBodyInternal(HttpHeaders headers) throws IOException {
+		if (this.bufferedOutput == null) {
+			this.bufferedOutput = new ByteArrayOutputStream(1024);
+		}
+		return this.bufferedOutput;
+	}
+
+	@Override
+	protected final ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+		Body body = this.body;
+		if (body == null) {
+			byte[] bytes = (this.bufferedOutput != null ? this.bufferedOutput.toByteArray() : new byte[0]);
+			if (headers.getContentLength() < 0) {
+				headers.setContentLength(bytes.length);
+			}
+			body = new ByteArrayBody(bytes);
+			this.bufferedOutput = null;
+		}
 		InterceptingRequestExecution requestExecution = new InterceptingRequestExecution();
-		return requestExecution.execute(this, bufferedOutput);
+		return requestExecution.execute(this, body);
+	}
+
+
+	/**
+	 * Return the content of the given body, writing it to a byte array
+	 * unless already buffered.
+	 * @param body the body to buffer
+	 * @return the body content
+	 * @throws IOException in case of I/O errors
+	 */
+	static byte[] bufferBody(Body body) throws IOException {
+		if (body instanceof ByteArrayBody byteArrayBody) {
+			return byteArrayBody.bytes;
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+		body.writeTo(outputStream);
+		return outputStream.toByteArray();
 	}
 
 
@@ -88,6 +142,11 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 
 		@Override
 		public ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException {
+			return execute(request, new ByteArrayBody(body));
+		}
+
+		@Override
+		public ClientHttpResponse execute(HttpRequest request, Body body) throws IOException {
 			if (this.iterator.hasNext()) {
 				ClientHttpRequestInterceptor nextInterceptor = this.iterator.next();
 				return nextInterceptor.intercept(request, body, this);
@@ -96,12 +155,16 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 				HttpMethod method = request.getMethod();
 				ClientHttpRequest delegate = requestFactory.createRequest(request.getURI(), method);
 				request.getHeaders().forEach((key, value) -> delegate.getHeaders().addAll(key, value));
-				if (body.length > 0) {
+				if (!(body instanceof ByteArrayBody byteArrayBody) || byteArrayBody.bytes.length > 0) {
+					// Buffered content is sent with a known length rather than chunked
+					if (body instanceof ByteArrayBody byteArrayBody && delegate.getHeaders().getContentLength() < 0) {
+						delegate.getHeaders().setContentLength(byteArrayBody.bytes.length);
+					}
 					if (delegate instanceof StreamingHttpOutputMessage streamingOutputMessage) {
-						streamingOutputMessage.setBody(outputStream -> StreamUtils.copy(body, outputStream));
+						streamingOutputMessage.setBody(body);
 					}
 					else {
-						StreamUtils.copy(body, delegate.getBody());
+						body.writeTo(delegate.getBody());
 					}
 				}
 				return delegate.execute();
@@ -109,4 +172,22 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 		}
 	}
 
+
+	/**
+	 * {@link Body} for content that has already been buffered.
+	 */
+	private static final class ByteArrayBody implements Body {
+
+		private final byte[] bytes;
+
+		ByteArrayBody(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void writeTo(OutputStream outputStream) throws IOException {
+			StreamUtils.copy(this.bytes, outputStream);
+		}
+	}
+
 }
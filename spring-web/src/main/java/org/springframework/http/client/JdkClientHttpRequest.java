@@ -0,0 +1,421 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/**
+ * {@link ClientHttpRequest} implementation based on the Java {@code HttpClient}.
+ *
+ * <p>Created via the {@link JdkClientHttpRequestFactory}.
+ *
+ * @since 6.0
+ * @see JdkClientHttpRequestFactory#createRequest(URI, HttpMethod)
+ */
+final class JdkClientHttpRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
+
+	/**
+	 * Headers that the {@code HttpClient} does not allow to be set,
+	 * since it manages them itself.
+	 */
+	private static final Set<String> DISALLOWED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	static {
+		Collections.addAll(DISALLOWED_HEADERS, "connection", "content-length", "expect", "host", "upgrade");
+	}
+
+
+	private final HttpClient httpClient;
+
+	private final URI uri;
+
+	private final HttpMethod method;
+
+	@Nullable
+	private final Duration timeout;
+
+	@Nullable
+	private Body body;
+
+	@Nullable
+	private FastByteArrayOutputStream bufferedOutput;
+
+
+	JdkClientHttpRequest(HttpClient httpClient, URI uri, HttpMethod method, @Nullable Duration timeout) {
+		this.httpClient = httpClient;
+		this.uri = uri;
+		this.method = method;
+		this.timeout = timeout;
+	}
+
+
+	@Override
+	public HttpMethod getMethod() {
+		return this.method;
+	}
+
+	@Override
+	@Deprecated
+	public String getMethodValue() {
+		return this.method.name();
+	}
+
+	@Override
+	public URI getURI() {
+		return this.uri;
+	}
+
+	@Override
+	public void setBody(Body body) {
+		assertNotExecuted();
+		this.body = body;
+	}
+
+	@Override
+	protected OutputStream getBodyInternal(HttpHeaders headers) {
+		if (this.bufferedOutput == null) {
+			this.bufferedOutput = new FastByteArrayOutputStream(1024);
+		}
+		return this.bufferedOutput;
+	}
+
+	@Override
+	protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(this.uri);
+		if (this.timeout != null) {
+			builder.timeout(this.timeout);
+		}
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			String headerName = entry.getKey();
+			if (!DISALLOWED_HEADERS.contains(headerName)) {
+				for (String headerValue : entry.getValue()) {
+					builder.header(headerName, headerValue);
+				}
+			}
+			else if (headerName.equalsIgnoreCase(HttpHeaders.EXPECT)) {
+				builder.expectContinue(entry.getValue().stream()
+						.anyMatch(value -> value.toLowerCase(Locale.ROOT).equals("100-continue")));
+			}
+		}
+
+		Body body = this.body;
+		StreamingBodyPublisher publisher = null;
+		HttpRequest.BodyPublisher bodyPublisher;
+		if (body != null) {
+			publisher = new StreamingBodyPublisher();
+			long contentLength = headers.getContentLength();
+			bodyPublisher = (contentLength > 0 ?
+					HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength) :
+					HttpRequest.BodyPublishers.fromPublisher(publisher));
+		}
+		else if (this.bufferedOutput != null && this.bufferedOutput.size() > 0) {
+			bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(this.bufferedOutput.toByteArrayUnsafe());
+		}
+		else {
+			bodyPublisher = HttpRequest.BodyPublishers.noBody();
+		}
+		builder.method(this.method.name(), bodyPublisher);
+
+		CompletableFuture<HttpResponse<InputStream>> responseFuture =
+				this.httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+		if (body != null && publisher != null) {
+			StreamingBodyPublisher publisherToUse = publisher;
+			responseFuture.whenComplete((response, ex) -> publisherToUse.terminate(ex));
+			try {
+				// Stream the body from the calling thread, as the client requests content
+				body.writeTo(publisher);
+				publisher.close();
+			}
+			catch (IOException | RuntimeException ex) {
+				publisher.fail(ex);
+				responseFuture.cancel(true);
+				throw ex;
+			}
+		}
+
+		try {
+			return new JdkClientHttpResponse(responseFuture.get());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			responseFuture.cancel(true);
+			throw new IOException("Interrupted while waiting for the response", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(cause != null ? cause.getMessage() : ex.getMessage(), cause);
+		}
+	}
+
+
+	/**
+	 * {@link Flow.Publisher} for the request body that is written through its
+	 * {@link OutputStream} by the thread that executes the request. Writes block
+	 * until the {@code HttpClient} has subscribed and requested more content.
+	 */
+	private static final class StreamingBodyPublisher extends OutputStream implements Flow.Publisher<ByteBuffer> {
+
+		private static final int CHUNK_SIZE = 8 * 1024;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Condition demandChanged = this.lock.newCondition();
+
+		@Nullable
+		private Flow.Subscriber<? super ByteBuffer> subscriber;
+
+		private long demand;
+
+		/** Whether the subscription was cancelled, or the response already received. */
+		private boolean discard;
+
+		@Nullable
+		private Throwable failure;
+
+		private boolean closed;
+
+		private byte[] chunk = new byte[CHUNK_SIZE];
+
+		private int count;
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+			this.lock.lock();
+			try {
+				if (this.subscriber != null) {
+					subscriber.onSubscribe(new Flow.Subscription() {
+						@Override
+						public void request(long n) {
+						}
+						@Override
+						public void cancel() {
+						}
+					});
+					subscriber.onError(new IllegalStateException("Streaming request body cannot be sent again"));
+					return;
+				}
+				this.subscriber = subscriber;
+			}
+			finally {
+				this.lock.unlock();
+			}
+			subscriber.onSubscribe(new BodySubscription());
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			assertNotClosed();
+			this.chunk[this.count++] = (byte) b;
+			if (this.count == this.chunk.length) {
+				emitChunk();
+			}
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			assertNotClosed();
+			while (length > 0) {
+				int size = Math.min(length, this.chunk.length - this.count);
+				System.arraycopy(bytes, offset, this.chunk, this.count, size);
+				this.count += size;
+				offset += size;
+				length -= size;
+				if (this.count == this.chunk.length) {
+					emitChunk();
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			assertNotClosed();
+			if (this.count > 0) {
+				emitChunk();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			flush();
+			this.closed = true;
+			Flow.Subscriber<? super ByteBuffer> subscriber = awaitSubscriber(false);
+			if (subscriber != null) {
+				subscriber.onComplete();
+			}
+		}
+
+		private void assertNotClosed() throws IOException {
+			if (this.closed) {
+				throw new IOException("Request body already closed");
+			}
+		}
+
+		private void emitChunk() throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(this.chunk, 0, this.count);
+			this.chunk = new byte[CHUNK_SIZE];
+			this.count = 0;
+			Flow.Subscriber<? super ByteBuffer> subscriber = awaitSubscriber(true);
+			if (subscriber != null) {
+				subscriber.onNext(buffer);
+			}
+		}
+
+		/**
+		 * Wait for the subscriber, and for demand if requested.
+		 * @return the subscriber, or {@code null} if content is to be discarded
+		 */
+		@Nullable
+		private Flow.Subscriber<? super ByteBuffer> awaitSubscriber(boolean awaitDemand) throws IOException {
+			this.lock.lock();
+			try {
+				while ((this.subscriber == null || (awaitDemand && this.demand == 0)) &&
+						!this.discard && this.failure == null) {
+					this.demandChanged.await();
+				}
+				if (this.failure instanceof IOException ioException) {
+					throw ioException;
+				}
+				if (this.failure != null) {
+					throw new IOException("Failed to send request body", this.failure);
+				}
+				if (this.discard) {
+					return null;
+				}
+				if (awaitDemand) {
+					this.demand--;
+				}
+				return this.subscriber;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while writing request body", ex);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Invoked once the response is complete, either successfully, in which
+		 * case remaining content is discarded, or with the given failure.
+		 */
+		void terminate(@Nullable Throwable ex) {
+			this.lock.lock();
+			try {
+				if (ex != null) {
+					this.failure = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				}
+				else {
+					this.discard = true;
+				}
+				this.demandChanged.signalAll();
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Invoked if writing the body failed, to abort the request.
+		 */
+		void fail(Throwable ex) {
+			Flow.Subscriber<? super ByteBuffer> subscriber;
+			this.lock.lock();
+			try {
+				subscriber = (this.discard || this.failure != null ? null : this.subscriber);
+				this.discard = true;
+				this.demandChanged.signalAll();
+			}
+			finally {
+				this.lock.unlock();
+			}
+			if (subscriber != null) {
+				subscriber.onError(ex);
+			}
+		}
+
+
+		private class BodySubscription implements Flow.Subscription {
+
+			@Override
+			public void request(long n) {
+				lock.lock();
+				try {
+					if (n <= 0) {
+						failure = new IllegalArgumentException("Demand must be positive: " + n);
+					}
+					else {
+						demand = (demand + n < 0 ? Long.MAX_VALUE : demand + n);
+					}
+					demandChanged.signalAll();
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+
+			@Override
+			public void cancel() {
+				lock.lock();
+				try {
+					discard = true;
+					demandChanged.signalAll();
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+}
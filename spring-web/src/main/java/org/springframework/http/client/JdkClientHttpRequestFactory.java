@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ClientHttpRequestFactory} implementation that uses the
+ * {@link HttpClient Java HttpClient} to create requests.
+ *
+ * <p>Request bodies written through
+ * {@link org.springframework.http.StreamingHttpOutputMessage#setBody} are
+ * streamed to the client as they are written, without buffering the body in
+ * memory. The calling thread blocks while the client is not ready for more
+ * content, and while awaiting the response, which makes this factory well suited
+ * for use with virtual threads.
+ *
+ * <p>Connection management is left to the {@code HttpClient}. By default it
+ * negotiates HTTP/2, multiplexing concurrent requests to the same origin over a
+ * single connection, and falls back on pooled HTTP/1.1 connections, the reuse
+ * of which is configured through the {@code jdk.httpclient.connectionPoolSize}
+ * and {@code jdk.httpclient.keepalive.timeout} system properties. Use
+ * {@link #JdkClientHttpRequestFactory(HttpClient)} to configure the protocol
+ * version, connect timeout, executor, and other client settings.
+ *
+ * @since 6.0
+ * @see org.springframework.http.client.reactive.JdkClientHttpConnector
+ */
+public class JdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final HttpClient httpClient;
+
+	@Nullable
+	private Duration readTimeout;
+
+
+	/**
+	 * Create a factory with a default {@link HttpClient} instance.
+	 */
+	public JdkClientHttpRequestFactory() {
+		this(HttpClient.newHttpClient());
+	}
+
+	/**
+	 * Create a factory with the given {@link HttpClient} instance.
+	 * @param httpClient the client to use
+	 */
+	public JdkClientHttpRequestFactory(HttpClient httpClient) {
+		Assert.notNull(httpClient, "HttpClient must not be null");
+		this.httpClient = httpClient;
+	}
+
+
+	/**
+	 * Return the {@code HttpClient} used for executing requests.
+	 */
+	public HttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * Set the timeout for receiving the response headers, in milliseconds.
+	 * A value of 0 specifies an infinite timeout.
+	 * @see java.net.http.HttpRequest.Builder#timeout(Duration)
+	 */
+	public void setReadTimeout(int readTimeout) {
+		setReadTimeout(Duration.ofMillis(readTimeout));
+	}
+
+	/**
+	 * Set the timeout for receiving the response headers.
+	 * A zero duration specifies an infinite timeout.
+	 * @see java.net.http.HttpRequest.Builder#timeout(Duration)
+	 */
+	public void setReadTimeout(Duration readTimeout) {
+		Assert.notNull(readTimeout, "ReadTimeout must not be null");
+		Assert.isTrue(!readTimeout.isNegative(), "Timeout must be a non-negative value");
+		this.readTimeout = (readTimeout.isZero() ? null : readTimeout);
+	}
+
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new JdkClientHttpRequest(this.httpClient, uri, httpMethod, this.readTimeout);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link ClientHttpResponse} implementation based on the Java {@code HttpClient}.
+ *
+ * <p>Created via the {@link JdkClientHttpRequest}.
+ *
+ * @since 6.0
+ */
+final class JdkClientHttpResponse extends AbstractClientHttpResponse {
+
+	private final HttpResponse<InputStream> response;
+
+	private final HttpHeaders headers;
+
+
+	JdkClientHttpResponse(HttpResponse<InputStream> response) {
+		this.response = response;
+		this.headers = adaptHeaders(response);
+	}
+
+	private static HttpHeaders adaptHeaders(HttpResponse<?> response) {
+		Map<String, List<String>> rawHeaders = response.headers().map();
+		Map<String, List<String>> map = new LinkedCaseInsensitiveMap<>(rawHeaders.size(), Locale.ENGLISH);
+		MultiValueMap<String, String> multiValueMap = CollectionUtils.toMultiValueMap(map);
+		multiValueMap.putAll(rawHeaders);
+		return HttpHeaders.readOnlyHttpHeaders(multiValueMap);
+	}
+
+
+	@Override
+	public int getRawStatusCode() {
+		return this.response.statusCode();
+	}
+
+	@Override
+	public String getStatusText() {
+		// The HttpClient does not expose the reason phrase
+		HttpStatus status = HttpStatus.resolve(this.response.statusCode());
+		return (status != null ? status.getReasonPhrase() : "");
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	@Override
+	public InputStream getBody() throws IOException {
+		return this.response.body();
+	}
+
+	@Override
+	public void close() {
+		InputStream body = this.response.body();
+		try {
+			try {
+				// Consume the remaining content, so that the connection can be reused
+				StreamUtils.drain(body);
+			}
+			finally {
+				body.close();
+			}
+		}
+		catch (IOException ex) {
+			// Ignore exception on close...
+		}
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A response stored in an {@link HttpCache}, along with the information needed
+ * to determine its age and freshness as defined in RFC 9111.
+ *
+ * @since 6.0
+ */
+public final class CachedResponse implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+
+	private final int statusCode;
+
+	private final HttpHeaders headers;
+
+	private final byte[] body;
+
+	private final HttpHeaders varyHeaders;
+
+	private final long requestTime;
+
+	private final long responseTime;
+
+	private final long correctedInitialAge;
+
+	private final long freshnessLifetime;
+
+	private final long staleWhileRevalidate;
+
+	private final boolean noCache;
+
+	private final boolean mustRevalidate;
+
+
+	CachedResponse(int statusCode, HttpHeaders headers, byte[] body, HttpHeaders varyHeaders,
+			long requestTime, long responseTime) {
+
+		this.statusCode = statusCode;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(copyOf(headers));
+		this.body = body;
+		this.varyHeaders = HttpHeaders.readOnlyHttpHeaders(copyOf(varyHeaders));
+		this.requestTime = requestTime;
+		this.responseTime = responseTime;
+
+		Map<String, String> directives = HttpCache.parseCacheControl(headers);
+		long date = HttpCache.parseDate(headers, HttpHeaders.DATE);
+		long dateValue = (date >= 0 ? date : responseTime);
+		long apparentAge = Math.max(0, responseTime - dateValue);
+		long ageValue = HttpCache.parseSeconds(headers.getFirst(HttpHeaders.AGE), 0) * 1000;
+		this.correctedInitialAge = Math.max(apparentAge, ageValue + (responseTime - requestTime));
+
+		long maxAge = HttpCache.parseSeconds(directives.get("max-age"), -1);
+		if (maxAge >= 0) {
+			this.freshnessLifetime = maxAge * 1000;
+		}
+		else if (headers.containsKey(HttpHeaders.EXPIRES)) {
+			long expires = HttpCache.parseDate(headers, HttpHeaders.EXPIRES);
+			// An invalid Expires value represents a time in the past
+			this.freshnessLifetime = (expires >= 0 ? Math.max(0, expires - dateValue) : 0);
+		}
+		else {
+			long lastModified = HttpCache.parseDate(headers, HttpHeaders.LAST_MODIFIED);
+			// Heuristic freshness of 10% of the time since the last modification
+			this.freshnessLifetime = (lastModified >= 0 ? Math.max(0, dateValue - lastModified) / 10 : 0);
+		}
+		this.staleWhileRevalidate = HttpCache.parseSeconds(directives.get("stale-while-revalidate"), 0) * 1000;
+		this.noCache = directives.containsKey("no-cache");
+		this.mustRevalidate = directives.containsKey("must-revalidate");
+	}
+
+
+	/**
+	 * Return the HTTP status code of the response.
+	 */
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * Return the read-only headers of the response.
+	 */
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	/**
+	 * Return the body of the response.
+	 */
+	public byte[] getBody() {
+		return this.body;
+	}
+
+	/**
+	 * Return the time at which the request was sent, in milliseconds since the epoch.
+	 */
+	public long getRequestTime() {
+		return this.requestTime;
+	}
+
+	/**
+	 * Return the time at which the response was received, in milliseconds since the epoch.
+	 */
+	public long getResponseTime() {
+		return this.responseTime;
+	}
+
+	/**
+	 * Return the current age of the response, in milliseconds.
+	 * @param now the current time, in milliseconds since the epoch
+	 */
+	public long getAge(long now) {
+		return this.correctedInitialAge + Math.max(0, now - this.responseTime);
+	}
+
+	/**
+	 * Return the freshness lifetime of the response, in milliseconds, based
+	 * on its {@code max-age} directive, {@code Expires} header, or heuristically
+	 * on its {@code Last-Modified} header.
+	 */
+	public long getFreshnessLifetime() {
+		return this.freshnessLifetime;
+	}
+
+	/**
+	 * Whether the response is fresh at the given time.
+	 * @param now the current time, in milliseconds since the epoch
+	 */
+	public boolean isFresh(long now) {
+		return (!this.noCache && getAge(now) < this.freshnessLifetime);
+	}
+
+	/**
+	 * Whether the stale response may still be served at the given time while
+	 * it is revalidated, as permitted by its {@code stale-while-revalidate}
+	 * directive.
+	 * @param now the current time, in milliseconds since the epoch
+	 */
+	public boolean isStaleWhileRevalidate(long now) {
+		return (!this.noCache && !this.mustRevalidate &&
+				getAge(now) < this.freshnessLifetime + this.staleWhileRevalidate);
+	}
+
+	/**
+	 * Whether the response has a validator for conditional requests.
+	 */
+	public boolean hasValidator() {
+		return (this.headers.getETag() != null || this.headers.containsKey(HttpHeaders.LAST_MODIFIED));
+	}
+
+	/**
+	 * Whether this response was selected with request headers that match the
+	 * given ones, for all header names nominated by its {@code Vary} header.
+	 * @param requestHeaders the headers of the request
+	 */
+	public boolean matches(HttpHeaders requestHeaders) {
+		for (String headerName : this.headers.getVary()) {
+			if (!Objects.equals(this.varyHeaders.get(headerName), requestHeaders.get(headerName))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static HttpHeaders copyOf(HttpHeaders headers) {
+		HttpHeaders copy = new HttpHeaders();
+		copy.addAll(headers);
+		return copy;
+	}
+
+}
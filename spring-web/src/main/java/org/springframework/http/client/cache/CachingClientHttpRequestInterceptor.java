@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link ClientHttpRequestInterceptor} that serves responses from an
+ * {@link HttpCache}, and stores cacheable responses in it.
+ *
+ * <p>Response bodies are stored as they are read by the caller, so a response
+ * is only cached once its body has been read completely. Stale responses are
+ * revalidated with a conditional request, and a {@code 304 Not Modified}
+ * response is answered with the stored response.
+ *
+ * <p>Responses with a {@code stale-while-revalidate} directive are revalidated
+ * in the background if a {@linkplain #setRevalidationExecutor revalidation
+ * executor} is configured, and synchronously otherwise.
+ *
+ * @since 6.0
+ * @see HttpCache
+ */
+public class CachingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final Log logger = LogFactory.getLog(CachingClientHttpRequestInterceptor.class);
+
+
+	private final HttpCache cache;
+
+	@Nullable
+	private Executor revalidationExecutor;
+
+
+	/**
+	 * Create an interceptor with an {@link HttpCache} with default settings.
+	 */
+	public CachingClientHttpRequestInterceptor() {
+		this(new HttpCache());
+	}
+
+	/**
+	 * Create an interceptor with the given cache.
+	 * @param cache the cache to use
+	 */
+	public CachingClientHttpRequestInterceptor(HttpCache cache) {
+		Assert.notNull(cache, "HttpCache must not be null");
+		this.cache = cache;
+	}
+
+
+	/**
+	 * Return the cache used by this interceptor.
+	 */
+	public HttpCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Set the executor to revalidate stale responses with, while serving them
+	 * as permitted by their {@code stale-while-revalidate} directive.
+	 * <p>By default, no executor is set, and such responses are revalidated
+	 * before being served.
+	 */
+	public void setRevalidationExecutor(@Nullable Executor revalidationExecutor) {
+		this.revalidationExecutor = revalidationExecutor;
+	}
+
+	/**
+	 * Return the executor to revalidate stale responses with, if any.
+	 */
+	@Nullable
+	public Executor getRevalidationExecutor() {
+		return this.revalidationExecutor;
+	}
+
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+
+		return intercept(request, outputStream -> StreamUtils.copy(body, outputStream), execution);
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, StreamingHttpOutputMessage.Body body,
+			ClientHttpRequestExecution execution) throws IOException {
+
+		CachedResponse cached = this.cache.get(request);
+		if (cached == null) {
+			long requestTime = this.cache.getClock().millis();
+			ClientHttpResponse response = execution.execute(request, body);
+			this.cache.invalidate(request, response.getRawStatusCode());
+			return cacheResponse(request, response, requestTime);
+		}
+		switch (this.cache.getStatus(request, cached)) {
+			case FRESH:
+				return new CachedClientHttpResponse(cached, this.cache.getResponseHeaders(cached));
+			case STALE_WHILE_REVALIDATE:
+				Executor executor = this.revalidationExecutor;
+				if (executor != null) {
+					executor.execute(() -> {
+						try (ClientHttpResponse response = revalidate(request, body, execution, cached)) {
+							// Read the body, so that it gets cached
+							StreamUtils.drain(response.getBody());
+						}
+						catch (Throwable ex) {
+							if (logger.isDebugEnabled()) {
+								logger.debug("Failed to revalidate cached response for " + request.getURI(), ex);
+							}
+						}
+					});
+					return new CachedClientHttpResponse(cached, this.cache.getResponseHeaders(cached));
+				}
+				return revalidate(request, body, execution, cached);
+			default:
+				return revalidate(request, body, execution, cached);
+		}
+	}
+
+	private ClientHttpResponse revalidate(HttpRequest request, StreamingHttpOutputMessage.Body body,
+			ClientHttpRequestExecution execution, CachedResponse cached) throws IOException {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.addAll(request.getHeaders());
+		this.cache.addConditionalHeaders(cached, headers);
+		HttpRequest conditionalRequest = new HttpRequestWrapper(request) {
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+
+		long requestTime = this.cache.getClock().millis();
+		ClientHttpResponse response = execution.execute(conditionalRequest, body);
+		if (response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+			HttpHeaders notModifiedHeaders = response.getHeaders();
+			response.close();
+			CachedResponse updated = this.cache.update(request, cached, notModifiedHeaders, requestTime);
+			return new CachedClientHttpResponse(updated, this.cache.getResponseHeaders(updated));
+		}
+		return cacheResponse(request, response, requestTime);
+	}
+
+	private ClientHttpResponse cacheResponse(HttpRequest request, ClientHttpResponse response, long requestTime)
+			throws IOException {
+
+		int statusCode = response.getRawStatusCode();
+		HttpHeaders headers = response.getHeaders();
+		if (!this.cache.isCacheable(request, statusCode, headers)) {
+			return response;
+		}
+		return new CachingClientHttpResponse(response, body ->
+				this.cache.put(request, statusCode, headers, body, requestTime));
+	}
+
+
+	/**
+	 * {@link ClientHttpResponse} for a response served from the cache.
+	 */
+	private static class CachedClientHttpResponse extends AbstractClientHttpResponse {
+
+		private final CachedResponse response;
+
+		private final HttpHeaders headers;
+
+		CachedClientHttpResponse(CachedResponse response, HttpHeaders headers) {
+			this.response = response;
+			this.headers = headers;
+		}
+
+		@Override
+		public int getRawStatusCode() {
+			return this.response.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() {
+			HttpStatus status = HttpStatus.resolve(this.response.getStatusCode());
+			return (status != null ? status.getReasonPhrase() : "");
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(this.response.getBody());
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+
+	/**
+	 * {@link ClientHttpResponse} wrapper that stores the body once it has
+	 * been read completely.
+	 */
+	private class CachingClientHttpResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse response;
+
+		private final BodyCallback callback;
+
+		@Nullable
+		private InputStream body;
+
+		CachingClientHttpResponse(ClientHttpResponse response, BodyCallback callback) {
+			this.response = response;
+			this.callback = callback;
+		}
+
+		@Override
+		@Deprecated
+		public HttpStatus getStatusCode() throws IOException {
+			return this.response.getStatusCode();
+		}
+
+		@Override
+		public int getRawStatusCode() throws IOException {
+			return this.response.getRawStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return this.response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (this.body == null) {
+				this.body = new CachingInputStream(this.response.getBody(), this.callback, cache.getMaxEntrySize());
+			}
+			return this.body;
+		}
+
+		@Override
+		public void close() {
+			// Message converters may stop reading before the end of the stream
+			if (this.body instanceof CachingInputStream cachingInputStream) {
+				cachingInputStream.drain();
+			}
+			this.response.close();
+		}
+	}
+
+
+	private interface BodyCallback {
+
+		void onBody(byte[] body);
+	}
+
+
+	/**
+	 * {@link InputStream} that copies the content it reads, up to a limit,
+	 * and passes it to a callback at the end of the stream.
+	 */
+	private static class CachingInputStream extends FilterInputStream {
+
+		private final BodyCallback callback;
+
+		private final int limit;
+
+		@Nullable
+		private FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+
+		CachingInputStream(InputStream in, BodyCallback callback, int limit) {
+			super(in);
+			this.callback = callback;
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				copy(new byte[] {(byte) b}, 0, 1);
+			}
+			else {
+				complete();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int count = super.read(bytes, offset, length);
+			if (count > 0) {
+				copy(bytes, offset, count);
+			}
+			else if (count == -1) {
+				complete();
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// Skipped content cannot be cached
+			this.content = null;
+			return super.skip(n);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		/**
+		 * Read the remaining content, as long as it can still be cached.
+		 */
+		void drain() {
+			byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+			try {
+				int count = 0;
+				while (this.content != null && count != -1) {
+					count = read(buffer);
+				}
+			}
+			catch (IOException ex) {
+				this.content = null;
+			}
+		}
+
+		private void copy(byte[] bytes, int offset, int length) throws IOException {
+			FastByteArrayOutputStream content = this.content;
+			if (content != null) {
+				if (content.size() + length > this.limit) {
+					this.content = null;
+				}
+				else {
+					content.write(bytes, offset, length);
+				}
+			}
+		}
+
+		private void complete() {
+			FastByteArrayOutputStream content = this.content;
+			if (content != null) {
+				this.content = null;
+				this.callback.onBody(content.toByteArray());
+			}
+		}
+	}
+
+}
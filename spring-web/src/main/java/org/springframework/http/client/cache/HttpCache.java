@@ -0,0 +1,400 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Client-side HTTP cache implementing the caching rules of RFC 9111 for a
+ * private cache, independent of the HTTP client in use. Responses are kept in
+ * a pluggable {@link HttpCacheStore}.
+ *
+ * <p>Only {@code GET} requests are served from the cache. Requests that carry
+ * their own conditional or {@code Range} headers, or a {@code no-store}
+ * directive, bypass the cache. A stored response is served while it is fresh,
+ * and revalidated with {@code If-None-Match} and {@code If-Modified-Since}
+ * when stale, unless its {@code stale-while-revalidate} directive permits
+ * serving it while it is revalidated in the background. Unsafe requests, such
+ * as {@code POST}, invalidate the stored response for their URI.
+ *
+ * <p>Responses are stored by URI and served to any subsequent request for it.
+ * Responses to requests with an {@code Authorization} header are therefore only
+ * stored if a {@code public}, {@code s-maxage} or {@code must-revalidate}
+ * directive explicitly permits it, as for a shared cache.
+ *
+ * <p>This class holds the caching logic only. It is used through
+ * {@link CachingClientHttpRequestInterceptor} for the {@code RestTemplate},
+ * and through {@code CachingExchangeFilterFunction} for the {@code WebClient}.
+ *
+ * @since 6.0
+ */
+public class HttpCache {
+
+	/**
+	 * Status codes of responses that are cacheable by default, without
+	 * explicit freshness information.
+	 */
+	private static final Set<Integer> HEURISTICALLY_CACHEABLE_STATUS_CODES =
+			Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+	private static final Set<HttpMethod> SAFE_METHODS =
+			Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.TRACE);
+
+
+	private final HttpCacheStore store;
+
+	private int maxEntrySize = 1024 * 1024;
+
+	private Clock clock = Clock.systemUTC();
+
+
+	/**
+	 * Create a cache with an {@link InMemoryHttpCacheStore} with default limits.
+	 */
+	public HttpCache() {
+		this(new InMemoryHttpCacheStore());
+	}
+
+	/**
+	 * Create a cache with the given store.
+	 * @param store the store for cached responses
+	 */
+	public HttpCache(HttpCacheStore store) {
+		Assert.notNull(store, "HttpCacheStore must not be null");
+		this.store = store;
+	}
+
+
+	/**
+	 * Return the store for cached responses.
+	 */
+	public HttpCacheStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * Set the maximum size of a response body to cache, in bytes. Larger
+	 * responses are passed through without being cached.
+	 * <p>By default this is set to 1 MB.
+	 */
+	public void setMaxEntrySize(int maxEntrySize) {
+		Assert.isTrue(maxEntrySize >= 0, "Max entry size must not be negative");
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	/**
+	 * Return the maximum size of a response body to cache, in bytes.
+	 */
+	public int getMaxEntrySize() {
+		return this.maxEntrySize;
+	}
+
+	/**
+	 * Configure the {@link Clock} to use to determine the age of responses.
+	 * <p>By default, {@link Clock#systemUTC()} is used.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock is required");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the configured clock.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+
+	/**
+	 * Whether the given request may be served from the cache, and its
+	 * response stored.
+	 * @param request the request
+	 */
+	public boolean isCacheable(HttpRequest request) {
+		if (!HttpMethod.GET.equals(request.getMethod())) {
+			return false;
+		}
+		HttpHeaders headers = request.getHeaders();
+		if (headers.containsKey(HttpHeaders.RANGE) || headers.containsKey(HttpHeaders.IF_NONE_MATCH) ||
+				headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE) || headers.containsKey(HttpHeaders.IF_MATCH) ||
+				headers.containsKey(HttpHeaders.IF_UNMODIFIED_SINCE) || headers.containsKey(HttpHeaders.IF_RANGE)) {
+			return false;
+		}
+		return !parseCacheControl(headers).containsKey("no-store");
+	}
+
+	/**
+	 * Whether a response with the given status and headers may be stored
+	 * for the given request.
+	 * @param request the request
+	 * @param statusCode the status code of the response
+	 * @param headers the headers of the response
+	 */
+	public boolean isCacheable(HttpRequest request, int statusCode, HttpHeaders headers) {
+		if (!isCacheable(request)) {
+			return false;
+		}
+		Map<String, String> directives = parseCacheControl(headers);
+		if (directives.containsKey("no-store") || headers.getVary().contains("*")) {
+			return false;
+		}
+		if (headers.getContentLength() > this.maxEntrySize) {
+			return false;
+		}
+		if (request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION) && !directives.containsKey("public") &&
+				!directives.containsKey("s-maxage") && !directives.containsKey("must-revalidate")) {
+			return false;
+		}
+		if (directives.containsKey("max-age") || headers.containsKey(HttpHeaders.EXPIRES)) {
+			return true;
+		}
+		return (HEURISTICALLY_CACHEABLE_STATUS_CODES.contains(statusCode) &&
+				(headers.containsKey(HttpHeaders.LAST_MODIFIED) || headers.getETag() != null));
+	}
+
+	/**
+	 * Return the stored response for the given request.
+	 * @param request the request
+	 * @return the stored response, or {@code null} if the request is not
+	 * cacheable, or no matching response is stored
+	 */
+	@Nullable
+	public CachedResponse get(HttpRequest request) {
+		if (!isCacheable(request)) {
+			return null;
+		}
+		CachedResponse response = this.store.get(getCacheKey(request));
+		return (response != null && response.matches(request.getHeaders()) ? response : null);
+	}
+
+	/**
+	 * Determine how the given stored response may be used for the given request.
+	 * @param request the request
+	 * @param response the stored response
+	 * @return the cache status
+	 */
+	public CacheStatus getStatus(HttpRequest request, CachedResponse response) {
+		long now = this.clock.millis();
+		Map<String, String> directives = parseCacheControl(request.getHeaders());
+		if (directives.containsKey("no-cache")) {
+			return CacheStatus.STALE;
+		}
+		long maxAge = parseSeconds(directives.get("max-age"), -1);
+		if (maxAge >= 0) {
+			return (response.isFresh(now) && response.getAge(now) <= maxAge * 1000 ?
+					CacheStatus.FRESH : CacheStatus.STALE);
+		}
+		if (response.isFresh(now)) {
+			return CacheStatus.FRESH;
+		}
+		return (response.isStaleWhileRevalidate(now) ? CacheStatus.STALE_WHILE_REVALIDATE : CacheStatus.STALE);
+	}
+
+	/**
+	 * Add the headers to revalidate the given stored response to the given
+	 * request headers.
+	 * @param response the stored response
+	 * @param requestHeaders the headers of the request to add to
+	 */
+	public void addConditionalHeaders(CachedResponse response, HttpHeaders requestHeaders) {
+		String etag = response.getHeaders().getETag();
+		if (etag != null) {
+			requestHeaders.set(HttpHeaders.IF_NONE_MATCH, etag);
+		}
+		String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+		if (lastModified != null) {
+			requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+		}
+	}
+
+	/**
+	 * Return the headers to serve the given stored response with, including
+	 * its current {@code Age}.
+	 * @param response the stored response
+	 */
+	public HttpHeaders getResponseHeaders(CachedResponse response) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.addAll(response.getHeaders());
+		headers.set(HttpHeaders.AGE, Long.toString(response.getAge(this.clock.millis()) / 1000));
+		return headers;
+	}
+
+	/**
+	 * Store the given response for the given request, provided that its body
+	 * does not exceed the {@linkplain #setMaxEntrySize maximum entry size}.
+	 * @param request the request
+	 * @param statusCode the status code of the response
+	 * @param headers the headers of the response
+	 * @param body the body of the response
+	 * @param requestTime the time at which the request was sent
+	 * @return the cached response
+	 */
+	public CachedResponse put(HttpRequest request, int statusCode, HttpHeaders headers, byte[] body,
+			long requestTime) {
+
+		HttpHeaders varyHeaders = new HttpHeaders();
+		for (String headerName : headers.getVary()) {
+			List<String> values = request.getHeaders().get(headerName);
+			if (values != null) {
+				varyHeaders.addAll(headerName, values);
+			}
+		}
+		CachedResponse response = new CachedResponse(
+				statusCode, headers, body, varyHeaders, requestTime, this.clock.millis());
+		if (body.length <= this.maxEntrySize) {
+			this.store.put(getCacheKey(request), response);
+		}
+		return response;
+	}
+
+	/**
+	 * Update the given stored response with the headers of a {@code 304 Not
+	 * Modified} response to its revalidation.
+	 * @param request the request
+	 * @param response the stored response
+	 * @param notModifiedHeaders the headers of the {@code 304} response
+	 * @param requestTime the time at which the revalidation request was sent
+	 * @return the updated response
+	 */
+	public CachedResponse update(HttpRequest request, CachedResponse response, HttpHeaders notModifiedHeaders,
+			long requestTime) {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.addAll(response.getHeaders());
+		notModifiedHeaders.forEach((headerName, values) -> {
+			if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(headerName)) {
+				headers.put(headerName, values);
+			}
+		});
+		return put(request, response.getStatusCode(), headers, response.getBody(), requestTime);
+	}
+
+	/**
+	 * Invalidate the stored response for the URI of the given request, if the
+	 * request has an unsafe method and a successful or redirect status.
+	 * @param request the request
+	 * @param statusCode the status code of its response
+	 */
+	public void invalidate(HttpRequest request, int statusCode) {
+		if (!SAFE_METHODS.contains(request.getMethod()) && statusCode >= 200 && statusCode < 400) {
+			this.store.remove(getCacheKey(request));
+		}
+	}
+
+	/**
+	 * Return the key to store the response to the given request under.
+	 * <p>The default implementation uses the request URI, since only
+	 * {@code GET} responses are stored.
+	 * @param request the request
+	 */
+	protected String getCacheKey(HttpRequest request) {
+		return request.getURI().toString();
+	}
+
+
+	/**
+	 * Parse the {@code Cache-Control} directives in the given headers into a
+	 * map of lower-case directive names to their, possibly empty, values.
+	 */
+	static Map<String, String> parseCacheControl(HttpHeaders headers) {
+		List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+		if (values == null) {
+			return Map.of();
+		}
+		Map<String, String> directives = new HashMap<>(8);
+		for (String value : values) {
+			for (String directive : StringUtils.tokenizeToStringArray(value, ",")) {
+				int index = directive.indexOf('=');
+				String name = (index != -1 ? directive.substring(0, index) : directive);
+				String argument = (index != -1 ? StringUtils.trimWhitespace(directive.substring(index + 1)) : "");
+				if (argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")) {
+					argument = argument.substring(1, argument.length() - 1);
+				}
+				directives.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), argument);
+			}
+		}
+		return directives;
+	}
+
+	/**
+	 * Parse the given header as a date, returning -1 if absent or invalid.
+	 */
+	static long parseDate(HttpHeaders headers, String headerName) {
+		try {
+			return headers.getFirstDate(headerName);
+		}
+		catch (IllegalArgumentException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Parse the given delta-seconds value, returning the given default value
+	 * if absent or invalid.
+	 */
+	static long parseSeconds(@Nullable String value, long defaultValue) {
+		if (!StringUtils.hasLength(value)) {
+			return defaultValue;
+		}
+		try {
+			long seconds = Long.parseLong(value.trim());
+			return (seconds >= 0 ? seconds : defaultValue);
+		}
+		catch (NumberFormatException ex) {
+			return defaultValue;
+		}
+	}
+
+
+	/**
+	 * How a stored response may be used for a request.
+	 */
+	public enum CacheStatus {
+
+		/**
+		 * The response is fresh, and may be served without contacting the server.
+		 */
+		FRESH,
+
+		/**
+		 * The response is stale, but may be served while it is revalidated
+		 * in the background.
+		 */
+		STALE_WHILE_REVALIDATE,
+
+		/**
+		 * The response is stale, or the request demands validation, and it
+		 * must be revalidated before being served.
+		 */
+		STALE
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for storing {@link CachedResponse CachedResponses} on behalf of an
+ * {@link HttpCache}.
+ *
+ * <p>Implementations must be thread-safe, and are expected to bound the
+ * amount of memory or disk space they use, evicting entries as needed.
+ * {@code CachedResponse} is {@link java.io.Serializable}, so that entries can
+ * also be kept outside the heap.
+ *
+ * @since 6.0
+ * @see InMemoryHttpCacheStore
+ */
+public interface HttpCacheStore {
+
+	/**
+	 * Return the response stored under the given key.
+	 * @param key the cache key
+	 * @return the stored response, or {@code null} if none
+	 */
+	@Nullable
+	CachedResponse get(String key);
+
+	/**
+	 * Store the given response under the given key, replacing any
+	 * previously stored response.
+	 * @param key the cache key
+	 * @param response the response to store
+	 */
+	void put(String key, CachedResponse response);
+
+	/**
+	 * Remove the response stored under the given key, if any.
+	 * @param key the cache key
+	 */
+	void remove(String key);
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link HttpCacheStore} that keeps responses in memory, bounded by both the
+ * number of entries and the total size of the response bodies. When either
+ * limit is exceeded, the least recently used entries are evicted.
+ *
+ * @since 6.0
+ */
+public class InMemoryHttpCacheStore implements HttpCacheStore {
+
+	private final int maxEntries;
+
+	private final long maxTotalSize;
+
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long totalSize;
+
+
+	/**
+	 * Create a store with up to 1000 entries and 10 MB of response content.
+	 */
+	public InMemoryHttpCacheStore() {
+		this(1000, 10 * 1024 * 1024);
+	}
+
+	/**
+	 * Create a store with the given limits.
+	 * @param maxEntries the maximum number of entries
+	 * @param maxTotalSize the maximum total size of the response bodies, in bytes
+	 */
+	public InMemoryHttpCacheStore(int maxEntries, long maxTotalSize) {
+		Assert.isTrue(maxEntries > 0, "Max entries must be positive");
+		Assert.isTrue(maxTotalSize > 0, "Max total size must be positive");
+		this.maxEntries = maxEntries;
+		this.maxTotalSize = maxTotalSize;
+	}
+
+
+	/**
+	 * Return the maximum number of entries.
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * Return the maximum total size of the response bodies, in bytes.
+	 */
+	public long getMaxTotalSize() {
+		return this.maxTotalSize;
+	}
+
+	/**
+	 * Return the current number of entries.
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the current total size of the response bodies, in bytes.
+	 */
+	public synchronized long getTotalSize() {
+		return this.totalSize;
+	}
+
+
+	@Override
+	@Nullable
+	public synchronized CachedResponse get(String key) {
+		return this.entries.get(key);
+	}
+
+	@Override
+	public synchronized void put(String key, CachedResponse response) {
+		int size = response.getBody().length;
+		if (size > this.maxTotalSize) {
+			remove(key);
+			return;
+		}
+		CachedResponse previous = this.entries.put(key, response);
+		if (previous != null) {
+			this.totalSize -= previous.getBody().length;
+		}
+		this.totalSize += size;
+		Iterator<Map.Entry<String, CachedResponse>> iterator = this.entries.entrySet().iterator();
+		while (this.entries.size() > this.maxEntries || this.totalSize > this.maxTotalSize) {
+			// Least recently used entry first
+			Map.Entry<String, CachedResponse> eldest = iterator.next();
+			this.totalSize -= eldest.getValue().getBody().length;
+			iterator.remove();
+		}
+	}
+
+	@Override
+	public synchronized void remove(String key) {
+		CachedResponse removed = this.entries.remove(key);
+		if (removed != null) {
+			this.totalSize -= removed.getBody().length;
+		}
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.totalSize = 0;
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Client-side HTTP response caching as defined by RFC 9111, shared by
+ * the {@code RestTemplate} and {@code WebClient} integrations.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.http.client.cache;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.nio.charset.Charset;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
@@ -72,11 +73,23 @@ public class BasicAuthenticationInterceptor implements ClientHttpRequestIntercep
 	public ClientHttpResponse intercept(
 			HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
 
+		applyCredentials(request);
+		return execution.execute(request, body);
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, StreamingHttpOutputMessage.Body body,
+			ClientHttpRequestExecution execution) throws IOException {
+
+		applyCredentials(request);
+		return execution.execute(request, body);
+	}
+
+	private void applyCredentials(HttpRequest request) {
 		HttpHeaders headers = request.getHeaders();
 		if (!headers.containsKey(HttpHeaders.AUTHORIZATION)) {
 			headers.setBasicAuth(this.encodedCredentials);
 		}
-		return execution.execute(request, body);
 	}
 
 }
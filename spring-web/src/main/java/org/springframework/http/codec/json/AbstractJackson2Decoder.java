@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,9 +23,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
@@ -135,11 +137,17 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 
 		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
+		ObjectReader reader = getObjectReader(mapper, elementType, hints);
+
+		if (canDecodeDirectly(mapper, reader.getValueType())) {
+			return Jackson2Tokenizer.decode(processed, mapper.getFactory(), reader,
+					getMaxInMemorySize(), this::processException)
+					.doOnNext(value -> logValue(value, hints));
+		}
+
 		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, mapper.getFactory(), mapper,
 				true, forceUseOfBigDecimal, getMaxInMemorySize());
 
-		ObjectReader reader = getObjectReader(mapper, elementType, hints);
-
 		return tokens.handle((tokenBuffer, sink) -> {
 			try {
 				Object value = reader.readValue(tokenBuffer.asParser(mapper));
@@ -154,6 +162,23 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		});
 	}
 
+	/**
+	 * Whether values of the given type can be bound directly from their bytes,
+	 * rather than from a {@link TokenBuffer}. This is the case for JSON, except
+	 * for polymorphic types.
+	 */
+	private boolean canDecodeDirectly(ObjectMapper mapper, JavaType javaType) {
+		if (!JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName())) {
+			return false;
+		}
+		try {
+			return (mapper.getDeserializationConfig().findTypeDeserializer(javaType) == null);
+		}
+		catch (JsonMappingException ex) {
+			return false;
+		}
+	}
+
 	/**
 	 * Process the input publisher into a flux. Default implementation returns
 	 * {@link Flux#from(Publisher)}, but subclasses can choose to customize
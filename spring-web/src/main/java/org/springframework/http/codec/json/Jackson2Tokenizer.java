@@ -17,6 +17,7 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -28,6 +29,7 @@ import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.async.ByteArrayFeeder;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
 import com.fasterxml.jackson.databind.util.TokenBuffer;
 import reactor.core.Exceptions;
@@ -43,6 +45,9 @@ import org.springframework.core.io.buffer.DataBufferUtils;
  * chunks into a {@code Flux<TokenBuffer>} where each token buffer is a
  * well-formed JSON object.
  *
+ * <p>For JSON, {@link #decode} can also bind each value directly from its
+ * bytes once it is complete, without an intermediate {@code TokenBuffer}.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -247,4 +252,258 @@ final class Jackson2Tokenizer {
 		}
 	}
 
+	/**
+	 * Decode the given {@code Flux<DataBuffer>} directly into values. Each top-level
+	 * JSON value, or each element of a top-level JSON array, is bound with the
+	 * given reader from its bytes as soon as it is complete, skipping the
+	 * {@link TokenBuffer} that {@link #tokenize} creates for it.
+	 * <p>This relies on a complete value being parseable on its own, and is
+	 * therefore only suitable for JSON, not for binary formats such as Smile.
+	 * @param dataBuffers the source data buffers
+	 * @param jsonFactory the factory to use
+	 * @param reader the reader to bind values with
+	 * @param maxInMemorySize maximum number of bytes to buffer for a single value
+	 * @param exceptionHandler function to map a binding failure to the exception to raise
+	 * @return the decoded values
+	 * @since 6.0
+	 */
+	public static Flux<Object> decode(Flux<DataBuffer> dataBuffers, JsonFactory jsonFactory, ObjectReader reader,
+			int maxInMemorySize, Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+		try {
+			JsonParser parser = jsonFactory.createNonBlockingByteArrayParser();
+			ValueDecoder decoder = new ValueDecoder(parser, reader, maxInMemorySize, exceptionHandler);
+			return dataBuffers.concatMapIterable(decoder::decode).concatWith(decoder.endOfInput());
+		}
+		catch (IOException ex) {
+			return Flux.error(ex);
+		}
+	}
+
+
+	/**
+	 * Tracks the bytes of the value being parsed, and binds it once complete.
+	 * Input is fed to the parser from the backing array of a data buffer where
+	 * possible, and only the bytes of a value that spans data buffers are copied.
+	 */
+	private static final class ValueDecoder {
+
+		private static final byte[] NO_BYTES = new byte[0];
+
+		private final JsonParser parser;
+
+		private final ByteArrayFeeder inputFeeder;
+
+		private final ObjectReader reader;
+
+		private final int maxInMemorySize;
+
+		private final Function<IOException, ? extends RuntimeException> exceptionHandler;
+
+		private int depth;
+
+		private boolean inTopLevelArray;
+
+		// Current input, and the position from which bytes belong to the next value
+
+		private byte[] input = NO_BYTES;
+
+		private int inputStart;
+
+		private int inputEnd;
+
+		private long inputOffset;
+
+		private int valueStart;
+
+		// Bytes of a value that started in a previous data buffer
+
+		private byte[] pending = NO_BYTES;
+
+		private int pendingLength;
+
+		ValueDecoder(JsonParser parser, ObjectReader reader, int maxInMemorySize,
+				Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+			this.parser = parser;
+			this.inputFeeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+			this.reader = reader;
+			this.maxInMemorySize = maxInMemorySize;
+			this.exceptionHandler = exceptionHandler;
+		}
+
+		List<Object> decode(DataBuffer dataBuffer) {
+			try {
+				ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+				if (byteBuffer.hasArray()) {
+					int start = byteBuffer.arrayOffset() + byteBuffer.position();
+					feedInput(byteBuffer.array(), start, start + byteBuffer.remaining());
+				}
+				else {
+					byte[] bytes = new byte[dataBuffer.readableByteCount()];
+					dataBuffer.read(bytes);
+					feedInput(bytes, 0, bytes.length);
+				}
+				List<Object> result = parse();
+				retainRemainingInput();
+				return result;
+			}
+			catch (JsonProcessingException ex) {
+				throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+			}
+			catch (IOException ex) {
+				throw Exceptions.propagate(ex);
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		Flux<Object> endOfInput() {
+			return Flux.defer(() -> {
+				this.inputFeeder.endOfInput();
+				try {
+					return Flux.fromIterable(parse());
+				}
+				catch (JsonProcessingException ex) {
+					throw new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex);
+				}
+				catch (IOException ex) {
+					throw Exceptions.propagate(ex);
+				}
+			});
+		}
+
+		private void feedInput(byte[] bytes, int start, int end) throws IOException {
+			this.inputFeeder.feedInput(bytes, start, end);
+			this.input = bytes;
+			this.inputStart = start;
+			this.inputEnd = end;
+			this.inputOffset = this.parser.getCurrentLocation().getByteOffset();
+			this.valueStart = start;
+		}
+
+		private List<Object> parse() throws IOException {
+			List<Object> result = new ArrayList<>();
+			while (!this.parser.isClosed()) {
+				JsonToken token = this.parser.nextToken();
+				if (token == JsonToken.NOT_AVAILABLE || token == null) {
+					break;
+				}
+				int valueDepth = (this.inTopLevelArray ? 1 : 0);
+				if (token == JsonToken.START_ARRAY && this.depth == 0) {
+					this.inTopLevelArray = true;
+					this.depth = 1;
+					this.valueStart = currentPosition();
+					this.pendingLength = 0;
+				}
+				else if (token.isStructStart()) {
+					this.depth++;
+				}
+				else if (token.isStructEnd()) {
+					this.depth--;
+					if (this.inTopLevelArray && this.depth == 0) {
+						this.inTopLevelArray = false;
+						this.valueStart = currentPosition();
+						this.pendingLength = 0;
+					}
+					else if (this.depth == valueDepth) {
+						readValue(result);
+					}
+				}
+				else if (token.isScalarValue() && this.depth == valueDepth) {
+					readValue(result);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Return the position in the current input right after the last token.
+		 */
+		private int currentPosition() {
+			return this.inputStart + (int) (this.parser.getCurrentLocation().getByteOffset() - this.inputOffset);
+		}
+
+		private void readValue(List<Object> result) {
+			int end = currentPosition();
+			byte[] bytes;
+			int offset;
+			int length;
+			if (this.pendingLength > 0) {
+				appendPending(this.valueStart, end);
+				bytes = this.pending;
+				offset = 0;
+				length = this.pendingLength;
+				this.pendingLength = 0;
+			}
+			else {
+				bytes = this.input;
+				offset = skipSeparators(this.valueStart, end);
+				length = end - offset;
+			}
+			this.valueStart = end;
+			if (this.maxInMemorySize >= 0 && length > this.maxInMemorySize) {
+				raiseLimitException();
+			}
+			try {
+				Object value = this.reader.readValue(bytes, offset, length);
+				if (value != null) {
+					result.add(value);
+				}
+			}
+			catch (IOException ex) {
+				throw this.exceptionHandler.apply(ex);
+			}
+		}
+
+		/**
+		 * Copy the bytes of a value that continues in the next data buffer,
+		 * since the current one is released.
+		 */
+		private void retainRemainingInput() {
+			int start = (this.pendingLength > 0 ? this.valueStart : skipSeparators(this.valueStart, this.inputEnd));
+			appendPending(start, this.inputEnd);
+			if (this.maxInMemorySize >= 0 && this.pendingLength > this.maxInMemorySize) {
+				raiseLimitException();
+			}
+			this.input = NO_BYTES;
+			this.inputStart = 0;
+			this.inputEnd = 0;
+			this.inputOffset = this.parser.getCurrentLocation().getByteOffset();
+			this.valueStart = 0;
+		}
+
+		private int skipSeparators(int start, int end) {
+			int index = start;
+			while (index < end) {
+				byte b = this.input[index];
+				if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != ',') {
+					break;
+				}
+				index++;
+			}
+			return index;
+		}
+
+		private void appendPending(int start, int end) {
+			int length = end - start;
+			if (length <= 0) {
+				return;
+			}
+			if (this.pendingLength + length > this.pending.length) {
+				byte[] newPending = new byte[Math.max(this.pending.length * 2, this.pendingLength + length)];
+				System.arraycopy(this.pending, 0, newPending, 0, this.pendingLength);
+				this.pending = newPending;
+			}
+			System.arraycopy(this.input, start, this.pending, this.pendingLength, length);
+			this.pendingLength += length;
+		}
+
+		private void raiseLimitException() {
+			throw new DataBufferLimitException(
+					"Exceeded limit on max bytes per JSON object: " + this.maxInMemorySize);
+		}
+	}
+
 }
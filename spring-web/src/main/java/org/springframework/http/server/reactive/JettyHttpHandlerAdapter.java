@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletResponse;
@@ -31,11 +32,13 @@ import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 
@@ -68,8 +71,8 @@ public class JettyHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	protected ServletServerHttpResponse createResponse(HttpServletResponse response,
 			AsyncContext context, ServletServerHttpRequest request) throws IOException {
 
-		return new JettyServerHttpResponse(
-				response, context, getDataBufferFactory(), getBufferSize(), request);
+		return new JettyServerHttpResponse(response, context, getDataBufferFactory(), getBufferSize(), request,
+				getMappedFileThreshold());
 	}
 
 
@@ -104,13 +107,17 @@ public class JettyHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	}
 
 
-	private static final class JettyServerHttpResponse extends ServletServerHttpResponse {
+	private static final class JettyServerHttpResponse extends ServletServerHttpResponse
+			implements ZeroCopyHttpOutputMessage {
+
+		private final long mappedFileMinSize;
 
 		JettyServerHttpResponse(HttpServletResponse response, AsyncContext asyncContext,
-				DataBufferFactory bufferFactory, int bufferSize, ServletServerHttpRequest request)
-				throws IOException {
+				DataBufferFactory bufferFactory, int bufferSize, ServletServerHttpRequest request,
+				long mappedFileMinSize) throws IOException {
 
 			super(createHeaders(response), response, asyncContext, bufferFactory, bufferSize, request);
+			this.mappedFileMinSize = mappedFileMinSize;
 		}
 
 		private static HttpHeaders createHeaders(HttpServletResponse servletResponse) {
@@ -133,6 +140,11 @@ public class JettyHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 			}
 		}
 
+		@Override
+		public Mono<Void> writeWith(Path file, long position, long count) {
+			return writeWithFile(file, position, count, this.mappedFileMinSize);
+		}
+
 		@Override
 		protected int writeToOutputStream(DataBuffer dataBuffer) throws IOException {
 			ByteBuffer input = dataBuffer.asByteBuffer();
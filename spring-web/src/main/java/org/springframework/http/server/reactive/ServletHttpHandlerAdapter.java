@@ -60,6 +60,13 @@ public class ServletHttpHandlerAdapter implements Servlet {
 
 	private static final int DEFAULT_BUFFER_SIZE = 8192;
 
+	/**
+	 * The default minimum size of a file region to map into memory: 48 KB.
+	 * @since 6.0
+	 * @see #setMappedFileMinSize
+	 */
+	public static final long DEFAULT_MAPPED_FILE_MIN_SIZE = 48 * 1024;
+
 	private static final String WRITE_ERROR_ATTRIBUTE_NAME = ServletHttpHandlerAdapter.class.getName() + ".ERROR";
 
 
@@ -72,6 +79,10 @@ public class ServletHttpHandlerAdapter implements Servlet {
 
 	private DataBufferFactory dataBufferFactory = DefaultDataBufferFactory.sharedInstance;
 
+	private boolean useMappedFiles = false;
+
+	private long mappedFileMinSize = DEFAULT_MAPPED_FILE_MIN_SIZE;
+
 
 	public ServletHttpHandlerAdapter(HttpHandler httpHandler) {
 		Assert.notNull(httpHandler, "HttpHandler must not be null");
@@ -116,6 +127,59 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.dataBufferFactory;
 	}
 
+	/**
+	 * Set whether file regions written through
+	 * {@link org.springframework.http.ZeroCopyHttpOutputMessage} should be mapped
+	 * into memory and handed to the container without a copy into heap buffers,
+	 * on servers that support it. Mapped regions are only released on garbage
+	 * collection, holding on to virtual memory and, on Windows, keeping the files
+	 * locked until then.
+	 * <p>This option is disabled by default, reading file regions into regular
+	 * buffers instead.
+	 * @since 6.0
+	 * @see #setMappedFileMinSize
+	 */
+	public void setUseMappedFiles(boolean useMappedFiles) {
+		this.useMappedFiles = useMappedFiles;
+	}
+
+	/**
+	 * Return whether file regions are mapped into memory, if supported.
+	 * @since 6.0
+	 */
+	public boolean isUseMappedFiles() {
+		return this.useMappedFiles;
+	}
+
+	/**
+	 * Set the minimum number of bytes of a file region for it to be mapped into
+	 * memory, with smaller regions read into regular buffers.
+	 * <p>Default is {@value #DEFAULT_MAPPED_FILE_MIN_SIZE}.
+	 * @since 6.0
+	 * @see #setUseMappedFiles
+	 */
+	public void setMappedFileMinSize(long mappedFileMinSize) {
+		Assert.isTrue(mappedFileMinSize >= 0, "Mapped file min size must not be negative");
+		this.mappedFileMinSize = mappedFileMinSize;
+	}
+
+	/**
+	 * Return the minimum number of bytes of a file region for it to be mapped
+	 * into memory.
+	 * @since 6.0
+	 */
+	public long getMappedFileMinSize() {
+		return this.mappedFileMinSize;
+	}
+
+	/**
+	 * Return the minimum number of bytes of a file region to map into memory,
+	 * or -1 if file regions are not mapped.
+	 */
+	long getMappedFileThreshold() {
+		return (this.useMappedFiles ? this.mappedFileMinSize : -1);
+	}
+
 
 	// Servlet methods...
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,10 @@ package org.springframework.http.server.reactive;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 import jakarta.servlet.AsyncContext;
@@ -29,6 +32,8 @@ import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletResponse;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
@@ -48,6 +53,8 @@ import org.springframework.util.Assert;
  */
 class ServletServerHttpResponse extends AbstractListenerServerHttpResponse {
 
+	private static final int MAPPED_REGION_SIZE = 4 * 1024 * 1024;
+
 	private final HttpServletResponse response;
 
 	private final ServletOutputStream outputStream;
@@ -112,6 +119,29 @@ class ServletServerHttpResponse extends AbstractListenerServerHttpResponse {
 		return (status != null ? status : this.response.getStatus());
 	}
 
+	/**
+	 * Write the given file region by mapping it into memory in chunks, which
+	 * avoids copying the file content through heap buffers for subclasses that
+	 * hand {@link java.nio.ByteBuffer ByteBuffers} to the container directly.
+	 * Regions smaller than the given minimum size are read into regular buffers
+	 * instead, since mapped regions are only released on garbage collection.
+	 * @param file the file to transfer
+	 * @param position the position within the file from which the transfer is to begin
+	 * @param count the number of bytes to be transferred
+	 * @param mappedFileMinSize the minimum number of bytes to map the file region
+	 * for, or -1 to never map it
+	 * @since 6.0
+	 */
+	protected Mono<Void> writeWithFile(Path file, long position, long count, long mappedFileMinSize) {
+		if (mappedFileMinSize >= 0 && count >= mappedFileMinSize) {
+			return writeWith(DataBufferUtils.readMapped(file, position, count, bufferFactory(), MAPPED_REGION_SIZE));
+		}
+		Flux<DataBuffer> content = DataBufferUtils.readAsynchronousFileChannel(
+				() -> AsynchronousFileChannel.open(file, StandardOpenOption.READ), position,
+				bufferFactory(), this.bufferSize);
+		return writeWith(DataBufferUtils.takeUntilByteCount(content, count));
+	}
+
 	@Override
 	protected void applyStatusCode() {
 		Integer status = super.getRawStatusCode();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.lang.reflect.Field;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletInputStream;
@@ -36,12 +37,14 @@ import org.apache.catalina.connector.RequestFacade;
 import org.apache.catalina.connector.ResponseFacade;
 import org.apache.coyote.Request;
 import org.apache.coyote.Response;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ReflectionUtils;
@@ -77,8 +80,8 @@ public class TomcatHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	protected ServletServerHttpResponse createResponse(HttpServletResponse response,
 			AsyncContext asyncContext, ServletServerHttpRequest request) throws IOException {
 
-		return new TomcatServerHttpResponse(
-				response, asyncContext, getDataBufferFactory(), getBufferSize(), request);
+		return new TomcatServerHttpResponse(response, asyncContext, getDataBufferFactory(), getBufferSize(), request,
+				getMappedFileThreshold());
 	}
 
 
@@ -164,7 +167,8 @@ public class TomcatHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 	}
 
 
-	private static final class TomcatServerHttpResponse extends ServletServerHttpResponse {
+	private static final class TomcatServerHttpResponse extends ServletServerHttpResponse
+			implements ZeroCopyHttpOutputMessage {
 
 		private static final Field COYOTE_RESPONSE_FIELD;
 
@@ -175,10 +179,14 @@ public class TomcatHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 			COYOTE_RESPONSE_FIELD = field;
 		}
 
+		private final long mappedFileMinSize;
+
 		TomcatServerHttpResponse(HttpServletResponse response, AsyncContext context,
-				DataBufferFactory factory, int bufferSize, ServletServerHttpRequest request) throws IOException {
+				DataBufferFactory factory, int bufferSize, ServletServerHttpRequest request,
+				long mappedFileMinSize) throws IOException {
 
 			super(createTomcatHttpHeaders(response), response, context, factory, bufferSize, request);
+			this.mappedFileMinSize = mappedFileMinSize;
 		}
 
 		private static HttpHeaders createTomcatHttpHeaders(HttpServletResponse response) {
@@ -231,6 +239,11 @@ public class TomcatHttpHandlerAdapter extends ServletHttpHandlerAdapter {
 			getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
 		}
 
+		@Override
+		public Mono<Void> writeWith(Path file, long position, long count) {
+			return writeWithFile(file, position, count, this.mappedFileMinSize);
+		}
+
 		@Override
 		protected int writeToOutputStream(DataBuffer dataBuffer) throws IOException {
 			ByteBuffer input = dataBuffer.asByteBuffer();
@@ -0,0 +1,607 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionBindingListener;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.SessionExpirationQueue;
+
+/**
+ * Filter that wraps the request in order to back {@link HttpServletRequest#getSession}
+ * with sessions held in memory by this filter rather than by the Servlet container,
+ * with the same expiration and eviction behavior as the reactive
+ * {@link org.springframework.web.server.session.InMemoryWebSessionStore}.
+ *
+ * <p>Sessions are kept in an expiration queue with one bucket per second of
+ * expiration time. Expired sessions are removed when their bucket comes due,
+ * without scanning all sessions, and accessing a session does not touch the
+ * queue. Once the {@link #setMaxSessions max sessions} limit is reached, the
+ * session closest to expiring is evicted to make room for a new one.
+ *
+ * <p>The session id is exchanged through a cookie named
+ * {@link #setCookieName "SESSION"} by default. Note that {@code HttpSessionListener}
+ * and {@code HttpSessionAttributeListener} registrations are not notified, while
+ * {@link HttpSessionBindingListener} attribute values are.
+ *
+ * @since 6.0
+ */
+public class InMemorySessionFilter extends OncePerRequestFilter {
+
+	/**
+	 * The default name of the session cookie.
+	 */
+	public static final String DEFAULT_COOKIE_NAME = "SESSION";
+
+	private static final String SESSION_ATTRIBUTE = InMemorySessionFilter.class.getName() + ".SESSION";
+
+	private static final IdGenerator idGenerator = new JdkIdGenerator();
+
+
+	private String cookieName = DEFAULT_COOKIE_NAME;
+
+	private int maxSessions = 10000;
+
+	private int maxInactiveInterval = 30 * 60;
+
+	private Clock clock = Clock.system(ZoneId.of("GMT"));
+
+	private final Map<String, InMemorySession> sessions = new ConcurrentHashMap<>();
+
+	private final SessionExpirationQueue<InMemorySession> expirationQueue =
+			new SessionExpirationQueue<>(new StoredSessionHandler());
+
+	private final AtomicLong expiredSessionCount = new AtomicLong();
+
+	private final AtomicLong evictedSessionCount = new AtomicLong();
+
+
+	/**
+	 * Set the name of the cookie that holds the session id.
+	 * <p>By default set to {@value #DEFAULT_COOKIE_NAME}.
+	 * @param cookieName the cookie name
+	 */
+	public void setCookieName(String cookieName) {
+		Assert.hasText(cookieName, "Cookie name must not be empty");
+		this.cookieName = cookieName;
+	}
+
+	/**
+	 * Return the name of the cookie that holds the session id.
+	 */
+	public String getCookieName() {
+		return this.cookieName;
+	}
+
+	/**
+	 * Set the maximum number of sessions that can be stored. Once the limit is
+	 * reached, creating an additional session evicts the stored session that is
+	 * closest to expiring, i.e. the least recently used one among sessions with
+	 * the same max inactive interval. Only if none of the stored sessions ever
+	 * expires, an attempt to create an additional session results in an
+	 * {@link IllegalStateException}.
+	 * <p>By default set to 10000.
+	 * @param maxSessions the maximum number of sessions
+	 */
+	public void setMaxSessions(int maxSessions) {
+		this.maxSessions = maxSessions;
+	}
+
+	/**
+	 * Return the maximum number of sessions that can be stored.
+	 */
+	public int getMaxSessions() {
+		return this.maxSessions;
+	}
+
+	/**
+	 * Set the max inactive interval of new sessions in seconds, where a zero
+	 * or negative value indicates that sessions never expire.
+	 * <p>By default set to 30 minutes.
+	 * @param maxInactiveInterval the max inactive interval in seconds
+	 * @see HttpSession#setMaxInactiveInterval(int)
+	 */
+	public void setMaxInactiveInterval(int maxInactiveInterval) {
+		this.maxInactiveInterval = maxInactiveInterval;
+	}
+
+	/**
+	 * Return the max inactive interval of new sessions in seconds.
+	 */
+	public int getMaxInactiveInterval() {
+		return this.maxInactiveInterval;
+	}
+
+	/**
+	 * Configure the {@link Clock} to use to set the last accessed time on every
+	 * created session and to calculate if it is expired.
+	 * <p>By default this is {@code Clock.system(ZoneId.of("GMT"))}.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock is required");
+		this.clock = clock;
+		removeExpiredSessions();
+	}
+
+	/**
+	 * Return the configured clock for session last accessed time calculations.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Return the map of sessions with an {@link Collections#unmodifiableMap
+	 * unmodifiable} wrapper. This could be used for management purposes, to
+	 * list active sessions, invalidate expired ones, etc.
+	 */
+	public Map<String, HttpSession> getSessions() {
+		return Collections.unmodifiableMap(this.sessions);
+	}
+
+	/**
+	 * Return the total number of sessions that were removed because they expired.
+	 */
+	public long getExpiredSessionCount() {
+		return this.expiredSessionCount.get();
+	}
+
+	/**
+	 * Return the total number of sessions that were evicted because the
+	 * {@link #setMaxSessions max sessions} limit was reached.
+	 */
+	public long getEvictedSessionCount() {
+		return this.evictedSessionCount.get();
+	}
+
+	/**
+	 * Check for expired sessions and remove them. Typically such checks are
+	 * kicked off lazily for every request, once sessions are due to expire.
+	 * This method can be called to force a check at a specific time.
+	 */
+	public void removeExpiredSessions() {
+		this.expirationQueue.removeExpiredSessions(this.clock.instant());
+	}
+
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldNotFilterErrorDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+
+		// Opportunity to clean expired sessions
+		this.expirationQueue.checkIfNecessary(this.clock.instant());
+
+		filterChain.doFilter(new SessionRequestWrapper(request, response), response);
+	}
+
+	@Nullable
+	private InMemorySession retrieveSession(String id) {
+		long now = this.clock.millis();
+		InMemorySession session = this.sessions.get(id);
+		if (session == null) {
+			return null;
+		}
+		else if (session.isExpired(now)) {
+			if (this.sessions.remove(id, session)) {
+				this.expiredSessionCount.incrementAndGet();
+			}
+			session.invalidateInternal();
+			return null;
+		}
+		else {
+			session.access(now);
+			return session;
+		}
+	}
+
+	private InMemorySession createSession(ServletContext servletContext) {
+		if (this.sessions.size() >= this.maxSessions) {
+			this.expirationQueue.removeExpiredSessions(this.clock.instant());
+			while (this.sessions.size() >= this.maxSessions) {
+				if (!this.expirationQueue.evictSession(this.clock.instant())) {
+					throw new IllegalStateException("Max sessions limit reached: " + this.sessions.size());
+				}
+			}
+		}
+		InMemorySession session = new InMemorySession(servletContext, this.clock.millis());
+		this.sessions.put(session.getId(), session);
+		if (session.getMaxInactiveInterval() > 0) {
+			this.expirationQueue.schedule(session);
+		}
+		return session;
+	}
+
+
+	/**
+	 * Request wrapper that resolves the session from the session cookie,
+	 * and that sets the cookie when a session is created. The session is also
+	 * exposed as request attribute, for a further dispatch of the same request.
+	 */
+	private class SessionRequestWrapper extends HttpServletRequestWrapper {
+
+		private final HttpServletResponse response;
+
+		@Nullable
+		private InMemorySession session;
+
+		private boolean requestedSessionResolved;
+
+		public SessionRequestWrapper(HttpServletRequest request, HttpServletResponse response) {
+			super(request);
+			this.response = response;
+		}
+
+		@Override
+		@Nullable
+		public HttpSession getSession(boolean create) {
+			if (this.session != null && !this.session.isInvalid()) {
+				return this.session;
+			}
+			this.session = null;
+			if (!this.requestedSessionResolved) {
+				this.requestedSessionResolved = true;
+				// Session resolved or created on a previous dispatch of the same request?
+				if (getAttribute(SESSION_ATTRIBUTE) instanceof InMemorySession dispatchSession &&
+						!dispatchSession.isInvalid() && sessions.get(dispatchSession.getId()) == dispatchSession) {
+					this.session = dispatchSession;
+					return this.session;
+				}
+				String requestedSessionId = getRequestedSessionId();
+				if (requestedSessionId != null) {
+					this.session = retrieveSession(requestedSessionId);
+					if (this.session != null) {
+						setAttribute(SESSION_ATTRIBUTE, this.session);
+						return this.session;
+					}
+				}
+			}
+			if (!create) {
+				return null;
+			}
+			assertNotCommitted("create a session");
+			this.session = createSession(getServletContext());
+			setAttribute(SESSION_ATTRIBUTE, this.session);
+			writeSessionCookie(this.session.getId());
+			return this.session;
+		}
+
+		@Override
+		public HttpSession getSession() {
+			HttpSession session = getSession(true);
+			Assert.state(session != null, "No session");
+			return session;
+		}
+
+		@Override
+		public String changeSessionId() {
+			InMemorySession session = (InMemorySession) getSession(false);
+			Assert.state(session != null, "Cannot change session id: no session associated with this request");
+			assertNotCommitted("change the session id");
+			String currentId = session.getId();
+			String newId = String.valueOf(idGenerator.generateId());
+			sessions.put(newId, session);
+			session.id = newId;
+			sessions.remove(currentId, session);
+			writeSessionCookie(newId);
+			return newId;
+		}
+
+		@Override
+		@Nullable
+		public String getRequestedSessionId() {
+			Cookie[] cookies = getCookies();
+			if (cookies != null) {
+				for (Cookie cookie : cookies) {
+					if (cookieName.equals(cookie.getName()) && StringUtils.hasText(cookie.getValue())) {
+						return cookie.getValue();
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean isRequestedSessionIdValid() {
+			String requestedSessionId = getRequestedSessionId();
+			if (requestedSessionId == null) {
+				return false;
+			}
+			InMemorySession session = sessions.get(requestedSessionId);
+			return (session != null && !session.isExpired(clock.millis()));
+		}
+
+		@Override
+		public boolean isRequestedSessionIdFromCookie() {
+			return (getRequestedSessionId() != null);
+		}
+
+		@Override
+		public boolean isRequestedSessionIdFromURL() {
+			return false;
+		}
+
+		private void assertNotCommitted(String action) {
+			if (this.response.isCommitted()) {
+				throw new IllegalStateException(
+						"Cannot " + action + " after the response has been committed: the session cookie cannot be sent");
+			}
+		}
+
+		private void writeSessionCookie(String sessionId) {
+			Cookie cookie = new Cookie(cookieName, sessionId);
+			cookie.setPath(StringUtils.hasLength(getContextPath()) ? getContextPath() : "/");
+			cookie.setHttpOnly(true);
+			cookie.setSecure(isSecure());
+			this.response.addCookie(cookie);
+		}
+	}
+
+
+	private class InMemorySession implements HttpSession {
+
+		private volatile String id = String.valueOf(idGenerator.generateId());
+
+		private final ServletContext servletContext;
+
+		// Sessions typically hold only a few attributes
+		private final Map<String, Object> attributes = new ConcurrentHashMap<>(4);
+
+		private final long creationTime;
+
+		private volatile long lastAccessedTime;
+
+		private volatile int maxInactiveInterval = InMemorySessionFilter.this.maxInactiveInterval;
+
+		private volatile boolean isNew = true;
+
+		private volatile boolean invalid;
+
+		public InMemorySession(ServletContext servletContext, long creationTime) {
+			this.servletContext = servletContext;
+			this.creationTime = creationTime;
+			this.lastAccessedTime = creationTime;
+		}
+
+		@Override
+		public String getId() {
+			return this.id;
+		}
+
+		@Override
+		public long getCreationTime() {
+			assertIsValid();
+			return this.creationTime;
+		}
+
+		@Override
+		public long getLastAccessedTime() {
+			assertIsValid();
+			return this.lastAccessedTime;
+		}
+
+		@Override
+		public ServletContext getServletContext() {
+			return this.servletContext;
+		}
+
+		@Override
+		public void setMaxInactiveInterval(int interval) {
+			this.maxInactiveInterval = interval;
+			if (expirationQueue.isScheduled(this) || (interval > 0 && sessions.get(this.id) == this)) {
+				expirationQueue.schedule(this);
+			}
+		}
+
+		@Override
+		public int getMaxInactiveInterval() {
+			return this.maxInactiveInterval;
+		}
+
+		@Override
+		@Deprecated
+		@Nullable
+		public jakarta.servlet.http.HttpSessionContext getSessionContext() {
+			return null;
+		}
+
+		@Override
+		@Nullable
+		public Object getAttribute(String name) {
+			assertIsValid();
+			return this.attributes.get(name);
+		}
+
+		@Override
+		@Deprecated
+		@Nullable
+		public Object getValue(String name) {
+			return getAttribute(name);
+		}
+
+		@Override
+		public Enumeration<String> getAttributeNames() {
+			assertIsValid();
+			return Collections.enumeration(new LinkedHashSet<>(this.attributes.keySet()));
+		}
+
+		@Override
+		@Deprecated
+		public String[] getValueNames() {
+			assertIsValid();
+			return StringUtils.toStringArray(this.attributes.keySet());
+		}
+
+		@Override
+		public void setAttribute(String name, @Nullable Object value) {
+			assertIsValid();
+			Assert.notNull(name, "Attribute name must not be null");
+			if (value == null) {
+				removeAttribute(name);
+				return;
+			}
+			Object oldValue = this.attributes.put(name, value);
+			if (value != oldValue) {
+				if (oldValue instanceof HttpSessionBindingListener listener) {
+					listener.valueUnbound(new HttpSessionBindingEvent(this, name, oldValue));
+				}
+				if (value instanceof HttpSessionBindingListener listener) {
+					listener.valueBound(new HttpSessionBindingEvent(this, name, value));
+				}
+			}
+		}
+
+		@Override
+		@Deprecated
+		public void putValue(String name, Object value) {
+			setAttribute(name, value);
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			assertIsValid();
+			Object value = this.attributes.remove(name);
+			if (value instanceof HttpSessionBindingListener listener) {
+				listener.valueUnbound(new HttpSessionBindingEvent(this, name, value));
+			}
+		}
+
+		@Override
+		@Deprecated
+		public void removeValue(String name) {
+			removeAttribute(name);
+		}
+
+		@Override
+		public void invalidate() {
+			assertIsValid();
+			sessions.remove(this.id, this);
+			invalidateInternal();
+		}
+
+		@Override
+		public boolean isNew() {
+			assertIsValid();
+			return this.isNew;
+		}
+
+		public boolean isInvalid() {
+			return this.invalid;
+		}
+
+		private void assertIsValid() {
+			Assert.state(!this.invalid, "The session has already been invalidated");
+		}
+
+		private void access(long now) {
+			this.lastAccessedTime = now;
+			this.isNew = false;
+		}
+
+		private boolean isExpired(long now) {
+			return (this.invalid || (this.maxInactiveInterval > 0 &&
+					now - this.maxInactiveInterval * 1000L > this.lastAccessedTime));
+		}
+
+		private void invalidateInternal() {
+			this.invalid = true;
+			for (Iterator<Map.Entry<String, Object>> it = this.attributes.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<String, Object> entry = it.next();
+				it.remove();
+				if (entry.getValue() instanceof HttpSessionBindingListener listener) {
+					listener.valueUnbound(new HttpSessionBindingEvent(this, entry.getKey(), entry.getValue()));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Gives the expiration queue access to the stored sessions.
+	 */
+	private class StoredSessionHandler implements SessionExpirationQueue.SessionHandler<InMemorySession> {
+
+		@Override
+		@Nullable
+		public Instant getExpirationTime(InMemorySession session) {
+			int maxInactiveInterval = session.getMaxInactiveInterval();
+			return (maxInactiveInterval > 0 ?
+					Instant.ofEpochMilli(session.lastAccessedTime + maxInactiveInterval * 1000L) : null);
+		}
+
+		@Override
+		public boolean isExpired(InMemorySession session, Instant now) {
+			return session.isExpired(now.toEpochMilli());
+		}
+
+		@Override
+		public boolean isStored(InMemorySession session) {
+			return (sessions.get(session.getId()) == session);
+		}
+
+		@Override
+		public void expire(InMemorySession session) {
+			if (sessions.remove(session.getId(), session)) {
+				expiredSessionCount.incrementAndGet();
+			}
+			session.invalidateInternal();
+		}
+
+		@Override
+		public void evict(InMemorySession session) {
+			sessions.remove(session.getId(), session);
+			session.invalidateInternal();
+			evictedSessionCount.incrementAndGet();
+		}
+	}
+
+}
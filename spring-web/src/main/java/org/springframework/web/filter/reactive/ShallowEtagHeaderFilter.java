@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that generates an {@code ETag} value based on the
+ * content on the response. This ETag is compared to the {@code If-None-Match}
+ * header of the request. If these headers are equal, the response content is
+ * not sent, but rather a {@code 304 "Not Modified"} status instead.
+ *
+ * <p>The response content is aggregated up to the
+ * {@link #setContentCacheLimit content cache limit} for computing the ETag.
+ * Once that limit is exceeded, the aggregated content is written and all further
+ * content streamed through, without an ETag being generated for the response.
+ *
+ * <p>This is the reactive equivalent of the Servlet-based
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter}.
+ *
+ * @since 6.0
+ */
+public class ShallowEtagHeaderFilter implements WebFilter {
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+
+	private boolean writeWeakETag = false;
+
+	private int contentCacheLimit = 256 * 1024;
+
+
+	/**
+	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+	 * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 section 2.3</a>
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Return whether the ETag value written to the response should be weak, as per RFC 7232.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set the maximum number of bytes of response content to aggregate for
+	 * computing the ETag. Responses exceeding this limit are streamed through
+	 * without an ETag.
+	 * <p>By default this is set to 256K.
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of bytes of response content to aggregate.
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+			return chain.filter(exchange);
+		}
+		return chain.filter(exchange.mutate().response(new EtagResponseDecorator(exchange)).build());
+	}
+
+	/**
+	 * Whether an ETag should be calculated for the given response.
+	 * By default this is {@code true} if all of the following match:
+	 * <ul>
+	 * <li>Response is not committed.</li>
+	 * <li>Response status codes is in the {@code 2xx} series.</li>
+	 * <li>Response does not have an ETag header already.</li>
+	 * <li>Response Cache-Control header does not contain "no-store" (or is not present at all).</li>
+	 * </ul>
+	 * <p>Only invoked for GET requests.
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for ETag generation, {@code false} otherwise
+	 */
+	protected boolean isEligibleForEtag(ServerHttpResponse response) {
+		Integer statusCode = response.getRawStatusCode();
+		if (!response.isCommitted() && (statusCode == null || (statusCode >= 200 && statusCode < 300))) {
+			HttpHeaders headers = response.getHeaders();
+			String cacheControl = headers.getCacheControl();
+			return (!StringUtils.hasText(headers.getETag()) &&
+					(cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE)));
+		}
+		return false;
+	}
+
+	/**
+	 * Generate the ETag header value from the given response body.
+	 * <p>The default implementation generates an MD5 hash.
+	 * @param inputStream the response body as an InputStream
+	 * @param isWeak whether the generated ETag should be weak
+	 * @return the ETag header value
+	 * @see org.springframework.util.DigestUtils
+	 */
+	protected String generateETagHeaderValue(InputStream inputStream, boolean isWeak) throws IOException {
+		// length of W/ + " + 0 + 32bits md5 hash + "
+		StringBuilder builder = new StringBuilder(37);
+		if (isWeak) {
+			builder.append("W/");
+		}
+		builder.append("\"0");
+		DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		builder.append('"');
+		return builder.toString();
+	}
+
+
+	/**
+	 * Response decorator that aggregates the body up to the content cache limit.
+	 */
+	private class EtagResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+
+		private long contentSize;
+
+		private boolean contentOverflow;
+
+		EtagResponseDecorator(ServerWebExchange exchange) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isEligibleForEtag(getDelegate())) {
+				return getDelegate().writeWith(body);
+			}
+			return Flux.from(body)
+					.bufferUntil(this::exceedsContentCacheLimit)
+					.switchOnFirst((signal, bufferLists) -> {
+						List<? extends DataBuffer> buffers = signal.get();
+						if (buffers != null && !this.contentOverflow) {
+							// The entire body has been aggregated within the limit
+							return writeWithETag(buffers);
+						}
+						return getDelegate().writeWith(bufferLists.concatMapIterable(Function.identity()));
+					})
+					.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release)
+					.then();
+		}
+
+		private boolean exceedsContentCacheLimit(DataBuffer buffer) {
+			this.contentSize += buffer.readableByteCount();
+			if (this.contentSize > getContentCacheLimit()) {
+				this.contentOverflow = true;
+			}
+			return this.contentOverflow;
+		}
+
+		private Mono<Void> writeWithETag(List<? extends DataBuffer> buffers) {
+			String eTag;
+			try {
+				eTag = generateETagHeaderValue(getContentInputStream(buffers), isWriteWeakETag());
+			}
+			catch (IOException ex) {
+				buffers.forEach(DataBufferUtils::release);
+				return Mono.error(ex);
+			}
+			if (this.exchange.checkNotModified(eTag)) {
+				buffers.forEach(DataBufferUtils::release);
+				return getDelegate().setComplete();
+			}
+			if (!StringUtils.hasText(getHeaders().getETag())) {
+				getHeaders().setETag(eTag);
+			}
+			return getDelegate().writeWith(Flux.fromIterable(buffers));
+		}
+
+		private InputStream getContentInputStream(List<? extends DataBuffer> buffers) {
+			List<InputStream> inputStreams = new ArrayList<>(buffers.size());
+			for (DataBuffer buffer : buffers) {
+				inputStreams.add(buffer.slice(buffer.readPosition(), buffer.readableByteCount()).asInputStream());
+			}
+			return new SequenceInputStream(Collections.enumeration(inputStreams));
+		}
+	}
+
+}
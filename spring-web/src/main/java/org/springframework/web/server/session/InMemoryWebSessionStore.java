@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,25 +20,31 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReentrantLock;
 
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.IdGenerator;
 import org.springframework.util.JdkIdGenerator;
 import org.springframework.web.server.WebSession;
+import org.springframework.web.util.SessionExpirationQueue;
 
 /**
  * Simple Map-based storage for {@link WebSession} instances.
  *
+ * <p>Stored sessions are kept in an expiration queue with one bucket per second
+ * of expiration time. Expired sessions are removed when their bucket comes due,
+ * without scanning all sessions, and accessing a session does not touch the
+ * queue: a session that was accessed in the meantime is simply moved to the
+ * bucket for its new expiration time when its bucket comes due.
+ *
  * @author Rossen Stoyanchev
  * @author Rob Winch
  * @since 5.0
@@ -54,12 +60,20 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 	private final Map<String, InMemoryWebSession> sessions = new ConcurrentHashMap<>();
 
-	private final ExpiredSessionChecker expiredSessionChecker = new ExpiredSessionChecker();
+	private final SessionExpirationQueue<InMemoryWebSession> expirationQueue =
+			new SessionExpirationQueue<>(new StoredSessionHandler());
+
+	private final AtomicLong expiredSessionCount = new AtomicLong();
+
+	private final AtomicLong evictedSessionCount = new AtomicLong();
 
 
 	/**
 	 * Set the maximum number of sessions that can be stored. Once the limit is
-	 * reached, any attempt to store an additional session will result in an
+	 * reached, storing an additional session evicts the stored session that is
+	 * closest to expiring, i.e. the least recently used one among sessions with
+	 * the same max idle time. Only if none of the stored sessions ever expires,
+	 * an attempt to store an additional session results in an
 	 * {@link IllegalStateException}.
 	 * <p>By default set to 10000.
 	 * @param maxSessions the maximum number of sessions
@@ -109,13 +123,30 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		return Collections.unmodifiableMap(this.sessions);
 	}
 
+	/**
+	 * Return the total number of sessions that were removed because they expired.
+	 * @since 6.0
+	 */
+	public long getExpiredSessionCount() {
+		return this.expiredSessionCount.get();
+	}
+
+	/**
+	 * Return the total number of sessions that were evicted because the
+	 * {@link #setMaxSessions max sessions} limit was reached.
+	 * @since 6.0
+	 */
+	public long getEvictedSessionCount() {
+		return this.evictedSessionCount.get();
+	}
+
 
 	@Override
 	public Mono<WebSession> createWebSession() {
 
 		// Opportunity to clean expired sessions
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		this.expirationQueue.checkIfNecessary(now);
 
 		return Mono.<WebSession>fromSupplier(() -> new InMemoryWebSession(now))
 				.subscribeOn(Schedulers.boundedElastic())
@@ -125,13 +156,15 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	@Override
 	public Mono<WebSession> retrieveSession(String id) {
 		Instant now = this.clock.instant();
-		this.expiredSessionChecker.checkIfNecessary(now);
+		this.expirationQueue.checkIfNecessary(now);
 		InMemoryWebSession session = this.sessions.get(id);
 		if (session == null) {
 			return Mono.empty();
 		}
 		else if (session.isExpired(now)) {
-			this.sessions.remove(id);
+			if (this.sessions.remove(id, session)) {
+				this.expiredSessionCount.incrementAndGet();
+			}
 			return Mono.empty();
 		}
 		else {
@@ -158,12 +191,12 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	/**
 	 * Check for expired sessions and remove them. Typically such checks are
 	 * kicked off lazily during calls to {@link #createWebSession() create} or
-	 * {@link #retrieveSession retrieve}, no less than 60 seconds apart.
+	 * {@link #retrieveSession retrieve}, once sessions are due to expire.
 	 * This method can be called to force a check at a specific time.
 	 * @since 5.0.8
 	 */
 	public void removeExpiredSessions() {
-		this.expiredSessionChecker.removeExpiredSessions(this.clock.instant());
+		this.expirationQueue.removeExpiredSessions(this.clock.instant());
 	}
 
 
@@ -171,7 +204,8 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private final AtomicReference<String> id = new AtomicReference<>(String.valueOf(idGenerator.generateId()));
 
-		private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+		// Sessions typically hold only a few attributes
+		private final Map<String, Object> attributes = new ConcurrentHashMap<>(4);
 
 		private final Instant creationTime;
 
@@ -210,6 +244,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		@Override
 		public void setMaxIdleTime(Duration maxIdleTime) {
 			this.maxIdleTime = maxIdleTime;
+			if (expirationQueue.isScheduled(this)) {
+				expirationQueue.schedule(this);
+			}
 		}
 
 		@Override
@@ -248,14 +285,16 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 		@Override
 		public Mono<Void> save() {
 
-			checkMaxSessionsLimit();
-
 			// Implicitly started session..
 			if (!getAttributes().isEmpty()) {
 				this.state.compareAndSet(State.NEW, State.STARTED);
 			}
 
 			if (isStarted()) {
+				if (!InMemoryWebSessionStore.this.sessions.containsKey(this.getId())) {
+					checkMaxSessionsLimit();
+				}
+
 				// Save
 				InMemoryWebSessionStore.this.sessions.put(this.getId(), this);
 
@@ -264,6 +303,10 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 					InMemoryWebSessionStore.this.sessions.remove(this.getId());
 					return Mono.error(new IllegalStateException("Session was invalidated"));
 				}
+
+				if (!this.maxIdleTime.isNegative() && !expirationQueue.isScheduled(this)) {
+					expirationQueue.schedule(this);
+				}
 			}
 
 			return Mono.empty();
@@ -271,9 +314,11 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private void checkMaxSessionsLimit() {
 			if (sessions.size() >= maxSessions) {
-				expiredSessionChecker.removeExpiredSessions(clock.instant());
-				if (sessions.size() >= maxSessions) {
-					throw new IllegalStateException("Max sessions limit reached: " + sessions.size());
+				expirationQueue.removeExpiredSessions(clock.instant());
+				while (sessions.size() >= maxSessions) {
+					if (!expirationQueue.evictSession(clock.instant())) {
+						throw new IllegalStateException("Max sessions limit reached: " + sessions.size());
+					}
 				}
 			}
 		}
@@ -305,43 +350,40 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	}
 
 
-	private class ExpiredSessionChecker {
-
-		/** Max time between expiration checks. */
-		private static final int CHECK_PERIOD = 60 * 1000;
-
+	/**
+	 * Gives the expiration queue access to the stored sessions.
+	 */
+	private class StoredSessionHandler implements SessionExpirationQueue.SessionHandler<InMemoryWebSession> {
 
-		private final ReentrantLock lock = new ReentrantLock();
+		@Override
+		@Nullable
+		public Instant getExpirationTime(InMemoryWebSession session) {
+			Duration maxIdleTime = session.getMaxIdleTime();
+			return (maxIdleTime.isNegative() ? null : session.getLastAccessTime().plus(maxIdleTime));
+		}
 
-		private Instant checkTime = clock.instant().plus(CHECK_PERIOD, ChronoUnit.MILLIS);
+		@Override
+		public boolean isExpired(InMemoryWebSession session, Instant now) {
+			return session.isExpired(now);
+		}
 
+		@Override
+		public boolean isStored(InMemoryWebSession session) {
+			return (sessions.get(session.getId()) == session);
+		}
 
-		public void checkIfNecessary(Instant now) {
-			if (this.checkTime.isBefore(now)) {
-				removeExpiredSessions(now);
+		@Override
+		public void expire(InMemoryWebSession session) {
+			if (sessions.remove(session.getId(), session)) {
+				expiredSessionCount.incrementAndGet();
 			}
+			session.invalidate();
 		}
 
-		public void removeExpiredSessions(Instant now) {
-			if (sessions.isEmpty()) {
-				return;
-			}
-			if (this.lock.tryLock()) {
-				try {
-					Iterator<InMemoryWebSession> iterator = sessions.values().iterator();
-					while (iterator.hasNext()) {
-						InMemoryWebSession session = iterator.next();
-						if (session.isExpired(now)) {
-							iterator.remove();
-							session.invalidate();
-						}
-					}
-				}
-				finally {
-					this.checkTime = now.plus(CHECK_PERIOD, ChronoUnit.MILLIS);
-					this.lock.unlock();
-				}
-			}
+		@Override
+		public void evict(InMemoryWebSession session) {
+			session.invalidate();
+			evictedSessionCount.incrementAndGet();
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
@@ -38,6 +39,10 @@ import org.springframework.util.FastByteArrayOutputStream;
  *
  * <p>Used e.g. by {@link org.springframework.web.filter.ShallowEtagHeaderFilter}.
  *
+ * <p>As of 6.0, a content cache limit may be specified: once the cached content
+ * exceeds it, the content is written to the underlying response, and all further
+ * content gets written through to the underlying response as well.
+ *
  * @author Juergen Hoeller
  * @since 4.1.3
  * @see ContentCachingRequestWrapper
@@ -55,6 +60,11 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	@Nullable
 	private Integer contentLength;
 
+	@Nullable
+	private final Integer contentCacheLimit;
+
+	private boolean contentOverflow = false;
+
 
 	/**
 	 * Create a new ContentCachingResponseWrapper for the given servlet response.
@@ -62,6 +72,20 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	 */
 	public ContentCachingResponseWrapper(HttpServletResponse response) {
 		super(response);
+		this.contentCacheLimit = null;
+	}
+
+	/**
+	 * Create a new ContentCachingResponseWrapper for the given servlet response.
+	 * @param response the original servlet response
+	 * @param contentCacheLimit the maximum number of bytes to cache per response,
+	 * with any further content being written through to the original response
+	 * @since 6.0
+	 * @see #handleContentOverflow(int)
+	 */
+	public ContentCachingResponseWrapper(HttpServletResponse response, int contentCacheLimit) {
+		super(response);
+		this.contentCacheLimit = contentCacheLimit;
 	}
 
 
@@ -116,12 +140,21 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 	@Override
 	public void flushBuffer() throws IOException {
-		// do not flush the underlying response as the content has not been copied to it yet
+		// do not flush the underlying response as the content has not been copied to it yet,
+		// unless all content is being written through after an overflow
+		if (this.contentOverflow) {
+			super.flushBuffer();
+		}
 	}
 
 	@Override
 	public void setContentLength(int len) {
-		if (len > this.content.size()) {
+		if (this.contentOverflow) {
+			// Content is being written through: apply to the original response right away
+			super.setContentLength(len);
+			return;
+		}
+		if (len > this.content.size() && isWithinContentCacheLimit(len)) {
 			this.content.resize(len);
 		}
 		this.contentLength = len;
@@ -129,12 +162,16 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 	@Override
 	public void setContentLengthLong(long len) {
+		if (this.contentOverflow) {
+			super.setContentLengthLong(len);
+			return;
+		}
 		if (len > Integer.MAX_VALUE) {
 			throw new IllegalArgumentException("Content-Length exceeds ContentCachingResponseWrapper's maximum (" +
 					Integer.MAX_VALUE + "): " + len);
 		}
 		int lenInt = (int) len;
-		if (lenInt > this.content.size()) {
+		if (lenInt > this.content.size() && isWithinContentCacheLimit(lenInt)) {
 			this.content.resize(lenInt);
 		}
 		this.contentLength = lenInt;
@@ -142,7 +179,7 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 	@Override
 	public void setBufferSize(int size) {
-		if (size > this.content.size()) {
+		if (size > this.content.size() && isWithinContentCacheLimit(size)) {
 			this.content.resize(size);
 		}
 	}
@@ -181,6 +218,16 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 		return this.content.size();
 	}
 
+	/**
+	 * Return whether the content cache limit has been exceeded, with the content
+	 * having been written through to the original response from that point on.
+	 * @since 6.0
+	 * @see #ContentCachingResponseWrapper(HttpServletResponse, int)
+	 */
+	public boolean isContentOverflow() {
+		return this.contentOverflow;
+	}
+
 	/**
 	 * Copy the complete cached body content to the response.
 	 * @since 4.2
@@ -212,6 +259,41 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 		}
 	}
 
+	/**
+	 * Template method for handling a content overflow: specifically, a response
+	 * body being written that exceeds the specified content cache limit.
+	 * <p>The default implementation is empty. Subclasses may override this to
+	 * react to the cached content having been written to the original response.
+	 * @param contentCacheLimit the maximum number of bytes to cache per response
+	 * which has just been exceeded
+	 * @since 6.0
+	 * @see #ContentCachingResponseWrapper(HttpServletResponse, int)
+	 */
+	protected void handleContentOverflow(int contentCacheLimit) {
+	}
+
+	private boolean isWithinContentCacheLimit(int size) {
+		return (this.contentCacheLimit == null || size <= this.contentCacheLimit);
+	}
+
+	private void writeContent(byte[] b, int off, int len) throws IOException {
+		if (this.contentOverflow) {
+			getResponse().getOutputStream().write(b, off, len);
+		}
+		else {
+			this.content.write(b, off, len);
+			checkContentOverflow();
+		}
+	}
+
+	private void checkContentOverflow() throws IOException {
+		if (this.contentCacheLimit != null && this.content.size() > this.contentCacheLimit) {
+			this.contentOverflow = true;
+			copyBodyToResponse(false);
+			handleContentOverflow(this.contentCacheLimit);
+		}
+	}
+
 
 	private class ResponseServletOutputStream extends ServletOutputStream {
 
@@ -223,12 +305,18 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 		@Override
 		public void write(int b) throws IOException {
-			content.write(b);
+			if (contentOverflow) {
+				this.os.write(b);
+			}
+			else {
+				content.write(b);
+				checkContentOverflow();
+			}
 		}
 
 		@Override
 		public void write(byte[] b, int off, int len) throws IOException {
-			content.write(b, off, len);
+			writeContent(b, off, len);
 		}
 
 		@Override
@@ -243,10 +331,24 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	}
 
 
+	private class ContentOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			writeContent(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writeContent(b, off, len);
+		}
+	}
+
+
 	private class ResponsePrintWriter extends PrintWriter {
 
 		public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
-			super(new OutputStreamWriter(content, characterEncoding));
+			super(new OutputStreamWriter(new ContentOutputStream(), characterEncoding));
 		}
 
 		@Override
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Queue of stored sessions in buckets by second of expiration time, for use
+ * by in-memory session stores such as
+ * {@link org.springframework.web.server.session.InMemoryWebSessionStore} and
+ * {@link org.springframework.web.filter.InMemorySessionFilter}.
+ *
+ * <p>Expired sessions are removed when their bucket comes due, without
+ * scanning all sessions, and accessing a session does not touch the queue:
+ * a session that was accessed in the meantime is simply moved to the bucket
+ * for its new expiration time when its bucket comes due. Sessions are
+ * compared by identity and are expected not to override {@code equals}.
+ *
+ * @param <S> the type of session
+ * @since 6.0
+ */
+public final class SessionExpirationQueue<S> {
+
+	/** Duration of an expiration bucket. */
+	private static final long TICK_MILLIS = 1000;
+
+
+	private final SessionHandler<S> handler;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final TreeMap<Long, List<S>> buckets = new TreeMap<>();
+
+	/** The expiration bucket that each queued session is in. */
+	private final Map<S, Long> queuedTicks = new ConcurrentHashMap<>();
+
+	private volatile long nextTick = Long.MAX_VALUE;
+
+
+	/**
+	 * Create a queue that delegates to the given handler to access and remove
+	 * the stored sessions.
+	 * @param handler the handler for the stored sessions
+	 */
+	public SessionExpirationQueue(SessionHandler<S> handler) {
+		Assert.notNull(handler, "SessionHandler must not be null");
+		this.handler = handler;
+	}
+
+
+	/**
+	 * Queue the given session for its current expiration time, or remove it
+	 * from the queue if it no longer expires.
+	 * @param session the stored session
+	 */
+	public void schedule(S session) {
+		this.lock.lock();
+		try {
+			scheduleInternal(session, 0);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Whether the given session is currently queued.
+	 * @param session the session to check
+	 */
+	public boolean isScheduled(S session) {
+		return this.queuedTicks.containsKey(session);
+	}
+
+	/**
+	 * Remove expired sessions if a bucket is due, unless another thread is
+	 * already doing so.
+	 * @param now the current time
+	 */
+	public void checkIfNecessary(Instant now) {
+		if (this.nextTick <= getTick(now) && this.lock.tryLock()) {
+			try {
+				removeExpiredSessionsInternal(now);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Remove the sessions of all buckets that are due.
+	 * @param now the current time
+	 */
+	public void removeExpiredSessions(Instant now) {
+		this.lock.lock();
+		try {
+			removeExpiredSessionsInternal(now);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Evict the session closest to expiring, or remove an expired session
+	 * found while looking for it.
+	 * @param now the current time
+	 * @return {@code true} if a session was removed, or {@code false}
+	 * if no stored session ever expires
+	 */
+	public boolean evictSession(Instant now) {
+		this.lock.lock();
+		try {
+			Map.Entry<Long, List<S>> entry;
+			while ((entry = this.buckets.pollFirstEntry()) != null) {
+				long tick = entry.getKey();
+				Iterator<S> iterator = entry.getValue().iterator();
+				while (iterator.hasNext()) {
+					S session = iterator.next();
+					iterator.remove();
+					if (!isQueued(session, tick)) {
+						continue;
+					}
+					this.queuedTicks.remove(session);
+					long expirationTick = getExpirationTick(session);
+					if (this.handler.isExpired(session, now)) {
+						this.handler.expire(session);
+					}
+					else if (expirationTick == -1) {
+						continue;
+					}
+					else if (expirationTick <= tick) {
+						this.handler.evict(session);
+					}
+					else {
+						// Accessed since it was queued
+						scheduleInternal(session, tick + 1);
+						continue;
+					}
+					if (!entry.getValue().isEmpty()) {
+						this.buckets.put(tick, entry.getValue());
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+		finally {
+			updateNextTick();
+			this.lock.unlock();
+		}
+	}
+
+	private void removeExpiredSessionsInternal(Instant now) {
+		long currentTick = getTick(now);
+		Map.Entry<Long, List<S>> entry;
+		while ((entry = this.buckets.firstEntry()) != null && entry.getKey() <= currentTick) {
+			this.buckets.pollFirstEntry();
+			for (S session : entry.getValue()) {
+				if (!isQueued(session, entry.getKey())) {
+					continue;
+				}
+				this.queuedTicks.remove(session);
+				if (this.handler.isExpired(session, now)) {
+					this.handler.expire(session);
+				}
+				else {
+					// Accessed since it was queued
+					scheduleInternal(session, currentTick + 1);
+				}
+			}
+		}
+		updateNextTick();
+	}
+
+	private boolean isQueued(S session, long tick) {
+		Long queuedTick = this.queuedTicks.get(session);
+		if (queuedTick == null || queuedTick != tick) {
+			// Queued again in a different bucket
+			return false;
+		}
+		if (!this.handler.isStored(session)) {
+			// Removed or invalidated in the meantime
+			this.queuedTicks.remove(session);
+			return false;
+		}
+		return true;
+	}
+
+	private void scheduleInternal(S session, long minTick) {
+		long tick = getExpirationTick(session);
+		if (tick == -1) {
+			this.queuedTicks.remove(session);
+			return;
+		}
+		tick = Math.max(tick, minTick);
+		Long queuedTick = this.queuedTicks.put(session, tick);
+		if (queuedTick == null || queuedTick != tick) {
+			this.buckets.computeIfAbsent(tick, key -> new ArrayList<>()).add(session);
+			if (tick < this.nextTick) {
+				this.nextTick = tick;
+			}
+		}
+	}
+
+	private void updateNextTick() {
+		this.nextTick = (this.buckets.isEmpty() ? Long.MAX_VALUE : this.buckets.firstKey());
+	}
+
+	private long getExpirationTick(S session) {
+		Instant expirationTime = this.handler.getExpirationTime(session);
+		if (expirationTime == null) {
+			return -1;
+		}
+		// First bucket by the end of which the session is expired
+		return expirationTime.toEpochMilli() / TICK_MILLIS + 1;
+	}
+
+	private static long getTick(Instant time) {
+		return time.toEpochMilli() / TICK_MILLIS;
+	}
+
+
+	/**
+	 * Callback to access and remove the sessions of a store.
+	 * @param <S> the type of session
+	 */
+	public interface SessionHandler<S> {
+
+		/**
+		 * Return the time after which the given session is expired if it is
+		 * not accessed anymore, or {@code null} if it never expires.
+		 */
+		@Nullable
+		Instant getExpirationTime(S session);
+
+		/**
+		 * Whether the given session is expired at the given time.
+		 */
+		boolean isExpired(S session, Instant now);
+
+		/**
+		 * Whether the given session is still held by the store.
+		 */
+		boolean isStored(S session);
+
+		/**
+		 * Remove the given session from the store because it expired.
+		 */
+		void expire(S session);
+
+		/**
+		 * Remove the given session from the store to make room for another one.
+		 */
+		void evict(S session);
+	}
+
+}
@@ -25,6 +25,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 
@@ -32,6 +34,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.support.HttpRequestWrapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -180,6 +183,96 @@ public class InterceptingClientHttpRequestFactoryTests {
 		assertThat(Arrays.equals(changedBody, requestMock.body.toByteArray())).isTrue();
 	}
 
+	@Test
+	public void streamingBody() throws Exception {
+		StreamingRequestMock streamingRequestMock = new StreamingRequestMock();
+		requestMock = streamingRequestMock;
+		StreamingInterceptor interceptor = new StreamingInterceptor();
+		requestFactory = new InterceptingClientHttpRequestFactory(requestFactoryMock, Collections.singletonList(interceptor));
+
+		AtomicInteger writeCount = new AtomicInteger();
+		StreamingHttpOutputMessage.Body body = outputStream -> {
+			writeCount.incrementAndGet();
+			outputStream.write("Foo".getBytes());
+		};
+		ClientHttpRequest request = requestFactory.createRequest(new URI("https://example.com"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(body);
+		request.execute();
+
+		assertThat(interceptor.body.get()).isSameAs(body);
+		assertThat(streamingRequestMock.streamingBody).isSameAs(body);
+		assertThat(writeCount.get()).isEqualTo(0);
+		assertThat(requestMock.getHeaders().getContentLength()).isEqualTo(-1);
+	}
+
+	@Test
+	public void streamingBodyWrittenToNonStreamingRequest() throws Exception {
+		requestFactory = new InterceptingClientHttpRequestFactory(requestFactoryMock,
+				Collections.singletonList(new StreamingInterceptor()));
+
+		ClientHttpRequest request = requestFactory.createRequest(new URI("https://example.com"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write("Foo".getBytes()));
+		request.execute();
+
+		assertThat(requestMock.body.toString()).isEqualTo("Foo");
+	}
+
+	@Test
+	public void streamingBodyBufferedForInterceptor() throws Exception {
+		StreamingRequestMock streamingRequestMock = new StreamingRequestMock();
+		requestMock = streamingRequestMock;
+		AtomicReference<byte[]> bufferedBody = new AtomicReference<>();
+		ClientHttpRequestInterceptor bufferingInterceptor = (request, body, execution) -> {
+			bufferedBody.set(body);
+			return execution.execute(request, body);
+		};
+		requestFactory = new InterceptingClientHttpRequestFactory(requestFactoryMock,
+				Arrays.asList(new StreamingInterceptor(), bufferingInterceptor, new StreamingInterceptor()));
+
+		ClientHttpRequest request = requestFactory.createRequest(new URI("https://example.com"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write("Foo".getBytes()));
+		request.execute();
+
+		assertThat(bufferedBody.get()).isEqualTo("Foo".getBytes());
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		streamingRequestMock.streamingBody.writeTo(written);
+		assertThat(written.toString()).isEqualTo("Foo");
+		assertThat(streamingRequestMock.getHeaders().getContentLength()).isEqualTo(3);
+	}
+
+	@Test
+	public void streamingBodyBufferedByDefaultSetsContentLength() throws Exception {
+		StreamingRequestMock streamingRequestMock = new StreamingRequestMock();
+		requestMock = streamingRequestMock;
+		NoOpInterceptor interceptor = new NoOpInterceptor();
+		requestFactory = new InterceptingClientHttpRequestFactory(requestFactoryMock, Collections.singletonList(interceptor));
+
+		ClientHttpRequest request = requestFactory.createRequest(new URI("https://example.com"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write("Foo".getBytes()));
+		request.execute();
+
+		assertThat(interceptor.invoked).isTrue();
+		assertThat(streamingRequestMock.getHeaders().getContentLength()).isEqualTo(3);
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		streamingRequestMock.streamingBody.writeTo(written);
+		assertThat(written.toString()).isEqualTo("Foo");
+	}
+
+	@Test
+	public void streamingBodyBufferedByDefaultKeepsContentLength() throws Exception {
+		StreamingRequestMock streamingRequestMock = new StreamingRequestMock();
+		requestMock = streamingRequestMock;
+		requestFactory = new InterceptingClientHttpRequestFactory(requestFactoryMock,
+				Collections.singletonList(new NoOpInterceptor()));
+
+		ClientHttpRequest request = requestFactory.createRequest(new URI("https://example.com"), HttpMethod.POST);
+		request.getHeaders().setContentLength(3);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write("Foo".getBytes()));
+		request.execute();
+
+		assertThat(streamingRequestMock.getHeaders().get(HttpHeaders.CONTENT_LENGTH)).containsExactly("3");
+	}
+
 
 	private static class NoOpInterceptor implements ClientHttpRequestInterceptor {
 
@@ -194,6 +287,25 @@ public class InterceptingClientHttpRequestFactoryTests {
 	}
 
 
+	private static class StreamingInterceptor implements ClientHttpRequestInterceptor {
+
+		private final AtomicReference<StreamingHttpOutputMessage.Body> body = new AtomicReference<>();
+
+		@Override
+		public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+				throws IOException {
+			throw new AssertionError("Body should not be buffered");
+		}
+
+		@Override
+		public ClientHttpResponse intercept(HttpRequest request, StreamingHttpOutputMessage.Body body,
+				ClientHttpRequestExecution execution) throws IOException {
+			this.body.set(body);
+			return execution.execute(request, body);
+		}
+	}
+
+
 	private class RequestFactoryMock implements ClientHttpRequestFactory {
 
 		@Override
@@ -263,6 +375,17 @@ public class InterceptingClientHttpRequestFactoryTests {
 	}
 
 
+	private class StreamingRequestMock extends RequestMock implements StreamingHttpOutputMessage {
+
+		private Body streamingBody;
+
+		@Override
+		public void setBody(Body body) {
+			this.streamingBody = body;
+		}
+	}
+
+
 	private static class ResponseMock implements ClientHttpResponse {
 
 		private HttpStatus statusCode = HttpStatus.OK;
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link JdkClientHttpRequestFactory}.
+ */
+public class JdkClientHttpRequestFactoryTests extends AbstractHttpRequestFactoryTests {
+
+	@Override
+	protected ClientHttpRequestFactory createRequestFactory() {
+		return new JdkClientHttpRequestFactory();
+	}
+
+	@Override
+	@Test
+	public void httpMethods() throws Exception {
+		super.httpMethods();
+		assertHttpMethod("patch", HttpMethod.PATCH);
+	}
+
+	@Test
+	void streamLargeBody() throws Exception {
+		ClientHttpRequest request = this.factory.createRequest(new URI(baseUrl + "/echo"), HttpMethod.PUT);
+		assertThat(request).isInstanceOf(StreamingHttpOutputMessage.class);
+
+		byte[] body = new byte[1024 * 1024];
+		Arrays.fill(body, (byte) 'a');
+		request.getHeaders().setContentLength(body.length);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> {
+			for (int i = 0; i < body.length; i += 1000) {
+				outputStream.write(body, i, Math.min(1000, body.length - i));
+			}
+		});
+
+		try (ClientHttpResponse response = request.execute()) {
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(FileCopyUtils.copyToByteArray(response.getBody())).isEqualTo(body);
+		}
+	}
+
+	@Test
+	void streamBodyFailure() throws Exception {
+		ClientHttpRequest request = this.factory.createRequest(new URI(baseUrl + "/echo"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> {
+			outputStream.write(new byte[64 * 1024]);
+			throw new IOException("Body failure");
+		});
+
+		assertThatIOException().isThrownBy(request::execute).withMessage("Body failure");
+	}
+
+}
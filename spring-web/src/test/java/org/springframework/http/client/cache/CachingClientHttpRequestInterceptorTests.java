@@ -0,0 +1,271 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CachingClientHttpRequestInterceptor}.
+ */
+public class CachingClientHttpRequestInterceptorTests {
+
+	private static final URI DEFAULT_URL = URI.create("https://example.com/reference-data");
+
+	private final HttpCache cache = new HttpCache();
+
+	private final CachingClientHttpRequestInterceptor interceptor = new CachingClientHttpRequestInterceptor(this.cache);
+
+	private final List<HttpRequest> sentRequests = new ArrayList<>();
+
+	private final List<StubResponse> responses = new ArrayList<>();
+
+	private final ClientHttpRequestExecution execution = (request, body) -> {
+		this.sentRequests.add(request);
+		return this.responses.remove(0);
+	};
+
+
+	@Test
+	public void serveFreshResponseFromCache() throws Exception {
+		this.responses.add(new StubResponse(200, "foo").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		this.cache.setClock(Clock.offset(this.cache.getClock(), Duration.ofSeconds(30)));
+
+		ClientHttpResponse response = this.interceptor.intercept(request(HttpMethod.GET), new byte[0], this.execution);
+		assertThat(response.getRawStatusCode()).isEqualTo(200);
+		assertThat(StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("foo");
+		assertThat(response.getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("30");
+		assertThat(this.sentRequests).hasSize(1);
+	}
+
+	@Test
+	public void cacheResponseOnlyOnceBodyRead() throws Exception {
+		this.responses.add(new StubResponse(200, "foo").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+		this.responses.add(new StubResponse(200, "foo").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+		this.interceptor.intercept(request(HttpMethod.GET), new byte[0], this.execution).close();
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		assertThat(this.sentRequests).hasSize(2);
+	}
+
+	@Test
+	public void cacheResponseWhenBodyPartiallyReadByConverter() throws Exception {
+		this.responses.add(new StubResponse(200, "{\"foo\":\"bar\"}\n")
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+
+		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+		try (ClientHttpResponse response = this.interceptor.intercept(request(HttpMethod.GET), new byte[0], this.execution)) {
+			assertThat(converter.read(Map.class, response)).containsEntry("foo", "bar");
+		}
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("{\"foo\":\"bar\"}\n");
+		assertThat(this.sentRequests).hasSize(1);
+	}
+
+	@Test
+	public void revalidateStaleResponse() throws Exception {
+		this.responses.add(new StubResponse(200, "foo")
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache").header(HttpHeaders.ETAG, "\"v1\""));
+		this.responses.add(new StubResponse(304, "").header(HttpHeaders.ETAG, "\"v1\""));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+
+		assertThat(this.sentRequests).hasSize(2);
+		assertThat(this.sentRequests.get(1).getHeaders().getIfNoneMatch()).containsExactly("\"v1\"");
+	}
+
+	@Test
+	public void replaceModifiedResponse() throws Exception {
+		this.responses.add(new StubResponse(200, "foo")
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache").header(HttpHeaders.ETAG, "\"v1\""));
+		this.responses.add(new StubResponse(200, "bar")
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").header(HttpHeaders.ETAG, "\"v2\""));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+		assertThat(this.sentRequests).hasSize(2);
+	}
+
+	@Test
+	public void serveStaleWhileRevalidating() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		this.interceptor.setRevalidationExecutor(tasks::add);
+		this.responses.add(new StubResponse(200, "foo")
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=10, stale-while-revalidate=60"));
+		this.responses.add(new StubResponse(200, "bar").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		this.cache.setClock(Clock.offset(this.cache.getClock(), Duration.ofSeconds(20)));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		assertThat(this.sentRequests).hasSize(1);
+		assertThat(tasks).hasSize(1);
+
+		tasks.get(0).run();
+		assertThat(this.sentRequests).hasSize(2);
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+		assertThat(this.sentRequests).hasSize(2);
+	}
+
+	@Test
+	public void revalidateWhenStaleWhileRevalidateExpired() throws Exception {
+		this.responses.add(new StubResponse(200, "foo")
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=10, stale-while-revalidate=60"));
+		this.responses.add(new StubResponse(200, "bar"));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		this.cache.setClock(Clock.offset(this.cache.getClock(), Duration.ofSeconds(80)));
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+	}
+
+	@Test
+	public void invalidateOnUnsafeMethod() throws Exception {
+		this.responses.add(new StubResponse(200, "foo").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+		this.responses.add(new StubResponse(204, ""));
+		this.responses.add(new StubResponse(200, "bar").header(HttpHeaders.CACHE_CONTROL, "max-age=60"));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		exchange(HttpMethod.POST);
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+		assertThat(this.sentRequests).hasSize(3);
+	}
+
+	@Test
+	public void noStoreNotCached() throws Exception {
+		this.responses.add(new StubResponse(200, "foo").header(HttpHeaders.CACHE_CONTROL, "no-store, max-age=60"));
+		this.responses.add(new StubResponse(200, "bar"));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("bar");
+	}
+
+	@Test
+	public void requestNoCacheRevalidates() throws Exception {
+		this.responses.add(new StubResponse(200, "foo")
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").header(HttpHeaders.ETAG, "\"v1\""));
+		this.responses.add(new StubResponse(304, ""));
+
+		assertThat(exchange(HttpMethod.GET)).isEqualTo("foo");
+
+		HttpRequest request = request(HttpMethod.GET);
+		request.getHeaders().setCacheControl("no-cache");
+		ClientHttpResponse response = this.interceptor.intercept(request, new byte[0], this.execution);
+		assertThat(StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("foo");
+		assertThat(this.sentRequests).hasSize(2);
+	}
+
+
+	private String exchange(HttpMethod method) throws IOException {
+		try (ClientHttpResponse response = this.interceptor.intercept(request(method), new byte[0], this.execution)) {
+			return StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static HttpRequest request(HttpMethod method) {
+		HttpHeaders headers = new HttpHeaders();
+		return new HttpRequest() {
+			@Override
+			public HttpMethod getMethod() {
+				return method;
+			}
+			@Override
+			@Deprecated
+			public String getMethodValue() {
+				return method.name();
+			}
+			@Override
+			public URI getURI() {
+				return DEFAULT_URL;
+			}
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+	}
+
+
+	private static class StubResponse extends AbstractClientHttpResponse {
+
+		private final int statusCode;
+
+		private final byte[] body;
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		StubResponse(int statusCode, String body) {
+			this.statusCode = statusCode;
+			this.body = body.getBytes(StandardCharsets.UTF_8);
+		}
+
+		StubResponse header(String headerName, String headerValue) {
+			this.headers.add(headerName, headerValue);
+			return this;
+		}
+
+		@Override
+		public int getRawStatusCode() {
+			return this.statusCode;
+		}
+
+		@Override
+		public String getStatusText() {
+			return "";
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(this.body);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
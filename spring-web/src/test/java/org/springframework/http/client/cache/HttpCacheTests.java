@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.cache;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.cache.HttpCache.CacheStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HttpCache}, {@link CachedResponse}, and
+ * {@link InMemoryHttpCacheStore}.
+ */
+public class HttpCacheTests {
+
+	private static final Instant NOW = Instant.parse("2022-03-01T12:00:00Z");
+
+	private final InMemoryHttpCacheStore store = new InMemoryHttpCacheStore(3, 10);
+
+	private final HttpCache cache = new HttpCache(this.store);
+
+
+	HttpCacheTests() {
+		this.cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+	}
+
+
+	@Test
+	public void freshnessFromMaxAge() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("public, max-age=60");
+		headers.setExpires(NOW.plusSeconds(600).toEpochMilli());
+		CachedResponse response = put("/a", headers);
+
+		assertThat(response.getFreshnessLifetime()).isEqualTo(60_000);
+		assertThat(response.isFresh(NOW.plusSeconds(59).toEpochMilli())).isTrue();
+		assertThat(response.isFresh(NOW.plusSeconds(60).toEpochMilli())).isFalse();
+	}
+
+	@Test
+	public void freshnessFromExpires() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setDate(NOW.minusSeconds(10).toEpochMilli());
+		headers.setExpires(NOW.plusSeconds(90).toEpochMilli());
+		CachedResponse response = put("/a", headers);
+
+		assertThat(response.getFreshnessLifetime()).isEqualTo(100_000);
+		assertThat(response.getAge(NOW.toEpochMilli())).isEqualTo(10_000);
+	}
+
+	@Test
+	public void heuristicFreshnessFromLastModified() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setDate(NOW.toEpochMilli());
+		headers.setLastModified(NOW.minus(Duration.ofDays(10)).toEpochMilli());
+		CachedResponse response = put("/a", headers);
+
+		assertThat(response.getFreshnessLifetime()).isEqualTo(Duration.ofDays(1).toMillis());
+		assertThat(this.cache.isCacheable(request("/a"), 200, headers)).isTrue();
+		assertThat(this.cache.isCacheable(request("/a"), 302, headers)).isFalse();
+	}
+
+	@Test
+	public void ageFromAgeHeader() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("max-age=60");
+		headers.set(HttpHeaders.AGE, "50");
+		CachedResponse response = put("/a", headers);
+
+		assertThat(response.getAge(NOW.toEpochMilli())).isEqualTo(50_000);
+		assertThat(response.isFresh(NOW.plusSeconds(10).toEpochMilli())).isFalse();
+	}
+
+	@Test
+	public void requestDirectives() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("max-age=60");
+		headers.set(HttpHeaders.AGE, "30");
+		CachedResponse response = put("/a", headers);
+
+		HttpRequest request = request("/a");
+		assertThat(this.cache.getStatus(request, response)).isEqualTo(CacheStatus.FRESH);
+		request.getHeaders().setCacheControl("max-age=10");
+		assertThat(this.cache.getStatus(request, response)).isEqualTo(CacheStatus.STALE);
+		request.getHeaders().setCacheControl("no-cache");
+		assertThat(this.cache.getStatus(request, response)).isEqualTo(CacheStatus.STALE);
+		request.getHeaders().setCacheControl("no-store");
+		assertThat(this.cache.get(request)).isNull();
+	}
+
+	@Test
+	public void varyHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("max-age=60");
+		headers.setVary(List.of(HttpHeaders.ACCEPT));
+		HttpRequest request = request("/a");
+		request.getHeaders().set(HttpHeaders.ACCEPT, "application/json");
+		this.cache.put(request, 200, headers, new byte[0], NOW.toEpochMilli());
+
+		assertThat(this.cache.get(request)).isNotNull();
+		HttpRequest otherRequest = request("/a");
+		otherRequest.getHeaders().set(HttpHeaders.ACCEPT, "application/xml");
+		assertThat(this.cache.get(otherRequest)).isNull();
+	}
+
+	@Test
+	public void authorizedRequests() {
+		HttpRequest request = request("/a");
+		request.getHeaders().setBasicAuth("user", "password");
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("max-age=60");
+		assertThat(this.cache.isCacheable(request, 200, headers)).isFalse();
+		assertThat(this.cache.isCacheable(request("/a"), 200, headers)).isTrue();
+
+		headers.setCacheControl("public, max-age=60");
+		assertThat(this.cache.isCacheable(request, 200, headers)).isTrue();
+		headers.setCacheControl("s-maxage=60");
+		assertThat(this.cache.isCacheable(request, 200, headers)).isTrue();
+		headers.setCacheControl("max-age=60, must-revalidate");
+		assertThat(this.cache.isCacheable(request, 200, headers)).isTrue();
+	}
+
+	@Test
+	public void storeEvictsLeastRecentlyUsed() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("max-age=60");
+		this.cache.put(request("/a"), 200, headers, new byte[4], NOW.toEpochMilli());
+		this.cache.put(request("/b"), 200, headers, new byte[4], NOW.toEpochMilli());
+		assertThat(this.cache.get(request("/a"))).isNotNull();
+
+		this.cache.put(request("/c"), 200, headers, new byte[4], NOW.toEpochMilli());
+		assertThat(this.cache.get(request("/b"))).isNull();
+		assertThat(this.cache.get(request("/a"))).isNotNull();
+		assertThat(this.store.size()).isEqualTo(2);
+		assertThat(this.store.getTotalSize()).isEqualTo(8);
+
+		this.cache.put(request("/d"), 200, headers, new byte[0], NOW.toEpochMilli());
+		this.cache.put(request("/e"), 200, headers, new byte[0], NOW.toEpochMilli());
+		assertThat(this.store.size()).isEqualTo(3);
+	}
+
+
+	private CachedResponse put(String path, HttpHeaders headers) {
+		return this.cache.put(request(path), 200, headers, new byte[0], NOW.toEpochMilli());
+	}
+
+	private static HttpRequest request(String path) {
+		HttpHeaders headers = new HttpHeaders();
+		return new HttpRequest() {
+			@Override
+			public HttpMethod getMethod() {
+				return HttpMethod.GET;
+			}
+			@Override
+			@Deprecated
+			public String getMethodValue() {
+				return "GET";
+			}
+			@Override
+			public URI getURI() {
+				return URI.create("https://example.com" + path);
+			}
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -294,6 +295,49 @@ public class Jackson2TokenizerTests extends AbstractLeakCheckingTests {
 				.verifyError(DataBufferLimitException.class);
 	}
 
+	@Test
+	public void decodeArrayElements() {
+		List<String> source = asList(
+				"[{\"foo\": \"foo,]}\\\"foo\", \"bar\"",
+				": [1, 2]}, {\"foo\": \"baz\"}",
+				" , 12", "3, \"text\", true, null]");
+
+		StepVerifier.create(decodeDirectly(source, -1))
+				.expectNext(Map.of("foo", "foo,]}\"foo", "bar", List.of(1, 2)))
+				.expectNext(Map.of("foo", "baz"))
+				.expectNext(123, "text", true)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeTopLevelValues() {
+		List<String> source = asList("{\"foo\": 1}\n{\"foo\"", ": 2}\n\"foo", "bar\"\n12", "34");
+
+		StepVerifier.create(decodeDirectly(source, -1))
+				.expectNext(Map.of("foo", 1), Map.of("foo", 2), "foobar", 1234)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeLimit() {
+		List<String> source = asList("[{\"id\":1},", "{\"id\"", ":22}]");
+
+		StepVerifier.create(decodeDirectly(source, 9))
+				.expectNext(Map.of("id", 1), Map.of("id", 22))
+				.verifyComplete();
+
+		StepVerifier.create(decodeDirectly(source, 8))
+				.expectNext(Map.of("id", 1))
+				.verifyError(DataBufferLimitException.class);
+	}
+
+	@Test
+	public void decodeInvalidData() {
+		StepVerifier.create(decodeDirectly(singletonList("[{\"foo\": 1}, {\"foo\""), -1))
+				.expectNext(Map.of("foo", 1))
+				.verifyError(DecodingException.class);
+	}
+
 	@Test
 	public void errorInStream() {
 		DataBuffer buffer = stringBuffer("{\"id\":1,\"name\":");
@@ -363,6 +407,11 @@ public class Jackson2TokenizerTests extends AbstractLeakCheckingTests {
 				});
 	}
 
+	private Flux<Object> decodeDirectly(List<String> source, int maxInMemorySize) {
+		return Jackson2Tokenizer.decode(Flux.fromIterable(source).map(this::stringBuffer), this.jsonFactory,
+				this.objectMapper.readerFor(Object.class), maxInMemorySize, UncheckedIOException::new);
+	}
+
 	private DataBuffer stringBuffer(String value) {
 		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
 		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link InMemorySessionFilter}.
+ */
+public class InMemorySessionFilterTests {
+
+	private final InMemorySessionFilter filter = new InMemorySessionFilter();
+
+
+	@Test
+	public void createSession() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpSession session = getSession(null, true, response);
+
+		assertThat(session).isNotNull();
+		assertThat(session.isNew()).isTrue();
+		assertThat(this.filter.getSessions()).containsOnlyKeys(session.getId());
+
+		Cookie cookie = response.getCookie(InMemorySessionFilter.DEFAULT_COOKIE_NAME);
+		assertThat(cookie).isNotNull();
+		assertThat(cookie.getValue()).isEqualTo(session.getId());
+		assertThat(cookie.isHttpOnly()).isTrue();
+	}
+
+	@Test
+	public void retrieveSession() throws Exception {
+		HttpSession session = getSession(null, true, new MockHttpServletResponse());
+		session.setAttribute("foo", "bar");
+
+		HttpSession retrieved = getSession(session.getId(), false, new MockHttpServletResponse());
+		assertThat(retrieved).isSameAs(session);
+		assertThat(retrieved.isNew()).isFalse();
+		assertThat(retrieved.getAttribute("foo")).isEqualTo("bar");
+	}
+
+	@Test
+	public void noSessionCreatedUnlessRequested() throws Exception {
+		assertThat(getSession(null, false, new MockHttpServletResponse())).isNull();
+		assertThat(getSession("unknown", false, new MockHttpServletResponse())).isNull();
+		assertThat(this.filter.getSessions()).isEmpty();
+	}
+
+	@Test
+	public void retrieveExpiredSession() throws Exception {
+		HttpSession session = getSession(null, true, new MockHttpServletResponse());
+
+		this.filter.setClock(Clock.offset(this.filter.getClock(), Duration.ofMinutes(31)));
+		assertThat(this.filter.getSessions()).isEmpty();
+		assertThat(this.filter.getExpiredSessionCount()).isEqualTo(1);
+		assertThat(getSession(session.getId(), false, new MockHttpServletResponse())).isNull();
+	}
+
+	@Test
+	public void accessedSessionDoesNotExpire() throws Exception {
+		HttpSession session = getSession(null, true, new MockHttpServletResponse());
+
+		this.filter.setClock(Clock.offset(this.filter.getClock(), Duration.ofMinutes(20)));
+		assertThat(getSession(session.getId(), false, new MockHttpServletResponse())).isSameAs(session);
+
+		this.filter.setClock(Clock.offset(this.filter.getClock(), Duration.ofMinutes(20)));
+		assertThat(this.filter.getSessions()).containsOnlyKeys(session.getId());
+
+		this.filter.setClock(Clock.offset(this.filter.getClock(), Duration.ofMinutes(20)));
+		assertThat(this.filter.getSessions()).isEmpty();
+	}
+
+	@Test
+	public void changeSessionId() throws Exception {
+		HttpSession session = getSession(null, true, new MockHttpServletResponse());
+		String oldId = session.getId();
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(new Cookie(InMemorySessionFilter.DEFAULT_COOKIE_NAME, oldId));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		AtomicReference<String> newId = new AtomicReference<>();
+		this.filter.doFilter(request, response,
+				(req, res) -> newId.set(((HttpServletRequest) req).changeSessionId()));
+
+		assertThat(newId.get()).isNotEqualTo(oldId).isEqualTo(session.getId());
+		assertThat(this.filter.getSessions()).containsOnlyKeys(newId.get());
+		assertThat(response.getCookie(InMemorySessionFilter.DEFAULT_COOKIE_NAME).getValue()).isEqualTo(newId.get());
+	}
+
+	@Test
+	public void sessionCreatedOnRequestDispatchVisibleOnAsyncDispatch() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		AtomicReference<HttpSession> session = new AtomicReference<>();
+		this.filter.doFilter(request, response,
+				(req, res) -> session.set(((HttpServletRequest) req).getSession()));
+
+		request.setDispatcherType(DispatcherType.ASYNC);
+		AtomicReference<HttpSession> asyncSession = new AtomicReference<>();
+		this.filter.doFilter(request, response,
+				(req, res) -> asyncSession.set(((HttpServletRequest) req).getSession()));
+
+		assertThat(asyncSession.get()).isSameAs(session.get());
+		assertThat(this.filter.getSessions()).containsOnlyKeys(session.get().getId());
+		assertThat(response.getCookies()).hasSize(1);
+	}
+
+	@Test
+	public void createSessionAfterResponseCommitted() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setCommitted(true);
+
+		assertThatIllegalStateException().isThrownBy(() -> getSession(null, true, response));
+		assertThat(this.filter.getSessions()).isEmpty();
+		assertThat(response.getCookies()).isEmpty();
+	}
+
+	@Test
+	public void maxSessions() throws Exception {
+		this.filter.setMaxSessions(3);
+		Clock clock = this.filter.getClock();
+
+		HttpSession session1 = getSession(null, true, new MockHttpServletResponse());
+		this.filter.setClock(Clock.offset(clock, Duration.ofSeconds(5)));
+		HttpSession session2 = getSession(null, true, new MockHttpServletResponse());
+		this.filter.setClock(Clock.offset(clock, Duration.ofSeconds(10)));
+		HttpSession session3 = getSession(null, true, new MockHttpServletResponse());
+
+		// Access the first session, so that the second one is the least recently used
+		this.filter.setClock(Clock.offset(clock, Duration.ofSeconds(15)));
+		getSession(session1.getId(), false, new MockHttpServletResponse());
+
+		HttpSession session4 = getSession(null, true, new MockHttpServletResponse());
+		assertThat(this.filter.getSessions()).containsOnlyKeys(session1.getId(), session3.getId(), session4.getId());
+		assertThat(this.filter.getEvictedSessionCount()).isEqualTo(1);
+		assertThatIllegalStateException().isThrownBy(session2::getCreationTime);
+	}
+
+	@Test
+	public void maxSessionsWithSessionsThatNeverExpire() throws Exception {
+		this.filter.setMaxSessions(3);
+		this.filter.setMaxInactiveInterval(-1);
+		for (int i = 0; i < 3; i++) {
+			getSession(null, true, new MockHttpServletResponse());
+		}
+		assertThatIllegalStateException().isThrownBy(() ->
+				getSession(null, true, new MockHttpServletResponse()))
+			.withMessage("Max sessions limit reached: 3");
+	}
+
+
+	@Nullable
+	private HttpSession getSession(@Nullable String sessionId, boolean create,
+			MockHttpServletResponse response) throws Exception {
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		if (sessionId != null) {
+			request.setCookies(new Cookie(InMemorySessionFilter.DEFAULT_COOKIE_NAME, sessionId));
+		}
+		AtomicReference<HttpSession> session = new AtomicReference<>();
+		this.filter.doFilter(request, response,
+				(req, res) -> session.set(((HttpServletRequest) req).getSession(create)));
+		return session.get();
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ShallowEtagHeaderFilter}.
+ */
+public class ShallowEtagHeaderFilterTests {
+
+	private static final String ETAG = "\"0b10a8db164e0754105b7a99be72e3fe5\"";
+
+	private final ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+
+
+	@Test
+	public void filterNoMatch() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/hotels"));
+		this.filter.filter(exchange, writeBody("Hello", " World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+	@Test
+	public void filterNoMatchWeakETag() {
+		this.filter.setWriteWeakETag(true);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/hotels"));
+		this.filter.filter(exchange, writeBody("Hello World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("W/" + ETAG);
+	}
+
+	@Test
+	public void filterMatch() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG));
+		this.filter.filter(exchange, writeBody("Hello World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEmpty();
+	}
+
+	@Test
+	public void filterWithContentCacheLimitExceeded() {
+		this.filter.setContentCacheLimit(5);
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG));
+		this.filter.filter(exchange, writeBody("Hello", " World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+	@Test
+	public void filterPostRequest() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/hotels"));
+		this.filter.filter(exchange, writeBody("Hello World")).block(Duration.ZERO);
+
+		assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ZERO)).isEqualTo("Hello World");
+	}
+
+
+	private static WebFilterChain writeBody(String... chunks) {
+		return exchange -> exchange.getResponse().writeWith(Flux.just(chunks)
+				.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -149,13 +149,67 @@ public class InMemoryWebSessionStoreTests {
 		assertThat(sessions.size()).isEqualTo(1);
 	}
 
+	@Test
+	public void expiredSessionCount() {
+		IntStream.range(0, 3).forEach(i -> insertSession());
+		assertThat(this.store.getExpiredSessionCount()).isEqualTo(0);
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(31)));
+		assertThat(this.store.getSessions()).isEmpty();
+		assertThat(this.store.getExpiredSessionCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void expirationCheckAfterMaxIdleTimeChange() {
+		WebSession session = insertSession();
+		session.setMaxIdleTime(Duration.ofMinutes(5));
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(6)));
+		assertThat(this.store.getSessions()).isEmpty();
+	}
+
+	@Test
+	public void accessedSessionDoesNotExpire() {
+		WebSession session = insertSession();
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(20)));
+		assertThat(this.store.retrieveSession(session.getId()).block()).isSameAs(session);
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(20)));
+		assertThat(this.store.getSessions()).containsOnlyKeys(session.getId());
+
+		this.store.setClock(Clock.offset(this.store.getClock(), Duration.ofMinutes(20)));
+		assertThat(this.store.getSessions()).isEmpty();
+	}
+
 	@Test
 	public void maxSessions() {
+		this.store.setMaxSessions(3);
+		Clock clock = this.store.getClock();
+
+		WebSession session1 = insertSession();
+		this.store.setClock(Clock.offset(clock, Duration.ofSeconds(5)));
+		WebSession session2 = insertSession();
+		this.store.setClock(Clock.offset(clock, Duration.ofSeconds(10)));
+		WebSession session3 = insertSession();
+
+		// Access the first session, so that the second one is the least recently used
+		this.store.setClock(Clock.offset(clock, Duration.ofSeconds(15)));
+		this.store.retrieveSession(session1.getId()).block();
+
+		WebSession session4 = insertSession();
+		assertThat(this.store.getSessions()).containsOnlyKeys(session1.getId(), session3.getId(), session4.getId());
+		assertThat(session2.isExpired()).isTrue();
+		assertThat(this.store.getEvictedSessionCount()).isEqualTo(1);
+	}
 
-		IntStream.range(0, 10000).forEach(i -> insertSession());
+	@Test
+	public void maxSessionsWithSessionsThatNeverExpire() {
+		this.store.setMaxSessions(3);
+		IntStream.range(0, 3).forEach(i -> insertSession().setMaxIdleTime(Duration.ofSeconds(-1)));
 		assertThatIllegalStateException().isThrownBy(
 				this::insertSession)
-			.withMessage("Max sessions limit reached: 10000");
+			.withMessage("Max sessions limit reached: 3");
 	}
 
 	private WebSession insertSession() {
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SessionExpirationQueue}.
+ */
+public class SessionExpirationQueueTests {
+
+	private static final Instant NOW = Instant.parse("2022-01-01T00:00:00Z");
+
+
+	private final Set<TestSession> stored = new LinkedHashSet<>();
+
+	private final List<TestSession> expired = new ArrayList<>();
+
+	private final List<TestSession> evicted = new ArrayList<>();
+
+	private final SessionExpirationQueue<TestSession> queue = new SessionExpirationQueue<>(new TestSessionHandler());
+
+
+	@Test
+	public void removeExpiredSessions() {
+		TestSession session1 = store(NOW, Duration.ofMinutes(1));
+		TestSession session2 = store(NOW, Duration.ofMinutes(2));
+
+		this.queue.removeExpiredSessions(NOW.plusSeconds(61));
+		assertThat(this.expired).containsExactly(session1);
+		assertThat(this.stored).containsExactly(session2);
+		assertThat(this.queue.isScheduled(session1)).isFalse();
+		assertThat(this.queue.isScheduled(session2)).isTrue();
+	}
+
+	@Test
+	public void rescheduleAccessedSession() {
+		TestSession session = store(NOW, Duration.ofMinutes(1));
+		session.lastAccessTime = NOW.plusSeconds(30);
+
+		this.queue.checkIfNecessary(NOW.plusSeconds(61));
+		assertThat(this.expired).isEmpty();
+		assertThat(this.queue.isScheduled(session)).isTrue();
+
+		this.queue.checkIfNecessary(NOW.plusSeconds(91));
+		assertThat(this.expired).containsExactly(session);
+	}
+
+	@Test
+	public void evictSessionClosestToExpiring() {
+		TestSession session1 = store(NOW, Duration.ofMinutes(2));
+		TestSession session2 = store(NOW, Duration.ofMinutes(1));
+		TestSession session3 = store(NOW, null);
+
+		assertThat(this.queue.evictSession(NOW)).isTrue();
+		assertThat(this.evicted).containsExactly(session2);
+		assertThat(this.queue.evictSession(NOW)).isTrue();
+		assertThat(this.evicted).containsExactly(session2, session1);
+		assertThat(this.queue.evictSession(NOW)).isFalse();
+		assertThat(this.stored).containsExactly(session3);
+	}
+
+	@Test
+	public void removedSessionIsSkipped() {
+		TestSession session = store(NOW, Duration.ofMinutes(1));
+		this.stored.remove(session);
+
+		assertThat(this.queue.evictSession(NOW)).isFalse();
+		assertThat(this.queue.isScheduled(session)).isFalse();
+	}
+
+
+	private TestSession store(Instant lastAccessTime, @Nullable Duration maxIdleTime) {
+		TestSession session = new TestSession();
+		session.lastAccessTime = lastAccessTime;
+		session.maxIdleTime = maxIdleTime;
+		this.stored.add(session);
+		this.queue.schedule(session);
+		return session;
+	}
+
+
+	private static class TestSession {
+
+		private Instant lastAccessTime;
+
+		@Nullable
+		private Duration maxIdleTime;
+	}
+
+
+	private class TestSessionHandler implements SessionExpirationQueue.SessionHandler<TestSession> {
+
+		@Override
+		@Nullable
+		public Instant getExpirationTime(TestSession session) {
+			return (session.maxIdleTime != null ? session.lastAccessTime.plus(session.maxIdleTime) : null);
+		}
+
+		@Override
+		public boolean isExpired(TestSession session, Instant now) {
+			Instant expirationTime = getExpirationTime(session);
+			return (expirationTime != null && now.isAfter(expirationTime));
+		}
+
+		@Override
+		public boolean isStored(TestSession session) {
+			return stored.contains(session);
+		}
+
+		@Override
+		public void expire(TestSession session) {
+			stored.remove(session);
+			expired.add(session);
+		}
+
+		@Override
+		public void evict(TestSession session) {
+			stored.remove(session);
+			evicted.add(session);
+		}
+	}
+
+}
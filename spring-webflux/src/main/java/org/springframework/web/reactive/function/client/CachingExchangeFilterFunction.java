@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.cache.CachedResponse;
+import org.springframework.http.client.cache.HttpCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ExchangeFilterFunction} that serves responses from an
+ * {@link HttpCache}, and stores cacheable responses in it.
+ *
+ * <p>Response bodies are stored as they are consumed, so a response is only
+ * cached once its body has been consumed completely. Stale responses are
+ * revalidated with a conditional request, and a {@code 304 Not Modified}
+ * response is answered with the stored response. Responses with a
+ * {@code stale-while-revalidate} directive are served while being revalidated
+ * in the background, as permitted by the directive.
+ *
+ * @since 6.0
+ * @see org.springframework.http.client.cache.CachingClientHttpRequestInterceptor
+ */
+public class CachingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final Log logger = LogFactory.getLog(CachingExchangeFilterFunction.class);
+
+
+	private final HttpCache cache;
+
+	@Nullable
+	private ExchangeStrategies strategies;
+
+	/**
+	 * Strategies of the responses that cached entries were created from,
+	 * weakly keyed so that a mapping is held as long as its entry is referenced.
+	 */
+	private final Map<CachedResponse, ExchangeStrategies> responseStrategies =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+
+	/**
+	 * Create a filter with an {@link HttpCache} with default settings.
+	 */
+	public CachingExchangeFilterFunction() {
+		this(new HttpCache());
+	}
+
+	/**
+	 * Create a filter with the given cache.
+	 * @param cache the cache to use
+	 */
+	public CachingExchangeFilterFunction(HttpCache cache) {
+		Assert.notNull(cache, "HttpCache must not be null");
+		this.cache = cache;
+	}
+
+
+	/**
+	 * Return the cache used by this filter.
+	 */
+	public HttpCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Set the strategies to decode the bodies of responses served from the
+	 * cache with, overriding the strategies of the original responses.
+	 * <p>By default, a response served from the cache uses the strategies of
+	 * the response it was stored from, i.e. those of the {@code WebClient}
+	 * that received it. {@link ExchangeStrategies#withDefaults()} is only used
+	 * for a response that was stored by a different filter instance, e.g.
+	 * in a shared {@link org.springframework.http.client.cache.HttpCacheStore}.
+	 */
+	public void setExchangeStrategies(@Nullable ExchangeStrategies strategies) {
+		this.strategies = strategies;
+	}
+
+	/**
+	 * Return the strategies configured for responses served from the cache, if any.
+	 */
+	@Nullable
+	public ExchangeStrategies getExchangeStrategies() {
+		return this.strategies;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			HttpRequest httpRequest = new ClientHttpRequestAdapter(request);
+			CachedResponse cached = this.cache.get(httpRequest);
+			if (cached == null) {
+				long requestTime = this.cache.getClock().millis();
+				return next.exchange(request).map(response -> {
+					this.cache.invalidate(httpRequest, response.rawStatusCode());
+					return cacheResponse(httpRequest, response, requestTime);
+				});
+			}
+			switch (this.cache.getStatus(httpRequest, cached)) {
+				case FRESH:
+					return Mono.just(createResponse(httpRequest, cached));
+				case STALE_WHILE_REVALIDATE:
+					revalidate(request, httpRequest, cached, next)
+							.flatMap(ClientResponse::releaseBody)
+							.subscribe(null, ex -> {
+								if (logger.isDebugEnabled()) {
+									logger.debug("Failed to revalidate cached response for " + request.url(), ex);
+								}
+							});
+					return Mono.just(createResponse(httpRequest, cached));
+				default:
+					return revalidate(request, httpRequest, cached, next);
+			}
+		});
+	}
+
+	private Mono<ClientResponse> revalidate(ClientRequest request, HttpRequest httpRequest,
+			CachedResponse cached, ExchangeFunction next) {
+
+		ClientRequest conditionalRequest = ClientRequest.from(request)
+				.headers(headers -> this.cache.addConditionalHeaders(cached, headers))
+				.build();
+		return Mono.defer(() -> {
+			long requestTime = this.cache.getClock().millis();
+			return next.exchange(conditionalRequest).flatMap(response -> {
+				if (response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+					HttpHeaders notModifiedHeaders = response.headers().asHttpHeaders();
+					ExchangeStrategies strategies = response.strategies();
+					return response.releaseBody().then(Mono.fromCallable(() -> {
+						CachedResponse updated = this.cache.update(httpRequest, cached, notModifiedHeaders, requestTime);
+						this.responseStrategies.put(updated, strategies);
+						return createResponse(httpRequest, updated);
+					}));
+				}
+				return Mono.just(cacheResponse(httpRequest, response, requestTime));
+			});
+		});
+	}
+
+	private ClientResponse cacheResponse(HttpRequest request, ClientResponse response, long requestTime) {
+		int statusCode = response.rawStatusCode();
+		HttpHeaders headers = response.headers().asHttpHeaders();
+		if (!this.cache.isCacheable(request, statusCode, headers)) {
+			return response;
+		}
+		int limit = this.cache.getMaxEntrySize();
+		ExchangeStrategies strategies = response.strategies();
+		return response.mutate()
+				.body(body -> Flux.defer(() -> {
+					ContentCollector collector = new ContentCollector(limit);
+					return body.doOnNext(collector::collect).doOnComplete(() -> {
+						byte[] content = collector.getContent();
+						if (content != null) {
+							CachedResponse cached = this.cache.put(request, statusCode, headers, content, requestTime);
+							this.responseStrategies.put(cached, strategies);
+						}
+					});
+				}))
+				.build();
+	}
+
+	private ClientResponse createResponse(HttpRequest request, CachedResponse cached) {
+		HttpHeaders headers = this.cache.getResponseHeaders(cached);
+		byte[] body = cached.getBody();
+		ExchangeStrategies strategies = this.strategies;
+		if (strategies == null) {
+			strategies = this.responseStrategies.get(cached);
+			if (strategies == null) {
+				strategies = ExchangeStrategies.withDefaults();
+			}
+		}
+		return ClientResponse.create(cached.getStatusCode(), strategies)
+				.headers(responseHeaders -> responseHeaders.addAll(headers))
+				.body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+				.request(request)
+				.build();
+	}
+
+
+	/**
+	 * Adapts a {@link ClientRequest} to an {@link HttpRequest} for the {@link HttpCache}.
+	 */
+	private static class ClientHttpRequestAdapter implements HttpRequest {
+
+		private final ClientRequest request;
+
+		ClientHttpRequestAdapter(ClientRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return this.request.method();
+		}
+
+		@Override
+		@Deprecated
+		public String getMethodValue() {
+			return this.request.method().name();
+		}
+
+		@Override
+		public URI getURI() {
+			return this.request.url();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.request.headers();
+		}
+	}
+
+
+	/**
+	 * Copies the content of data buffers, up to a limit.
+	 */
+	private static class ContentCollector {
+
+		private final int limit;
+
+		@Nullable
+		private ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+
+		ContentCollector(int limit) {
+			this.limit = limit;
+		}
+
+		void collect(DataBuffer buffer) {
+			ByteArrayOutputStream content = this.content;
+			if (content != null) {
+				int count = buffer.readableByteCount();
+				if (content.size() + count > this.limit) {
+					this.content = null;
+				}
+				else {
+					byte[] bytes = new byte[count];
+					buffer.asByteBuffer().get(bytes);
+					content.write(bytes, 0, count);
+				}
+			}
+		}
+
+		@Nullable
+		byte[] getContent() {
+			return (this.content != null ? this.content.toByteArray() : null);
+		}
+	}
+
+}
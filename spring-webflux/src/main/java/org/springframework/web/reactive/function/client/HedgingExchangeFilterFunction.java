@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ExchangeFilterFunction} that sends a second, "hedged" request if the
+ * response to the first one has not arrived within a given percentile of
+ * recently observed response times. Whichever request responds first wins,
+ * and the other one is cancelled. A request that fails does not win as long
+ * as the other one may still succeed.
+ *
+ * <p>Hedging trades a small amount of extra load, roughly
+ * {@code 1 - percentile} of the requests, for a much lower tail latency. It is
+ * most effective in combination with a {@link LoadBalancingExchangeFilterFunction}
+ * registered after this filter, so that the hedged request is likely sent to a
+ * different endpoint:
+ * <pre class="code">
+ * WebClient client = WebClient.builder()
+ *     .filter(new HedgingExchangeFilterFunction(0.95))
+ *     .filter(new LoadBalancingExchangeFilterFunction(endpoints))
+ *     .build();
+ * </pre>
+ *
+ * <p>Only requests with an {@linkplain #setHedgedMethods hedged method} are
+ * hedged, by default {@code GET}, {@code HEAD}, and {@code OPTIONS}, since the
+ * request may be processed twice. Until enough response times have been
+ * observed, the {@linkplain #setInitialDelay initial delay} is used.
+ *
+ * @since 6.0
+ */
+public class HedgingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final int MIN_SAMPLES = 10;
+
+
+	private final LatencyWindow latencies;
+
+	private Set<HttpMethod> hedgedMethods = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+	private Duration initialDelay = Duration.ofSeconds(1);
+
+	private Duration minDelay = Duration.ofMillis(1);
+
+
+	/**
+	 * Create a filter that hedges requests after the given percentile of the
+	 * last 1000 response times.
+	 * @param percentile the percentile, between 0 and 1 (exclusive), for
+	 * example {@code 0.95}
+	 */
+	public HedgingExchangeFilterFunction(double percentile) {
+		this(percentile, 1000);
+	}
+
+	/**
+	 * Create a filter that hedges requests after the given percentile of the
+	 * given number of most recent response times.
+	 * @param percentile the percentile, between 0 and 1 (exclusive), for
+	 * example {@code 0.95}
+	 * @param windowSize the number of recent response times to consider
+	 */
+	public HedgingExchangeFilterFunction(double percentile, int windowSize) {
+		Assert.isTrue(percentile > 0 && percentile < 1, "Percentile must be between 0 and 1");
+		Assert.isTrue(windowSize >= MIN_SAMPLES, "Window size must be at least " + MIN_SAMPLES);
+		this.latencies = new LatencyWindow(windowSize, percentile);
+	}
+
+
+	/**
+	 * Set the HTTP methods of requests that can be hedged.
+	 * <p>By default, {@code GET}, {@code HEAD}, and {@code OPTIONS} requests
+	 * are hedged.
+	 */
+	public void setHedgedMethods(HttpMethod... hedgedMethods) {
+		Assert.notNull(hedgedMethods, "Hedged methods must not be null");
+		this.hedgedMethods = Set.copyOf(Arrays.asList(hedgedMethods));
+	}
+
+	/**
+	 * Return the HTTP methods of requests that can be hedged.
+	 */
+	public Set<HttpMethod> getHedgedMethods() {
+		return this.hedgedMethods;
+	}
+
+	/**
+	 * Set the delay before a hedged request is sent while too few response
+	 * times have been observed to determine the percentile.
+	 * <p>By default this is set to 1 second.
+	 */
+	public void setInitialDelay(Duration initialDelay) {
+		Assert.notNull(initialDelay, "Initial delay must not be null");
+		this.initialDelay = initialDelay;
+	}
+
+	/**
+	 * Return the delay before a hedged request is sent while too few
+	 * response times have been observed.
+	 */
+	public Duration getInitialDelay() {
+		return this.initialDelay;
+	}
+
+	/**
+	 * Set the minimum delay before a hedged request is sent, to avoid hedging
+	 * every request when response times are uniformly low.
+	 * <p>By default this is set to 1 millisecond.
+	 */
+	public void setMinDelay(Duration minDelay) {
+		Assert.notNull(minDelay, "Min delay must not be null");
+		this.minDelay = minDelay;
+	}
+
+	/**
+	 * Return the minimum delay before a hedged request is sent.
+	 */
+	public Duration getMinDelay() {
+		return this.minDelay;
+	}
+
+	/**
+	 * Return the current delay before a hedged request is sent, based on the
+	 * observed response times.
+	 */
+	public Duration getHedgeDelay() {
+		long nanos = this.latencies.getPercentile();
+		Duration delay = (nanos >= 0 ? Duration.ofNanos(nanos) : this.initialDelay);
+		return (delay.compareTo(this.minDelay) < 0 ? this.minDelay : delay);
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		Mono<ClientResponse> exchange = Mono.defer(() -> next.exchange(request));
+		if (!this.hedgedMethods.contains(request.method())) {
+			return timed(exchange);
+		}
+		return timed(Mono.defer(() -> {
+			AtomicReference<Throwable> primaryError = new AtomicReference<>();
+			Mono<ClientResponse> primary = exchange.doOnError(primaryError::set);
+			Mono<ClientResponse> hedged = Mono.delay(getHedgeDelay()).then(exchange);
+			// A failed request does not win over one that may still succeed,
+			// and the losing response, if any, must not leak its connection
+			return Mono.firstWithValue(primary, hedged)
+					.onErrorMap(NoSuchElementException.class, ex -> {
+						Throwable error = primaryError.get();
+						return (error != null ? error : ex);
+					})
+					.doOnDiscard(ClientResponse.class, response -> response.releaseBody().subscribe());
+		}));
+	}
+
+	/**
+	 * Record the response time from the start of the original request, so
+	 * that hedged requests, which start later, do not skew the percentile.
+	 */
+	private Mono<ClientResponse> timed(Mono<ClientResponse> exchange) {
+		return Mono.defer(() -> {
+			long start = Schedulers.parallel().now(TimeUnit.NANOSECONDS);
+			return exchange.doOnNext(response ->
+					this.latencies.add(Schedulers.parallel().now(TimeUnit.NANOSECONDS) - start));
+		});
+	}
+
+
+	/**
+	 * Fixed-size window of the most recent response times, with the requested
+	 * percentile recomputed after every tenth of the window has been replaced.
+	 */
+	private static final class LatencyWindow {
+
+		private final long[] samples;
+
+		private final double percentile;
+
+		private final int recomputeInterval;
+
+		private int count;
+
+		private int index;
+
+		private int samplesSinceRecompute;
+
+		private long cachedValue = -1;
+
+		LatencyWindow(int size, double percentile) {
+			this.samples = new long[size];
+			this.percentile = percentile;
+			this.recomputeInterval = Math.max(1, size / 10);
+		}
+
+		synchronized void add(long latency) {
+			this.samples[this.index] = latency;
+			this.index = (this.index + 1) % this.samples.length;
+			if (this.count < this.samples.length) {
+				this.count++;
+			}
+			this.samplesSinceRecompute++;
+		}
+
+		synchronized long getPercentile() {
+			if (this.count < MIN_SAMPLES) {
+				return -1;
+			}
+			if (this.cachedValue < 0 ||
+					this.samplesSinceRecompute >= Math.min(this.recomputeInterval, this.count)) {
+				long[] sorted = Arrays.copyOf(this.samples, this.count);
+				Arrays.sort(sorted);
+				int rank = (int) Math.ceil(this.percentile * sorted.length) - 1;
+				this.cachedValue = sorted[Math.max(0, rank)];
+				this.samplesSinceRecompute = 0;
+			}
+			return this.cachedValue;
+		}
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * {@link ExchangeFilterFunction} that balances requests across a list of
+ * replicated endpoints, replacing the scheme, host, and port of each request
+ * URL with those of the selected endpoint, while keeping its path and query.
+ *
+ * <p>Endpoints are selected with the "power of two choices" algorithm: two
+ * endpoints are picked at random, and the one with fewer requests in flight is
+ * used. This approximates least-loaded selection without a global scan, and
+ * avoids the herding of strict least-loaded selection.
+ *
+ * <p>An endpoint that fails a number of {@linkplain #setMaxConsecutiveFailures
+ * consecutive requests}, either with an error or a 5xx response, is ejected for
+ * the {@linkplain #setEjectionTime ejection time}, after which it receives
+ * requests again. If all endpoints are ejected, ejection is ignored rather than
+ * failing every request. Endpoints that have
+ * {@linkplain #setMaxRequestsPerEndpoint reached their request limit} are not
+ * selected, and requests fail with a {@link WebClientRequestException} if no
+ * endpoint is below its limit.
+ *
+ * <p>The list of endpoints is obtained from the given {@link Supplier} for every
+ * request, so it can be backed by a service registry that changes over time.
+ *
+ * <p>Note that a request counts as in flight until its response status and
+ * headers have been received; streaming of the response body is not included.
+ *
+ * @since 6.0
+ * @see HedgingExchangeFilterFunction
+ */
+public class LoadBalancingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final Supplier<? extends Collection<URI>> endpointsSupplier;
+
+	private final Map<URI, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	private int maxRequestsPerEndpoint = Integer.MAX_VALUE;
+
+	private int maxConsecutiveFailures = 5;
+
+	private Duration ejectionTime = Duration.ofSeconds(30);
+
+	private Clock clock = Clock.systemUTC();
+
+
+	/**
+	 * Create a filter for the given, fixed list of endpoints.
+	 * @param endpoints the base URIs of the endpoints, for example
+	 * {@code https://replica1.example.com:8443}
+	 */
+	public LoadBalancingExchangeFilterFunction(Collection<URI> endpoints) {
+		Assert.notEmpty(endpoints, "Endpoints must not be empty");
+		List<URI> endpointsToUse = List.copyOf(endpoints);
+		this.endpointsSupplier = () -> endpointsToUse;
+	}
+
+	/**
+	 * Create a filter that obtains the endpoints from the given supplier for
+	 * every request.
+	 * @param endpointsSupplier supplier for the base URIs of the endpoints
+	 */
+	public LoadBalancingExchangeFilterFunction(Supplier<? extends Collection<URI>> endpointsSupplier) {
+		Assert.notNull(endpointsSupplier, "Endpoints supplier must not be null");
+		this.endpointsSupplier = endpointsSupplier;
+	}
+
+
+	/**
+	 * Set the maximum number of requests in flight per endpoint.
+	 * <p>By default this is unlimited.
+	 */
+	public void setMaxRequestsPerEndpoint(int maxRequestsPerEndpoint) {
+		Assert.isTrue(maxRequestsPerEndpoint > 0, "Max requests per endpoint must be positive");
+		this.maxRequestsPerEndpoint = maxRequestsPerEndpoint;
+	}
+
+	/**
+	 * Return the maximum number of requests in flight per endpoint.
+	 */
+	public int getMaxRequestsPerEndpoint() {
+		return this.maxRequestsPerEndpoint;
+	}
+
+	/**
+	 * Set the number of consecutive failed requests after which an endpoint
+	 * is ejected.
+	 * <p>By default this is set to 5.
+	 */
+	public void setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+		Assert.isTrue(maxConsecutiveFailures > 0, "Max consecutive failures must be positive");
+		this.maxConsecutiveFailures = maxConsecutiveFailures;
+	}
+
+	/**
+	 * Return the number of consecutive failed requests after which an
+	 * endpoint is ejected.
+	 */
+	public int getMaxConsecutiveFailures() {
+		return this.maxConsecutiveFailures;
+	}
+
+	/**
+	 * Set the amount of time for which an endpoint is ejected.
+	 * <p>By default this is set to 30 seconds.
+	 */
+	public void setEjectionTime(Duration ejectionTime) {
+		Assert.notNull(ejectionTime, "Ejection time must not be null");
+		Assert.isTrue(!ejectionTime.isNegative(), "Ejection time must not be negative");
+		this.ejectionTime = ejectionTime;
+	}
+
+	/**
+	 * Return the amount of time for which an endpoint is ejected.
+	 */
+	public Duration getEjectionTime() {
+		return this.ejectionTime;
+	}
+
+	/**
+	 * Configure the {@link Clock} to use to determine ejection periods.
+	 * <p>By default, {@link Clock#systemUTC()} is used.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock is required");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the configured clock for ejection periods.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Return the number of requests in flight for the given endpoint.
+	 * @param endpoint the base URI of the endpoint
+	 */
+	public int getActiveRequestCount(URI endpoint) {
+		Endpoint state = this.endpoints.get(endpoint);
+		return (state != null ? state.activeRequests.get() : 0);
+	}
+
+	/**
+	 * Whether the given endpoint is currently ejected.
+	 * @param endpoint the base URI of the endpoint
+	 */
+	public boolean isEjected(URI endpoint) {
+		Endpoint state = this.endpoints.get(endpoint);
+		return (state != null && state.isEjected(this.clock.millis()));
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			Endpoint endpoint = selectEndpoint();
+			if (endpoint == null) {
+				return Mono.error(new WebClientRequestException(
+						new IllegalStateException("No endpoint available for " + request.url()),
+						request.method(), request.url(), request.headers()));
+			}
+			AtomicBoolean released = new AtomicBoolean();
+			return Mono.defer(() -> next.exchange(
+							ClientRequest.from(request).url(endpoint.resolve(request.url())).build()))
+					.doOnNext(response -> {
+						if (released.compareAndSet(false, true)) {
+							endpoint.release(response.rawStatusCode() < 500, this.clock.millis());
+						}
+					})
+					.doOnError(ex -> {
+						if (released.compareAndSet(false, true)) {
+							endpoint.release(false, this.clock.millis());
+						}
+					})
+					.doFinally(signalType -> {
+						// Cancelled or completed without a response
+						if (released.compareAndSet(false, true)) {
+							endpoint.activeRequests.decrementAndGet();
+						}
+					});
+		});
+	}
+
+	/**
+	 * Select an endpoint with the power of two choices, and reserve a request
+	 * slot on it.
+	 * @return the endpoint, or {@code null} if none is below its request limit
+	 */
+	@Nullable
+	private Endpoint selectEndpoint() {
+		Collection<URI> uris = this.endpointsSupplier.get();
+		Assert.state(!uris.isEmpty(), "No endpoints configured");
+		long now = this.clock.millis();
+		List<Endpoint> candidates = new ArrayList<>(uris.size());
+		List<Endpoint> ejected = new ArrayList<>(0);
+		for (URI uri : uris) {
+			Endpoint endpoint = this.endpoints.computeIfAbsent(uri, key -> new Endpoint(key));
+			if (endpoint.activeRequests.get() >= this.maxRequestsPerEndpoint) {
+				continue;
+			}
+			(endpoint.isEjected(now) ? ejected : candidates).add(endpoint);
+		}
+		if (this.endpoints.size() > uris.size()) {
+			this.endpoints.keySet().retainAll(uris);
+		}
+		if (candidates.isEmpty()) {
+			candidates = ejected;
+		}
+		while (!candidates.isEmpty()) {
+			Endpoint endpoint = choose(candidates);
+			if (endpoint.tryAcquire(this.maxRequestsPerEndpoint)) {
+				return endpoint;
+			}
+			// Lost a race for the last request slot
+			candidates.remove(endpoint);
+		}
+		return null;
+	}
+
+	private static Endpoint choose(List<Endpoint> candidates) {
+		int size = candidates.size();
+		if (size == 1) {
+			return candidates.get(0);
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(size);
+		int second = random.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		Endpoint endpoint1 = candidates.get(first);
+		Endpoint endpoint2 = candidates.get(second);
+		return (endpoint1.activeRequests.get() <= endpoint2.activeRequests.get() ? endpoint1 : endpoint2);
+	}
+
+
+	/**
+	 * Load and health state of a single endpoint.
+	 */
+	private final class Endpoint {
+
+		private final URI uri;
+
+		private final AtomicInteger activeRequests = new AtomicInteger();
+
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		private volatile long ejectedUntil;
+
+		Endpoint(URI uri) {
+			this.uri = uri;
+		}
+
+		boolean isEjected(long now) {
+			return (this.ejectedUntil > now);
+		}
+
+		boolean tryAcquire(int maxRequests) {
+			while (true) {
+				int count = this.activeRequests.get();
+				if (count >= maxRequests) {
+					return false;
+				}
+				if (this.activeRequests.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+		}
+
+		void release(boolean success, long now) {
+			this.activeRequests.decrementAndGet();
+			if (success) {
+				this.consecutiveFailures.set(0);
+			}
+			else if (this.consecutiveFailures.incrementAndGet() >= maxConsecutiveFailures) {
+				this.consecutiveFailures.set(0);
+				this.ejectedUntil = now + ejectionTime.toMillis();
+			}
+		}
+
+		URI resolve(URI url) {
+			return UriComponentsBuilder.fromUri(url)
+					.scheme(this.uri.getScheme())
+					.host(this.uri.getHost())
+					.port(this.uri.getPort())
+					.build(true)
+					.toUri();
+		}
+	}
+
+}
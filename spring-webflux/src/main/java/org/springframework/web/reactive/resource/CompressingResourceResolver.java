@@ -0,0 +1,346 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Resolver that delegates to the chain, and if a compressible resource is found
+ * and the "Accept-Encoding" request header allows for "gzip", returns a gzip
+ * compressed variant of it. Compressed variants are created on first request, on
+ * the {@link reactor.core.scheduler.Schedulers#boundedElastic() bounded elastic}
+ * scheduler since reading and compressing is blocking, and are kept in a cache
+ * that is bounded by the total number of compressed bytes, with the least
+ * recently used variants evicted first.
+ *
+ * <p>Compressed variants are exposed with {@code Content-Encoding}, a
+ * {@code Vary: Accept-Encoding} header, and an {@code ETag} derived from the
+ * compressed content, so that the identity and gzip representations of a
+ * resource are never confused by clients or intermediate caches.
+ *
+ * <p>Only an explicit {@code gzip} entry with a non-zero quality in the
+ * "Accept-Encoding" header enables compression, not a {@code *} wildcard,
+ * consistent with the cache keys of a {@link CachingResourceResolver} that
+ * is ordered ahead of this resolver.
+ *
+ * <p>This resolver is meant as an alternative to an {@link EncodedResourceResolver}
+ * for resources that are not pre-compressed at build time. If both are used, the
+ * {@code EncodedResourceResolver} should come first: resources that it already
+ * resolved to an encoded variant are returned as they are.
+ *
+ * <p>Note that this resolver must be ordered ahead of a
+ * {@link VersionResourceResolver} with a content-based, version strategy to
+ * ensure the version calculation is not impacted by the encoding.
+ *
+ * @since 6.0
+ * @see EncodedResourceResolver
+ */
+public class CompressingResourceResolver extends AbstractResourceResolver {
+
+	/**
+	 * The default compressible media types.
+	 */
+	public static final List<MediaType> DEFAULT_MEDIA_TYPES = Arrays.asList(
+			MediaType.parseMediaType("text/*"), MediaType.parseMediaType("application/javascript"),
+			MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.parseMediaType("image/svg+xml"));
+
+	private static final String GZIP_CODING = "gzip";
+
+
+	private final List<MediaType> mediaTypes = new ArrayList<>(DEFAULT_MEDIA_TYPES);
+
+	private long minContentLength = 1024;
+
+	private long cacheLimit = 10 * 1024 * 1024;
+
+	private final Map<CacheKey, CompressedResource> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cacheSize;
+
+
+	/**
+	 * Configure the media types of resources to compress.
+	 * <p>By default, text, JavaScript, JSON, XML and SVG resources are compressed.
+	 * @param mediaTypes one or more media types, possibly with wildcards
+	 */
+	public void setMediaTypes(List<MediaType> mediaTypes) {
+		Assert.notEmpty(mediaTypes, "At least one media type expected");
+		this.mediaTypes.clear();
+		this.mediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return a read-only list with the media types of resources to compress.
+	 */
+	public List<MediaType> getMediaTypes() {
+		return Collections.unmodifiableList(this.mediaTypes);
+	}
+
+	/**
+	 * Configure the minimum content length of resources to compress, since
+	 * compressing very small resources is not worth the overhead.
+	 * <p>By default this is set to 1024 bytes.
+	 */
+	public void setMinContentLength(long minContentLength) {
+		this.minContentLength = minContentLength;
+	}
+
+	/**
+	 * Return the minimum content length of resources to compress.
+	 */
+	public long getMinContentLength() {
+		return this.minContentLength;
+	}
+
+	/**
+	 * Configure the maximum total number of compressed bytes to cache.
+	 * Resources whose content length exceeds this limit are not compressed.
+	 * <p>By default this is set to 10M.
+	 */
+	public void setCacheLimit(long cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+	/**
+	 * Return the maximum total number of compressed bytes to cache.
+	 */
+	public long getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+
+	@Override
+	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+			String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveResource(exchange, requestPath, locations).flatMap(resource -> {
+			if (exchange == null || !acceptsGzip(exchange)) {
+				return Mono.just(resource);
+			}
+			CacheKey key;
+			try {
+				if (!isCompressible(resource)) {
+					return Mono.just(resource);
+				}
+				key = new CacheKey(resource.getDescription(), resource.lastModified(), resource.contentLength());
+			}
+			catch (IOException ex) {
+				logCompressionFailure(exchange, resource, ex);
+				return Mono.just(resource);
+			}
+			synchronized (this.cache) {
+				CompressedResource compressed = this.cache.get(key);
+				if (compressed != null) {
+					return Mono.just(compressed);
+				}
+			}
+			// Reading and compressing the resource is blocking
+			return Mono.<Resource>fromCallable(() -> compressAndCache(key, resource))
+					.subscribeOn(Schedulers.boundedElastic())
+					.onErrorResume(IOException.class, ex -> {
+						logCompressionFailure(exchange, resource, ex);
+						return Mono.just(resource);
+					});
+		});
+	}
+
+	private static boolean acceptsGzip(ServerWebExchange exchange) {
+		List<String> headerValues = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+		if (headerValues == null) {
+			return false;
+		}
+		for (String headerValue : headerValues) {
+			for (String coding : StringUtils.tokenizeToStringArray(headerValue, ",")) {
+				String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+				// "*" is not honored: the CachingResourceResolver key only reflects listed codings
+				if (parts.length > 0 && parts[0].equalsIgnoreCase(GZIP_CODING)) {
+					return (getQuality(parts) > 0);
+				}
+			}
+		}
+		return false;
+	}
+
+	private static double getQuality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String param = parts[i];
+			if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+				try {
+					return Double.parseDouble(param.substring(2));
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private boolean isCompressible(Resource resource) throws IOException {
+		if (resource instanceof HttpResource httpResource &&
+				httpResource.getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return false;
+		}
+		MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(null);
+		if (mediaType == null || this.mediaTypes.stream().noneMatch(type -> type.includes(mediaType))) {
+			return false;
+		}
+		long contentLength = resource.contentLength();
+		return (contentLength >= this.minContentLength && contentLength <= this.cacheLimit);
+	}
+
+	private Resource compressAndCache(CacheKey key, Resource resource) throws IOException {
+		CompressedResource compressed = new CompressedResource(resource, compress(resource));
+		if (logger.isTraceEnabled()) {
+			logger.trace("Compressed [" + resource.getFilename() + "] from " +
+					key.contentLength() + " to " + compressed.contentLength() + " bytes");
+		}
+		synchronized (this.cache) {
+			CompressedResource existing = this.cache.put(key, compressed);
+			this.cacheSize += compressed.contentLength() - (existing != null ? existing.contentLength() : 0);
+			Iterator<CompressedResource> it = this.cache.values().iterator();
+			while (this.cacheSize > this.cacheLimit && it.hasNext()) {
+				this.cacheSize -= it.next().contentLength();
+				it.remove();
+			}
+		}
+		return compressed;
+	}
+
+	private void logCompressionFailure(ServerWebExchange exchange, Resource resource, IOException ex) {
+		logger.trace(exchange.getLogPrefix() + "Could not compress resource [" + resource.getFilename() + "]", ex);
+	}
+
+	private static byte[] compress(Resource resource) throws IOException {
+		FastByteArrayOutputStream out = new FastByteArrayOutputStream((int) resource.contentLength() / 2 + 64);
+		try (InputStream in = resource.getInputStream(); GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			StreamUtils.copy(in, gzip);
+		}
+		return out.toByteArrayUnsafe();
+	}
+
+	@Override
+	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+
+	private record CacheKey(String description, long lastModified, long contentLength) {
+	}
+
+
+	/**
+	 * A gzip compressed {@link HttpResource}, held in memory.
+	 */
+	static final class CompressedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final byte[] content;
+
+		private final long lastModified;
+
+		private final String eTag;
+
+		CompressedResource(Resource original, byte[] content) throws IOException {
+			this.original = original;
+			this.content = content;
+			this.lastModified = original.lastModified();
+			this.eTag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(this.content);
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.length;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "gzip compressed " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers;
+			if (this.original instanceof HttpResource) {
+				headers = ((HttpResource) this.original).getResponseHeaders();
+			}
+			else {
+				headers = new HttpHeaders();
+			}
+			headers.add(HttpHeaders.CONTENT_ENCODING, GZIP_CODING);
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			headers.setETag(this.eTag);
+			return headers;
+		}
+	}
+
+}
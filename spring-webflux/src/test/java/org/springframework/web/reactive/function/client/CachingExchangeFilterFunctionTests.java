@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CachingExchangeFilterFunction}.
+ */
+public class CachingExchangeFilterFunctionTests {
+
+	private final ClientRequest request =
+			ClientRequest.create(HttpMethod.GET, URI.create("https://example.com/reference-data")).build();
+
+	private final CachingExchangeFilterFunction filter = new CachingExchangeFilterFunction();
+
+	private final List<ClientRequest> sentRequests = new ArrayList<>();
+
+	private final List<ClientResponse> responses = new ArrayList<>();
+
+	private final ExchangeFunction exchange = request -> {
+		this.sentRequests.add(request);
+		return Mono.just(this.responses.remove(0));
+	};
+
+
+	@Test
+	public void serveFreshResponseFromCache() {
+		this.responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		assertThat(this.sentRequests).hasSize(1);
+	}
+
+	@Test
+	public void cacheResponseOnlyOnceBodyConsumed() {
+		this.responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+		this.responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+
+		this.filter.filter(this.request, this.exchange).flatMap(ClientResponse::releaseBody).block();
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		assertThat(this.sentRequests).hasSize(2);
+	}
+
+	@Test
+	public void revalidateStaleResponse() {
+		this.responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache").header(HttpHeaders.ETAG, "\"v1\"")
+				.body("foo").build());
+		this.responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+
+		assertThat(this.sentRequests).hasSize(2);
+		assertThat(this.sentRequests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+	}
+
+	@Test
+	public void serveCachedResponseWithOriginalStrategies() {
+		ExchangeStrategies strategies = ExchangeStrategies.builder()
+				.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024))
+				.build();
+		this.responses.add(ClientResponse.create(HttpStatus.OK, strategies)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		ClientResponse cached = this.filter.filter(this.request, this.exchange).block();
+		assertThat(cached).isNotNull();
+		assertThat(cached.strategies()).isSameAs(strategies);
+		assertThat(this.sentRequests).hasSize(1);
+
+		ExchangeStrategies override = ExchangeStrategies.withDefaults();
+		this.filter.setExchangeStrategies(override);
+		cached = this.filter.filter(this.request, this.exchange).block();
+		assertThat(cached).isNotNull();
+		assertThat(cached.strategies()).isSameAs(override);
+	}
+
+	@Test
+	public void serveCachedResponseWithOriginalStrategiesAfterGarbageCollection() {
+		ExchangeStrategies strategies = ExchangeStrategies.builder()
+				.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024))
+				.build();
+		this.responses.add(ClientResponse.create(HttpStatus.OK, strategies)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		ClientResponse cached = this.filter.filter(this.request, this.exchange).block();
+		assertThat(cached).isNotNull();
+		assertThat(cached.strategies()).isSameAs(strategies);
+		assertThat(this.sentRequests).hasSize(1);
+	}
+
+	@Test
+	public void invalidateOnUnsafeMethod() {
+		this.responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60").body("foo").build());
+		this.responses.add(ClientResponse.create(HttpStatus.NO_CONTENT).build());
+		this.responses.add(ClientResponse.create(HttpStatus.OK).body("bar").build());
+
+		StepVerifier.create(exchange()).expectNext("foo").verifyComplete();
+		ClientRequest post = ClientRequest.from(this.request).method(HttpMethod.POST).build();
+		this.filter.filter(post, this.exchange).flatMap(ClientResponse::releaseBody).block();
+		StepVerifier.create(exchange()).expectNext("bar").verifyComplete();
+		assertThat(this.sentRequests).hasSize(3);
+	}
+
+
+	private Mono<String> exchange() {
+		return this.filter.filter(this.request, this.exchange).flatMap(response -> response.bodyToMono(String.class));
+	}
+
+}
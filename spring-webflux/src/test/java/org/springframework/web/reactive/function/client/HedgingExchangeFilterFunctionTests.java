@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HedgingExchangeFilterFunction}.
+ */
+public class HedgingExchangeFilterFunctionTests {
+
+	private static final URI DEFAULT_URL = URI.create("https://example.com");
+
+	private final HedgingExchangeFilterFunction filter = new HedgingExchangeFilterFunction(0.9, 10);
+
+	private final ClientResponse response = ClientResponse.create(HttpStatus.OK).build();
+
+	private final AtomicInteger exchangeCount = new AtomicInteger();
+
+
+	@Test
+	public void noHedgeForFastResponse() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		StepVerifier.withVirtualTime(() -> this.filter.filter(request, r -> {
+					this.exchangeCount.incrementAndGet();
+					return Mono.just(this.response).delayElement(Duration.ofMillis(500));
+				}))
+				.thenAwait(Duration.ofMillis(500))
+				.expectNext(this.response)
+				.verifyComplete();
+
+		assertThat(this.exchangeCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void hedgeAndCancelSlowRequest() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		ExchangeFunction exchange = r -> {
+			if (this.exchangeCount.getAndIncrement() == 0) {
+				return Mono.<ClientResponse>never().doOnCancel(() -> cancelled.set(true));
+			}
+			return Mono.just(this.response);
+		};
+
+		StepVerifier.withVirtualTime(() -> this.filter.filter(request, exchange))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(999))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNext(this.response)
+				.verifyComplete();
+
+		assertThat(this.exchangeCount.get()).isEqualTo(2);
+		assertThat(cancelled.get()).isTrue();
+	}
+
+	@Test
+	public void hedgedResponseWinsWhenPrimaryFails() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ExchangeFunction exchange = r -> {
+			if (this.exchangeCount.getAndIncrement() == 0) {
+				return Mono.error(new IllegalStateException("primary"));
+			}
+			return Mono.just(this.response);
+		};
+
+		StepVerifier.withVirtualTime(() -> this.filter.filter(request, exchange))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(999))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNext(this.response)
+				.verifyComplete();
+
+		assertThat(this.exchangeCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void primaryErrorWhenBothRequestsFail() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ExchangeFunction exchange = r -> Mono.error(
+				new IllegalStateException(this.exchangeCount.getAndIncrement() == 0 ? "primary" : "hedged"));
+
+		StepVerifier.withVirtualTime(() -> this.filter.filter(request, exchange))
+				.expectSubscription()
+				.thenAwait(Duration.ofSeconds(1))
+				.expectErrorMatches(ex -> ex instanceof IllegalStateException && ex.getMessage().equals("primary"))
+				.verify();
+
+		assertThat(this.exchangeCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void noHedgeForNonIdempotentMethod() {
+		ClientRequest request = ClientRequest.create(HttpMethod.POST, DEFAULT_URL).build();
+
+		StepVerifier.withVirtualTime(() -> this.filter.filter(request, r -> {
+					this.exchangeCount.incrementAndGet();
+					return Mono.never();
+				}))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofSeconds(5))
+				.thenCancel()
+				.verify();
+
+		assertThat(this.exchangeCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void hedgeDelayFromObservedResponseTimes() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		assertThat(this.filter.getHedgeDelay()).isEqualTo(Duration.ofSeconds(1));
+
+		StepVerifier.withVirtualTime(() -> Flux.range(1, 10).concatMap(i -> this.filter.filter(request, r ->
+						Mono.just(this.response).delayElement(Duration.ofMillis(i * 10)))))
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNextCount(10)
+				.verifyComplete();
+
+		assertThat(this.filter.getHedgeDelay()).isEqualTo(Duration.ofMillis(90));
+
+		this.filter.setMinDelay(Duration.ofMillis(200));
+		assertThat(this.filter.getHedgeDelay()).isEqualTo(Duration.ofMillis(200));
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LoadBalancingExchangeFilterFunction}.
+ */
+public class LoadBalancingExchangeFilterFunctionTests {
+
+	private static final URI ENDPOINT_1 = URI.create("http://replica1:8080");
+
+	private static final URI ENDPOINT_2 = URI.create("https://replica2:8443");
+
+	private final ClientRequest request =
+			ClientRequest.create(HttpMethod.GET, URI.create("https://example.com/path?q=1%202")).build();
+
+	private final List<URI> sentUrls = new ArrayList<>();
+
+	private final LoadBalancingExchangeFilterFunction filter =
+			new LoadBalancingExchangeFilterFunction(List.of(ENDPOINT_1, ENDPOINT_2));
+
+
+	@Test
+	public void rewriteUrl() {
+		LoadBalancingExchangeFilterFunction filter = new LoadBalancingExchangeFilterFunction(List.of(ENDPOINT_2));
+		filter.filter(this.request, respondWith(HttpStatus.OK)).block();
+
+		assertThat(this.sentUrls).containsExactly(URI.create("https://replica2:8443/path?q=1%202"));
+		assertThat(filter.getActiveRequestCount(ENDPOINT_2)).isEqualTo(0);
+	}
+
+	@Test
+	public void selectLeastLoadedEndpoint() {
+		Disposable pending = this.filter.filter(this.request, respondNever()).subscribe();
+		URI busyEndpoint = endpointOf(this.sentUrls.get(0));
+		assertThat(this.filter.getActiveRequestCount(busyEndpoint)).isEqualTo(1);
+
+		for (int i = 0; i < 10; i++) {
+			this.sentUrls.clear();
+			this.filter.filter(this.request, respondWith(HttpStatus.OK)).block();
+			assertThat(endpointOf(this.sentUrls.get(0))).isNotEqualTo(busyEndpoint);
+		}
+
+		pending.dispose();
+		assertThat(this.filter.getActiveRequestCount(busyEndpoint)).isEqualTo(0);
+	}
+
+	@Test
+	public void maxRequestsPerEndpoint() {
+		this.filter.setMaxRequestsPerEndpoint(1);
+		Disposable pending1 = this.filter.filter(this.request, respondNever()).subscribe();
+		Disposable pending2 = this.filter.filter(this.request, respondNever()).subscribe();
+		assertThat(this.filter.getActiveRequestCount(ENDPOINT_1)).isEqualTo(1);
+		assertThat(this.filter.getActiveRequestCount(ENDPOINT_2)).isEqualTo(1);
+
+		StepVerifier.create(this.filter.filter(this.request, respondWith(HttpStatus.OK)))
+				.expectError(WebClientRequestException.class)
+				.verify();
+
+		pending1.dispose();
+		StepVerifier.create(this.filter.filter(this.request, respondWith(HttpStatus.OK)))
+				.expectNextCount(1)
+				.verifyComplete();
+		pending2.dispose();
+	}
+
+	@Test
+	public void ejectFailingEndpoint() {
+		this.filter.setMaxConsecutiveFailures(2);
+		Clock clock = this.filter.getClock();
+		ExchangeFunction exchange = r -> {
+			this.sentUrls.add(r.url());
+			HttpStatus status = (endpointOf(r.url()).equals(ENDPOINT_1) ?
+					HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK);
+			return Mono.just(ClientResponse.create(status).build());
+		};
+
+		for (int i = 0; i < 100 && !this.filter.isEjected(ENDPOINT_1); i++) {
+			this.filter.filter(this.request, exchange).block();
+		}
+		assertThat(this.filter.isEjected(ENDPOINT_1)).isTrue();
+
+		for (int i = 0; i < 10; i++) {
+			this.filter.filter(this.request, exchange).block();
+		}
+		assertThat(this.sentUrls.stream().filter(url -> endpointOf(url).equals(ENDPOINT_1))).hasSize(2);
+
+		this.filter.setClock(Clock.offset(clock, Duration.ofSeconds(31)));
+		assertThat(this.filter.isEjected(ENDPOINT_1)).isFalse();
+	}
+
+	@Test
+	public void useEjectedEndpointsIfNoneHealthy() {
+		LoadBalancingExchangeFilterFunction filter = new LoadBalancingExchangeFilterFunction(List.of(ENDPOINT_1));
+		filter.setMaxConsecutiveFailures(1);
+
+		filter.filter(this.request, r -> Mono.error(new IllegalStateException()))
+				.onErrorResume(ex -> Mono.empty())
+				.block();
+		assertThat(filter.isEjected(ENDPOINT_1)).isTrue();
+
+		filter.filter(this.request, respondWith(HttpStatus.OK)).block();
+		assertThat(this.sentUrls).hasSize(1);
+		assertThat(filter.isEjected(ENDPOINT_1)).isTrue();
+	}
+
+	@Test
+	public void endpointsSupplier() {
+		List<URI> endpoints = new ArrayList<>(List.of(ENDPOINT_1));
+		LoadBalancingExchangeFilterFunction filter = new LoadBalancingExchangeFilterFunction(() -> endpoints);
+
+		filter.filter(this.request, respondWith(HttpStatus.OK)).block();
+		endpoints.set(0, ENDPOINT_2);
+		filter.filter(this.request, respondWith(HttpStatus.OK)).block();
+
+		assertThat(this.sentUrls).extracting(LoadBalancingExchangeFilterFunctionTests::endpointOf)
+				.containsExactly(ENDPOINT_1, ENDPOINT_2);
+	}
+
+
+	private ExchangeFunction respondWith(HttpStatus status) {
+		return r -> {
+			this.sentUrls.add(r.url());
+			return Mono.just(ClientResponse.create(status).build());
+		};
+	}
+
+	private ExchangeFunction respondNever() {
+		return r -> {
+			this.sentUrls.add(r.url());
+			return Mono.never();
+		};
+	}
+
+	private static URI endpointOf(URI url) {
+		return URI.create(url.getScheme() + "://" + url.getHost() + ":" + url.getPort());
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompressingResourceResolver}.
+ */
+public class CompressingResourceResolverTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+
+	private final CompressingResourceResolver compressingResolver = new CompressingResourceResolver();
+
+	private ResourceResolverChain resolver;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.compressingResolver.setMinContentLength(0);
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.compressingResolver);
+		resolvers.add(new PathResourceResolver());
+		this.resolver = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveCompressed() throws IOException {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.resolver.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+
+		Resource original = new ClassPathResource("test/foo.css", getClass());
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("foo.css");
+		assertThat(StreamUtils.copyToByteArray(new GZIPInputStream(resolved.getInputStream())))
+				.isEqualTo(StreamUtils.copyToByteArray(original.getInputStream()));
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+		assertThat(headers.getETag()).startsWith("\"").endsWith("\"");
+
+		Resource cached = this.resolver.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+		assertThat(cached).isSameAs(resolved);
+	}
+
+	@Test
+	public void resolveWithoutAcceptEncoding() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(""));
+		Resource resolved = this.resolver.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveWithGzipRefused() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "br, gzip;q=0"));
+		Resource resolved = this.resolver.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveWithWildcardAcceptEncoding() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "br;q=1.0, *;q=0.5"));
+		Resource resolved = this.resolver.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveWithCachingResourceResolver() {
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(new CachingResourceResolver(new ConcurrentMapCache("resourceCache")));
+		resolvers.add(this.compressingResolver);
+		resolvers.add(new PathResourceResolver());
+		ResourceResolverChain chain = new DefaultResourceResolverChain(resolvers);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "*"));
+		Resource resolved = chain.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+
+		exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		resolved = chain.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+
+		exchange = MockServerWebExchange.from(MockServerHttpRequest.get(""));
+		resolved = chain.resolveResource(exchange, "foo.css", this.locations).block(TIMEOUT);
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
@@ -28,6 +29,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponseWrapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.logging.Log;
@@ -38,6 +40,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -89,6 +92,11 @@ import org.springframework.web.util.UrlPathHelper;
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
  *
+ * <p>File system resources may be handed to the container for a "sendfile"
+ * transfer if the container advertises support for it through the
+ * {@code "org.apache.tomcat.sendfile.support"} request attribute, as Tomcat does.
+ * This is off by default, see {@link #setUseSendfile}.
+ *
  * @author Keith Donald
  * @author Jeremy Grelle
  * @author Juergen Hoeller
@@ -104,6 +112,22 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	/**
+	 * The default minimum size for a "sendfile" transfer: 48 KB, as for
+	 * Tomcat's {@code sendfileSize} connector setting.
+	 * @since 6.0
+	 * @see #setSendfileMinSize
+	 */
+	public static final long DEFAULT_SENDFILE_MIN_SIZE = 48 * 1024;
+
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -144,6 +168,10 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private boolean optimizeLocations = false;
 
+	private boolean useSendfile = false;
+
+	private long sendfileMinSize = DEFAULT_SENDFILE_MIN_SIZE;
+
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
@@ -408,6 +436,51 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.optimizeLocations;
 	}
 
+	/**
+	 * Set whether file system resources should be handed to the Servlet container
+	 * for a "sendfile" transfer (e.g. {@code FileChannel.transferTo}) instead of
+	 * being copied through the response output stream, for full responses as well
+	 * as for single-range responses. This only applies if the container indicates
+	 * support through the {@code "org.apache.tomcat.sendfile.support"} request
+	 * attribute, as Tomcat's NIO and NIO2 connectors do, and if the response
+	 * is not wrapped: the response body bypasses any response wrapper and the
+	 * filter behind it, e.g. for ETag calculation or compression.
+	 * <p>This option is disabled by default.
+	 * @since 6.0
+	 * @see #setSendfileMinSize
+	 */
+	public void setUseSendfile(boolean useSendfile) {
+		this.useSendfile = useSendfile;
+	}
+
+	/**
+	 * Return whether file system resources are handed to the Servlet container
+	 * for a "sendfile" transfer, if supported.
+	 * @since 6.0
+	 */
+	public boolean isUseSendfile() {
+		return this.useSendfile;
+	}
+
+	/**
+	 * Set the minimum number of bytes to transfer for a "sendfile" transfer to
+	 * be used, with smaller content copied through the response output stream.
+	 * <p>Default is {@value #DEFAULT_SENDFILE_MIN_SIZE}.
+	 * @since 6.0
+	 * @see #setUseSendfile
+	 */
+	public void setSendfileMinSize(long sendfileMinSize) {
+		this.sendfileMinSize = sendfileMinSize;
+	}
+
+	/**
+	 * Return the minimum number of bytes to transfer for a "sendfile" transfer.
+	 * @since 6.0
+	 */
+	public long getSendfileMinSize() {
+		return this.sendfileMinSize;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -584,6 +657,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		// Content phase
 		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
+			if (isSendfileApplicable(request, response, resource)) {
+				long length = resource.contentLength();
+				if (length >= getSendfileMinSize()) {
+					response.setContentLengthLong(length);
+					applySendfile(request, resource, 0, length);
+					return;
+				}
+			}
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
 		}
@@ -592,9 +673,20 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, resource);
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				if (regions.size() == 1 && regions.get(0).getCount() >= getSendfileMinSize() &&
+						isSendfileApplicable(request, response, resource)) {
+					ResourceRegion region = regions.get(0);
+					long start = region.getPosition();
+					long end = start + region.getCount();
+					response.setHeader(HttpHeaders.CONTENT_RANGE,
+							"bytes " + start + '-' + (end - 1) + '/' + resource.contentLength());
+					response.setContentLengthLong(region.getCount());
+					applySendfile(request, resource, start, end);
+					return;
+				}
+				this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + resource.contentLength());
@@ -603,6 +695,27 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	private boolean isSendfileApplicable(HttpServletRequest request, HttpServletResponse response, Resource resource) {
+		// A response wrapper and the filter behind it would not see the response body
+		return (isUseSendfile() && HttpMethod.GET.matches(request.getMethod()) &&
+				!(response instanceof ServletResponseWrapper) &&
+				Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE)) &&
+				resource.isFile());
+	}
+
+	private void applySendfile(HttpServletRequest request, Resource resource, long start, long end)
+			throws IOException {
+
+		File file = resource.getFile();
+		if (logger.isTraceEnabled()) {
+			logger.trace("Using sendfile for " + file + " [" + start + ".." + end + "]");
+		}
+		// The container requires a canonical path, with start and end (exclusive) as Long values
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
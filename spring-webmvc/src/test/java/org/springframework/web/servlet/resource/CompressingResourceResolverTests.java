@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompressingResourceResolver}.
+ */
+public class CompressingResourceResolverTests {
+
+	private final CompressingResourceResolver compressingResolver = new CompressingResourceResolver();
+
+	private ResourceResolverChain resolver;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.compressingResolver.setMinContentLength(0);
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.compressingResolver);
+		resolvers.add(new PathResourceResolver());
+		this.resolver = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveCompressed() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip, deflate");
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		Resource original = new ClassPathResource("test/foo.css", getClass());
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("foo.css");
+		assertThat(resolved.contentLength()).isNotEqualTo(original.contentLength());
+		assertThat(StreamUtils.copyToByteArray(new GZIPInputStream(resolved.getInputStream())))
+				.isEqualTo(StreamUtils.copyToByteArray(original.getInputStream()));
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+		assertThat(headers.getETag()).startsWith("\"").endsWith("\"");
+	}
+
+	@Test
+	public void resolveCompressedFromCache() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource first = this.resolver.resolveResource(request, "foo.css", this.locations);
+		Resource second = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	public void resolveCompressedWithCacheLimitExceeded() {
+		this.compressingResolver.setCacheLimit(40);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource first = this.resolver.resolveResource(request, "foo.css", this.locations);
+		this.resolver.resolveResource(request, "foo.txt", this.locations);
+		Resource second = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(first).isInstanceOf(HttpResource.class);
+		assertThat(second).isInstanceOf(HttpResource.class).isNotSameAs(first);
+	}
+
+	@Test
+	public void resolveWithoutAcceptEncoding() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+		assertThat(resolved.getDescription()).isEqualTo(new ClassPathResource("test/foo.css", getClass()).getDescription());
+	}
+
+	@Test
+	public void resolveWithGzipRefused() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "br, gzip;q=0");
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveWithWildcardAcceptEncoding() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "br;q=1.0, *;q=0.5");
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveWithCachingResourceResolver() {
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(new CachingResourceResolver(new ConcurrentMapCache("resourceCache")));
+		resolvers.add(this.compressingResolver);
+		resolvers.add(new PathResourceResolver());
+		ResourceResolverChain chain = new DefaultResourceResolverChain(resolvers);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "*");
+		assertThat(chain.resolveResource(request, "foo.css", this.locations)).isNotInstanceOf(HttpResource.class);
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip;q=0.8");
+		assertThat(chain.resolveResource(request, "foo.css", this.locations)).isInstanceOf(HttpResource.class);
+
+		request = new MockHttpServletRequest();
+		assertThat(chain.resolveResource(request, "foo.css", this.locations)).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveNonCompressibleMediaType() {
+		this.compressingResolver.setMediaTypes(List.of(MediaType.APPLICATION_JSON));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveBelowMinContentLength() {
+		this.compressingResolver.setMinContentLength(1024);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resolved = this.resolver.resolveResource(request, "foo.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+}
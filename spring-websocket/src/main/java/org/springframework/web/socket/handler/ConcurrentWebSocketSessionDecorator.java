@@ -17,17 +17,26 @@
 package org.springframework.web.socket.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
@@ -41,6 +50,17 @@ import org.springframework.web.socket.WebSocketSession;
  * At that time, the specified buffer-size limit and send-time limit will be checked
  * and the session will be closed if the limits are exceeded.
  *
+ * <p>Messages are buffered in a non-blocking queue, so threads sending to a slow
+ * client never block on each other: the thread holding the flush lock drains the
+ * buffer, while all other threads return right after adding their message.
+ * Once the buffer-size limit is exceeded, an {@link OverflowPolicy} decides
+ * whether to terminate the session or which buffered messages to drop.
+ *
+ * <p>The current buffer size, the number of buffered messages, the number of
+ * dropped messages, the age of the oldest buffered message as well as the time
+ * spent in the current send operation are exposed as per-session metrics for
+ * monitoring slow clients.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 4.0.3
@@ -54,16 +74,20 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 
 	private final int bufferSizeLimit;
 
-	private final OverflowStrategy overflowStrategy;
+	private final OverflowPolicy overflowPolicy;
 
 	@Nullable
 	private Consumer<WebSocketMessage<?>> preSendCallback;
 
 
-	private final Queue<WebSocketMessage<?>> buffer = new LinkedBlockingQueue<>();
+	private final Queue<BufferedMessage> buffer = new ConcurrentLinkedQueue<>();
 
 	private final AtomicInteger bufferSize = new AtomicInteger();
 
+	private final AtomicInteger bufferedMessageCount = new AtomicInteger();
+
+	private final AtomicLong droppedMessageCount = new AtomicLong();
+
 	private volatile long sendStartTime;
 
 	private volatile boolean limitExceeded;
@@ -97,10 +121,27 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 	public ConcurrentWebSocketSessionDecorator(
 			WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit, OverflowStrategy overflowStrategy) {
 
+		this(delegate, sendTimeLimit, bufferSizeLimit, (overflowStrategy == OverflowStrategy.DROP ?
+				OverflowPolicy.dropOldest() : OverflowPolicy.terminate()));
+	}
+
+	/**
+	 * Constructor that also specifies a custom overflow policy to use.
+	 * @param delegate the {@code WebSocketSession} to delegate to
+	 * @param sendTimeLimit the send-time limit (milliseconds)
+	 * @param bufferSizeLimit the buffer-size limit (number of bytes)
+	 * @param overflowPolicy the policy to apply once the buffer-size limit
+	 * is exceeded
+	 * @since 6.0
+	 */
+	public ConcurrentWebSocketSessionDecorator(
+			WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit, OverflowPolicy overflowPolicy) {
+
 		super(delegate);
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
 		this.sendTimeLimit = sendTimeLimit;
 		this.bufferSizeLimit = bufferSizeLimit;
-		this.overflowStrategy = overflowStrategy;
+		this.overflowPolicy = overflowPolicy;
 	}
 
 
@@ -127,6 +168,35 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 		return this.bufferSize.get();
 	}
 
+	/**
+	 * Return the current number of buffered messages, waiting to be sent.
+	 * @since 6.0
+	 */
+	public int getBufferedMessageCount() {
+		return this.bufferedMessageCount.get();
+	}
+
+	/**
+	 * Return the total number of messages dropped from the buffer so far
+	 * by the {@link OverflowPolicy}.
+	 * @since 6.0
+	 */
+	public long getDroppedMessageCount() {
+		return this.droppedMessageCount.get();
+	}
+
+	/**
+	 * Return the time (milliseconds) since the oldest message in the buffer
+	 * was added, or 0 if the buffer is empty. Along with the
+	 * {@link #getTimeSinceSendStarted() current send time}, this indicates
+	 * how far the client lags behind.
+	 * @since 6.0
+	 */
+	public long getOldestBufferedMessageAge() {
+		BufferedMessage oldest = this.buffer.peek();
+		return (oldest != null ? Math.max(0, System.currentTimeMillis() - oldest.bufferTime) : 0);
+	}
+
 	/**
 	 * Return the time (milliseconds) since the current send started,
 	 * or 0 if no send is currently in progress.
@@ -152,8 +222,9 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 			return;
 		}
 
-		this.buffer.add(message);
+		this.buffer.add(new BufferedMessage(message));
 		this.bufferSize.addAndGet(message.getPayloadLength());
+		this.bufferedMessageCount.incrementAndGet();
 
 		if (this.preSendCallback != null) {
 			this.preSendCallback.accept(message);
@@ -181,11 +252,17 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 		if (this.flushLock.tryLock()) {
 			try {
 				while (true) {
-					WebSocketMessage<?> message = this.buffer.poll();
-					if (message == null || shouldNotSend()) {
+					BufferedMessage buffered = this.buffer.poll();
+					if (buffered == null || shouldNotSend()) {
 						break;
 					}
+					if (!buffered.take()) {
+						// Dropped in the meantime
+						continue;
+					}
+					WebSocketMessage<?> message = buffered.message;
 					this.bufferSize.addAndGet(-message.getPayloadLength());
+					this.bufferedMessageCount.decrementAndGet();
 					this.sendStartTime = System.currentTimeMillis();
 					getDelegate().sendMessage(message);
 					this.sendStartTime = 0;
@@ -209,30 +286,7 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 					limitExceeded(reason);
 				}
 				else if (getBufferSize() > getBufferSizeLimit()) {
-					switch (this.overflowStrategy) {
-						case TERMINATE -> {
-							String format = "Buffer size %d bytes for session '%s' exceeds the allowed limit %d";
-							String reason = String.format(format, getBufferSize(), getId(), getBufferSizeLimit());
-							limitExceeded(reason);
-						}
-						case DROP -> {
-							int i = 0;
-							while (getBufferSize() > getBufferSizeLimit()) {
-								WebSocketMessage<?> message = this.buffer.poll();
-								if (message == null) {
-									break;
-								}
-								this.bufferSize.addAndGet(-message.getPayloadLength());
-								i++;
-							}
-							if (logger.isDebugEnabled()) {
-								logger.debug("Dropped " + i + " messages, buffer size: " + getBufferSize());
-							}
-						}
-						default ->
-							// Should never happen..
-							throw new IllegalStateException("Unexpected OverflowStrategy: " + this.overflowStrategy);
-					}
+					handleOverflow();
 				}
 			}
 			finally {
@@ -241,6 +295,39 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 		}
 	}
 
+	private void handleOverflow() {
+		List<BufferedMessage> snapshot = new ArrayList<>(this.buffer);
+		List<WebSocketMessage<?>> messages = new ArrayList<>(snapshot.size());
+		for (BufferedMessage buffered : snapshot) {
+			messages.add(buffered.message);
+		}
+		if (!this.overflowPolicy.handleOverflow(messages, getBufferSizeLimit())) {
+			String format = "Buffer size %d bytes for session '%s' exceeds the allowed limit %d";
+			String reason = String.format(format, getBufferSize(), getId(), getBufferSizeLimit());
+			limitExceeded(reason);
+		}
+		// The remaining messages are a subsequence of the snapshot
+		int dropped = 0;
+		int index = 0;
+		for (BufferedMessage buffered : snapshot) {
+			if (index < messages.size() && messages.get(index) == buffered.message) {
+				index++;
+			}
+			else if (buffered.take()) {
+				this.bufferSize.addAndGet(-buffered.message.getPayloadLength());
+				this.bufferedMessageCount.decrementAndGet();
+				dropped++;
+			}
+		}
+		if (dropped > 0) {
+			this.buffer.removeIf(BufferedMessage::isTaken);
+			this.droppedMessageCount.addAndGet(dropped);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Dropped " + dropped + " messages, buffer size: " + getBufferSize());
+			}
+		}
+	}
+
 	private void limitExceeded(String reason) {
 		this.limitExceeded = true;
 		throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
@@ -285,6 +372,7 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 	/**
 	 * Enum for options of what to do when the buffer fills up.
 	 * @since 5.1
+	 * @see OverflowPolicy
 	 */
 	public enum OverflowStrategy {
 
@@ -300,4 +388,110 @@ public class ConcurrentWebSocketSessionDecorator extends WebSocketSessionDecorat
 		DROP
 	}
 
+
+	/**
+	 * Policy to apply once the buffer-size limit is exceeded.
+	 * @since 6.0
+	 * @see #terminate()
+	 * @see #dropOldest()
+	 * @see #coalesce(Function)
+	 */
+	@FunctionalInterface
+	public interface OverflowPolicy {
+
+		/**
+		 * Make room in the buffer by removing messages from the given list,
+		 * or decide to terminate the session. Removed messages are dropped,
+		 * while adding messages to the list is not supported.
+		 * @param messages a mutable copy of the buffered messages, oldest first
+		 * @param bufferSizeLimit the buffer-size limit (number of bytes)
+		 * @return {@code true} to keep the session open, or {@code false} to
+		 * throw a {@link SessionLimitExceededException} that would result in
+		 * the session being terminated
+		 */
+		boolean handleOverflow(List<WebSocketMessage<?>> messages, int bufferSizeLimit);
+
+
+		/**
+		 * Return a policy that terminates the session, as
+		 * {@link OverflowStrategy#TERMINATE}.
+		 */
+		static OverflowPolicy terminate() {
+			return (messages, bufferSizeLimit) -> false;
+		}
+
+		/**
+		 * Return a policy that drops the oldest messages until the buffer is
+		 * within its limit again, as {@link OverflowStrategy#DROP}.
+		 */
+		static OverflowPolicy dropOldest() {
+			return (messages, bufferSizeLimit) -> {
+				long size = 0;
+				for (WebSocketMessage<?> message : messages) {
+					size += message.getPayloadLength();
+				}
+				int count = 0;
+				while (size > bufferSizeLimit && count < messages.size()) {
+					size -= messages.get(count++).getPayloadLength();
+				}
+				messages.subList(0, count).clear();
+				return true;
+			};
+		}
+
+		/**
+		 * Return a policy that drops messages superseded by a more recent
+		 * message with the same key, for example the previous state of an
+		 * entity, and then the oldest messages if the buffer is still above
+		 * its limit.
+		 * @param keyExtractor function that returns the key of a message,
+		 * or {@code null} for messages that are never superseded
+		 */
+		static OverflowPolicy coalesce(Function<WebSocketMessage<?>, ?> keyExtractor) {
+			Assert.notNull(keyExtractor, "Key extractor must not be null");
+			OverflowPolicy dropOldest = dropOldest();
+			return (messages, bufferSizeLimit) -> {
+				Set<Object> keys = new HashSet<>();
+				List<WebSocketMessage<?>> latest = new ArrayList<>(messages.size());
+				for (int i = messages.size() - 1; i >= 0; i--) {
+					WebSocketMessage<?> message = messages.get(i);
+					Object key = keyExtractor.apply(message);
+					if (key == null || keys.add(key)) {
+						latest.add(message);
+					}
+				}
+				Collections.reverse(latest);
+				messages.clear();
+				messages.addAll(latest);
+				return dropOldest.handleOverflow(messages, bufferSizeLimit);
+			};
+		}
+	}
+
+
+	/**
+	 * A message in the buffer, taken exactly once: either to be sent or to
+	 * be dropped.
+	 */
+	private static final class BufferedMessage {
+
+		final WebSocketMessage<?> message;
+
+		final long bufferTime = System.currentTimeMillis();
+
+		private final AtomicBoolean taken = new AtomicBoolean();
+
+		BufferedMessage(WebSocketMessage<?> message) {
+			this.message = message;
+		}
+
+		boolean take() {
+			return this.taken.compareAndSet(false, true);
+		}
+
+		boolean isTaken() {
+			return this.taken.get();
+		}
+	}
+
 }
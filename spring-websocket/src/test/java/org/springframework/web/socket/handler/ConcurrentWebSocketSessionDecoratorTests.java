@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2022 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowPolicy;
 import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,6 +55,7 @@ public class ConcurrentWebSocketSessionDecoratorTests {
 		assertThat(session.getSentMessages().get(0)).isEqualTo(textMessage);
 
 		assertThat(decorator.getBufferSize()).isEqualTo(0);
+		assertThat(decorator.getBufferedMessageCount()).isEqualTo(0);
 		assertThat(decorator.getTimeSinceSendStarted()).isEqualTo(0);
 		assertThat(session.isOpen()).isTrue();
 	}
@@ -79,6 +81,7 @@ public class ConcurrentWebSocketSessionDecoratorTests {
 
 		assertThat(decorator.getTimeSinceSendStarted() > 0).isTrue();
 		assertThat(decorator.getBufferSize()).isEqualTo((5 * payload.getPayloadLength()));
+		assertThat(decorator.getBufferedMessageCount()).isEqualTo(5);
 		assertThat(session.isOpen()).isTrue();
 	}
 
@@ -149,9 +152,57 @@ public class ConcurrentWebSocketSessionDecoratorTests {
 		}
 
 		assertThat(decorator.getBufferSize()).isEqualTo(1023);
+		assertThat(decorator.getBufferedMessageCount()).isEqualTo(1);
+		assertThat(decorator.getDroppedMessageCount()).isEqualTo(4);
 		assertThat(session.isOpen()).isTrue();
 	}
 
+	@Test
+	public void overflowPolicyCoalesce() throws IOException, InterruptedException {
+
+		BlockingWebSocketSession session = new BlockingWebSocketSession();
+		session.setId("123");
+		session.setOpen(true);
+
+		OverflowPolicy policy = OverflowPolicy.coalesce(message -> ((TextMessage) message).getPayload().charAt(0));
+		ConcurrentWebSocketSessionDecorator decorator =
+				new ConcurrentWebSocketSessionDecorator(session, 10*1000, 1024, policy);
+
+		sendBlockingMessage(decorator);
+
+		String msg = String.format("%511s", "");
+		decorator.sendMessage(new TextMessage("a" + msg));
+		decorator.sendMessage(new TextMessage("b" + msg));
+		assertThat(decorator.getBufferedMessageCount()).isEqualTo(2);
+
+		TextMessage latest = new TextMessage("a" + msg);
+		decorator.sendMessage(latest);
+
+		assertThat(decorator.getBufferSize()).isEqualTo(1024);
+		assertThat(decorator.getBufferedMessageCount()).isEqualTo(2);
+		assertThat(decorator.getDroppedMessageCount()).isEqualTo(1);
+		assertThat(session.isOpen()).isTrue();
+	}
+
+	@Test
+	public void oldestBufferedMessageAge() throws IOException, InterruptedException {
+
+		BlockingWebSocketSession session = new BlockingWebSocketSession();
+		session.setOpen(true);
+
+		ConcurrentWebSocketSessionDecorator decorator =
+				new ConcurrentWebSocketSessionDecorator(session, 10 * 1000, 1024);
+
+		sendBlockingMessage(decorator);
+		assertThat(decorator.getOldestBufferedMessageAge()).isEqualTo(0);
+
+		decorator.sendMessage(new TextMessage("payload"));
+		Thread.sleep(50);
+		decorator.sendMessage(new TextMessage("payload"));
+
+		assertThat(decorator.getOldestBufferedMessageAge()).isGreaterThanOrEqualTo(50);
+	}
+
 	@Test
 	public void closeStatusNormal() throws Exception {
 